@@ -17,6 +17,7 @@
 
 package org.kie.kogito.addon.cloudevents.quarkus;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 
 import javax.enterprise.context.ApplicationScoped;
@@ -47,9 +48,20 @@ public class QuarkusCloudEventEmitter implements CloudEventEmitter {
         this.messageDecorator = MessageDecoratorFactory.newInstance();
     }
 
+    /**
+     * Sends the event without waiting, the returned stage completes once the message is acknowledged
+     * or completes exceptionally if it is not
+     */
     public CompletionStage<Void> emit(String e) {
-        final Message<String> message = this.messageDecorator.decorate(e);
+        final CompletableFuture<Void> acknowledged = new CompletableFuture<>();
+        final Message<String> message = this.messageDecorator.decorate(e).withAck(() -> {
+            acknowledged.complete(null);
+            return CompletableFuture.completedFuture(null);
+        }).withNack(t -> {
+            acknowledged.completeExceptionally(t);
+            return CompletableFuture.completedFuture(null);
+        });
         emitter.send(message);
-        return message.getAck().get();
+        return acknowledged;
     }
 }
@@ -16,7 +16,9 @@
 
 package org.kie.kogito.cloudevents;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
 import java.net.URI;
 import java.net.URLEncoder;
@@ -27,6 +29,7 @@ import java.util.Optional;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -44,6 +47,8 @@ public class CloudEventUtils {
     public static final String UNKNOWN_SOURCE_URI_STRING = urlEncodedStringFrom("__UNKNOWN_SOURCE__")
             .orElseThrow(IllegalStateException::new);
 
+    private static final ThreadLocal<ReusableBuffer> BUFFER = ThreadLocal.withInitial(ReusableBuffer::new);
+
     public static <E> Optional<CloudEvent> build(String id, URI source, E data, Class<E> dataType) {
         return build(id, source, dataType.getName(), null, data);
     }
@@ -84,6 +89,75 @@ public class CloudEventUtils {
         }
     }
 
+    public static Optional<byte[]> encodeToBytes(CloudEvent event) {
+        try {
+            return Optional.of(Mapper.mapper().writeValueAsBytes(event));
+        } catch (JsonProcessingException e) {
+            LOG.error("Unable to encode CloudEvent", e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Encodes a CloudEvent in structured JSON mode straight from its data object, without building the intermediate
+     * {@link CloudEvent} and its serialized data. The output is decodable with {@link #decode(String)}.
+     * The encoding is written to a buffer reused by the calling thread, only the returned array is allocated.
+     */
+    public static Optional<byte[]> encodeToBytes(String id, URI source, String type, String subject, Object data, Extension... extensions) {
+        ReusableBuffer buffer = BUFFER.get();
+        try {
+            encode(buffer, id, source, type, subject, data, extensions);
+            return Optional.of(buffer.toByteArray());
+        } catch (IOException e) {
+            LOG.error("Unable to encode CloudEvent", e);
+            return Optional.empty();
+        } finally {
+            buffer.release();
+        }
+    }
+
+    /**
+     * Writes a CloudEvent in structured JSON mode straight from its data object to the given stream,
+     * the stream is flushed but not closed.
+     */
+    public static void encode(OutputStream out, String id, URI source, String type, String subject, Object data, Extension... extensions) throws IOException {
+        ObjectMapper mapper = Mapper.mapper();
+        try (JsonGenerator generator = mapper.createGenerator(out).disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+            generator.writeStartObject();
+            generator.writeStringField("specversion", "1.0");
+            generator.writeStringField("id", id);
+            generator.writeStringField("source", source.toString());
+            generator.writeStringField("type", type);
+            if (subject != null) {
+                generator.writeStringField("subject", subject);
+            }
+            if (extensions != null) {
+                for (Extension extension : extensions) {
+                    writeExtension(generator, extension);
+                }
+            }
+            generator.writeFieldName("data");
+            mapper.writeValue(generator, data);
+            generator.writeEndObject();
+        }
+    }
+
+    private static void writeExtension(JsonGenerator generator, Extension extension) throws IOException {
+        for (String key : extension.getKeys()) {
+            Object value = extension.getValue(key);
+            if (value == null) {
+                continue;
+            }
+            if (value instanceof Boolean) {
+                generator.writeBooleanField(key, (Boolean) value);
+            } else if (value instanceof Integer) {
+                generator.writeNumberField(key, (Integer) value);
+            } else {
+                generator.writeStringField(key, value.toString());
+            }
+        }
+    }
+
     public static Optional<CloudEvent> decode(String json) {
         try {
             return Optional.of(Mapper.mapper().readValue(json, CloudEvent.class));
@@ -165,6 +239,28 @@ public class CloudEventUtils {
         );
     }
 
+    // Byte buffer kept by each thread between encodings, oversized buffers are not retained
+    static class ReusableBuffer extends ByteArrayOutputStream {
+
+        static final int INITIAL_SIZE = 8 * 1024;
+        static final int MAX_RETAINED_SIZE = 1024 * 1024;
+
+        ReusableBuffer() {
+            super(INITIAL_SIZE);
+        }
+
+        void release() {
+            if (buf.length > MAX_RETAINED_SIZE) {
+                buf = new byte[INITIAL_SIZE];
+            }
+            reset();
+        }
+
+        int capacity() {
+            return buf.length;
+        }
+    }
+
     // This trick allows to inject a mocked ObjectMapper in the unit tests via Mockito#mockStatic
     static class Mapper {
 
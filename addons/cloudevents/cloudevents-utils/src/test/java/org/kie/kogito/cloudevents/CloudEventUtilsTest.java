@@ -19,6 +19,7 @@ package org.kie.kogito.cloudevents;
 import java.io.UnsupportedEncodingException;
 import java.net.URI;
 import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
 import java.util.Optional;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
@@ -31,6 +32,7 @@ import org.junit.jupiter.api.Test;
 import org.kie.kogito.cloudevents.extension.KogitoExtension;
 import org.mockito.MockedStatic;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -160,6 +162,33 @@ class CloudEventUtilsTest {
         );
     }
 
+    @Test
+    void testEncodeToBytesSuccess() {
+        Optional<byte[]> optBytes = CloudEventUtils.encodeToBytes(TEST_ID, TEST_URI, TEST_DATA_CLASS.getName(), TEST_SUBJECT, TEST_DATA, TEST_EXTENSION);
+        assertTrue(optBytes.isPresent());
+
+        Optional<CloudEvent> optCE = CloudEventUtils.decode(new String(optBytes.get(), StandardCharsets.UTF_8));
+        assertTrue(optCE.isPresent());
+        assertEquals(TEST_ID, optCE.get().getId());
+        assertEquals(TEST_URI, optCE.get().getSource());
+        assertEquals(TEST_SUBJECT, optCE.get().getSubject());
+        assertEquals(TEST_EXTENSION, ExtensionProvider.getInstance().parseExtension(KogitoExtension.class, optCE.get()));
+        assertEquals(TEST_DATA, CloudEventUtils.decodeData(optCE.get(), TEST_DATA_CLASS).orElse(null));
+    }
+
+    @Test
+    void testEncodeToBytesReusesBuffer() {
+        CloudEventUtils.ReusableBuffer buffer = new CloudEventUtils.ReusableBuffer();
+        buffer.write(new byte[CloudEventUtils.ReusableBuffer.MAX_RETAINED_SIZE + 1], 0, CloudEventUtils.ReusableBuffer.MAX_RETAINED_SIZE + 1);
+        buffer.release();
+        assertEquals(0, buffer.size());
+        assertEquals(CloudEventUtils.ReusableBuffer.INITIAL_SIZE, buffer.capacity());
+
+        byte[] first = CloudEventUtils.encodeToBytes(TEST_ID, TEST_URI, TEST_DATA_CLASS.getName(), null, TEST_DATA).orElseThrow(IllegalStateException::new);
+        byte[] second = CloudEventUtils.encodeToBytes(TEST_ID, TEST_URI, TEST_DATA_CLASS.getName(), null, TEST_DATA).orElseThrow(IllegalStateException::new);
+        assertArrayEquals(first, second);
+    }
+
     @Test
     void testDecodeSuccess() {
         assertTrue(CloudEventUtils.decode(TEST_CORRECT_JSON).isPresent());
@@ -15,17 +15,27 @@
 
 package org.kie.kogito.events.rm;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.kie.kogito.event.DataEvent;
 import org.kie.kogito.event.EventPublisher;
+import org.kie.kogito.events.rm.TopicEventBuffer.OverflowStrategy;
+import org.kie.kogito.events.rm.TopicEventBuffer.PendingEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -35,83 +45,249 @@ import com.fasterxml.jackson.databind.util.StdDateFormat;
 import org.eclipse.microprofile.reactive.messaging.Channel;
 import org.eclipse.microprofile.reactive.messaging.Emitter;
 
+/**
+ * Publishes the events of a unit of work to their topics without waiting for the downstream:
+ * events are serialised on the calling thread, as they refer to live process state, grouped
+ * per topic, buffered in bounded per topic buffers and sent by a dedicated thread as long as
+ * the downstream emitters have requests. When a buffer is full the configured overflow strategy applies.
+ */
 @Singleton
 public class ReactiveMessagingEventPublisher implements EventPublisher {
     private static final String PI_TOPIC_NAME = "kogito-processinstances-events";
     private static final String UI_TOPIC_NAME = "kogito-usertaskinstances-events";
     private static final String VI_TOPIC_NAME = "kogito-variables-events";
-    
+
+    private static final long IDLE_WAIT_MILLIS = 100;
+    private static final long NO_DEMAND_WAIT_MILLIS = 1;
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 5000;
+
     private static final Logger logger = LoggerFactory.getLogger(ReactiveMessagingEventPublisher.class);
     private ObjectMapper json = new ObjectMapper();
-    
+
     @Inject
     @Channel(PI_TOPIC_NAME)
     Emitter<String> processInstancesEventsEmitter;
-    
+
     @Inject
     @Channel(UI_TOPIC_NAME)
     Emitter<String> userTasksEventsEmitter;
-    
+
     @Inject
     @Channel(VI_TOPIC_NAME)
     Emitter<String> variablesEventsEmitter;
-    
+
     @Inject
     @ConfigProperty(name = "kogito.events.processinstances.enabled")
     Optional<Boolean> processInstancesEvents;
-    
+
     @Inject
     @ConfigProperty(name = "kogito.events.usertasks.enabled")
     Optional<Boolean> userTasksEvents;
-    
+
     @Inject
     @ConfigProperty(name = "kogito.events.variables.enabled")
     Optional<Boolean> variablesEvents;
-    
+
+    @Inject
+    @ConfigProperty(name = "kogito.events.buffer-size", defaultValue = "1024")
+    int bufferSize;
+
+    @Inject
+    @ConfigProperty(name = "kogito.events.overflow-strategy", defaultValue = "block")
+    String overflowStrategy;
+
+    @Inject
+    @ConfigProperty(name = "kogito.events.block-timeout", defaultValue = "1000")
+    long blockTimeoutMillis;
+
+    private final Map<String, TopicEventBuffer> buffers = new LinkedHashMap<>();
+    private final Object signal = new Object();
+    private boolean signalled;
+
+    private final AtomicLong publishedEvents = new AtomicLong();
+    private final AtomicLong droppedEvents = new AtomicLong();
+    private final AtomicLong publishLatencyNanos = new AtomicLong();
+
+    private volatile boolean running;
+    private volatile long drainDeadline;
+    private Thread sender;
+
     @PostConstruct
     public void configure() {
         json.setDateFormat(new StdDateFormat().withColonInTimeZone(true).withTimeZone(TimeZone.getDefault()));
+
+        OverflowStrategy strategy = OverflowStrategy.parse(overflowStrategy);
+        addBuffer(PI_TOPIC_NAME, processInstancesEventsEmitter, processInstancesEvents, strategy);
+        addBuffer(UI_TOPIC_NAME, userTasksEventsEmitter, userTasksEvents, strategy);
+        addBuffer(VI_TOPIC_NAME, variablesEventsEmitter, variablesEvents, strategy);
+
+        running = true;
+        sender = new Thread(this::sendEvents, "kogito-events-publisher");
+        sender.setDaemon(true);
+        sender.start();
     }
-    
+
+    @PreDestroy
+    public void close() {
+        drainDeadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(SHUTDOWN_TIMEOUT_MILLIS);
+        running = false;
+        synchronized (signal) {
+            signal.notifyAll();
+        }
+        if (sender != null) {
+            try {
+                sender.join(SHUTDOWN_TIMEOUT_MILLIS + IDLE_WAIT_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        for (TopicEventBuffer buffer : buffers.values()) {
+            int remaining = buffer.clear();
+            if (remaining > 0) {
+                droppedEvents.addAndGet(remaining);
+                logger.warn("Dropped {} events not sent to topic {} before shutdown", remaining, buffer.getTopic());
+            }
+        }
+    }
+
     @Override
     public void publish(DataEvent<?> event) {
-        if (event.getType().equals("ProcessInstanceEvent") && processInstancesEvents.orElse(true)) {
-            
-            publishToTopic(event, processInstancesEventsEmitter, PI_TOPIC_NAME);
-        } else if (event.getType().equals("UserTaskInstanceEvent") && userTasksEvents.orElse(true)) {
-            
-            publishToTopic(event, userTasksEventsEmitter, UI_TOPIC_NAME);
-        } else if (event.getType().equals("VariableInstanceEvent") && variablesEvents.orElse(true)) {
-            
-            publishToTopic(event, variablesEventsEmitter, VI_TOPIC_NAME);
-        } else {
-            logger.warn("Unknown type of event '{}', ignoring", event.getType());
-        }
-        
+        publish(Collections.singletonList(event));
     }
 
     @Override
     public void publish(Collection<DataEvent<?>> events) {
+        long publishedAt = System.nanoTime();
+        Map<TopicEventBuffer, List<String>> eventsPerTopic = new LinkedHashMap<>();
         for (DataEvent<?> event : events) {
-            publish(event);
+            TopicEventBuffer buffer = buffers.get(topicOf(event));
+            if (buffer == null) {
+                logger.warn("Unknown type of event '{}', ignoring", event.getType());
+                continue;
+            }
+            String payload = serialize(event, buffer.getTopic());
+            if (payload != null) {
+                eventsPerTopic.computeIfAbsent(buffer, b -> new ArrayList<>()).add(payload);
+            }
         }
-    }
 
-    
-    protected void publishToTopic(DataEvent<?> event, Emitter<String> emitter, String topic) {
-        if (emitter.hasRequests()) {
-            logger.debug("Emitter {} is not ready to send messages", topic);
+        for (Map.Entry<TopicEventBuffer, List<String>> entry : eventsPerTopic.entrySet()) {
+            int dropped = entry.getKey().add(entry.getValue(), publishedAt);
+            if (dropped > 0) {
+                droppedEvents.addAndGet(dropped);
+                logger.warn("Buffer of topic {} is full, dropped {} events", entry.getKey().getTopic(), dropped);
+            }
         }
-        
-        logger.debug("About to publish event {} to topic {}", event, topic);
+
+        if (!eventsPerTopic.isEmpty()) {
+            synchronized (signal) {
+                signalled = true;
+                signal.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Number of events sent to their topic
+     */
+    public long getPublishedEvents() {
+        return publishedEvents.get();
+    }
+
+    /**
+     * Number of events dropped because their topic buffer was full
+     */
+    public long getDroppedEvents() {
+        return droppedEvents.get();
+    }
+
+    /**
+     * Mean time in milliseconds between the publication of an event and its sending to the topic
+     */
+    public double getMeanPublishLatencyMillis() {
+        long published = publishedEvents.get();
+        return published == 0 ? 0 : (double) publishLatencyNanos.get() / published / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    protected String serialize(DataEvent<?> event, String topic) {
         try {
             String eventString = json.writeValueAsString(event);
-            logger.debug("Event payload '{}'", eventString);
+            logger.trace("Event payload '{}'", eventString);
+            return eventString;
+        } catch (Exception e) {
+            logger.error("Error while serializing event to topic {} for event {}", topic, event, e);
+            return null;
+        }
+    }
 
-            emitter.send(eventString);
-            logger.debug("Successfully published event {} to topic {}", event, topic);
+    protected void publishToTopic(String payload, Emitter<String> emitter, String topic) {
+        try {
+            emitter.send(payload);
+            logger.debug("Successfully published event to topic {}", topic);
         } catch (Exception e) {
-            logger.error("Error while publishing event to topic {} for event {}", topic, event, e);
-        }  
+            logger.error("Error while publishing event to topic {}", topic, e);
+        }
+    }
+
+    private void addBuffer(String topic, Emitter<String> emitter, Optional<Boolean> enabled, OverflowStrategy strategy) {
+        if (enabled.orElse(true)) {
+            buffers.put(topic, new TopicEventBuffer(topic, emitter, bufferSize, strategy, blockTimeoutMillis));
+        }
+    }
+
+    private String topicOf(DataEvent<?> event) {
+        switch (event.getType()) {
+            case "ProcessInstanceEvent":
+                return PI_TOPIC_NAME;
+            case "UserTaskInstanceEvent":
+                return UI_TOPIC_NAME;
+            case "VariableInstanceEvent":
+                return VI_TOPIC_NAME;
+            default:
+                return null;
+        }
+    }
+
+    private void sendEvents() {
+        boolean pending = false;
+        // once stopped, keeps sending the buffered events until the drain deadline
+        while (running || (pending && System.nanoTime() - drainDeadline < 0)) {
+            boolean sent = false;
+            pending = false;
+            for (TopicEventBuffer buffer : buffers.values()) {
+                sent |= sendBuffered(buffer);
+                pending |= !buffer.isEmpty();
+            }
+            if (!sent) {
+                waitForEvents(pending ? NO_DEMAND_WAIT_MILLIS : IDLE_WAIT_MILLIS);
+            }
+        }
+    }
+
+    private boolean sendBuffered(TopicEventBuffer buffer) {
+        int sent = 0;
+        PendingEvent pending;
+        while (sent < bufferSize && (pending = buffer.next()) != null) {
+            publishToTopic(pending.payload, buffer.getEmitter(), buffer.getTopic());
+            publishedEvents.incrementAndGet();
+            publishLatencyNanos.addAndGet(System.nanoTime() - pending.publishedAt);
+            sent++;
+        }
+        return sent > 0;
+    }
+
+    private void waitForEvents(long millis) {
+        synchronized (signal) {
+            try {
+                if (!signalled) {
+                    signal.wait(millis);
+                }
+                signalled = false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+                drainDeadline = System.nanoTime();
+            }
+        }
     }
 }
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.events.rm;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.microprofile.reactive.messaging.Emitter;
+
+/**
+ * Bounded buffer of the serialised events waiting to be sent to a topic, until its emitter has requests
+ */
+class TopicEventBuffer {
+
+    /**
+     * What to do with an event published while the buffer is full
+     */
+    enum OverflowStrategy {
+        /** waits for room in the buffer, up to the block timeout, then drops the published event */
+        BLOCK,
+        /** drops the published event */
+        DROP_NEWEST,
+        /** drops the oldest buffered event */
+        DROP_OLDEST;
+
+        static OverflowStrategy parse(String value) {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+        }
+    }
+
+    private final String topic;
+    private final Emitter<String> emitter;
+    private final OverflowStrategy overflowStrategy;
+    private final long blockTimeoutNanos;
+    private final BlockingQueue<PendingEvent> queue;
+
+    TopicEventBuffer(String topic, Emitter<String> emitter, int size, OverflowStrategy overflowStrategy, long blockTimeoutMillis) {
+        this.topic = topic;
+        this.emitter = emitter;
+        this.overflowStrategy = overflowStrategy;
+        this.blockTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(blockTimeoutMillis);
+        this.queue = new ArrayBlockingQueue<>(Math.max(size, 1));
+    }
+
+    String getTopic() {
+        return topic;
+    }
+
+    Emitter<String> getEmitter() {
+        return emitter;
+    }
+
+    /**
+     * Adds the serialised events to the buffer, when blocking the timeout applies to all of them
+     * @return the number of events dropped
+     */
+    int add(Collection<String> payloads, long publishedAt) {
+        int dropped = 0;
+        long deadline = System.nanoTime() + blockTimeoutNanos;
+        for (String payload : payloads) {
+            PendingEvent pending = new PendingEvent(payload, publishedAt);
+            switch (overflowStrategy) {
+                case DROP_NEWEST:
+                    if (!queue.offer(pending)) {
+                        dropped++;
+                    }
+                    break;
+                case DROP_OLDEST:
+                    while (!queue.offer(pending)) {
+                        if (queue.poll() != null) {
+                            dropped++;
+                        }
+                    }
+                    break;
+                default:
+                    if (!offer(pending, deadline)) {
+                        dropped++;
+                    }
+            }
+        }
+        return dropped;
+    }
+
+    /**
+     * Returns the next event to send if the emitter has requests
+     */
+    PendingEvent next() {
+        return emitter.hasRequests() ? queue.poll() : null;
+    }
+
+    boolean isEmpty() {
+        return queue.isEmpty();
+    }
+
+    /**
+     * Removes all the buffered events
+     * @return the number of events removed
+     */
+    int clear() {
+        List<PendingEvent> removed = new ArrayList<>();
+        queue.drainTo(removed);
+        return removed.size();
+    }
+
+    private boolean offer(PendingEvent pending, long deadline) {
+        try {
+            return queue.offer(pending, Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    static class PendingEvent {
+
+        final String payload;
+        final long publishedAt;
+
+        private PendingEvent(String payload, long publishedAt) {
+            this.payload = payload;
+            this.publishedAt = publishedAt;
+        }
+    }
+}
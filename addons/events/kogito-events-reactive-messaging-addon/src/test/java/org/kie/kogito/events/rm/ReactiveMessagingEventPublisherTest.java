@@ -0,0 +1,137 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.events.rm;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+import org.eclipse.microprofile.reactive.messaging.Emitter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kie.kogito.event.AbstractDataEvent;
+import org.kie.kogito.event.DataEvent;
+import org.mockito.ArgumentCaptor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ReactiveMessagingEventPublisherTest {
+
+    private final AtomicBoolean demand = new AtomicBoolean();
+    private Emitter<String> processInstancesEmitter;
+    private Emitter<String> userTasksEmitter;
+    private ReactiveMessagingEventPublisher publisher;
+
+    @BeforeEach
+    public void setup() {
+        processInstancesEmitter = emitter();
+        userTasksEmitter = emitter();
+
+        publisher = new ReactiveMessagingEventPublisher();
+        publisher.processInstancesEventsEmitter = processInstancesEmitter;
+        publisher.userTasksEventsEmitter = userTasksEmitter;
+        publisher.variablesEventsEmitter = emitter();
+        publisher.processInstancesEvents = Optional.empty();
+        publisher.userTasksEvents = Optional.empty();
+        publisher.variablesEvents = Optional.of(false);
+        publisher.bufferSize = 3;
+        publisher.overflowStrategy = "drop-newest";
+        publisher.blockTimeoutMillis = 0;
+        publisher.configure();
+    }
+
+    @AfterEach
+    public void cleanup() {
+        publisher.close();
+    }
+
+    @Test
+    public void testEventsSentInOrderOnceThereIsDemand() throws Exception {
+        List<DataEvent<?>> events = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            events.add(new TestEvent("ProcessInstanceEvent", "pi-" + i));
+            events.add(new TestEvent("UserTaskInstanceEvent", "ut-" + i));
+        }
+        events.add(new TestEvent("VariableInstanceEvent", "vi"));
+
+        publisher.publish(events);
+
+        // no demand yet, nothing sent and one event per topic dropped as the buffers hold three
+        Thread.sleep(50);
+        verify(processInstancesEmitter, never()).send(anyString());
+        verify(userTasksEmitter, never()).send(anyString());
+        assertThat(publisher.getDroppedEvents()).isEqualTo(2);
+
+        demand.set(true);
+        waitUntil(() -> publisher.getPublishedEvents() == 6);
+
+        assertThat(sent(processInstancesEmitter)).containsExactly("pi-0", "pi-1", "pi-2");
+        assertThat(sent(userTasksEmitter)).containsExactly("ut-0", "ut-1", "ut-2");
+        assertThat(publisher.getMeanPublishLatencyMillis()).isPositive();
+    }
+
+    @Test
+    public void testEventsNotSentBeforeShutdownAreDropped() {
+        publisher.publish(new TestEvent("ProcessInstanceEvent", "pi"));
+
+        publisher.close();
+
+        verify(processInstancesEmitter, never()).send(anyString());
+        assertThat(publisher.getPublishedEvents()).isZero();
+        assertThat(publisher.getDroppedEvents()).isEqualTo(1);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Emitter<String> emitter() {
+        Emitter<String> emitter = mock(Emitter.class);
+        when(emitter.hasRequests()).then(invocation -> demand.get());
+        return emitter;
+    }
+
+    private static List<String> sent(Emitter<String> emitter) {
+        ArgumentCaptor<String> payloads = ArgumentCaptor.forClass(String.class);
+        verify(emitter, atLeastOnce()).send(payloads.capture());
+        return payloads.getAllValues().stream()
+                .map(payload -> payload.replaceAll(".*\"data\":\"([^\"]*)\".*", "$1"))
+                .collect(Collectors.toList());
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+
+    private static class TestEvent extends AbstractDataEvent<String> {
+
+        TestEvent(String type, String data) {
+            super(type, "source", data, "pi", null, "process", null, null);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.events.rm;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.microprofile.reactive.messaging.Emitter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kie.kogito.events.rm.TopicEventBuffer.OverflowStrategy;
+import org.kie.kogito.events.rm.TopicEventBuffer.PendingEvent;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TopicEventBufferTest {
+
+    private Emitter<String> emitter;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        emitter = mock(Emitter.class);
+        when(emitter.hasRequests()).thenReturn(true);
+    }
+
+    @Test
+    public void testParseOverflowStrategy() {
+        assertThat(OverflowStrategy.parse("block")).isEqualTo(OverflowStrategy.BLOCK);
+        assertThat(OverflowStrategy.parse("drop-newest")).isEqualTo(OverflowStrategy.DROP_NEWEST);
+        assertThat(OverflowStrategy.parse(" DROP_OLDEST ")).isEqualTo(OverflowStrategy.DROP_OLDEST);
+    }
+
+    @Test
+    public void testBlockWaitsUpToTimeoutThenDrops() {
+        TopicEventBuffer buffer = new TopicEventBuffer("topic", emitter, 2, OverflowStrategy.BLOCK, 50);
+
+        long start = System.currentTimeMillis();
+        assertThat(buffer.add(asList("1", "2", "3", "4"), System.nanoTime())).isEqualTo(2);
+        // the timeout applies to the whole batch, not to each event
+        assertThat(System.currentTimeMillis() - start).isBetween(50L, 1000L);
+        assertThat(drain(buffer)).containsExactly("1", "2");
+    }
+
+    @Test
+    public void testDropNewest() {
+        TopicEventBuffer buffer = new TopicEventBuffer("topic", emitter, 2, OverflowStrategy.DROP_NEWEST, 0);
+
+        assertThat(buffer.add(asList("1", "2", "3"), System.nanoTime())).isEqualTo(1);
+        assertThat(drain(buffer)).containsExactly("1", "2");
+    }
+
+    @Test
+    public void testDropOldest() {
+        TopicEventBuffer buffer = new TopicEventBuffer("topic", emitter, 2, OverflowStrategy.DROP_OLDEST, 0);
+
+        assertThat(buffer.add(asList("1", "2", "3"), System.nanoTime())).isEqualTo(1);
+        assertThat(drain(buffer)).containsExactly("2", "3");
+    }
+
+    @Test
+    public void testNoEventWithoutDemand() {
+        TopicEventBuffer buffer = new TopicEventBuffer("topic", emitter, 2, OverflowStrategy.BLOCK, 0);
+        buffer.add(asList("1", "2"), System.nanoTime());
+
+        when(emitter.hasRequests()).thenReturn(false);
+        assertThat(buffer.next()).isNull();
+        assertThat(buffer.isEmpty()).isFalse();
+
+        assertThat(buffer.clear()).isEqualTo(2);
+        assertThat(buffer.isEmpty()).isTrue();
+    }
+
+    private static List<String> drain(TopicEventBuffer buffer) {
+        List<String> payloads = new ArrayList<>();
+        PendingEvent pending;
+        while ((pending = buffer.next()) != null) {
+            payloads.add(pending.payload);
+        }
+        return payloads;
+    }
+}
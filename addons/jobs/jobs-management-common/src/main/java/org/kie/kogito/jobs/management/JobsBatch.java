@@ -0,0 +1,100 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.jobs.management;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.kie.kogito.jobs.api.Job;
+
+/**
+ * Jobs to be scheduled and job ids to be cancelled, sent to the Jobs Service in a single bulk request.
+ * <br/>
+ * Each operation replaces the previous one on the same job: a job cancelled in the same batch it was scheduled in
+ * never reaches the Jobs Service, and a job scheduled again after being cancelled is only scheduled.
+ * A job is then either scheduled or cancelled, so schedules and cancellations can be applied in any order.
+ */
+public class JobsBatch {
+
+    private final Map<String, Job> scheduled = new LinkedHashMap<>();
+    private final List<String> cancelled = new ArrayList<>();
+
+    public void schedule(Job job) {
+        cancelled.remove(job.getId());
+        scheduled.put(job.getId(), job);
+    }
+
+    public void cancel(String id) {
+        if (scheduled.remove(id) == null && !cancelled.contains(id)) {
+            cancelled.add(id);
+        }
+    }
+
+    public Collection<Job> getScheduled() {
+        return scheduled.values();
+    }
+
+    public List<String> getCancelled() {
+        return cancelled;
+    }
+
+    public int size() {
+        return scheduled.size() + cancelled.size();
+    }
+
+    @JsonIgnore
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Splits the batch into batches holding at most the given number of operations, schedules first
+     */
+    public List<JobsBatch> split(int maxSize) {
+        if (size() <= maxSize) {
+            return Collections.singletonList(this);
+        }
+        List<JobsBatch> batches = new ArrayList<>();
+        JobsBatch current = new JobsBatch();
+        for (Job job : scheduled.values()) {
+            if (current.size() == maxSize) {
+                batches.add(current);
+                current = new JobsBatch();
+            }
+            current.scheduled.put(job.getId(), job);
+        }
+        for (String id : cancelled) {
+            if (current.size() == maxSize) {
+                batches.add(current);
+                current = new JobsBatch();
+            }
+            current.cancelled.add(id);
+        }
+        batches.add(current);
+        return batches;
+    }
+
+    @Override
+    public String toString() {
+        return "JobsBatch [scheduled=" + scheduled.keySet() + ", cancelled=" + cancelled + "]";
+    }
+}
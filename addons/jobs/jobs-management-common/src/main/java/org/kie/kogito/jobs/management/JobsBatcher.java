@@ -0,0 +1,211 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.jobs.management;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.kie.kogito.jobs.api.Job;
+import org.kie.kogito.uow.UnitOfWork;
+import org.kie.kogito.uow.UnitOfWorkManager;
+import org.kie.kogito.uow.WorkUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Collects job schedules and cancellations into {@link JobsBatch}es handed over to a sender.
+ * <br/>
+ * Operations performed within a unit of work are sent together when the unit of work ends and discarded
+ * when it is aborted. Operations performed outside of a unit of work are kept for at most the linger time,
+ * or until the max batch size is reached, before being sent.
+ */
+public class JobsBatcher implements AutoCloseable {
+
+    public static final int DEFAULT_MAX_BATCH_SIZE = 1;
+    public static final long DEFAULT_LINGER_MILLIS = 0L;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JobsBatcher.class);
+
+    private final int maxBatchSize;
+    private final long lingerMillis;
+    private final Supplier<UnitOfWorkManager> unitOfWorkManager;
+    private final Consumer<JobsBatch> sender;
+    private final ThreadLocal<PendingBatch> unitOfWorkBatch = new ThreadLocal<>();
+    private final ScheduledExecutorService scheduler;
+
+    private JobsBatch lingering;
+    private ScheduledFuture<?> flushTask;
+
+    /**
+     * @param maxBatchSize max number of operations sent in one batch, 1 or less disables batching
+     * @param lingerMillis max time operations performed outside of a unit of work wait for other ones
+     * @param unitOfWorkManager supplies the manager of the units of work to join, it might supply null
+     * @param sender sends a batch to the Jobs Service
+     */
+    public JobsBatcher(int maxBatchSize, long lingerMillis, Supplier<UnitOfWorkManager> unitOfWorkManager, Consumer<JobsBatch> sender) {
+        this.maxBatchSize = Math.max(maxBatchSize, 1);
+        this.lingerMillis = Math.max(lingerMillis, 0L);
+        this.unitOfWorkManager = unitOfWorkManager;
+        this.sender = sender;
+        this.scheduler = isEnabled() && this.lingerMillis > 0 ? Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "kogito-jobs-batcher");
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
+    }
+
+    public boolean isEnabled() {
+        return maxBatchSize > 1;
+    }
+
+    public void schedule(Job job) {
+        add(batch -> batch.schedule(job));
+    }
+
+    public void cancel(String id) {
+        add(batch -> batch.cancel(id));
+    }
+
+    /**
+     * Sends the operations waiting for the linger time to expire
+     */
+    public void flush() {
+        JobsBatch batch;
+        synchronized (this) {
+            batch = takeLingering();
+        }
+        send(batch);
+    }
+
+    @Override
+    public void close() {
+        flush();
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private void add(Consumer<JobsBatch> operation) {
+        UnitOfWork unitOfWork = currentUnitOfWork();
+        if (unitOfWork == null) {
+            linger(operation);
+            return;
+        }
+        PendingBatch pending = unitOfWorkBatch.get();
+        if (pending != null && pending.unitOfWork == unitOfWork) {
+            operation.accept(pending.batch);
+            return;
+        }
+        pending = new PendingBatch(unitOfWork);
+        operation.accept(pending.batch);
+        unitOfWorkBatch.set(pending);
+        pending.registering = true;
+        try {
+            unitOfWork.intercept(WorkUnit.create(pending, this::commit, this::discard));
+        } finally {
+            pending.registering = false;
+        }
+    }
+
+    private UnitOfWork currentUnitOfWork() {
+        UnitOfWorkManager manager = unitOfWorkManager == null ? null : unitOfWorkManager.get();
+        return manager == null ? null : manager.currentUnitOfWork();
+    }
+
+    private void commit(PendingBatch pending) {
+        release(pending);
+        if (pending.registering) {
+            // the unit of work performed the work right away, there is no transaction to join
+            linger(batch -> {
+                pending.batch.getScheduled().forEach(batch::schedule);
+                pending.batch.getCancelled().forEach(batch::cancel);
+            });
+        } else {
+            send(pending.batch);
+        }
+    }
+
+    private void discard(PendingBatch pending) {
+        release(pending);
+        LOGGER.debug("Discarding {} on abort of the unit of work", pending.batch);
+    }
+
+    private void release(PendingBatch pending) {
+        if (unitOfWorkBatch.get() == pending) {
+            unitOfWorkBatch.remove();
+        }
+    }
+
+    private void linger(Consumer<JobsBatch> operation) {
+        JobsBatch full = null;
+        synchronized (this) {
+            if (lingering == null) {
+                lingering = new JobsBatch();
+            }
+            operation.accept(lingering);
+            if (scheduler == null || lingering.size() >= maxBatchSize) {
+                full = takeLingering();
+            } else if (flushTask == null) {
+                flushTask = scheduler.schedule(this::flushLingering, lingerMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+        send(full);
+    }
+
+    private void flushLingering() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            LOGGER.error("Unable to send jobs to the Jobs Service", e);
+        }
+    }
+
+    private JobsBatch takeLingering() {
+        JobsBatch batch = lingering;
+        lingering = null;
+        if (flushTask != null) {
+            flushTask.cancel(false);
+            flushTask = null;
+        }
+        return batch;
+    }
+
+    private void send(JobsBatch batch) {
+        if (batch == null || batch.isEmpty()) {
+            return;
+        }
+        for (JobsBatch chunk : batch.split(maxBatchSize)) {
+            LOGGER.debug("Sending {}", chunk);
+            sender.accept(chunk);
+        }
+    }
+
+    private static class PendingBatch {
+
+        private final UnitOfWork unitOfWork;
+        private final JobsBatch batch = new JobsBatch();
+        private boolean registering;
+
+        private PendingBatch(UnitOfWork unitOfWork) {
+            this.unitOfWork = unitOfWork;
+        }
+    }
+}
@@ -18,6 +18,7 @@ package org.kie.kogito.jobs.management;
 
 import java.net.URI;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.kie.kogito.jobs.JobsService;
 import org.kie.kogito.jobs.ProcessInstanceJobDescription;
@@ -30,8 +31,12 @@ public abstract class RestJobsService implements JobsService {
     @SuppressWarnings("squid:S1075")
     public static final String JOBS_PATH = "/jobs";
 
+    @SuppressWarnings("squid:S1075")
+    public static final String JOBS_BULK_PATH = JOBS_PATH + "/bulk";
+
     private URI jobsServiceUri;
     private String callbackEndpoint;
+    private final AtomicBoolean bulkSupported = new AtomicBoolean(true);
 
     public RestJobsService(String jobServiceUrl, String callbackEndpoint) {
         this.jobsServiceUri = Objects.nonNull(jobServiceUrl) ? buildJobsServiceURI(jobServiceUrl) : null;
@@ -57,6 +62,26 @@ public abstract class RestJobsService implements JobsService {
         return jobsServiceUri;
     }
 
+    /**
+     * Returns false once the Jobs Service answered a bulk request saying it does not support it,
+     * batches are then sent one job at a time
+     */
+    public boolean isBulkSupported() {
+        return bulkSupported.get();
+    }
+
+    /**
+     * Checks the status code answered to a bulk request, recording whether the Jobs Service supports it
+     * @return true if the Jobs Service does not support bulk requests
+     */
+    protected boolean bulkNotSupported(int statusCode) {
+        if (statusCode == 404 || statusCode == 405 || statusCode == 501) {
+            bulkSupported.set(false);
+            return true;
+        }
+        return false;
+    }
+
     public Job buildJob(ProcessInstanceJobDescription description, String callback) {
         return JobBuilder.builder()
                 .id(description.id())
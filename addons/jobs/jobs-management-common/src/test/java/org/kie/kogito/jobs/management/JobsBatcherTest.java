@@ -0,0 +1,206 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.jobs.management;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kie.kogito.event.EventManager;
+import org.kie.kogito.jobs.api.Job;
+import org.kie.kogito.jobs.api.JobBuilder;
+import org.kie.kogito.uow.UnitOfWork;
+import org.kie.kogito.uow.UnitOfWorkManager;
+import org.kie.kogito.uow.WorkUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JobsBatcherTest {
+
+    private List<JobsBatch> sent;
+    private TestUnitOfWorkManager unitOfWorkManager;
+
+    @BeforeEach
+    public void setup() {
+        sent = new CopyOnWriteArrayList<>();
+        unitOfWorkManager = new TestUnitOfWorkManager();
+    }
+
+    @Test
+    public void testUnitOfWorkSentAtEnd() {
+        JobsBatcher batcher = new JobsBatcher(10, 0L, () -> unitOfWorkManager, sent::add);
+        unitOfWorkManager.current = new TestUnitOfWork(false);
+
+        batcher.schedule(job("1"));
+        batcher.schedule(job("2"));
+        batcher.cancel("3");
+        batcher.cancel("2");
+        assertThat(sent).isEmpty();
+
+        unitOfWorkManager.current.end();
+        assertThat(sent).hasSize(1);
+        assertThat(ids(sent.get(0))).containsExactly("1");
+        assertThat(sent.get(0).getCancelled()).containsExactly("3");
+    }
+
+    @Test
+    public void testScheduleAfterCancelKeepsSchedule() {
+        JobsBatcher batcher = new JobsBatcher(10, 0L, () -> unitOfWorkManager, sent::add);
+        unitOfWorkManager.current = new TestUnitOfWork(false);
+
+        batcher.cancel("1");
+        batcher.schedule(job("1"));
+        batcher.cancel("2");
+        batcher.cancel("2");
+
+        unitOfWorkManager.current.end();
+        assertThat(sent).hasSize(1);
+        assertThat(ids(sent.get(0))).containsExactly("1");
+        assertThat(sent.get(0).getCancelled()).containsExactly("2");
+    }
+
+    @Test
+    public void testUnitOfWorkSplitByMaxBatchSize() {
+        JobsBatcher batcher = new JobsBatcher(2, 0L, () -> unitOfWorkManager, sent::add);
+        unitOfWorkManager.current = new TestUnitOfWork(false);
+
+        batcher.schedule(job("1"));
+        batcher.schedule(job("2"));
+        batcher.schedule(job("3"));
+        batcher.cancel("4");
+        unitOfWorkManager.current.end();
+
+        assertThat(sent).hasSize(2);
+        assertThat(ids(sent.get(0))).containsExactly("1", "2");
+        assertThat(ids(sent.get(1))).containsExactly("3");
+        assertThat(sent.get(1).getCancelled()).containsExactly("4");
+    }
+
+    @Test
+    public void testUnitOfWorkAbortDiscards() {
+        JobsBatcher batcher = new JobsBatcher(10, 0L, () -> unitOfWorkManager, sent::add);
+        unitOfWorkManager.current = new TestUnitOfWork(false);
+        batcher.schedule(job("1"));
+        unitOfWorkManager.current.abort();
+
+        unitOfWorkManager.current = new TestUnitOfWork(false);
+        batcher.schedule(job("2"));
+        unitOfWorkManager.current.end();
+
+        assertThat(sent).hasSize(1);
+        assertThat(ids(sent.get(0))).containsExactly("2");
+    }
+
+    @Test
+    public void testLingerWithoutUnitOfWork() throws InterruptedException {
+        try (JobsBatcher batcher = new JobsBatcher(3, 100L, () -> null, sent::add)) {
+            batcher.schedule(job("1"));
+            batcher.schedule(job("2"));
+            batcher.schedule(job("3"));
+            assertThat(sent).hasSize(1);
+
+            batcher.cancel("4");
+            assertThat(sent).hasSize(1);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (sent.size() < 2 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertThat(sent).hasSize(2);
+            assertThat(sent.get(1).getCancelled()).containsExactly("4");
+        }
+    }
+
+    @Test
+    public void testPassThroughUnitOfWorkLingers() {
+        unitOfWorkManager.current = new TestUnitOfWork(true);
+        JobsBatcher batcher = new JobsBatcher(10, 60_000L, () -> unitOfWorkManager, sent::add);
+        batcher.schedule(job("1"));
+        batcher.schedule(job("2"));
+        assertThat(sent).isEmpty();
+
+        batcher.close();
+        assertThat(sent).hasSize(1);
+        assertThat(ids(sent.get(0))).containsExactly("1", "2");
+    }
+
+    private static Job job(String id) {
+        return JobBuilder.builder().id(id).build();
+    }
+
+    private static List<String> ids(JobsBatch batch) {
+        return batch.getScheduled().stream().map(Job::getId).collect(Collectors.toList());
+    }
+
+    private static class TestUnitOfWorkManager implements UnitOfWorkManager {
+
+        private TestUnitOfWork current;
+
+        @Override
+        public UnitOfWork currentUnitOfWork() {
+            return current;
+        }
+
+        @Override
+        public UnitOfWork newUnitOfWork() {
+            return new TestUnitOfWork(false);
+        }
+
+        @Override
+        public EventManager eventManager() {
+            return null;
+        }
+    }
+
+    private static class TestUnitOfWork implements UnitOfWork {
+
+        private final boolean passThrough;
+        private final List<WorkUnit<?>> units = new ArrayList<>();
+
+        private TestUnitOfWork(boolean passThrough) {
+            this.passThrough = passThrough;
+        }
+
+        @Override
+        public void start() {
+        }
+
+        @Override
+        public void end() {
+            units.forEach(WorkUnit::perform);
+            units.clear();
+        }
+
+        @Override
+        public void abort() {
+            units.forEach(WorkUnit::abort);
+            units.clear();
+        }
+
+        @Override
+        public void intercept(WorkUnit work) {
+            if (passThrough) {
+                work.perform();
+            } else {
+                units.add(work);
+            }
+        }
+    }
+}
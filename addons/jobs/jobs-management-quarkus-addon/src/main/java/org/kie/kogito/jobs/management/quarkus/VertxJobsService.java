@@ -21,6 +21,7 @@ import java.time.ZonedDateTime;
 import java.util.concurrent.CompletableFuture;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.inject.Instance;
 import javax.inject.Inject;
@@ -32,10 +33,13 @@ import io.vertx.core.json.jackson.DatabindCodec;
 import io.vertx.ext.web.client.WebClient;
 import io.vertx.ext.web.client.WebClientOptions;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.kie.kogito.Application;
 import org.kie.kogito.jobs.ProcessInstanceJobDescription;
 import org.kie.kogito.jobs.ProcessJobDescription;
 import org.kie.kogito.jobs.api.Job;
 import org.kie.kogito.jobs.api.JobNotFoundException;
+import org.kie.kogito.jobs.management.JobsBatch;
+import org.kie.kogito.jobs.management.JobsBatcher;
 import org.kie.kogito.jobs.management.RestJobsService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -51,14 +55,30 @@ public class VertxJobsService extends RestJobsService {
 
     private WebClient client;
 
+    private JobsBatcher batcher;
+
     @Inject
     public VertxJobsService(@ConfigProperty(name = "kogito.jobs-service.url") String jobServiceUrl,
                             @ConfigProperty(name = "kogito.service.url") String callbackEndpoint,
+                            @ConfigProperty(name = "kogito.jobs-service.batch.size", defaultValue = "1") int batchSize,
+                            @ConfigProperty(name = "kogito.jobs-service.batch.linger", defaultValue = "0") long batchLingerMillis,
                             Vertx vertx,
-                            Instance<WebClient> providedWebClient) {
+                            Instance<WebClient> providedWebClient,
+                            Instance<Application> application) {
         super(jobServiceUrl, callbackEndpoint);
         this.vertx = vertx;
         this.providedWebClient = providedWebClient;
+        // the application is looked up lazily since it depends on the jobs service
+        this.batcher = new JobsBatcher(batchSize, batchLingerMillis,
+                                       () -> application != null && application.isResolvable() ? application.get().unitOfWorkManager() : null,
+                                       this::send);
+    }
+
+    public VertxJobsService(String jobServiceUrl,
+                            String callbackEndpoint,
+                            Vertx vertx,
+                            Instance<WebClient> providedWebClient) {
+        this(jobServiceUrl, callbackEndpoint, JobsBatcher.DEFAULT_MAX_BATCH_SIZE, JobsBatcher.DEFAULT_LINGER_MILLIS, vertx, providedWebClient, null);
     }
 
     VertxJobsService() {
@@ -90,6 +110,11 @@ public class VertxJobsService extends RestJobsService {
         }
     }
 
+    @PreDestroy
+    void close() {
+        batcher.close();
+    }
+
     @Override
     public String scheduleProcessJob(ProcessJobDescription description) {
 
@@ -101,6 +126,47 @@ public class VertxJobsService extends RestJobsService {
         String callback = getCallbackEndpoint(description);
         LOGGER.debug("Job to be scheduled {} with callback URL {}", description, callback);
         final Job job = buildJob(description, callback);
+        if (batcher.isEnabled()) {
+            batcher.schedule(job);
+        } else {
+            schedule(job);
+        }
+        return job.getId();
+    }
+
+    @Override
+    public boolean cancelJob(String id) {
+        if (batcher.isEnabled()) {
+            batcher.cancel(id);
+        } else {
+            cancel(id);
+        }
+        return true;
+    }
+
+    private void send(JobsBatch batch) {
+        if (!isBulkSupported()) {
+            sendOneByOne(batch);
+            return;
+        }
+        client.post(JOBS_BULK_PATH).sendJson(batch, res -> {
+            if (res.succeeded() && res.result().statusCode() == 200) {
+                LOGGER.debug("Sending of {} done with status code {} ", batch, res.result().statusCode());
+            } else if (res.succeeded() && bulkNotSupported(res.result().statusCode())) {
+                LOGGER.info("Jobs Service does not support bulk requests, sending jobs one by one");
+                sendOneByOne(batch);
+            } else {
+                LOGGER.error("Sending of {} failed with response code {}", batch, res.succeeded() ? res.result().statusCode() : null, res.cause());
+            }
+        });
+    }
+
+    private void sendOneByOne(JobsBatch batch) {
+        batch.getScheduled().forEach(this::schedule);
+        batch.getCancelled().forEach(this::cancel);
+    }
+
+    private void schedule(Job job) {
         client.post(JOBS_PATH).sendJson(job, res -> {
             if (res.succeeded() && res.result().statusCode() == 200) {
                 LOGGER.debug("Creating of the job {} done with status code {} ", job, res.result().statusCode());
@@ -108,11 +174,9 @@ public class VertxJobsService extends RestJobsService {
                 LOGGER.error("Scheduling of job {} failed with response code {}", job, res.result().statusCode(), res.cause());
             }
         });
-        return job.getId();
     }
 
-    @Override
-    public boolean cancelJob(String id) {
+    private void cancel(String id) {
         client.delete(JOBS_PATH + "/" + id).send(res -> {
             if (res.succeeded() && (res.result().statusCode() == 200 || res.result().statusCode() == 404)) {
                 LOGGER.debug("Canceling of the job {} done with status code {} ", id, res.result().statusCode());
@@ -120,8 +184,6 @@ public class VertxJobsService extends RestJobsService {
                 LOGGER.error("Canceling of job {} failed with response code {}", id, res.result().statusCode(), res.cause());
             }
         });
-
-        return true;
     }
 
     @Override
@@ -25,6 +25,7 @@ import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -40,11 +41,14 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 import org.junit.jupiter.api.TestInstance.Lifecycle;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.kie.kogito.jobs.ExactExpirationTime;
 import org.kie.kogito.jobs.ProcessInstanceJobDescription;
 import org.kie.kogito.jobs.ProcessJobDescription;
 import org.kie.kogito.jobs.api.Job;
 import org.kie.kogito.jobs.api.JobNotFoundException;
+import org.kie.kogito.jobs.management.JobsBatch;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -135,6 +139,82 @@ public class VertxJobsServiceTest {
         verify(webClient).delete("/jobs/123");
     }
     
+    @Test
+    void testBulkRequest(@Mock HttpRequest<Buffer> bulkRequest) {
+        VertxJobsService batching = batchingService();
+        when(webClient.post("/jobs/bulk")).thenReturn(bulkRequest);
+        respond(bulkRequest, 200);
+
+        String first = batching.scheduleProcessInstanceJob(jobDescription(1));
+        String second = batching.scheduleProcessInstanceJob(jobDescription(2));
+
+        ArgumentCaptor<JobsBatch> batchCaptor = forClass(JobsBatch.class);
+        verify(bulkRequest).sendJson(batchCaptor.capture(), any(Handler.class));
+        assertThat(batchCaptor.getValue().getScheduled()).extracting(Job::getId).containsExactly(first, second);
+        verify(webClient, never()).post("/jobs");
+        assertThat(batching.isBulkSupported()).isTrue();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { 404, 405, 501 })
+    void testBulkNotSupportedFallsBackToSingleRequests(int statusCode) {
+        HttpRequest<Buffer> bulkRequest = mock(HttpRequest.class);
+        HttpRequest<Buffer> request = mock(HttpRequest.class);
+        VertxJobsService batching = batchingService();
+        when(webClient.post("/jobs/bulk")).thenReturn(bulkRequest);
+        when(webClient.post("/jobs")).thenReturn(request);
+        respond(bulkRequest, statusCode);
+        respond(request, 200);
+
+        batching.scheduleProcessInstanceJob(jobDescription(1));
+        batching.scheduleProcessInstanceJob(jobDescription(2));
+
+        verify(request, times(2)).sendJson(any(Job.class), any(Handler.class));
+        assertThat(batching.isBulkSupported()).isFalse();
+
+        // once known, bulk requests are no longer tried
+        batching.scheduleProcessInstanceJob(jobDescription(3));
+        batching.scheduleProcessInstanceJob(jobDescription(4));
+        verify(bulkRequest, times(1)).sendJson(any(), any(Handler.class));
+        verify(request, times(4)).sendJson(any(Job.class), any(Handler.class));
+    }
+
+    @Test
+    void testBulkFailureLogged(@Mock HttpRequest<Buffer> bulkRequest) {
+        VertxJobsService batching = batchingService();
+        when(webClient.post("/jobs/bulk")).thenReturn(bulkRequest);
+        respond(bulkRequest, 500);
+
+        batching.scheduleProcessInstanceJob(jobDescription(1));
+        batching.scheduleProcessInstanceJob(jobDescription(2));
+
+        verify(webClient, never()).post("/jobs");
+        assertThat(batching.isBulkSupported()).isTrue();
+    }
+
+    private VertxJobsService batchingService() {
+        VertxJobsService batching = new VertxJobsService(JOB_SERVICE_URL, CALLBACK_URL, 2, 60000L, vertx, instance, null);
+        batching.initialize();
+        return batching;
+    }
+
+    private static ProcessInstanceJobDescription jobDescription(long timerId) {
+        return ProcessInstanceJobDescription.of(timerId, ExactExpirationTime.now(), "processInstanceId", "processId");
+    }
+
+    private static void respond(HttpRequest<Buffer> request, int statusCode) {
+        HttpResponse<Buffer> response = mock(HttpResponse.class);
+        when(response.statusCode()).thenReturn(statusCode);
+        AsyncResult<HttpResponse<Buffer>> asyncResult = mock(AsyncResult.class);
+        when(asyncResult.succeeded()).thenReturn(true);
+        when(asyncResult.result()).thenReturn(response);
+        doAnswer(invocationOnMock -> {
+            Handler<AsyncResult<HttpResponse<Buffer>>> handler = invocationOnMock.getArgument(1);
+            handler.handle(asyncResult);
+            return null;
+        }).when(request).sendJson(any(), any(Handler.class));
+    }
+
     @Test
     void testGetScheduleTime(@Mock HttpRequest<Buffer> request, @Mock HttpResponse<Buffer> response) {
         when(webClient.get(anyString())).thenReturn(request);
@@ -19,19 +19,25 @@ package org.kie.kogito.jobs.management.springboot;
 import java.time.ZonedDateTime;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 
+import org.kie.kogito.Application;
 import org.kie.kogito.jobs.ProcessInstanceJobDescription;
 import org.kie.kogito.jobs.ProcessJobDescription;
 import org.kie.kogito.jobs.api.Job;
 import org.kie.kogito.jobs.api.JobNotFoundException;
+import org.kie.kogito.jobs.management.JobsBatch;
+import org.kie.kogito.jobs.management.JobsBatcher;
 import org.kie.kogito.jobs.management.RestJobsService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.HttpClientErrorException.NotFound;
+import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
@@ -42,13 +48,29 @@ public class SpringRestJobsService extends RestJobsService {
 
     private RestTemplate restTemplate;
 
+    private JobsBatcher batcher;
+
     @Autowired
     public SpringRestJobsService(
             @Value("${kogito.jobs-service.url}") String jobServiceUrl,
             @Value("${kogito.service.url}") String callbackEndpoint,
-            @Autowired(required = false) RestTemplate restTemplate) {
+            @Value("${kogito.jobs-service.batch.size:1}") int batchSize,
+            @Value("${kogito.jobs-service.batch.linger:0}") long batchLingerMillis,
+            @Autowired(required = false) RestTemplate restTemplate,
+            ObjectProvider<Application> application) {
         super(jobServiceUrl, callbackEndpoint);
         this.restTemplate = restTemplate;
+        // the application is looked up lazily since it depends on the jobs service
+        this.batcher = new JobsBatcher(batchSize, batchLingerMillis,
+                                       () -> {
+                                           Application app = application == null ? null : application.getIfAvailable();
+                                           return app == null ? null : app.unitOfWorkManager();
+                                       },
+                                       this::send);
+    }
+
+    public SpringRestJobsService(String jobServiceUrl, String callbackEndpoint, RestTemplate restTemplate) {
+        this(jobServiceUrl, callbackEndpoint, JobsBatcher.DEFAULT_MAX_BATCH_SIZE, JobsBatcher.DEFAULT_LINGER_MILLIS, restTemplate, null);
     }
 
     SpringRestJobsService() {
@@ -63,6 +85,11 @@ public class SpringRestJobsService extends RestJobsService {
         }
     }
 
+    @PreDestroy
+    public void close() {
+        batcher.close();
+    }
+
     @Override
     public String scheduleProcessJob(ProcessJobDescription description) {
 
@@ -74,17 +101,61 @@ public class SpringRestJobsService extends RestJobsService {
         String callback = getCallbackEndpoint(description);
         LOGGER.debug("Job to be scheduled {} with callback URL {}", description, callback);
         final Job job = buildJob(description, callback);
+        if (batcher.isEnabled()) {
+            batcher.schedule(job);
+        } else {
+            schedule(job);
+        }
+        return job.getId();
+    }
+
+    @Override
+    public boolean cancelJob(String id) {
+        if (batcher.isEnabled()) {
+            batcher.cancel(id);
+            return true;
+        }
+        return cancel(id);
+    }
+
+    // batches are sent when units of work end, failures are logged as the Vertx client does
+    private void send(JobsBatch batch) {
+        if (isBulkSupported()) {
+            try {
+                restTemplate.postForEntity(getJobsServiceUri() + "/bulk", batch, String.class);
+                LOGGER.debug("Sending of {} done", batch);
+                return;
+            } catch (HttpStatusCodeException e) {
+                if (!bulkNotSupported(e.getRawStatusCode())) {
+                    LOGGER.error("Sending of {} failed with response code {}", batch, e.getRawStatusCode(), e);
+                    return;
+                }
+                LOGGER.info("Jobs Service does not support bulk requests, sending jobs one by one");
+            } catch (RestClientException e) {
+                LOGGER.error("Sending of {} failed", batch, e);
+                return;
+            }
+        }
+        for (Job job : batch.getScheduled()) {
+            try {
+                schedule(job);
+            } catch (RestClientException e) {
+                LOGGER.error("Scheduling of job {} failed", job, e);
+            }
+        }
+        batch.getCancelled().forEach(this::cancel);
+    }
+
+    private void schedule(Job job) {
         ResponseEntity<String> result = restTemplate.postForEntity(getJobsServiceUri(),
                                                                    job,
                                                                    String.class);
         if (result.getStatusCode().ordinal() == 200) {
             LOGGER.debug("Creating of the job {} done with status code {} ", job, result.getStatusCode());
         }
-        return job.getId();
     }
 
-    @Override
-    public boolean cancelJob(String id) {
+    private boolean cancel(String id) {
 
         try {
             restTemplate.delete(getJobsServiceUri() + "/{id}", id);
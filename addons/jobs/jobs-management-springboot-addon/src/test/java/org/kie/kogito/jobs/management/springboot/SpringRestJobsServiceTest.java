@@ -22,6 +22,8 @@ import static org.mockito.ArgumentCaptor.forClass;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -31,16 +33,22 @@ import java.time.ZonedDateTime;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.kie.kogito.jobs.ExactExpirationTime;
 import org.kie.kogito.jobs.ProcessInstanceJobDescription;
 import org.kie.kogito.jobs.ProcessJobDescription;
 import org.kie.kogito.jobs.api.Job;
 import org.kie.kogito.jobs.api.JobNotFoundException;
+import org.kie.kogito.jobs.management.JobsBatch;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.HttpClientErrorException.NotFound;
+import org.springframework.web.client.HttpServerErrorException;
 import org.springframework.web.client.RestTemplate;
 
 @ExtendWith(MockitoExtension.class)
@@ -91,6 +99,65 @@ public class SpringRestJobsServiceTest {
         verify(restTemplate).delete(tested.getJobsServiceUri() + "/{id}", "123");
     }
     
+    @Test
+    void testBulkRequest() {
+        SpringRestJobsService batching = batchingService();
+        when(restTemplate.postForEntity(eq(tested.getJobsServiceUri() + "/bulk"), any(JobsBatch.class), eq(String.class))).thenReturn(ResponseEntity.ok().build());
+
+        String first = batching.scheduleProcessInstanceJob(jobDescription(1));
+        String second = batching.scheduleProcessInstanceJob(jobDescription(2));
+
+        ArgumentCaptor<JobsBatch> batchCaptor = forClass(JobsBatch.class);
+        verify(restTemplate).postForEntity(eq(tested.getJobsServiceUri() + "/bulk"), batchCaptor.capture(), eq(String.class));
+        assertThat(batchCaptor.getValue().getScheduled()).extracting(Job::getId).containsExactly(first, second);
+        verify(restTemplate, never()).postForEntity(any(URI.class), any(Job.class), eq(String.class));
+        assertThat(batching.isBulkSupported()).isTrue();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { 404, 405, 501 })
+    void testBulkNotSupportedFallsBackToSingleRequests(int statusCode) {
+        SpringRestJobsService batching = batchingService();
+        when(restTemplate.postForEntity(eq(tested.getJobsServiceUri() + "/bulk"), any(JobsBatch.class), eq(String.class)))
+                .thenThrow(HttpClientErrorException.create(HttpStatus.valueOf(statusCode), "", null, null, null));
+        when(restTemplate.postForEntity(any(URI.class), any(Job.class), eq(String.class))).thenReturn(ResponseEntity.ok().build());
+
+        batching.scheduleProcessInstanceJob(jobDescription(1));
+        batching.scheduleProcessInstanceJob(jobDescription(2));
+
+        verify(restTemplate, times(2)).postForEntity(eq(tested.getJobsServiceUri()), any(Job.class), eq(String.class));
+        assertThat(batching.isBulkSupported()).isFalse();
+
+        // once known, bulk requests are no longer tried
+        batching.scheduleProcessInstanceJob(jobDescription(3));
+        batching.scheduleProcessInstanceJob(jobDescription(4));
+        verify(restTemplate, times(1)).postForEntity(eq(tested.getJobsServiceUri() + "/bulk"), any(JobsBatch.class), eq(String.class));
+        verify(restTemplate, times(4)).postForEntity(eq(tested.getJobsServiceUri()), any(Job.class), eq(String.class));
+    }
+
+    @Test
+    void testBulkFailureLogged() {
+        SpringRestJobsService batching = batchingService();
+        when(restTemplate.postForEntity(eq(tested.getJobsServiceUri() + "/bulk"), any(JobsBatch.class), eq(String.class)))
+                .thenThrow(HttpServerErrorException.create(HttpStatus.INTERNAL_SERVER_ERROR, "", null, null, null));
+
+        batching.scheduleProcessInstanceJob(jobDescription(1));
+        batching.scheduleProcessInstanceJob(jobDescription(2));
+
+        verify(restTemplate, never()).postForEntity(any(URI.class), any(Job.class), eq(String.class));
+        assertThat(batching.isBulkSupported()).isTrue();
+    }
+
+    private SpringRestJobsService batchingService() {
+        SpringRestJobsService batching = new SpringRestJobsService(JOB_SERVICE_URL, CALLBACK_URL, 2, 60000L, restTemplate, null);
+        batching.initialize();
+        return batching;
+    }
+
+    private static ProcessInstanceJobDescription jobDescription(long timerId) {
+        return ProcessInstanceJobDescription.of(timerId, ExactExpirationTime.now(), "processInstanceId", "processId");
+    }
+
     @Test
     void testGetScheduleTime() {
         
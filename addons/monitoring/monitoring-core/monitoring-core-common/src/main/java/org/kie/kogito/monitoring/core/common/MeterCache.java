@@ -0,0 +1,96 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.monitoring.core.common;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Cache of meters registered in a {@link MeterRegistry}, keyed by meter name and tag values
+ * (e.g. app id, process id and node name). Lookups of already registered meters are lock free,
+ * so listeners invoked on the engine hot path do not rebuild tags and query the registry on every event.
+ */
+public class MeterCache {
+
+    private final MeterRegistry registry;
+    private final ConcurrentMap<Key, Object> meters = new ConcurrentHashMap<>();
+
+    public MeterCache(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public MeterRegistry getRegistry() {
+        return registry;
+    }
+
+    /**
+     * Returns the meter cached for the given name and tag values, registering it through the factory on first use
+     * @param name meter name
+     * @param factory registers the meter in the given registry, invoked at most once per key
+     * @param tagValues values of the meter tags, in the order the factory uses them
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String name, Function<MeterRegistry, T> factory, String... tagValues) {
+        Key key = new Key(name, tagValues);
+        Object meter = meters.get(key);
+        if (meter == null) {
+            meter = meters.computeIfAbsent(key, k -> factory.apply(registry));
+        }
+        return (T) meter;
+    }
+
+    public int size() {
+        return meters.size();
+    }
+
+    public void clear() {
+        meters.clear();
+    }
+
+    private static final class Key {
+
+        private final String name;
+        private final String[] tagValues;
+        private final int hash;
+
+        private Key(String name, String[] tagValues) {
+            this.name = name;
+            this.tagValues = tagValues;
+            this.hash = 31 * name.hashCode() + Arrays.hashCode(tagValues);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return hash == other.hash && name.equals(other.name) && Arrays.equals(tagValues, other.tagValues);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.monitoring.core.common.decision;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.kie.kogito.decision.DecisionSampler;
+
+/**
+ * Sampling of the decision evaluations whose results are recorded as metrics.
+ * <br/>
+ * It is read at runtime, from the application configuration by the Quarkus and Spring Boot addons
+ * and from the system properties otherwise, so it can change without rebuilding the application.
+ */
+public final class DecisionMonitoringSampling {
+
+    public static final String MONITORING_DECISION_TYPES_KEY = "kogito.monitoring.decision.types";
+
+    public static final DecisionMonitoringSampling ALWAYS = new DecisionMonitoringSampling(DecisionSampler.ALWAYS, Collections.emptySet());
+
+    private static volatile DecisionMonitoringSampling current = parse(System.getProperty(DecisionSampler.SAMPLING_RATE_KEY),
+            System.getProperty(DecisionSampler.SAMPLING_ALWAYS_ON_ERROR_KEY),
+            System.getProperty(DecisionSampler.SAMPLING_MODELS_KEY),
+            System.getProperty(MONITORING_DECISION_TYPES_KEY));
+
+    private final DecisionSampler sampler;
+    private final Set<String> dmnTypes;
+
+    /**
+     * @param sampler sampler of the evaluations whose results are recorded
+     * @param dmnTypes DMN types of the decision results to be recorded, all types if empty
+     */
+    public DecisionMonitoringSampling(DecisionSampler sampler, Set<String> dmnTypes) {
+        this.sampler = sampler;
+        this.dmnTypes = dmnTypes;
+    }
+
+    /**
+     * Creates a sampling from configuration values, missing values fall back to recording everything
+     * @param dmnTypes comma separated list of the DMN types of the decision results to be recorded
+     */
+    public static DecisionMonitoringSampling parse(String rate, String alwaysOnError, String models, String dmnTypes) {
+        return new DecisionMonitoringSampling(DecisionSampler.parse(rate, alwaysOnError, models), parseDmnTypes(dmnTypes));
+    }
+
+    static Set<String> parseDmnTypes(String dmnTypes) {
+        return dmnTypes == null ? Collections.emptySet()
+                : Arrays.stream(dmnTypes.split(",")).map(String::trim).filter(s -> !s.isEmpty()).collect(Collectors.toSet());
+    }
+
+    /**
+     * Sampling currently applied by the monitored decision models not configured with their own
+     */
+    public static DecisionMonitoringSampling current() {
+        return current;
+    }
+
+    public static void configure(DecisionMonitoringSampling sampling) {
+        current = sampling;
+    }
+
+    public DecisionSampler getSampler() {
+        return sampler;
+    }
+
+    public Set<String> getDmnTypes() {
+        return dmnTypes;
+    }
+}
@@ -17,20 +17,40 @@
 package org.kie.kogito.monitoring.core.common.decision;
 
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 import org.kie.dmn.api.core.DMNContext;
 import org.kie.dmn.api.core.DMNModel;
 import org.kie.dmn.api.core.DMNResult;
 import org.kie.dmn.api.core.FEELPropertyAccessible;
+import org.kie.kogito.decision.DecisionExecutionIdUtils;
 import org.kie.kogito.decision.DecisionModel;
+import org.kie.kogito.decision.DecisionSampler;
 import org.kie.kogito.monitoring.core.common.system.metrics.DMNResultMetricsBuilder;
 
 public class MonitoredDecisionModel implements DecisionModel {
 
     private final DecisionModel originalModel;
+    private final Supplier<DecisionMonitoringSampling> sampling;
 
+    /**
+     * Records the results of the evaluations sampled by the runtime configuration, see {@link DecisionMonitoringSampling#current()}
+     */
     public MonitoredDecisionModel(DecisionModel originalModel) {
         this.originalModel = originalModel;
+        this.sampling = DecisionMonitoringSampling::current;
+    }
+
+    /**
+     * @param sampler sampler of the evaluations whose results are recorded
+     * @param dmnTypes DMN types of the decision results to be recorded, all types if empty
+     */
+    public MonitoredDecisionModel(DecisionModel originalModel, DecisionSampler sampler, Set<String> dmnTypes) {
+        DecisionMonitoringSampling fixed = new DecisionMonitoringSampling(sampler, dmnTypes);
+        this.originalModel = originalModel;
+        this.sampling = () -> fixed;
     }
 
     @Override
@@ -46,14 +66,20 @@ public class MonitoredDecisionModel implements DecisionModel {
     @Override
     public DMNResult evaluateAll(DMNContext context) {
         DMNResult result = originalModel.evaluateAll(context);
-        DMNResultMetricsBuilder.generateMetrics(result, originalModel.getDMNModel().getName());
+        generateMetrics(result, originalModel.getDMNModel().getName());
         return result;
     }
 
+    @Override
+    public Stream<DMNResult> evaluateAllBatch(Stream<DMNContext> contexts) {
+        String modelName = originalModel.getDMNModel().getName();
+        return originalModel.evaluateAllBatch(contexts).peek(result -> generateMetrics(result, modelName));
+    }
+
     @Override
     public DMNResult evaluateDecisionService(DMNContext context, String decisionServiceName) {
         DMNResult result = originalModel.evaluateDecisionService(context, decisionServiceName);
-        DMNResultMetricsBuilder.generateMetrics(result, originalModel.getDMNModel().getName());
+        generateMetrics(result, originalModel.getDMNModel().getName());
         return result;
     }
 
@@ -61,4 +87,26 @@ public class MonitoredDecisionModel implements DecisionModel {
     public DMNModel getDMNModel() {
         return originalModel.getDMNModel();
     }
+
+    private void generateMetrics(DMNResult result, String modelName) {
+        DecisionMonitoringSampling current = sampling.get();
+        DecisionSampler sampler = current.getSampler();
+        if (!sampler.isAlwaysSampled() && !isSampled(sampler, result)) {
+            return;
+        }
+        if (current.getDmnTypes().isEmpty()) {
+            DMNResultMetricsBuilder.generateMetrics(result, modelName);
+        } else {
+            DMNResultMetricsBuilder.generateMetrics(result, modelName, current.getDmnTypes());
+        }
+    }
+
+    private boolean isSampled(DecisionSampler sampler, DMNResult result) {
+        DMNModel model = originalModel.getDMNModel();
+        if (result == null) {
+            return sampler.isSampled(model.getNamespace(), model.getName(), null);
+        }
+        return sampler.isSampled(model.getNamespace(), model.getName(), DecisionExecutionIdUtils.get(result.getContext()))
+                || (sampler.isAlwaysOnError() && result.hasErrors() && sampler.isModelAllowed(model.getNamespace(), model.getName()));
+    }
 }
@@ -16,9 +16,11 @@
 
 package org.kie.kogito.monitoring.core.common.decision;
 
+import java.util.Set;
 import java.util.function.Function;
 
 import org.kie.kogito.decision.DecisionModel;
+import org.kie.kogito.decision.DecisionSampler;
 
 /**
  * This class must always have exact FQCN as <code>org.kie.kogito.monitoring.core.common.decision.MonitoredDecisionModelTransformer</code>
@@ -26,8 +28,28 @@ import org.kie.kogito.decision.DecisionModel;
  */
 public class MonitoredDecisionModelTransformer implements Function<DecisionModel, DecisionModel> {
 
+    private final DecisionSampler sampler;
+    private final Set<String> dmnTypes;
+
+    /**
+     * Monitored models sample the evaluations as configured at runtime, see {@link DecisionMonitoringSampling}
+     */
+    public MonitoredDecisionModelTransformer() {
+        this.sampler = null;
+        this.dmnTypes = null;
+    }
+
+    /**
+     * @param sampler sampler of the evaluations whose results are recorded
+     * @param dmnTypes comma separated list of the DMN types of the decision results to be recorded, all types if null
+     */
+    public MonitoredDecisionModelTransformer(DecisionSampler sampler, String dmnTypes) {
+        this.sampler = sampler;
+        this.dmnTypes = DecisionMonitoringSampling.parseDmnTypes(dmnTypes);
+    }
+
     @Override
     public DecisionModel apply(DecisionModel decisionModel) {
-        return new MonitoredDecisionModel(decisionModel);
+        return sampler == null ? new MonitoredDecisionModel(decisionModel) : new MonitoredDecisionModel(decisionModel, sampler, dmnTypes);
     }
 }
@@ -16,13 +16,12 @@
 package org.kie.kogito.monitoring.core.common.process;
 
 import java.util.Arrays;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.DistributionSummary;
 import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Tag;
 import org.jbpm.workflow.instance.impl.WorkflowProcessInstanceImpl;
 import org.jbpm.workflow.instance.node.WorkItemNodeInstance;
@@ -31,6 +30,7 @@ import org.kie.api.event.process.ProcessNodeLeftEvent;
 import org.kie.api.event.process.ProcessStartedEvent;
 import org.kie.api.event.process.SLAViolatedEvent;
 import org.kie.api.runtime.process.NodeInstance;
+import org.kie.kogito.monitoring.core.common.MeterCache;
 import org.kie.kogito.monitoring.core.common.MonitoringRegistry;
 import org.kie.kogito.internal.process.event.DefaultKogitoProcessEventListener;
 import org.slf4j.Logger;
@@ -39,7 +39,14 @@ import org.slf4j.LoggerFactory;
 public class MetricsProcessEventListener extends DefaultKogitoProcessEventListener {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(MetricsProcessEventListener.class);
-    private static Map<String, AtomicInteger> gaugeMap = new HashMap<String, AtomicInteger>();
+    private static final String STARTED_NAME = "kie_process_instance_started_total";
+    private static final String SLA_VIOLATED_NAME = "kie_process_instance_sla_violated_total";
+    private static final String COMPLETED_NAME = "kie_process_instance_completed_total";
+    private static final String RUNNING_NAME = "kie_process_instance_running_total";
+    private static final String DURATION_NAME = "kie_process_instance_duration_seconds";
+    private static final String WORK_ITEM_DURATION_NAME = "kie_work_item_duration_seconds";
+
+    private static final MeterCache meters = new MeterCache(MonitoringRegistry.getDefaultMeterRegistry());
     private String identifier;
 
     public MetricsProcessEventListener(String identifier) {
@@ -47,54 +54,54 @@ public class MetricsProcessEventListener extends DefaultKogitoProcessEventListen
     }
 
     private static Counter getNumberOfProcessInstancesStartedCounter(String appId, String processId) {
-        return Counter
-                .builder("kie_process_instance_started_total")
+        return meters.get(STARTED_NAME, registry -> Counter
+                .builder(STARTED_NAME)
                 .description("Started Process Instances")
                 .tags(Arrays.asList(Tag.of("app_id", appId), (Tag.of("process_id", processId))))
-                .register(MonitoringRegistry.getDefaultMeterRegistry());
+                .register(registry), appId, processId);
     }
 
     private static Counter getNumberOfSLAsViolatedCounter(String appId, String processId, String nodeName) {
-        return Counter
-                .builder("kie_process_instance_sla_violated_total")
+        return meters.get(SLA_VIOLATED_NAME, registry -> Counter
+                .builder(SLA_VIOLATED_NAME)
                 .description("Process Instances SLA Violated")
                 .tags(Arrays.asList(Tag.of("app_id", appId), Tag.of("process_id", processId), Tag.of("node_name", nodeName)))
-                .register(MonitoringRegistry.getDefaultMeterRegistry());
+                .register(registry), appId, processId, nodeName);
     }
 
     private static Counter getNumberOfProcessInstancesCompletedCounter(String appId, String processId, String nodeName) {
-        return Counter
-                .builder("kie_process_instance_completed_total")
+        return meters.get(COMPLETED_NAME, registry -> Counter
+                .builder(COMPLETED_NAME)
                 .description("Completed Process Instances")
                 .tags(Arrays.asList(Tag.of("app_id", appId), Tag.of("process_id", processId), Tag.of("node_name", nodeName)))
-                .register(MonitoringRegistry.getDefaultMeterRegistry());
+                .register(registry), appId, processId, nodeName);
     }
 
     private static AtomicInteger getRunningProcessInstancesGauge(String appId, String processId) {
-        if (gaugeMap.containsKey(appId + processId)) {
-            return gaugeMap.get(appId + processId);
-        }
+        return meters.get(RUNNING_NAME, registry -> registerRunningProcessInstancesGauge(registry, appId, processId), appId, processId);
+    }
+
+    private static AtomicInteger registerRunningProcessInstancesGauge(MeterRegistry registry, String appId, String processId) {
         AtomicInteger atomicInteger = new AtomicInteger(0);
-        Gauge.builder("kie_process_instance_running_total", atomicInteger, AtomicInteger::doubleValue)
+        Gauge.builder(RUNNING_NAME, atomicInteger, AtomicInteger::doubleValue)
                 .description("Running Process Instances")
                 .tags(Arrays.asList(Tag.of("app_id", appId), (Tag.of("process_id", processId))))
-                .register(MonitoringRegistry.getDefaultMeterRegistry());
-        gaugeMap.put(appId + processId, atomicInteger);
+                .register(registry);
         return atomicInteger;
     }
 
     private static DistributionSummary getProcessInstancesDurationSummary(String appId, String processId) {
-        return DistributionSummary.builder("kie_process_instance_duration_seconds")
+        return meters.get(DURATION_NAME, registry -> DistributionSummary.builder(DURATION_NAME)
                 .description("Process Instances Duration")
                 .tags(Arrays.asList(Tag.of("app_id", appId), (Tag.of("process_id", processId))))
-                .register(MonitoringRegistry.getDefaultMeterRegistry());
+                .register(registry), appId, processId);
     }
 
     private static DistributionSummary getWorkItemsDurationSummary(String name) {
-        return DistributionSummary.builder("kie_work_item_duration_seconds")
+        return meters.get(WORK_ITEM_DURATION_NAME, registry -> DistributionSummary.builder(WORK_ITEM_DURATION_NAME)
                 .description("Work Items Duration")
                 .tags(Arrays.asList(Tag.of("name", name)))
-                .register(MonitoringRegistry.getDefaultMeterRegistry());
+                .register(registry), name);
     }
 
     protected static void recordRunningProcessInstance(String containerId, String processId) {
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2019 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.monitoring.core.common.process;
+
+import java.util.function.ToDoubleFunction;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.kie.kogito.process.impl.ProcessInstanceNearCache;
+
+public class ProcessInstanceNearCacheMetrics {
+
+    private ProcessInstanceNearCacheMetrics() {
+    }
+
+    public static void register(MeterRegistry registry) {
+        ProcessInstanceNearCache.Statistics statistics = ProcessInstanceNearCache.statistics();
+        counter(registry, statistics, "kogito_process_instance_near_cache_hits_total", "Process instances served from the near cache", ProcessInstanceNearCache.Statistics::hits);
+        counter(registry, statistics, "kogito_process_instance_near_cache_misses_total", "Process instances unmarshalled on near cache miss", ProcessInstanceNearCache.Statistics::misses);
+        counter(registry, statistics, "kogito_process_instance_near_cache_evictions_total", "Process instances evicted from the near cache", ProcessInstanceNearCache.Statistics::evictions);
+    }
+
+    private static void counter(MeterRegistry registry, ProcessInstanceNearCache.Statistics statistics, String name, String description,
+            ToDoubleFunction<ProcessInstanceNearCache.Statistics> value) {
+        FunctionCounter.builder(name, statistics, value)
+                .description(description)
+                .register(registry);
+    }
+}
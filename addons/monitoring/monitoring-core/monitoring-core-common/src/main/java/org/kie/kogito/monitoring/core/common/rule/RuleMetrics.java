@@ -19,23 +19,27 @@ import java.util.Arrays;
 
 import io.micrometer.core.instrument.DistributionSummary;
 import io.micrometer.core.instrument.Tag;
+import org.kie.kogito.monitoring.core.common.MeterCache;
 import org.kie.kogito.monitoring.core.common.MonitoringRegistry;
 
 public class RuleMetrics {
 
     private static final long NANOSECONDS_PER_MICROSECOND = 1_000_000;
 
+    private static final String EVALUATION_TIME_NAME = "drl_match_fired_nanosecond";
+
+    private static final MeterCache meters = new MeterCache(MonitoringRegistry.getDefaultMeterRegistry());
+
     private static long toMicro(long second) {
         return second * NANOSECONDS_PER_MICROSECOND;
     }
 
     public static DistributionSummary getDroolsEvaluationTimeHistogram(String appId, String processId) {
-        DistributionSummary distributionSummary = DistributionSummary.builder("drl_match_fired_nanosecond")
+        return meters.get(EVALUATION_TIME_NAME, registry -> DistributionSummary.builder(EVALUATION_TIME_NAME)
                 .minimumExpectedValue((double) toMicro(1))
                 .maximumExpectedValue((double) toMicro(10))
                 .description("Drools Firing Time")
                 .tags(Arrays.asList(Tag.of("app_id", appId), Tag.of("process_id", processId)))
-                .register(MonitoringRegistry.getDefaultMeterRegistry());
-        return distributionSummary;
+                .register(registry), appId, processId);
     }
 }
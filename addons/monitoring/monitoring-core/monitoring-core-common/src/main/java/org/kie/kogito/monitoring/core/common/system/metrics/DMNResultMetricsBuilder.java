@@ -25,6 +25,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import org.kie.dmn.api.core.DMNDecisionResult;
 import org.kie.dmn.api.core.DMNResult;
@@ -69,13 +70,24 @@ public class DMNResultMetricsBuilder {
     }
 
     public static void generateMetrics(DMNResult dmnResult, String endpointName) {
+        generateMetrics(dmnResult, endpointName, null);
+    }
+
+    /**
+     * Records the results of the decisions having one of the given DMN types
+     * @param dmnTypes DMN types of the decision results to be recorded, e.g. <code>number</code>, all types if null
+     */
+    public static void generateMetrics(DMNResult dmnResult, String endpointName, Set<String> dmnTypes) {
         Optional<List<DMNDecisionResult>> optDecisionResults = Optional.ofNullable(dmnResult).map(DMNResult::getDecisionResults);
 
         if (optDecisionResults.isPresent()) {
             for (DMNDecisionResult decision : optDecisionResults.get()) {
                 Object result = decision.getResult();
                 if (result != null && SupportedDecisionTypes.isSupported(result.getClass())) {
-                    handlers.get(result.getClass()).record(decision.getDecisionName(), endpointName, result);
+                    TypeHandler handler = handlers.get(result.getClass());
+                    if (dmnTypes == null || dmnTypes.contains(handler.getDmnType())) {
+                        handler.record(decision.getDecisionName(), endpointName, result);
+                    }
                 }
             }
         } else {
@@ -23,6 +23,7 @@ import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Tag;
 import io.micrometer.core.instrument.Timer;
+import org.kie.kogito.monitoring.core.common.MeterCache;
 import org.kie.kogito.monitoring.core.common.MonitoringRegistry;
 
 public class SystemMetricsCollector {
@@ -41,32 +42,32 @@ public class SystemMetricsCollector {
 
     private static final String EXCEPTIONS_HELP = "System exceptions details.";
 
-    private static MeterRegistry registry = MonitoringRegistry.getDefaultMeterRegistry();
+    private static volatile MeterCache meters = new MeterCache(MonitoringRegistry.getDefaultMeterRegistry());
 
     private SystemMetricsCollector() {
     }
 
     private static Counter getRequestStatusCodeCounter(String endpoint, String identifier) {
-        return Counter.builder(STATUS_CODE_NAME)
+        return meters.get(STATUS_CODE_NAME, registry -> Counter.builder(STATUS_CODE_NAME)
                 .description(STATUS_CODE_HELP)
                 .tags(Arrays.asList(Tag.of("endpoint", endpoint), Tag.of("identifier", identifier)))
-                .register(registry);
+                .register(registry), endpoint, identifier);
     }
 
     private static Counter getExceptionsCounter(String endpoint, String identifier) {
-        return Counter.builder(EXCEPTIONS_NAME)
+        return meters.get(EXCEPTIONS_NAME, registry -> Counter.builder(EXCEPTIONS_NAME)
                 .description(EXCEPTIONS_HELP)
                 .tags(Arrays.asList(Tag.of("endpoint", endpoint), Tag.of("identifier", identifier)))
-                .register(registry);
+                .register(registry), endpoint, identifier);
     }
 
     private static Timer getElapsedTimeSummary(String endpoint) {
-        return Timer.builder(ELAPSED_TIME_NAME)
+        return meters.get(ELAPSED_TIME_NAME, registry -> Timer.builder(ELAPSED_TIME_NAME)
                 .description(ELAPSED_TIME_HELP)
                 .publishPercentiles(ELAPSED_TIME_PERCENTILES)
                 .distributionStatisticExpiry(Duration.ofMinutes(3))
                 .tags(Arrays.asList(Tag.of("endpoint", endpoint)))
-                .register(registry);
+                .register(registry), endpoint);
     }
 
     public static void registerStatusCodeRequest(String endpoint, String statusCode) {
@@ -82,6 +83,6 @@ public class SystemMetricsCollector {
     }
 
     public static void setRegistry(MeterRegistry meterRegistry) {
-        registry = meterRegistry;
+        meters = new MeterCache(meterRegistry);
     }
 }
\ No newline at end of file
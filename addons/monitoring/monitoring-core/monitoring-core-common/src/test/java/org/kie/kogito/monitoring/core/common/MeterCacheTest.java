@@ -0,0 +1,99 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.monitoring.core.common;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MeterCacheTest {
+
+    private static final String NAME = "test_counter_total";
+
+    private MeterRegistry registry;
+    private MeterCache meters;
+
+    @BeforeEach
+    public void setUp() {
+        registry = new SimpleMeterRegistry();
+        meters = new MeterCache(registry);
+    }
+
+    @Test
+    public void testMeterRegisteredOncePerKey() {
+        AtomicInteger registrations = new AtomicInteger();
+
+        Counter first = counter(registrations, "app", "process", "node");
+        Counter second = counter(registrations, "app", "process", "node");
+        Counter other = counter(registrations, "app", "process", "other");
+
+        assertThat(second).isSameAs(first);
+        assertThat(other).isNotSameAs(first);
+        assertThat(registrations.get()).isEqualTo(2);
+        assertThat(meters.size()).isEqualTo(2);
+    }
+
+    @Test
+    public void testConcurrentLookups() throws Exception {
+        int threads = 8;
+        int increments = 1000;
+        AtomicInteger registrations = new AtomicInteger();
+        CountDownLatch ready = new CountDownLatch(threads);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> {
+                    ready.countDown();
+                    ready.await();
+                    for (int j = 0; j < increments; j++) {
+                        counter(registrations, "app", "process", "node").increment();
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(registrations.get()).isEqualTo(1);
+        assertThat(registry.find(NAME).counter().count()).isEqualTo(threads * increments);
+    }
+
+    private Counter counter(AtomicInteger registrations, String appId, String processId, String nodeName) {
+        return meters.get(NAME, r -> {
+            registrations.incrementAndGet();
+            return Counter.builder(NAME)
+                    .tags("app_id", appId, "process_id", processId, "node_name", nodeName)
+                    .register(r);
+        }, appId, processId, nodeName);
+    }
+}
@@ -16,6 +16,7 @@
 
 package org.kie.kogito.monitoring.core.decision;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -25,6 +26,8 @@ import org.kie.dmn.api.core.DMNModel;
 import org.kie.dmn.api.core.DMNResult;
 import org.kie.dmn.api.core.FEELPropertyAccessible;
 import org.kie.kogito.decision.DecisionModel;
+import org.kie.kogito.decision.DecisionSampler;
+import org.kie.kogito.monitoring.core.common.decision.DecisionMonitoringSampling;
 import org.kie.kogito.monitoring.core.common.decision.MonitoredDecisionModel;
 import org.kie.kogito.monitoring.core.common.system.metrics.DMNResultMetricsBuilder;
 import org.mockito.MockedStatic;
@@ -35,6 +38,7 @@ import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.refEq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -99,6 +103,60 @@ class MonitoredDecisionModelTest {
         }
     }
 
+    @Test
+    void testSampling() {
+        try (MockedStatic<DMNResultMetricsBuilder> mockedMetricsBuilder = mockStatic(DMNResultMetricsBuilder.class)) {
+            DMNModel mockedDMNModel = mock(DMNModel.class);
+            when(mockedDMNModel.getName()).thenReturn(TEST_MODEL_NAME);
+
+            DMNResult mockedEvaluateAllResult = mock(DMNResult.class);
+            DMNResult mockedEvaluateDecisionServiceResult = mock(DMNResult.class);
+            when(mockedEvaluateDecisionServiceResult.hasErrors()).thenReturn(true);
+
+            DecisionModel mockedDecisionModel = mock(DecisionModel.class);
+            resetMockedDecisionModel(mockedDecisionModel, mockedDMNModel, mockedEvaluateAllResult, mockedEvaluateDecisionServiceResult);
+
+            DecisionSampler sampler = DecisionSampler.of(0.0, true, Collections.emptySet());
+            MonitoredDecisionModel testObject = new MonitoredDecisionModel(mockedDecisionModel, sampler, Collections.singleton("number"));
+
+            // evaluations not sampled are not recorded
+            testObject.evaluateAll(mock(DMNContext.class));
+            mockedMetricsBuilder.verify(never(), () -> DMNResultMetricsBuilder.generateMetrics(any(), any(), any()));
+
+            // evaluations with errors are always recorded
+            testObject.evaluateDecisionService(mock(DMNContext.class), TEST_SERVICE_NAME);
+            mockedMetricsBuilder.verify(times(1), () -> DMNResultMetricsBuilder.generateMetrics(refEq(mockedEvaluateDecisionServiceResult), eq(TEST_MODEL_NAME),
+                    eq(Collections.singleton("number"))));
+        }
+    }
+
+    @Test
+    void testSamplingConfiguredAtRuntime() {
+        try (MockedStatic<DMNResultMetricsBuilder> mockedMetricsBuilder = mockStatic(DMNResultMetricsBuilder.class)) {
+            DMNModel mockedDMNModel = mock(DMNModel.class);
+            when(mockedDMNModel.getName()).thenReturn(TEST_MODEL_NAME);
+
+            DMNResult mockedEvaluateAllResult = mock(DMNResult.class);
+            DecisionModel mockedDecisionModel = mock(DecisionModel.class);
+            resetMockedDecisionModel(mockedDecisionModel, mockedDMNModel, mockedEvaluateAllResult, mock(DMNResult.class));
+
+            // models created before the configuration is read apply it
+            MonitoredDecisionModel testObject = new MonitoredDecisionModel(mockedDecisionModel);
+            try {
+                DecisionMonitoringSampling.configure(DecisionMonitoringSampling.parse("0", "false", null, null));
+                testObject.evaluateAll(mock(DMNContext.class));
+                mockedMetricsBuilder.verify(never(), () -> DMNResultMetricsBuilder.generateMetrics(any(), any()));
+
+                DecisionMonitoringSampling.configure(DecisionMonitoringSampling.parse("1", null, null, "number"));
+                testObject.evaluateAll(mock(DMNContext.class));
+                mockedMetricsBuilder.verify(times(1), () -> DMNResultMetricsBuilder.generateMetrics(refEq(mockedEvaluateAllResult), eq(TEST_MODEL_NAME),
+                        eq(Collections.singleton("number"))));
+            } finally {
+                DecisionMonitoringSampling.configure(DecisionMonitoringSampling.ALWAYS);
+            }
+        }
+    }
+
     private static void resetMockedDecisionModel(DecisionModel mockedDecisionModel, DMNModel mockedDMNModel, DMNResult mockedEvaluateAllResult, DMNResult mockedEvaluateDecisionServiceResult) {
         reset(mockedDecisionModel);
         when(mockedDecisionModel.getDMNModel()).thenReturn(mockedDMNModel);
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.monitoring.core.quarkus;
+
+import java.util.Optional;
+
+import javax.enterprise.event.Observes;
+import javax.inject.Singleton;
+
+import io.quarkus.runtime.StartupEvent;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.kie.kogito.decision.DecisionSampler;
+import org.kie.kogito.monitoring.core.common.decision.DecisionMonitoringSampling;
+
+@Singleton
+public class QuarkusDecisionMonitoringSampling {
+
+    @ConfigProperty(name = DecisionSampler.SAMPLING_RATE_KEY)
+    Optional<String> samplingRate;
+    @ConfigProperty(name = DecisionSampler.SAMPLING_ALWAYS_ON_ERROR_KEY)
+    Optional<String> samplingAlwaysOnError;
+    @ConfigProperty(name = DecisionSampler.SAMPLING_MODELS_KEY)
+    Optional<String> samplingModels;
+    @ConfigProperty(name = DecisionMonitoringSampling.MONITORING_DECISION_TYPES_KEY)
+    Optional<String> dmnTypes;
+
+    public void config(@Observes StartupEvent event) {
+        DecisionMonitoringSampling.configure(DecisionMonitoringSampling.parse(samplingRate.orElse(null), samplingAlwaysOnError.orElse(null),
+                samplingModels.orElse(null), dmnTypes.orElse(null)));
+    }
+}
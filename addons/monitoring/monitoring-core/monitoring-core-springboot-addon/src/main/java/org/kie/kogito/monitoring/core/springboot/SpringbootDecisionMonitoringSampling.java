@@ -0,0 +1,42 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.monitoring.core.springboot;
+
+import javax.annotation.PostConstruct;
+
+import org.kie.kogito.decision.DecisionSampler;
+import org.kie.kogito.monitoring.core.common.decision.DecisionMonitoringSampling;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+public class SpringbootDecisionMonitoringSampling {
+
+    @Value(value = "${" + DecisionSampler.SAMPLING_RATE_KEY + ":#{null}}")
+    String samplingRate;
+    @Value(value = "${" + DecisionSampler.SAMPLING_ALWAYS_ON_ERROR_KEY + ":#{null}}")
+    String samplingAlwaysOnError;
+    @Value(value = "${" + DecisionSampler.SAMPLING_MODELS_KEY + ":#{null}}")
+    String samplingModels;
+    @Value(value = "${" + DecisionMonitoringSampling.MONITORING_DECISION_TYPES_KEY + ":#{null}}")
+    String dmnTypes;
+
+    @PostConstruct
+    protected void onStart() {
+        DecisionMonitoringSampling.configure(DecisionMonitoringSampling.parse(samplingRate, samplingAlwaysOnError, samplingModels, dmnTypes));
+    }
+}
@@ -18,20 +18,39 @@ package org.kie.kogito.persistence;
 import java.nio.file.Paths;
 
 import org.kie.kogito.persistence.filesystem.FileSystemProcessInstances;
+import org.kie.kogito.persistence.filesystem.LogStructuredProcessInstances;
+import org.kie.kogito.process.MutableProcessInstances;
 import org.kie.kogito.process.Process;
 import org.kie.kogito.process.ProcessInstancesFactory;
+import org.kie.kogito.process.impl.marshalling.ProcessInstanceMarshaller;
 
 /**
  * This class must always have exact FQCN as <code>org.kie.kogito.persistence.KogitoProcessInstancesFactory</code>
  *
  */
 public abstract class KogitoProcessInstancesFactory implements ProcessInstancesFactory {
-   
-	
-    public FileSystemProcessInstances createProcessInstances(Process<?> process) {
+
+    public static final String FILE_STORAGE_MODE = "file";
+    public static final String LOG_STORAGE_MODE = "log";
+    public static final String DELTA_STORAGE_MODE = "delta";
+
+    public MutableProcessInstances<?> createProcessInstances(Process<?> process) {
+        if (LOG_STORAGE_MODE.equals(mode())) {
+            return new LogStructuredProcessInstances(process, Paths.get(path()));
+        }
+        if (DELTA_STORAGE_MODE.equals(mode())) {
+            return new FileSystemProcessInstances(process, Paths.get(path()), new ProcessInstanceMarshaller(), true);
+        }
         return new FileSystemProcessInstances(process, Paths.get(path()));
     }
     
     public abstract String path();
-    
+
+    /**
+     * Storage mode, either <code>file</code> (one file per process instance), <code>delta</code> (one file per
+     * process instance with updates stored as deltas) or <code>log</code> (segmented append only log per process)
+     */
+    public String mode() {
+        return FILE_STORAGE_MODE;
+    }
 }
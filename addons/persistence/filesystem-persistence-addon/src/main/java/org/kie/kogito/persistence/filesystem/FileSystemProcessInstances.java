@@ -17,13 +17,24 @@ package org.kie.kogito.persistence.filesystem;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.nio.file.attribute.UserDefinedFileAttributeView;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -31,8 +42,13 @@ import org.kie.kogito.process.MutableProcessInstances;
 import org.kie.kogito.process.Process;
 import org.kie.kogito.process.ProcessInstance;
 import org.kie.kogito.process.ProcessInstanceDuplicatedException;
+import org.kie.kogito.process.ProcessInstanceFilter;
+import org.kie.kogito.process.ProcessInstanceOptimisticLockingException;
 import org.kie.kogito.process.ProcessInstanceReadMode;
 import org.kie.kogito.process.impl.AbstractProcessInstance;
+import org.kie.kogito.process.impl.ProcessInstanceEventIndex;
+import org.kie.kogito.process.impl.ProcessInstanceNearCache;
+import org.kie.kogito.process.impl.marshalling.ProcessInstanceDelta;
 import org.kie.kogito.process.impl.marshalling.ProcessInstanceMarshaller;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -46,9 +62,26 @@ public class FileSystemProcessInstances implements MutableProcessInstances {
 
     public static final String PI_DESCRIPTION = "ProcessInstanceDescription";
     public static final String PI_STATUS = "ProcessInstanceStatus";
+    public static final String PI_EVENTS = "ProcessInstanceEvents";
+
+    private static final String EVENTS_SEPARATOR = "\n";
+    private static final String DELTA_DIRECTORY = ".delta";
+    private static final String TEMP_DIRECTORY = ".tmp";
+    private static final String LOCK_DIRECTORY = ".lock";
+    private static final int LOCK_STRIPES = 64;
 
     private Process<?> process;
     private Path storage;
+    // when set, updates are stored as a delta against the last full snapshot of the instance
+    private Path deltaStorage;
+    // files are written to a temporary file first and moved in place, so readers never see a partially written file
+    private Path tempStorage;
+    // lock files guard the version check and write of an instance across processes sharing the storage
+    private Path lockStorage;
+    private final Object[] locks = new Object[LOCK_STRIPES];
+    private volatile ProcessInstanceEventIndex eventIndex;
+    // instances stored before event types were tracked, signals are broadcast while there is any
+    private final Set<String> untracked = ConcurrentHashMap.newKeySet();
 
     private ProcessInstanceMarshaller marshaller;
 
@@ -57,12 +90,25 @@ public class FileSystemProcessInstances implements MutableProcessInstances {
     }
 
     public FileSystemProcessInstances(Process<?> process, Path storage, ProcessInstanceMarshaller marshaller) {
+        this(process, storage, marshaller, false);
+    }
+
+    public FileSystemProcessInstances(Process<?> process, Path storage, ProcessInstanceMarshaller marshaller, boolean deltas) {
         this.process = process;
         this.storage = Paths.get(storage.toString(), process.id());
         this.marshaller = marshaller;
 
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+
         try {
             Files.createDirectories(this.storage);
+            this.tempStorage = Files.createDirectories(this.storage.resolve(TEMP_DIRECTORY));
+            this.lockStorage = Files.createDirectories(this.storage.resolve(LOCK_DIRECTORY));
+            if (deltas) {
+                this.deltaStorage = Files.createDirectories(this.storage.resolve(DELTA_DIRECTORY));
+            }
         } catch (IOException e) {
             throw new RuntimeException("Unable to create directories for file based storage of process instances", e);
         }
@@ -70,11 +116,9 @@ public class FileSystemProcessInstances implements MutableProcessInstances {
 
     @Override
     public Integer size() {
-        try (Stream<Path> stream = Files.walk(storage)) {
-            Long count = stream.filter(file -> !Files.isDirectory(file)).count();
+        try (Stream<Path> stream = files(ProcessInstanceFilter.all())) {
+            Long count = stream.count();
             return count.intValue();
-        } catch (IOException e) {
-            throw new RuntimeException("Unable to count process instances ", e);
         }
     }
 
@@ -85,25 +129,40 @@ public class FileSystemProcessInstances implements MutableProcessInstances {
         if (Files.notExists(processInstanceStorage)) {
             return Optional.empty();
         }
-        byte[] data = readBytesFromFile(processInstanceStorage);
-        return Optional.of(mode == MUTABLE ?
-                                   marshaller.unmarshallProcessInstance(data, process) :
-                                   marshaller.unmarshallReadOnlyProcessInstance(data, process)
-        );
+        byte[] data = readProcessInstance(processInstanceStorage);
+        return Optional.of(unmarshall(data, mode));
     }
 
     @Override
     public Collection values(ProcessInstanceReadMode mode) {
-        try (Stream<Path> stream = Files.walk(storage)) {
-            return stream
-                    .filter(file -> !Files.isDirectory(file))
-                    .map(this::readBytesFromFile)
-                    .map(b -> mode == MUTABLE ?
-                            marshaller.unmarshallProcessInstance(b, process) :
-                            marshaller.unmarshallReadOnlyProcessInstance(b, process))
+        try (Stream<ProcessInstance> stream = stream(mode)) {
+            return stream.collect(Collectors.toList());
+        }
+    }
+
+    @Override
+    public Stream stream(ProcessInstanceReadMode mode) {
+        return stream(ProcessInstanceFilter.all(), mode);
+    }
+
+    @Override
+    public Stream stream(ProcessInstanceFilter filter, ProcessInstanceReadMode mode) {
+        Stream<ProcessInstance> stream = files(filter).map(this::readProcessInstance).map(b -> unmarshall(b, mode));
+        return filter.isEmpty() ? stream : stream.filter(filter::test);
+    }
+
+    @Override
+    public List page(ProcessInstanceFilter filter, int offset, int limit, ProcessInstanceReadMode mode) {
+        if (filter.getBusinessKey() != null || (!filter.getStatuses().isEmpty() && !supportsUserDefinedAttributes(storage))) {
+            return MutableProcessInstances.super.page(filter, offset, limit, mode);
+        }
+        // status is available from file metadata so skipped instances are never read
+        try (Stream<Path> files = files(filter)) {
+            return files.skip(offset)
+                    .limit(limit)
+                    .map(this::readProcessInstance)
+                    .map(b -> unmarshall(b, mode))
                     .collect(Collectors.toList());
-        } catch (IOException e) {
-            throw new RuntimeException("Unable to read process instances ", e);
         }
     }
 
@@ -117,10 +176,12 @@ public class FileSystemProcessInstances implements MutableProcessInstances {
     public void create(String id, ProcessInstance instance) {
         if (isActive(instance)) {
             Path processInstanceStorage = Paths.get(storage.toString(), id);
-            if (Files.exists(processInstanceStorage)) {
-                throw new ProcessInstanceDuplicatedException(id);
-            }
-            storeProcessInstance(processInstanceStorage, instance);
+            locked(id, () -> {
+                if (Files.exists(processInstanceStorage)) {
+                    throw new ProcessInstanceDuplicatedException(id);
+                }
+                storeProcessInstance(processInstanceStorage, instance);
+            });
         }
     }
 
@@ -129,28 +190,64 @@ public class FileSystemProcessInstances implements MutableProcessInstances {
     public void update(String id, ProcessInstance instance) {
         if (isActive(instance)) {
             Path processInstanceStorage = Paths.get(storage.toString(), id);
-            if (Files.exists(processInstanceStorage)) {
-                storeProcessInstance(processInstanceStorage, instance);
-            }
+            locked(id, () -> {
+                if (Files.exists(processInstanceStorage)) {
+                    checkVersion(processInstanceStorage, instance);
+                    storeProcessInstance(processInstanceStorage, instance);
+                }
+            });
         }
     }
 
     @Override
     public void remove(String id) {
         Path processInstanceStorage = Paths.get(storage.toString(), id);
-        try {
-            Files.deleteIfExists(processInstanceStorage);
-        } catch (IOException e) {
-            throw new RuntimeException("Unable to remove process instance with id " + id, e);
+        locked(id, () -> {
+            try {
+                Files.deleteIfExists(processInstanceStorage);
+                if (deltaStorage != null) {
+                    Files.deleteIfExists(deltaStorage.resolve(id));
+                }
+            } catch (IOException e) {
+                throw new RuntimeException("Unable to remove process instance with id " + id, e);
+            }
+            // removed while locked, others waiting for the lock notice it is gone and lock a new file
+            try {
+                Files.deleteIfExists(lockStorage.resolve(id));
+            } catch (IOException e) {
+                LOGGER.debug("Unable to remove lock file of process instance with id {}", id, e);
+            }
+        });
+        if (eventIndex != null) {
+            eventIndex.remove(id);
+        }
+        untracked.remove(id);
+    }
+
+    @Override
+    public Optional<Collection<String>> waitingFor(String eventType) {
+        if (!supportsUserDefinedAttributes(storage)) {
+            return Optional.empty();
+        }
+        ProcessInstanceEventIndex index = eventIndex();
+        if (!untracked.isEmpty()) {
+            return Optional.empty();
         }
+        return Optional.of(index.find(eventType));
     }
 
     protected void storeProcessInstance(Path processInstanceStorage, ProcessInstance<?> instance) {
         try {
             byte[] data = marshaller.marshallProcessInstance(instance);
-            Files.write(processInstanceStorage, data);
+            writeProcessInstance(processInstanceStorage, data);
             setMetadata(processInstanceStorage, PI_DESCRIPTION, instance.description());
             setMetadata(processInstanceStorage, PI_STATUS, String.valueOf(instance.status()));
+            Set<String> events = ProcessInstanceEventIndex.eventTypesOf(instance);
+            if (setMetadata(processInstanceStorage, PI_EVENTS, String.join(EVENTS_SEPARATOR, events))) {
+                String id = processInstanceStorage.getFileName().toString();
+                eventIndex().update(id, events);
+                untracked.remove(id);
+            }
 
             disconnect(processInstanceStorage, instance);
         } catch (IOException e) {
@@ -158,6 +255,89 @@ public class FileSystemProcessInstances implements MutableProcessInstances {
         }
     }
 
+    protected void writeProcessInstance(Path processInstanceStorage, byte[] data) throws IOException {
+        if (deltaStorage == null) {
+            writeAtomically(processInstanceStorage, data);
+            return;
+        }
+        Path delta = deltaStorage.resolve(processInstanceStorage.getFileName().toString());
+        if (Files.exists(processInstanceStorage)) {
+            byte[] diff = ProcessInstanceDelta.diff(readBytesFromFile(processInstanceStorage), data, (int) (data.length * ProcessInstanceDelta.DEFAULT_MAX_DELTA_RATIO));
+            if (diff != null) {
+                writeAtomically(delta, diff);
+                return;
+            }
+        }
+        // snapshot goes first, a delta left behind by a crash no longer applies to it and is ignored
+        writeAtomically(processInstanceStorage, data);
+        Files.deleteIfExists(delta);
+    }
+
+    protected void writeAtomically(Path target, byte[] data) throws IOException {
+        Path temp = Files.createTempFile(tempStorage, target.getFileName().toString(), null);
+        try {
+            Files.write(temp, data);
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Version of a stored process instance is the hash of its content, the instance must not have changed
+     * since it was read. Callers hold the lock of the instance.
+     */
+    protected void checkVersion(Path processInstanceStorage, ProcessInstance<?> instance) {
+        long version = ((AbstractProcessInstance<?>) instance).version();
+        if (version == 0L) {
+            return;
+        }
+        if (Files.notExists(processInstanceStorage) || ProcessInstanceNearCache.version(readProcessInstance(processInstanceStorage)) != version) {
+            throw new ProcessInstanceOptimisticLockingException(instance.id());
+        }
+    }
+
+    protected void locked(String id, Runnable operation) {
+        Path lockFile = lockStorage.resolve(id);
+        // file locks are held per JVM, threads of this JVM are serialized first
+        synchronized (locks[Math.floorMod(id.hashCode(), locks.length)]) {
+            while (true) {
+                try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                    Object opened = fileKey(lockFile);
+                    try (FileLock lock = channel.lock()) {
+                        // the lock file may have been removed, and created again, while waiting for the lock
+                        if (Objects.equals(opened, fileKey(lockFile))) {
+                            operation.run();
+                            return;
+                        }
+                    }
+                } catch (NoSuchFileException e) {
+                    // lock file removed meanwhile, tries again with a new one
+                } catch (IOException e) {
+                    throw new RuntimeException("Unable to lock process instance with id " + id, e);
+                }
+            }
+        }
+    }
+
+    private static Object fileKey(Path file) throws IOException {
+        return Files.readAttributes(file, BasicFileAttributes.class).fileKey();
+    }
+
+    protected byte[] readProcessInstance(Path processInstanceStorage) {
+        byte[] data = readBytesFromFile(processInstanceStorage);
+        if (deltaStorage != null) {
+            Path delta = deltaStorage.resolve(processInstanceStorage.getFileName().toString());
+            if (Files.exists(delta)) {
+                byte[] diff = readBytesFromFile(delta);
+                if (ProcessInstanceDelta.appliesTo(data, diff)) {
+                    return ProcessInstanceDelta.apply(data, diff);
+                }
+            }
+        }
+        return data;
+    }
+
     protected byte[] readBytesFromFile(Path processInstanceStorage) {
         try {
             return Files.readAllBytes(processInstanceStorage);
@@ -170,7 +350,8 @@ public class FileSystemProcessInstances implements MutableProcessInstances {
         ((AbstractProcessInstance<?>) instance).internalRemoveProcessInstance(() -> {
 
             try {
-                byte[] reloaded = readBytesFromFile(processInstanceStorage);
+                byte[] reloaded = readProcessInstance(processInstanceStorage);
+                ((AbstractProcessInstance<?>) instance).setVersion(ProcessInstanceNearCache.version(reloaded));
                 return marshaller.unmarshallWorkflowProcessInstance(reloaded, process);
             } catch (RuntimeException e) {
                 LOGGER.error("Unexpected exception thrown when reloading process instance {}", instance.id(), e);
@@ -179,6 +360,59 @@ public class FileSystemProcessInstances implements MutableProcessInstances {
         });
     }
 
+    /**
+     * Event index is built from the file metadata on first use, instances are never unmarshalled for it
+     */
+    protected ProcessInstanceEventIndex eventIndex() {
+        if (eventIndex == null) {
+            synchronized (this) {
+                if (eventIndex == null) {
+                    ProcessInstanceEventIndex index = new ProcessInstanceEventIndex();
+                    try (Stream<Path> files = files(ProcessInstanceFilter.all())) {
+                        files.forEach(file -> {
+                            String events = getMetadata(file, PI_EVENTS);
+                            String id = file.getFileName().toString();
+                            if (events == null) {
+                                untracked.add(id);
+                            } else if (!events.isEmpty()) {
+                                index.update(id, Arrays.asList(events.split(EVENTS_SEPARATOR)));
+                            }
+                        });
+                    }
+                    eventIndex = index;
+                }
+            }
+        }
+        return eventIndex;
+    }
+
+    protected Stream<Path> files(ProcessInstanceFilter filter) {
+        try {
+            return Files.list(storage)
+                    .filter(file -> !Files.isDirectory(file))
+                    .filter(file -> acceptsStatus(file, filter));
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to read process instances ", e);
+        }
+    }
+
+    protected boolean acceptsStatus(Path file, ProcessInstanceFilter filter) {
+        if (filter.getStatuses().isEmpty()) {
+            return true;
+        }
+        String status = getMetadata(file, PI_STATUS);
+        // without metadata support the status cannot be checked up front
+        return status == null || filter.acceptsStatus(Integer.parseInt(status));
+    }
+
+    protected ProcessInstance unmarshall(byte[] data, ProcessInstanceReadMode mode) {
+        ProcessInstance instance = mode == MUTABLE ?
+                marshaller.unmarshallProcessInstance(data, process) :
+                marshaller.unmarshallReadOnlyProcessInstance(data, process);
+        ((AbstractProcessInstance<?>) instance).setVersion(ProcessInstanceNearCache.version(data));
+        return instance;
+    }
+
     public String getMetadata(Path file, String key) {
 
         if (supportsUserDefinedAttributes(file)) {
@@ -0,0 +1,253 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.persistence.filesystem;
+
+import java.io.Closeable;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.kie.kogito.process.MutableProcessInstances;
+import org.kie.kogito.process.Process;
+import org.kie.kogito.process.ProcessInstance;
+import org.kie.kogito.process.ProcessInstanceDuplicatedException;
+import org.kie.kogito.process.ProcessInstanceFilter;
+import org.kie.kogito.process.ProcessInstanceOptimisticLockingException;
+import org.kie.kogito.process.ProcessInstanceReadMode;
+import org.kie.kogito.process.impl.AbstractProcessInstance;
+import org.kie.kogito.process.impl.ProcessInstanceEventIndex;
+import org.kie.kogito.process.impl.ProcessInstanceNearCache;
+import org.kie.kogito.process.impl.marshalling.ProcessInstanceMarshaller;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.kie.kogito.process.ProcessInstanceReadMode.MUTABLE;
+
+/**
+ * File system based storage of process instances that keeps all instances of a process in a {@link SegmentedLog}
+ * instead of one file per instance. Status and description are kept next to every record so they can be looked up
+ * without unmarshalling the instance, together with the event types each instance waits for.
+ */
+@SuppressWarnings({"rawtypes"})
+public class LogStructuredProcessInstances implements MutableProcessInstances, Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LogStructuredProcessInstances.class);
+
+    private static final int LOCK_STRIPES = 64;
+
+    private Process<?> process;
+    private SegmentedLog log;
+    private ProcessInstanceEventIndex eventIndex = new ProcessInstanceEventIndex();
+    // guards the version check and write of an instance, the log itself is written by this JVM only
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    private ProcessInstanceMarshaller marshaller;
+
+    public LogStructuredProcessInstances(Process<?> process, Path storage) {
+        this(process, new SegmentedLog(Paths.get(storage.toString(), process.id())), new ProcessInstanceMarshaller());
+    }
+
+    public LogStructuredProcessInstances(Process<?> process, SegmentedLog log, ProcessInstanceMarshaller marshaller) {
+        this.process = process;
+        this.log = log;
+        this.marshaller = marshaller;
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+        for (String id : log.keys()) {
+            eventIndex.update(id, log.events(id));
+        }
+    }
+
+    @Override
+    public Integer size() {
+        return log.size();
+    }
+
+    @Override
+    public Optional findById(String id, ProcessInstanceReadMode mode) {
+        byte[] data = log.read(id);
+        if (data == null) {
+            return Optional.empty();
+        }
+        return Optional.of(unmarshall(data, mode));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public Collection values(ProcessInstanceReadMode mode) {
+        return ((Stream<ProcessInstance>) stream(mode)).collect(Collectors.toList());
+    }
+
+    @Override
+    public Stream stream(ProcessInstanceReadMode mode) {
+        return stream(ProcessInstanceFilter.all(), mode);
+    }
+
+    @Override
+    public Stream stream(ProcessInstanceFilter filter, ProcessInstanceReadMode mode) {
+        Stream<ProcessInstance> stream = read(filter).map(data -> unmarshall(data, mode));
+        return filter.getBusinessKey() == null ? stream : stream.filter(filter::test);
+    }
+
+    @Override
+    public List page(ProcessInstanceFilter filter, int offset, int limit, ProcessInstanceReadMode mode) {
+        if (filter.getBusinessKey() != null) {
+            return MutableProcessInstances.super.page(filter, offset, limit, mode);
+        }
+        // status is kept in the index so skipped instances are never unmarshalled
+        return read(filter).skip(offset)
+                .limit(limit)
+                .map(data -> unmarshall(data, mode))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public boolean exists(String id) {
+        return log.contains(id);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void create(String id, ProcessInstance instance) {
+        if (isActive(instance)) {
+            synchronized (lockFor(id)) {
+                if (log.contains(id)) {
+                    throw new ProcessInstanceDuplicatedException(id);
+                }
+                storeProcessInstance(id, instance);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void update(String id, ProcessInstance instance) {
+        if (isActive(instance)) {
+            synchronized (lockFor(id)) {
+                // checked while locked, an instance removed in between must not be stored again
+                if (log.contains(id)) {
+                    checkVersion(id, instance);
+                    storeProcessInstance(id, instance);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void remove(String id) {
+        synchronized (lockFor(id)) {
+            log.delete(id);
+            eventIndex.remove(id);
+        }
+    }
+
+    @Override
+    public Optional<Collection<String>> waitingFor(String eventType) {
+        return Optional.of(eventIndex.find(eventType));
+    }
+
+    @Override
+    public void batch(Runnable operations) {
+        log.batch(operations);
+    }
+
+    public Integer getStatus(String id) {
+        return log.status(id);
+    }
+
+    public String getDescription(String id) {
+        return log.description(id);
+    }
+
+    public SegmentedLog getLog() {
+        return log;
+    }
+
+    /**
+     * Closes the underlying log, stopping its compaction and releasing its segments
+     */
+    @Override
+    public void close() {
+        log.close();
+    }
+
+    /**
+     * Version of a stored process instance is the hash of its content, the instance must not have changed
+     * since it was read
+     */
+    protected void checkVersion(String id, ProcessInstance<?> instance) {
+        long version = ((AbstractProcessInstance<?>) instance).version();
+        if (version == 0L) {
+            return;
+        }
+        byte[] current = log.read(id);
+        if (current == null || ProcessInstanceNearCache.version(current) != version) {
+            throw new ProcessInstanceOptimisticLockingException(id);
+        }
+    }
+
+    private Object lockFor(String id) {
+        return locks[Math.floorMod(id.hashCode(), locks.length)];
+    }
+
+    protected void storeProcessInstance(String id, ProcessInstance<?> instance) {
+        Collection<String> events = ProcessInstanceEventIndex.eventTypesOf(instance);
+        log.write(id, instance.status(), instance.description(), events, marshaller.marshallProcessInstance(instance));
+        eventIndex.update(id, events);
+        disconnect(id, instance);
+    }
+
+    protected void disconnect(String id, ProcessInstance instance) {
+        ((AbstractProcessInstance<?>) instance).internalRemoveProcessInstance(() -> {
+            try {
+                byte[] reloaded = log.read(id);
+                if (reloaded == null) {
+                    return null;
+                }
+                ((AbstractProcessInstance<?>) instance).setVersion(ProcessInstanceNearCache.version(reloaded));
+                return marshaller.unmarshallWorkflowProcessInstance(reloaded, process);
+            } catch (RuntimeException e) {
+                LOGGER.error("Unexpected exception thrown when reloading process instance {}", instance.id(), e);
+                return null;
+            }
+        });
+    }
+
+    private Stream<byte[]> read(ProcessInstanceFilter filter) {
+        return log.keys().stream()
+                .filter(id -> filter.getStatuses().isEmpty() || acceptsStatus(filter, log.status(id)))
+                .map(log::read)
+                .filter(Objects::nonNull);
+    }
+
+    private static boolean acceptsStatus(ProcessInstanceFilter filter, Integer status) {
+        return status != null && filter.acceptsStatus(status);
+    }
+
+    private ProcessInstance unmarshall(byte[] data, ProcessInstanceReadMode mode) {
+        ProcessInstance instance = mode == MUTABLE ?
+                marshaller.unmarshallProcessInstance(data, process) :
+                marshaller.unmarshallReadOnlyProcessInstance(data, process);
+        ((AbstractProcessInstance<?>) instance).setVersion(ProcessInstanceNearCache.version(data));
+        return instance;
+    }
+}
@@ -0,0 +1,639 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.persistence.filesystem;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Append only, segmented log of binary records keyed by string identifiers.
+ * <p>
+ * Every segment is a preallocated file that is memory mapped through NIO, records are appended at the end of the
+ * active segment and an in memory index keeps track of the location of the latest record of every key. Removals are
+ * appended as tombstones. Sealed segments that mostly contain overwritten or removed records are compacted in the
+ * background by copying their live records to the active segment and deleting the segment file.
+ * <p>
+ * Record layout: <code>type(1) checksum(4) keyLength(4) key status(4) descriptionLength(4) description eventsLength(4)
+ * events dataLength(4) data</code>, where events are the event types the process instance listens to separated by new
+ * lines and checksum is the CRC32 of everything after it. The type byte is written last, which is enough for a JVM
+ * crash, but the OS may flush the pages of a record in any order on power loss, so replay also stops at the first
+ * record whose checksum does not match.
+ */
+public class SegmentedLog implements Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SegmentedLog.class);
+
+    public static final int DEFAULT_SEGMENT_SIZE = 16 * 1024 * 1024;
+    public static final double DEFAULT_COMPACTION_THRESHOLD = 0.5;
+    public static final long DEFAULT_COMPACTION_INTERVAL = 60_000L;
+
+    static final String SEGMENT_SUFFIX = ".segment";
+
+    static final byte RECORD_PUT = 1;
+    static final byte RECORD_DELETE = 2;
+
+    private static final int NO_STRING = -1;
+    private static final String EVENTS_SEPARATOR = "\n";
+    private static final int INT_SIZE = Integer.BYTES;
+    private static final int HEADER_SIZE = 1 + INT_SIZE;
+    private static final long CLOSE_TIMEOUT = 10L;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final boolean syncOnWrite;
+    private final double compactionThreshold;
+    // nesting depth of batches, guarded by the append lock
+    private int batchDepth;
+    // guarded by the append lock
+    private boolean closed;
+
+    private final NavigableMap<Integer, Segment> segments = new ConcurrentSkipListMap<>();
+    private final Map<String, Entry> index = new ConcurrentHashMap<>();
+
+    // appends are serialized, reads only need to be protected against segments being dropped by compaction
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final ReadWriteLock segmentsLock = new ReentrantReadWriteLock();
+
+    private final ScheduledExecutorService compactor;
+
+    private volatile Segment active;
+
+    public SegmentedLog(Path directory) {
+        this(directory, DEFAULT_SEGMENT_SIZE, true, DEFAULT_COMPACTION_THRESHOLD, DEFAULT_COMPACTION_INTERVAL);
+    }
+
+    public SegmentedLog(Path directory, int segmentSize, boolean syncOnWrite, double compactionThreshold, long compactionInterval) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.syncOnWrite = syncOnWrite;
+        this.compactionThreshold = compactionThreshold;
+
+        try {
+            Files.createDirectories(directory);
+            recover();
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to open segmented log at " + directory, e);
+        }
+
+        if (compactionInterval > 0) {
+            this.compactor = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "kogito-segmented-log-compactor-" + directory.getFileName());
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.compactor.scheduleWithFixedDelay(this::compactSafely, compactionInterval, compactionInterval, TimeUnit.MILLISECONDS);
+        } else {
+            this.compactor = null;
+        }
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    public boolean contains(String key) {
+        return index.containsKey(key);
+    }
+
+    public Set<String> keys() {
+        return index.keySet();
+    }
+
+    public Integer status(String key) {
+        Entry entry = index.get(key);
+        return entry == null ? null : entry.status;
+    }
+
+    public String description(String key) {
+        Entry entry = index.get(key);
+        return entry == null ? null : entry.description;
+    }
+
+    public Collection<String> events(String key) {
+        Entry entry = index.get(key);
+        if (entry == null || entry.events == null || entry.events.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return Arrays.asList(entry.events.split(EVENTS_SEPARATOR));
+    }
+
+    public byte[] read(String key) {
+        segmentsLock.readLock().lock();
+        try {
+            Entry entry = index.get(key);
+            if (entry == null) {
+                return null;
+            }
+            ByteBuffer buffer = segments.get(entry.segment).buffer.duplicate();
+            buffer.position(entry.dataOffset);
+            byte[] data = new byte[entry.dataLength];
+            buffer.get(data);
+            return data;
+        } finally {
+            segmentsLock.readLock().unlock();
+        }
+    }
+
+    public void write(String key, int status, String description, byte[] data) {
+        write(key, status, description, Collections.emptyList(), data);
+    }
+
+    public void write(String key, int status, String description, Collection<String> events, byte[] data) {
+        appendLock.lock();
+        try {
+            checkOpen();
+            Entry entry = append(RECORD_PUT, key, status, description, String.join(EVENTS_SEPARATOR, events), data);
+            track(key, entry);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Runs the given writes holding the append lock and, when syncing on write, forces the log to disk once
+     * at the end instead of after every record.
+     */
+    public void batch(Runnable writes) {
+        appendLock.lock();
+        try {
+            checkOpen();
+            batchDepth++;
+            try {
+                writes.run();
+            } finally {
+                batchDepth--;
+                if (syncOnWrite && batchDepth == 0 && !closed) {
+                    active.buffer.force();
+                }
+            }
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    public void delete(String key) {
+        appendLock.lock();
+        try {
+            checkOpen();
+            if (index.containsKey(key)) {
+                append(RECORD_DELETE, key, 0, null, null, new byte[0]);
+                track(key, null);
+            }
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Rewrites every sealed segment whose ratio of live bytes falls below the compaction threshold.
+     */
+    public void compact() {
+        List<Segment> candidates = new ArrayList<>();
+        appendLock.lock();
+        try {
+            // positions of the segments are updated while appending
+            for (Segment segment : segments.values()) {
+                if (segment != active && segment.liveRatio() < compactionThreshold) {
+                    candidates.add(segment);
+                }
+            }
+        } finally {
+            appendLock.unlock();
+        }
+        candidates.forEach(this::compact);
+    }
+
+    /**
+     * Waits for a running compaction to complete, then closes and unmaps every segment. The log can no longer be
+     * written afterwards.
+     */
+    @Override
+    public void close() {
+        if (compactor != null) {
+            compactor.shutdown();
+            try {
+                if (!compactor.awaitTermination(CLOSE_TIMEOUT, TimeUnit.SECONDS)) {
+                    LOGGER.warn("Compaction of segmented log at {} did not complete in time", directory);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        appendLock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (syncOnWrite) {
+                active.buffer.force();
+            }
+            segmentsLock.writeLock().lock();
+            try {
+                for (Segment segment : segments.values()) {
+                    segment.close();
+                }
+                segments.clear();
+                index.clear();
+            } finally {
+                segmentsLock.writeLock().unlock();
+            }
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Segmented log at " + directory + " is closed");
+        }
+    }
+
+    private void compactSafely() {
+        try {
+            compact();
+        } catch (RuntimeException e) {
+            LOGGER.warn("Unexpected error while compacting segmented log at {}", directory, e);
+        }
+    }
+
+    private void compact(Segment segment) {
+        appendLock.lock();
+        try {
+            if (closed || !segments.containsKey(segment.id)) {
+                return;
+            }
+            boolean oldest = segments.firstKey() == segment.id;
+            ByteBuffer buffer = segment.buffer.duplicate();
+            int position = 0;
+            Record record;
+            while ((record = Record.read(buffer, position)) != null) {
+                if (record.type == RECORD_PUT) {
+                    Entry current = index.get(record.key);
+                    if (current != null && current.segment == segment.id && current.recordOffset == position) {
+                        track(record.key, append(RECORD_PUT, record.key, record.status, record.description, record.events, record.data));
+                    }
+                } else if (!oldest && !index.containsKey(record.key)) {
+                    // older segments may still hold a value for this key, keep the tombstone around
+                    append(RECORD_DELETE, record.key, 0, null, null, new byte[0]);
+                }
+                position += record.length;
+            }
+        } finally {
+            appendLock.unlock();
+        }
+
+        segmentsLock.writeLock().lock();
+        try {
+            // the log may have been closed in between, its segments are then already unmapped
+            if (segments.remove(segment.id) == null) {
+                return;
+            }
+            segment.close();
+            Files.deleteIfExists(segment.file);
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to delete compacted segment " + segment.file, e);
+        } finally {
+            segmentsLock.writeLock().unlock();
+        }
+        LOGGER.debug("Compacted segment {}", segment.file);
+    }
+
+    private void track(String key, Entry entry) {
+        Entry previous = entry == null ? index.remove(key) : index.put(key, entry);
+        if (entry != null) {
+            entry.segmentOf(segments).liveBytes.addAndGet(entry.recordLength);
+        }
+        if (previous != null) {
+            Segment segment = previous.segmentOf(segments);
+            if (segment != null) {
+                segment.liveBytes.addAndGet(-previous.recordLength);
+            }
+        }
+    }
+
+    private Entry append(byte type, String key, int status, String description, String events, byte[] data) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        byte[] descriptionBytes = toBytes(description);
+        byte[] eventsBytes = toBytes(events);
+        int length = HEADER_SIZE + INT_SIZE + keyBytes.length + INT_SIZE + INT_SIZE + lengthOf(descriptionBytes) + INT_SIZE + lengthOf(eventsBytes) + INT_SIZE + data.length;
+
+        // one extra byte is always left free for the end of segment marker
+        if (active.capacity() - active.position <= length) {
+            roll(length + 1);
+        }
+
+        int recordOffset = active.position;
+        ByteBuffer buffer = active.buffer.duplicate();
+        buffer.position(recordOffset + HEADER_SIZE);
+        buffer.putInt(keyBytes.length);
+        buffer.put(keyBytes);
+        buffer.putInt(status);
+        putString(buffer, descriptionBytes);
+        putString(buffer, eventsBytes);
+        buffer.putInt(data.length);
+        int dataOffset = buffer.position();
+        buffer.put(data);
+        buffer.putInt(recordOffset + 1, checksum(buffer, recordOffset, length));
+        buffer.put(recordOffset, type);
+        active.position += length;
+
+        if (syncOnWrite && batchDepth == 0) {
+            active.buffer.force();
+        }
+        return new Entry(active.id, recordOffset, length, dataOffset, data.length, status, description, events);
+    }
+
+    private void roll(int minimumCapacity) {
+        if (syncOnWrite && active != null) {
+            active.buffer.force();
+        }
+        int id = active == null ? 0 : active.id + 1;
+        Segment segment = Segment.open(directory.resolve(segmentName(id)), id, Math.max(segmentSize, minimumCapacity));
+        segments.put(id, segment);
+        active = segment;
+    }
+
+    private void recover() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + SEGMENT_SUFFIX)) {
+            stream.forEach(files::add);
+        }
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            int id = Integer.parseInt(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+            segments.put(id, Segment.open(file, id, (int) Files.size(file)));
+        }
+
+        for (Segment segment : segments.values()) {
+            ByteBuffer buffer = segment.buffer.duplicate();
+            int position = 0;
+            Record record;
+            while ((record = Record.read(buffer, position)) != null) {
+                if (record.type == RECORD_PUT) {
+                    track(record.key, new Entry(segment.id, position, record.length, record.dataOffset, record.data.length, record.status, record.description, record.events));
+                } else {
+                    track(record.key, null);
+                }
+                position += record.length;
+            }
+            segment.position = position;
+            active = segment;
+        }
+
+        if (active == null) {
+            roll(segmentSize);
+        }
+        LOGGER.debug("Recovered {} entries from {} segments in {}", index.size(), segments.size(), directory);
+    }
+
+    private static int checksum(ByteBuffer buffer, int recordOffset, int recordLength) {
+        ByteBuffer body = buffer.duplicate();
+        body.limit(recordOffset + recordLength);
+        body.position(recordOffset + HEADER_SIZE);
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        return (int) crc.getValue();
+    }
+
+    private static byte[] toBytes(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int lengthOf(byte[] bytes) {
+        return bytes == null ? 0 : bytes.length;
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] bytes) {
+        if (bytes == null) {
+            buffer.putInt(NO_STRING);
+        } else {
+            buffer.putInt(bytes.length);
+            buffer.put(bytes);
+        }
+    }
+
+    static String segmentName(int id) {
+        return String.format("%010d%s", id, SEGMENT_SUFFIX);
+    }
+
+    private static class Segment {
+
+        private final int id;
+        private final Path file;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private final AtomicLong liveBytes = new AtomicLong();
+        // end of the last record, guarded by the append lock once the log is open
+        private int position;
+
+        private Segment(int id, Path file, FileChannel channel, MappedByteBuffer buffer) {
+            this.id = id;
+            this.file = file;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        static Segment open(Path file, int id, int capacity) {
+            try {
+                FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                return new Segment(id, file, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity));
+            } catch (IOException e) {
+                throw new RuntimeException("Unable to open segment " + file, e);
+            }
+        }
+
+        int capacity() {
+            return buffer.capacity();
+        }
+
+        double liveRatio() {
+            return position == 0 ? 1 : (double) liveBytes.get() / position;
+        }
+
+        /**
+         * Closes the channel and unmaps the buffer, which must no longer be accessed
+         */
+        void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                LOGGER.warn("Unable to close segment {}", file, e);
+            }
+            Unmapper.unmap(buffer);
+        }
+    }
+
+    /**
+     * Mapped buffers are otherwise only released once garbage collected, keeping the files of closed or compacted
+     * segments mapped in the meantime.
+     */
+    private static class Unmapper {
+
+        private static final Object UNSAFE;
+        private static final Method INVOKE_CLEANER;
+
+        static {
+            Object unsafe = null;
+            Method invokeCleaner = null;
+            try {
+                Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+                Field field = unsafeClass.getDeclaredField("theUnsafe");
+                field.setAccessible(true);
+                unsafe = field.get(null);
+                invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                LOGGER.debug("Mapped segments cannot be unmapped explicitly, they are released once garbage collected", e);
+            }
+            UNSAFE = unsafe;
+            INVOKE_CLEANER = invokeCleaner;
+        }
+
+        static void unmap(MappedByteBuffer buffer) {
+            if (INVOKE_CLEANER == null) {
+                return;
+            }
+            try {
+                INVOKE_CLEANER.invoke(UNSAFE, buffer);
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                LOGGER.debug("Unable to unmap segment buffer", e);
+            }
+        }
+    }
+
+    private static class Entry {
+
+        private final int segment;
+        private final int recordOffset;
+        private final int recordLength;
+        private final int dataOffset;
+        private final int dataLength;
+        private final int status;
+        private final String description;
+        private final String events;
+
+        private Entry(int segment, int recordOffset, int recordLength, int dataOffset, int dataLength, int status, String description, String events) {
+            this.segment = segment;
+            this.recordOffset = recordOffset;
+            this.recordLength = recordLength;
+            this.dataOffset = dataOffset;
+            this.dataLength = dataLength;
+            this.status = status;
+            this.description = description;
+            this.events = events;
+        }
+
+        Segment segmentOf(Map<Integer, Segment> segments) {
+            return segments.get(segment);
+        }
+    }
+
+    private static class Record {
+
+        private byte type;
+        private String key;
+        private int status;
+        private String description;
+        private String events;
+        private int dataOffset;
+        private byte[] data;
+        private int length;
+
+        /**
+         * Reads the record starting at the given position, returns <code>null</code> when the end of the segment
+         * or an incomplete or corrupted record is reached.
+         */
+        static Record read(ByteBuffer buffer, int position) {
+            if (position >= buffer.capacity()) {
+                return null;
+            }
+            byte type = buffer.get(position);
+            if (type != RECORD_PUT && type != RECORD_DELETE) {
+                return null;
+            }
+            try {
+                int expected = buffer.getInt(position + 1);
+                buffer.position(position + HEADER_SIZE);
+                Record record = new Record();
+                record.type = type;
+                record.key = readString(buffer, buffer.getInt());
+                record.status = buffer.getInt();
+                record.description = readString(buffer, buffer.getInt());
+                record.events = readString(buffer, buffer.getInt());
+                record.data = new byte[checkLength(buffer, buffer.getInt())];
+                record.dataOffset = buffer.position();
+                buffer.get(record.data);
+                record.length = buffer.position() - position;
+                if (checksum(buffer, position, record.length) != expected) {
+                    LOGGER.warn("Ignoring record with invalid checksum at position {}", position);
+                    return null;
+                }
+                return record;
+            } catch (RuntimeException e) {
+                LOGGER.warn("Ignoring corrupted record at position {}", position);
+                return null;
+            }
+        }
+
+        private static String readString(ByteBuffer buffer, int length) {
+            if (length == NO_STRING) {
+                return null;
+            }
+            byte[] bytes = new byte[checkLength(buffer, length)];
+            buffer.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        // lengths of a torn record can be anything, they must not cause huge allocations
+        private static int checkLength(ByteBuffer buffer, int length) {
+            if (length < 0 || length > buffer.remaining()) {
+                throw new IllegalStateException("Invalid length " + length);
+            }
+            return length;
+        }
+    }
+}
@@ -15,7 +15,10 @@
 
 package org.kie.persistence.filesystem;
 
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Collections;
+import java.util.stream.Stream;
 
 import org.drools.core.io.impl.ClassPathResource;
 import org.jbpm.process.instance.impl.Action;
@@ -30,6 +33,8 @@ import org.kie.kogito.persistence.filesystem.FileSystemProcessInstances;
 import org.kie.kogito.process.Process;
 import org.kie.kogito.process.ProcessConfig;
 import org.kie.kogito.process.ProcessInstance;
+import org.kie.kogito.process.ProcessInstanceFilter;
+import org.kie.kogito.process.ProcessInstanceOptimisticLockingException;
 import org.kie.kogito.process.ProcessInstanceReadMode;
 import org.kie.kogito.process.ProcessInstances;
 import org.kie.kogito.process.WorkItem;
@@ -46,6 +51,7 @@ import org.kie.kogito.uow.UnitOfWorkManager;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.assertj.core.api.Assertions.entry;
 import static org.kie.kogito.internal.process.runtime.KogitoProcessInstance.STATE_ACTIVE;
 import static org.kie.kogito.internal.process.runtime.KogitoProcessInstance.STATE_COMPLETED;
@@ -232,11 +238,87 @@ class FileSystemProcessInstancesTest {
         assertThat(fileSystemBasedStorage.size()).isZero();
     }
 
+    @Test
+    void testPageAndStream() {
+        BpmnProcess process = createProcess(null, "BPMN2-UserTask.bpmn2");
+        for (int i = 0; i < 5; i++) {
+            process.createInstance(BpmnVariables.create(Collections.singletonMap("test", "test" + i))).start();
+        }
+
+        ProcessInstances<BpmnVariables> instances = process.instances();
+        assertThat(instances.page(0, 3)).hasSize(3);
+        assertThat(instances.page(3, 3)).hasSize(2);
+        assertThat(instances.page(ProcessInstanceFilter.all().withStatus(STATE_ACTIVE), 0, 10, ProcessInstanceReadMode.READ_ONLY)).hasSize(5);
+        assertThat(instances.page(ProcessInstanceFilter.all().withStatus(STATE_COMPLETED), 0, 10, ProcessInstanceReadMode.READ_ONLY)).isEmpty();
+        try (Stream<ProcessInstance<BpmnVariables>> stream = instances.stream()) {
+            assertThat(stream.limit(2)).hasSize(2);
+        }
+
+        instances.values(ProcessInstanceReadMode.MUTABLE).forEach(ProcessInstance::abort);
+        assertThat(instances.page(0, 10)).isEmpty();
+    }
+
+    @Test
+    void testConcurrentUpdateRejected() {
+        BpmnProcess process = createProcess(null, "BPMN2-UserTask.bpmn2");
+        ProcessInstance<BpmnVariables> processInstance = process.createInstance(BpmnVariables.create(Collections.singletonMap("test", "test")));
+        processInstance.start();
+
+        ProcessInstance<BpmnVariables> first = process.instances().findById(processInstance.id()).get();
+        ProcessInstance<BpmnVariables> second = process.instances().findById(processInstance.id()).get();
+
+        first.updateVariables(BpmnVariables.create(Collections.singletonMap("test", "first")));
+        assertThatThrownBy(() -> second.updateVariables(BpmnVariables.create(Collections.singletonMap("test", "second"))))
+                .isInstanceOf(ProcessInstanceOptimisticLockingException.class);
+
+        assertThat(process.instances().findById(processInstance.id(), ProcessInstanceReadMode.READ_ONLY).get().variables().get("test"))
+                .isEqualTo("first");
+        process.instances().findById(processInstance.id()).get().abort();
+    }
+
+    @Test
+    void testDeltaMode() {
+        BpmnProcess process = BpmnProcess.from(new ClassPathResource("BPMN2-UserTask.bpmn2")).get(0);
+        process.setProcessInstancesFactory(new DeltaProcessInstancesFactory());
+        process.configure();
+        process.instances().values(ProcessInstanceReadMode.MUTABLE).forEach(p -> p.abort());
+
+        ProcessInstance<BpmnVariables> processInstance = process.createInstance(BpmnVariables.create(Collections.singletonMap("test", "test")));
+        processInstance.start();
+
+        Path delta = Paths.get("target", "delta", process.id(), ".delta", processInstance.id());
+        assertThat(delta).doesNotExist();
+
+        processInstance.updateVariables(BpmnVariables.create(Collections.singletonMap("test", "updated")));
+        assertThat(delta).exists();
+
+        ProcessInstance<BpmnVariables> reloaded = process.instances().findById(processInstance.id(), ProcessInstanceReadMode.READ_ONLY).get();
+        assertThat(reloaded.variables().get("test")).isEqualTo("updated");
+        assertThat(reloaded.description()).isEqualTo("User Task");
+
+        processInstance.abort();
+        assertThat(delta).doesNotExist();
+        assertThat(process.instances().size()).isZero();
+    }
+
+    private class DeltaProcessInstancesFactory extends KogitoProcessInstancesFactory {
+
+        @Override
+        public String path() {
+            return "target/delta";
+        }
+
+        @Override
+        public String mode() {
+            return DELTA_STORAGE_MODE;
+        }
+    }
+
     private class FileSystemProcessInstancesFactory extends KogitoProcessInstancesFactory {
 
         @Override
         public FileSystemProcessInstances createProcessInstances(Process<?> process) {
-            FileSystemProcessInstances instances = spy(super.createProcessInstances(process));
+            FileSystemProcessInstances instances = spy((FileSystemProcessInstances) super.createProcessInstances(process));
             return instances;
         }
 
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.persistence.filesystem;
+
+import java.util.Collections;
+import java.util.stream.Stream;
+
+import org.drools.core.io.impl.ClassPathResource;
+import org.junit.jupiter.api.Test;
+import org.kie.kogito.auth.SecurityPolicy;
+import org.kie.kogito.persistence.KogitoProcessInstancesFactory;
+import org.kie.kogito.persistence.filesystem.LogStructuredProcessInstances;
+import org.kie.kogito.process.MutableProcessInstances;
+import org.kie.kogito.process.ProcessInstance;
+import org.kie.kogito.process.ProcessInstanceFilter;
+import org.kie.kogito.process.ProcessInstanceReadMode;
+import org.kie.kogito.process.ProcessInstances;
+import org.kie.kogito.process.WorkItem;
+import org.kie.kogito.process.bpmn2.BpmnProcess;
+import org.kie.kogito.process.bpmn2.BpmnVariables;
+import org.kie.kogito.services.identity.StaticIdentityProvider;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.kie.kogito.internal.process.runtime.KogitoProcessInstance.STATE_ACTIVE;
+import static org.kie.kogito.internal.process.runtime.KogitoProcessInstance.STATE_COMPLETED;
+
+class LogStructuredProcessInstancesTest {
+
+    private SecurityPolicy securityPolicy = SecurityPolicy.of(new StaticIdentityProvider("john"));
+
+    private BpmnProcess createProcess(String fileName) {
+        BpmnProcess process = BpmnProcess.from(new ClassPathResource(fileName)).get(0);
+        process.setProcessInstancesFactory(new LogProcessInstancesFactory());
+        process.configure();
+        process.instances().values(ProcessInstanceReadMode.MUTABLE).forEach(p -> p.abort());
+        return process;
+    }
+
+    @Test
+    void testBasicFlow() {
+        BpmnProcess process = createProcess("BPMN2-UserTask.bpmn2");
+        ProcessInstance<BpmnVariables> processInstance = process.createInstance(BpmnVariables.create(Collections.singletonMap("test", "test")));
+        processInstance.start();
+
+        assertThat(processInstance.status()).isEqualTo(STATE_ACTIVE);
+        assertThat(processInstance.description()).isEqualTo("User Task");
+
+        LogStructuredProcessInstances storage = (LogStructuredProcessInstances) process.instances();
+        assertThat(storage.size()).isOne();
+        assertThat(storage.exists(processInstance.id())).isTrue();
+        assertThat(storage.getStatus(processInstance.id())).isEqualTo(STATE_ACTIVE);
+        assertThat(storage.getDescription(processInstance.id())).isEqualTo("User Task");
+
+        assertThat(processInstance.variables().get("test")).isEqualTo("test");
+        assertThat(process.instances().values().iterator().next().workItems(securityPolicy)).hasSize(1);
+
+        WorkItem workItem = processInstance.workItems(securityPolicy).get(0);
+        assertThat(workItem.getParameters().get("ActorId")).isEqualTo("john");
+        processInstance.completeWorkItem(workItem.getId(), null, securityPolicy);
+        assertThat(processInstance.status()).isEqualTo(STATE_COMPLETED);
+
+        assertThat(storage.size()).isZero();
+        assertThat(storage.exists(processInstance.id())).isFalse();
+    }
+
+    @Test
+    void testFindByIdReadMode() {
+        BpmnProcess process = createProcess("BPMN2-UserTask.bpmn2");
+        ProcessInstance<BpmnVariables> mutablePi = process.createInstance(BpmnVariables.create(Collections.singletonMap("test", "test")));
+        mutablePi.start();
+
+        ProcessInstances<BpmnVariables> instances = process.instances();
+        ProcessInstance<BpmnVariables> readOnlyPi = instances.findById(mutablePi.id(), ProcessInstanceReadMode.READ_ONLY).get();
+        assertThat(readOnlyPi.status()).isEqualTo(STATE_ACTIVE);
+        assertThatExceptionOfType(UnsupportedOperationException.class).isThrownBy(() -> readOnlyPi.abort());
+
+        instances.findById(mutablePi.id()).get().abort();
+        assertThat(instances.size()).isZero();
+        assertThat(instances.findById(mutablePi.id())).isEmpty();
+    }
+
+    @Test
+    void testPageAndStream() {
+        BpmnProcess process = createProcess("BPMN2-UserTask.bpmn2");
+        for (int i = 0; i < 5; i++) {
+            process.createInstance(BpmnVariables.create(Collections.singletonMap("test", "test" + i))).start();
+        }
+
+        ProcessInstances<BpmnVariables> instances = process.instances();
+        assertThat(instances.page(0, 3)).hasSize(3);
+        assertThat(instances.page(3, 3)).hasSize(2);
+        assertThat(instances.page(ProcessInstanceFilter.all().withStatus(STATE_ACTIVE), 0, 10, ProcessInstanceReadMode.READ_ONLY)).hasSize(5);
+        assertThat(instances.page(ProcessInstanceFilter.all().withStatus(STATE_COMPLETED), 0, 10, ProcessInstanceReadMode.READ_ONLY)).isEmpty();
+        try (Stream<ProcessInstance<BpmnVariables>> stream = instances.stream()) {
+            assertThat(stream.limit(2)).hasSize(2);
+        }
+
+        instances.values(ProcessInstanceReadMode.MUTABLE).forEach(ProcessInstance::abort);
+        assertThat(instances.page(0, 10)).isEmpty();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void testUpdateOfRemovedInstanceIgnored() {
+        BpmnProcess process = createProcess("BPMN2-UserTask.bpmn2");
+        ProcessInstance<BpmnVariables> processInstance = process.createInstance(BpmnVariables.create(Collections.singletonMap("test", "test")));
+        processInstance.start();
+
+        MutableProcessInstances<BpmnVariables> storage = (MutableProcessInstances<BpmnVariables>) process.instances();
+        ProcessInstance<BpmnVariables> stale = storage.findById(processInstance.id()).get();
+        storage.remove(processInstance.id());
+        storage.update(processInstance.id(), stale);
+
+        assertThat(storage.exists(processInstance.id())).isFalse();
+        assertThat(storage.waitingFor("workItemCompleted")).hasValueSatisfying(ids -> assertThat(ids).isEmpty());
+    }
+
+    @Test
+    void testClose() {
+        BpmnProcess process = createProcess("BPMN2-UserTask.bpmn2");
+        LogStructuredProcessInstances storage = (LogStructuredProcessInstances) process.instances();
+
+        storage.close();
+        assertThatExceptionOfType(IllegalStateException.class).isThrownBy(() -> storage.remove("unknown"));
+    }
+
+    private static class LogProcessInstancesFactory extends KogitoProcessInstancesFactory {
+
+        @Override
+        public String path() {
+            return "target/log";
+        }
+
+        @Override
+        public String mode() {
+            return LOG_STORAGE_MODE;
+        }
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.persistence.filesystem;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.kie.kogito.persistence.filesystem.SegmentedLog;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SegmentedLogTest {
+
+    @TempDir
+    Path directory;
+
+    private SegmentedLog open() {
+        return new SegmentedLog(directory, 256, false, 0.5, 0);
+    }
+
+    @Test
+    void testWriteReadAndDelete() {
+        try (SegmentedLog log = open()) {
+            log.write("one", 1, "first", bytes("value-1"));
+            log.write("two", 2, null, bytes("value-2"));
+            log.write("one", 1, "updated", bytes("value-3"));
+
+            assertThat(log.size()).isEqualTo(2);
+            assertThat(log.read("one")).isEqualTo(bytes("value-3"));
+            assertThat(log.description("one")).isEqualTo("updated");
+            assertThat(log.status("two")).isEqualTo(2);
+            assertThat(log.description("two")).isNull();
+
+            log.delete("one");
+            assertThat(log.contains("one")).isFalse();
+            assertThat(log.read("one")).isNull();
+            assertThat(log.size()).isOne();
+        }
+    }
+
+    @Test
+    void testClose() {
+        SegmentedLog log = new SegmentedLog(directory, 256, false, 0.5, 10);
+        log.write("one", 1, "first", bytes("value-1"));
+        log.close();
+        log.close();
+
+        assertThat(log.read("one")).isNull();
+        assertThatThrownBy(() -> log.write("two", 1, null, bytes("value-2"))).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> log.delete("one")).isInstanceOf(IllegalStateException.class);
+
+        try (SegmentedLog reopened = open()) {
+            assertThat(reopened.read("one")).isEqualTo(bytes("value-1"));
+        }
+    }
+
+    @Test
+    void testRecoverAfterReopen() {
+        try (SegmentedLog log = open()) {
+            for (int i = 0; i < 50; i++) {
+                log.write("key-" + (i % 5), 1, "description-" + i, bytes("value-" + i));
+            }
+            log.delete("key-0");
+            log.write("large", 1, null, new byte[1024]);
+        }
+
+        try (SegmentedLog log = open()) {
+            assertThat(log.size()).isEqualTo(5);
+            assertThat(log.contains("key-0")).isFalse();
+            assertThat(log.read("key-4")).isEqualTo(bytes("value-49"));
+            assertThat(log.description("key-4")).isEqualTo("description-49");
+            assertThat(log.read("large")).hasSize(1024);
+        }
+    }
+
+    @Test
+    void testEventsSurviveReopen() {
+        try (SegmentedLog log = open()) {
+            log.write("one", 1, null, Arrays.asList("Message-order", "timer"), bytes("value-1"));
+            log.write("two", 1, null, bytes("value-2"));
+        }
+
+        try (SegmentedLog log = open()) {
+            assertThat(log.events("one")).containsExactly("Message-order", "timer");
+            assertThat(log.events("two")).isEmpty();
+            assertThat(log.events("missing")).isEmpty();
+        }
+    }
+
+    @Test
+    void testCorruptedRecordNotReplayed() throws IOException {
+        try (SegmentedLog log = open()) {
+            log.write("one", 1, null, bytes("value-1"));
+            log.write("two", 1, null, bytes("value-2"));
+        }
+
+        // a record whose type byte reached the disk but not all of its body, as after a power loss
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.findFirst().get();
+        }
+        byte[] content = Files.readAllBytes(segment);
+        byte[] data = bytes("value-2");
+        for (int i = 0; i <= content.length - data.length; i++) {
+            if (Arrays.equals(Arrays.copyOfRange(content, i, i + data.length), data)) {
+                content[i] = 0;
+            }
+        }
+        Files.write(segment, content);
+
+        try (SegmentedLog log = open()) {
+            assertThat(log.read("one")).isEqualTo(bytes("value-1"));
+            assertThat(log.contains("two")).isFalse();
+        }
+    }
+
+    @Test
+    void testCompaction() throws IOException {
+        try (SegmentedLog log = open()) {
+            for (int i = 0; i < 50; i++) {
+                log.write("key-" + (i % 5), 1, null, bytes("value-" + i));
+            }
+            log.delete("key-0");
+            long segments = countSegments();
+            assertThat(segments).isGreaterThan(1);
+
+            log.compact();
+
+            assertThat(countSegments()).isLessThan(segments);
+            assertThat(log.size()).isEqualTo(4);
+            assertThat(log.read("key-3")).isEqualTo(bytes("value-48"));
+        }
+
+        try (SegmentedLog log = open()) {
+            assertThat(log.size()).isEqualTo(4);
+            assertThat(log.contains("key-0")).isFalse();
+            assertThat(log.read("key-1")).isEqualTo(bytes("value-46"));
+        }
+    }
+
+    private long countSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
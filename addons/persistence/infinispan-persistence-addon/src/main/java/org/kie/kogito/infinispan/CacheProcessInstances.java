@@ -15,20 +15,43 @@
 
 package org.kie.kogito.infinispan;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
+import org.infinispan.client.hotrod.Flag;
 import org.infinispan.client.hotrod.RemoteCache;
+import org.infinispan.client.hotrod.MetadataValue;
 import org.infinispan.client.hotrod.RemoteCacheManager;
+import org.infinispan.commons.util.CloseableIterator;
 import org.infinispan.protostream.BaseMarshaller;
+import org.jbpm.workflow.instance.WorkflowProcessInstance;
 import org.kie.kogito.persistence.protobuf.ProtoStreamObjectMarshallingStrategy;
 import org.kie.kogito.process.MutableProcessInstances;
 import org.kie.kogito.process.Process;
 import org.kie.kogito.process.ProcessInstance;
 import org.kie.kogito.process.ProcessInstanceDuplicatedException;
+import org.kie.kogito.process.ProcessInstanceFilter;
+import org.kie.kogito.process.ProcessInstanceOptimisticLockingException;
 import org.kie.kogito.process.ProcessInstanceReadMode;
+import org.kie.kogito.process.impl.AbstractProcess;
 import org.kie.kogito.process.impl.AbstractProcessInstance;
+import org.kie.kogito.process.impl.ProcessInstanceEventIndex;
+import org.kie.kogito.process.impl.ProcessInstanceNearCache;
 import org.kie.kogito.process.impl.marshalling.ProcessInstanceMarshaller;
 
 import static org.kie.kogito.process.ProcessInstanceReadMode.MUTABLE;
@@ -36,13 +59,36 @@ import static org.kie.kogito.process.ProcessInstanceReadMode.MUTABLE;
 @SuppressWarnings({"rawtypes"})
 public class CacheProcessInstances implements MutableProcessInstances {
 
+    private static final String EVENTS_SEPARATOR = "\n";
+    private static final int ITERATION_BATCH_SIZE = 100;
+
     private final RemoteCache<String, byte[]> cache;
+    // write token and event types each process instance listens to, kept apart so signals can be routed without unmarshalling
+    private final RemoteCache<String, String> eventsCache;
+    // one entry per event type and listening process instance, valued with the token of the write that added it
+    private final RemoteCache<String, String> waitingCache;
+    // set once every stored instance is known to have its event types tracked
+    private volatile boolean eventsTracked;
+    // updates buffered while a batch runs on the current thread, flushed with a single putAll
+    private final ThreadLocal<Map<String, byte[]>> pendingUpdates = new ThreadLocal<>();
+    private final ThreadLocal<Map<String, Set<String>>> pendingEvents = new ThreadLocal<>();
+    private final ThreadLocal<Map<String, Long>> pendingVersions = new ThreadLocal<>();
     private ProcessInstanceMarshaller marshaller;
+    // optional cache of hydrated instances, keyed by version of the stored bytes
+    private ProcessInstanceNearCache nearCache;
     private org.kie.kogito.process.Process<?> process;
 
     public CacheProcessInstances(Process<?> process, RemoteCacheManager cacheManager, String templateName, String proto, BaseMarshaller<?>... marshallers) {
+        this(process, cacheManager, null, templateName, proto, marshallers);
+    }
+
+    public CacheProcessInstances(Process<?> process, RemoteCacheManager cacheManager, ProcessInstanceNearCache nearCache, String templateName, String proto,
+            BaseMarshaller<?>... marshallers) {
         this.process = process;
+        this.nearCache = nearCache;
         this.cache = cacheManager.administration().getOrCreateCache(process.id() + "_store", ignoreNullOrEmpty(templateName));
+        this.eventsCache = cacheManager.administration().getOrCreateCache(process.id() + "_events", ignoreNullOrEmpty(templateName));
+        this.waitingCache = cacheManager.administration().getOrCreateCache(process.id() + "_waiting", ignoreNullOrEmpty(templateName));
         this.marshaller = new ProcessInstanceMarshaller(new ProtoStreamObjectMarshallingStrategy(proto, marshallers));
     }
 
@@ -53,24 +99,61 @@ public class CacheProcessInstances implements MutableProcessInstances {
 
     @Override
     public Optional<? extends ProcessInstance> findById(String id, ProcessInstanceReadMode mode) {
-        byte[] data = cache.get(id);
-        if (data == null) {
+        MetadataValue<byte[]> entry = cache.getWithMetadata(id);
+        if (entry == null) {
             return Optional.empty();
         }
-
-        return Optional.of(mode == MUTABLE ?
-                                   marshaller.unmarshallProcessInstance(data, process) :
-                                   marshaller.unmarshallReadOnlyProcessInstance(data, process));
+        return Optional.of(toInstance(id, entry.getValue(), entry.getVersion(), mode));
     }
 
     @Override
     public Collection<? extends ProcessInstance> values(ProcessInstanceReadMode mode) {
-        return cache.values()
-                .parallelStream()
-                .map(data -> mode == MUTABLE ?
-                        marshaller.unmarshallProcessInstance(data, process) :
-                        marshaller.unmarshallReadOnlyProcessInstance(data, process))
-                .collect(Collectors.toList());
+        try (Stream<ProcessInstance> stream = entries(mode)) {
+            return stream.collect(Collectors.toList());
+        }
+    }
+
+    @Override
+    public Stream stream(ProcessInstanceReadMode mode) {
+        return entries(mode);
+    }
+
+    @Override
+    public List page(ProcessInstanceFilter filter, int offset, int limit, ProcessInstanceReadMode mode) {
+        if (!filter.isEmpty()) {
+            return MutableProcessInstances.super.page(filter, offset, limit, mode);
+        }
+        try (Stream<ProcessInstance> stream = entries(mode)) {
+            return stream.skip(offset)
+                    .limit(limit)
+                    .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Stream of the stored instances, each carrying the version of its entry as the single reads do,
+     * so updates of instances loaded in bulk are conditional too. Remote iteration fetches entries
+     * in batches, closing the stream releases the remote iterator.
+     */
+    @SuppressWarnings("unchecked")
+    protected Stream<ProcessInstance> entries(ProcessInstanceReadMode mode) {
+        CloseableIterator<Map.Entry<Object, MetadataValue<Object>>> iterator = cache.retrieveEntriesWithMetadata(null, ITERATION_BATCH_SIZE);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.NONNULL), false)
+                .onClose(iterator::close)
+                .map(e -> toInstance((String) e.getKey(), (byte[]) e.getValue().getValue(), e.getValue().getVersion(), mode));
+    }
+
+    private ProcessInstance toInstance(String id, byte[] data, long version, ProcessInstanceReadMode mode) {
+        WorkflowProcessInstance cached = fromNearCache(id, data, mode);
+        ProcessInstance instance;
+        if (cached != null) {
+            instance = mode == MUTABLE ? ((AbstractProcess) process).createInstance(cached) : ((AbstractProcess) process).createReadOnlyInstance(cached);
+        } else {
+            instance = unmarshall(data, mode);
+        }
+        // server side version of the entry, updates are only applied if it did not change in between
+        ((AbstractProcessInstance<?>) instance).setVersion(version);
+        return instance;
     }
 
     @Override
@@ -80,7 +163,189 @@ public class CacheProcessInstances implements MutableProcessInstances {
 
     @Override
     public void remove(String id) {
+        Map<String, byte[]> pending = pendingUpdates.get();
+        if (pending != null) {
+            pending.remove(id);
+            pendingEvents.get().remove(id);
+            pendingVersions.get().remove(id);
+        }
         cache.remove(id);
+        String previous = eventsCache.withFlags(Flag.FORCE_RETURN_VALUE).remove(id);
+        if (previous != null) {
+            // the instance is gone, its listeners are dropped whichever write added them
+            List<CompletableFuture<String>> removals = new ArrayList<>();
+            for (String type : eventTypes(previous)) {
+                removals.add(waitingCache.removeAsync(waitingKey(type, id)));
+            }
+            await(removals);
+        }
+        if (nearCache != null) {
+            nearCache.invalidate(id);
+        }
+    }
+
+    @Override
+    public void batch(Runnable operations) {
+        if (pendingUpdates.get() != null) {
+            operations.run();
+            return;
+        }
+        Map<String, byte[]> updates = new HashMap<>();
+        Map<String, Set<String>> events = new HashMap<>();
+        Map<String, Long> versions = new HashMap<>();
+        pendingUpdates.set(updates);
+        pendingEvents.set(events);
+        pendingVersions.set(versions);
+        try {
+            operations.run();
+        } finally {
+            pendingUpdates.remove();
+            pendingEvents.remove();
+            pendingVersions.remove();
+        }
+        if (!updates.isEmpty()) {
+            flush(updates, events, versions);
+        }
+    }
+
+    private void flush(Map<String, byte[]> updates, Map<String, Set<String>> events, Map<String, Long> versions) {
+        // listeners of all the updates are added with a single putAll before any instance is written
+        Map<String, String> tokens = new HashMap<>();
+        Map<String, String> waiting = new HashMap<>();
+        events.forEach((id, types) -> {
+            String token = newToken();
+            tokens.put(id, token);
+            waiting.putAll(waitingEntries(id, types, token));
+        });
+        addWaiting(waiting);
+        // versioned updates are sent concurrently as conditional replaces, the remaining ones with a single putAll
+        Map<String, byte[]> unversioned = new HashMap<>();
+        Map<String, CompletableFuture<Boolean>> replaced = new HashMap<>();
+        updates.forEach((id, data) -> {
+            long version = versions.getOrDefault(id, 0L);
+            if (version == 0L) {
+                unversioned.put(id, data);
+            } else {
+                replaced.put(id, cache.replaceWithVersionAsync(id, data, version));
+            }
+        });
+        if (!unversioned.isEmpty()) {
+            cache.putAll(unversioned);
+        }
+        ProcessInstanceOptimisticLockingException conflict = null;
+        for (Map.Entry<String, CompletableFuture<Boolean>> entry : replaced.entrySet()) {
+            if (!Boolean.TRUE.equals(entry.getValue().join())) {
+                events.remove(entry.getKey());
+                conflict = addConflict(conflict, entry.getKey());
+            }
+        }
+        Map<String, String> entries = new HashMap<>();
+        events.forEach((id, types) -> entries.put(id, eventsEntry(tokens.get(id), types)));
+        Map<String, String> previous = eventsCache.getAll(entries.keySet());
+        eventsCache.putAll(entries);
+        List<CompletableFuture<Boolean>> removals = new ArrayList<>();
+        events.forEach((id, types) -> removals.addAll(removeStaleWaiting(id, previous.get(id), types)));
+        await(removals);
+        if (conflict != null) {
+            throw conflict;
+        }
+    }
+
+    private static ProcessInstanceOptimisticLockingException addConflict(ProcessInstanceOptimisticLockingException conflict, String id) {
+        ProcessInstanceOptimisticLockingException e = new ProcessInstanceOptimisticLockingException(id);
+        if (conflict == null) {
+            return e;
+        }
+        conflict.addSuppressed(e);
+        return conflict;
+    }
+
+    @Override
+    public Optional<Collection<String>> waitingFor(String eventType) {
+        if (!eventsTracked) {
+            if (eventsCache.size() != cache.size()) {
+                // instances stored before event types were tracked, fall back to broadcasting
+                return Optional.empty();
+            }
+            // instances stored from now on are always tracked, sizes need not be compared again
+            eventsTracked = true;
+        }
+        String prefix = waitingKey(eventType, "");
+        List<String> ids = new ArrayList<>();
+        try (CloseableIterator<Map.Entry<Object, Object>> iterator = waitingCache.retrieveEntries(null, ITERATION_BATCH_SIZE)) {
+            while (iterator.hasNext()) {
+                String key = (String) iterator.next().getKey();
+                if (key.startsWith(prefix)) {
+                    ids.add(key.substring(prefix.length()));
+                }
+            }
+        }
+        return Optional.of(ids);
+    }
+
+    /**
+     * Records the event types of a stored instance and drops the listeners its previous write added for
+     * types it no longer waits for. Listeners are always added before the instance is written and removed
+     * after it, so a failed write or a failure in between leaves extra listeners behind but never misses one.
+     */
+    private List<CompletableFuture<Boolean>> storeEvents(String id, Set<String> types, String token) {
+        String previous = eventsCache.withFlags(Flag.FORCE_RETURN_VALUE).put(id, eventsEntry(token, types));
+        return removeStaleWaiting(id, previous, types);
+    }
+
+    /**
+     * Removes the listeners added with the given events entry that are not in the current types. Removal
+     * is conditional on the token of that entry, so listeners added again by a later write are kept.
+     */
+    private List<CompletableFuture<Boolean>> removeStaleWaiting(String id, String previousEntry, Set<String> current) {
+        if (previousEntry == null) {
+            return Collections.emptyList();
+        }
+        Set<String> stale = eventTypes(previousEntry);
+        stale.removeAll(current);
+        List<CompletableFuture<Boolean>> removals = new ArrayList<>();
+        waitingEntries(id, stale, token(previousEntry)).forEach((key, token) -> removals.add(waitingCache.removeAsync(key, token)));
+        return removals;
+    }
+
+    private void addWaiting(Map<String, String> entries) {
+        if (!entries.isEmpty()) {
+            waitingCache.putAll(entries);
+        }
+    }
+
+    private static Map<String, String> waitingEntries(String id, Set<String> types, String token) {
+        Map<String, String> entries = new HashMap<>();
+        for (String type : types) {
+            entries.put(waitingKey(type, id), token);
+        }
+        return entries;
+    }
+
+    private static String waitingKey(String eventType, String id) {
+        return eventType + EVENTS_SEPARATOR + id;
+    }
+
+    private static String eventsEntry(String token, Set<String> types) {
+        return types.isEmpty() ? token : token + EVENTS_SEPARATOR + String.join(EVENTS_SEPARATOR, types);
+    }
+
+    private static String token(String eventsEntry) {
+        int end = eventsEntry.indexOf(EVENTS_SEPARATOR);
+        return end < 0 ? eventsEntry : eventsEntry.substring(0, end);
+    }
+
+    private static Set<String> eventTypes(String eventsEntry) {
+        List<String> values = Arrays.asList(eventsEntry.split(EVENTS_SEPARATOR));
+        return new HashSet<>(values.subList(1, values.size()));
+    }
+
+    private static String newToken() {
+        return UUID.randomUUID().toString();
+    }
+
+    private static void await(List<? extends CompletableFuture<?>> futures) {
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
     }
 
     protected String ignoreNullOrEmpty(String value) {
@@ -100,20 +365,46 @@ public class CacheProcessInstances implements MutableProcessInstances {
     protected void updateStorage(String id, ProcessInstance instance, boolean checkDuplicates) {
         if (isActive(instance)) {
             byte[] data = marshaller.marshallProcessInstance(instance);
+            Set<String> types = ProcessInstanceEventIndex.eventTypesOf(instance);
 
-            if (checkDuplicates) {
-                byte[] existing = cache.putIfAbsent(id, data);
-                if (existing != null) {
-                    throw new ProcessInstanceDuplicatedException(id);
+            // only instances never read back from the cache have no version, they are stored unconditionally
+            long version = ((AbstractProcessInstance<?>) instance).version();
+            Map<String, byte[]> pending = pendingUpdates.get();
+            if (!checkDuplicates && pending != null) {
+                if (pending.containsKey(id) && version != 0L) {
+                    // another unit of work of this batch already updated the same version
+                    throw new ProcessInstanceOptimisticLockingException(id);
                 }
+                pending.put(id, data);
+                pendingEvents.get().put(id, types);
+                pendingVersions.get().put(id, version);
             } else {
-                cache.put(id, data);
+                String token = newToken();
+                addWaiting(waitingEntries(id, types, token));
+                boolean stored;
+                if (checkDuplicates) {
+                    stored = cache.putIfAbsent(id, data) == null;
+                } else if (version == 0L) {
+                    cache.put(id, data);
+                    stored = true;
+                } else {
+                    stored = cache.replaceWithVersion(id, data, version);
+                }
+                if (!stored) {
+                    throw checkDuplicates ? new ProcessInstanceDuplicatedException(id) : new ProcessInstanceOptimisticLockingException(id);
+                }
+                await(storeEvents(id, types, token));
             }
 
+            if (nearCache != null) {
+                nearCache.put(id, ProcessInstanceNearCache.version(data), ((AbstractProcessInstance<?>) instance).internalGetProcessInstance());
+            }
             ((AbstractProcessInstance<?>) instance).internalRemoveProcessInstance(() -> {
-                byte[] reloaded = cache.get(id);
+                MetadataValue<byte[]> reloaded = cache.getWithMetadata(id);
                 if (reloaded != null) {
-                    return marshaller.unmarshallWorkflowProcessInstance(reloaded, process);
+                    ((AbstractProcessInstance<?>) instance).setVersion(reloaded.getVersion());
+                    WorkflowProcessInstance cached = fromNearCache(id, reloaded.getValue(), MUTABLE);
+                    return cached != null ? cached : marshaller.unmarshallWorkflowProcessInstance(reloaded.getValue(), process);
                 }
                 return null;
             });
@@ -124,4 +415,20 @@ public class CacheProcessInstances implements MutableProcessInstances {
     public boolean exists(String id) {
         return cache.containsKey(id);
     }
+
+    /**
+     * Only mutable reads are served from the near cache, read only callers get their own unmarshalled copy
+     */
+    protected WorkflowProcessInstance fromNearCache(String id, byte[] data, ProcessInstanceReadMode mode) {
+        if (nearCache == null || mode != MUTABLE) {
+            return null;
+        }
+        return nearCache.take(id, ProcessInstanceNearCache.version(data));
+    }
+
+    protected ProcessInstance unmarshall(byte[] data, ProcessInstanceReadMode mode) {
+        return mode == MUTABLE ?
+                marshaller.unmarshallProcessInstance(data, process) :
+                marshaller.unmarshallReadOnlyProcessInstance(data, process);
+    }
 }
@@ -23,6 +23,7 @@ import org.infinispan.protostream.BaseMarshaller;
 import org.kie.kogito.infinispan.CacheProcessInstances;
 import org.kie.kogito.process.Process;
 import org.kie.kogito.process.ProcessInstancesFactory;
+import org.kie.kogito.process.impl.ProcessInstanceNearCache;
 
 /**
  * This class must always have exact FQCN as <code>org.kie.kogito.persistence.KogitoProcessInstancesFactory</code>
@@ -38,7 +39,8 @@ public abstract class KogitoProcessInstancesFactory implements ProcessInstancesF
     
     public CacheProcessInstances createProcessInstances(Process<?> process) {
         List<BaseMarshaller<?>> marshallers = marshallers();
-        return new CacheProcessInstances(process, cacheManager, template(), proto(), marshallers.toArray(new BaseMarshaller<?>[0]));
+        ProcessInstanceNearCache nearCache = nearCacheSize() > 0 ? new ProcessInstanceNearCache(nearCacheSize(), nearCacheTtl()) : null;
+        return new CacheProcessInstances(process, cacheManager, nearCache, template(), proto(), marshallers.toArray(new BaseMarshaller<?>[0]));
     }
     
     public String proto() {
@@ -52,4 +54,15 @@ public abstract class KogitoProcessInstancesFactory implements ProcessInstancesF
     public String template() {
         return null;
     }
+
+    /**
+     * Maximum number of hydrated process instances kept per process, near cache is disabled when zero
+     */
+    public int nearCacheSize() {
+        return 0;
+    }
+
+    public long nearCacheTtl() {
+        return ProcessInstanceNearCache.DEFAULT_TTL;
+    }
 }
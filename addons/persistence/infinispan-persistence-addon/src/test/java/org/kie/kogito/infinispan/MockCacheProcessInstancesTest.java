@@ -15,16 +15,26 @@
 
 package org.kie.kogito.infinispan;
 
+import java.util.AbstractMap.SimpleEntry;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.drools.core.io.impl.ClassPathResource;
+import org.infinispan.client.hotrod.MetadataValue;
 import org.infinispan.client.hotrod.RemoteCache;
 import org.infinispan.client.hotrod.RemoteCacheManager;
 import org.infinispan.client.hotrod.RemoteCacheManagerAdmin;
+import org.infinispan.commons.util.Closeables;
 import org.infinispan.protostream.BaseMarshaller;
 import org.jbpm.process.instance.impl.Action;
 import org.jbpm.workflow.core.DroolsAction;
@@ -35,9 +45,11 @@ import org.junit.jupiter.api.Test;
 import org.kie.api.definition.process.Node;
 import org.kie.kogito.auth.SecurityPolicy;
 import org.kie.kogito.persistence.KogitoProcessInstancesFactory;
+import org.kie.kogito.process.MutableProcessInstances;
 import org.kie.kogito.process.ProcessError;
 import org.kie.kogito.process.ProcessInstance;
 import org.kie.kogito.process.ProcessInstanceNotFoundException;
+import org.kie.kogito.process.ProcessInstanceOptimisticLockingException;
 import org.kie.kogito.process.ProcessInstanceReadMode;
 import org.kie.kogito.process.ProcessInstances;
 import org.kie.kogito.process.WorkItem;
@@ -53,43 +65,128 @@ import static org.kie.kogito.internal.process.runtime.KogitoProcessInstance.STAT
 import static org.kie.kogito.internal.process.runtime.KogitoProcessInstance.STATE_COMPLETED;
 import static org.kie.kogito.internal.process.runtime.KogitoProcessInstance.STATE_ERROR;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyInt;
+import static org.mockito.Mockito.anyLong;
+import static org.mockito.Mockito.anyMap;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.endsWith;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 public class MockCacheProcessInstancesTest {
 
     private final ConcurrentHashMap<Object, Object> mockCache = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Object, Object> mockEventsCache = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Object, Object> mockWaitingCache = new ConcurrentHashMap<>();
     private RemoteCacheManager cacheManager;
 
     @BeforeEach
     public void setup() {
         mockCache.clear();
+        mockEventsCache.clear();
+        mockWaitingCache.clear();
         cacheManager = mock(RemoteCacheManager.class);
         RemoteCacheManagerAdmin admin = mock(RemoteCacheManagerAdmin.class);
-        RemoteCache<Object, Object> cache = mock(RemoteCache.class);
+        RemoteCache<Object, Object> cache = mockCache(mockCache);
+        RemoteCache<Object, Object> eventsCache = mockCache(mockEventsCache);
+        RemoteCache<Object, Object> waitingCache = mockCache(mockWaitingCache);
 
         when(cacheManager.administration()).thenReturn(admin);
         when(admin.getOrCreateCache(any(), (String) any())).thenReturn(cache);
+        when(admin.getOrCreateCache(endsWith("_events"), (String) any())).thenReturn(eventsCache);
+        when(admin.getOrCreateCache(endsWith("_waiting"), (String) any())).thenReturn(waitingCache);
+    }
 
+    @SuppressWarnings("unchecked")
+    private static RemoteCache<Object, Object> mockCache(ConcurrentHashMap<Object, Object> store) {
+        RemoteCache<Object, Object> cache = mock(RemoteCache.class);
+        ConcurrentHashMap<Object, Long> versions = new ConcurrentHashMap<>();
+        AtomicLong lastVersion = new AtomicLong();
         when(cache.put(any(), any())).then(invocation -> {
             Object key = invocation.getArgument(0, Object.class);
             Object value = invocation.getArgument(1, Object.class);
-            return mockCache.put(key, value);
+            versions.put(key, lastVersion.incrementAndGet());
+            return store.put(key, value);
         });
+        when(cache.withFlags(any())).thenReturn(cache);
         when(cache.putIfAbsent(any(), any())).then(invocation -> {
             Object key = invocation.getArgument(0, Object.class);
             Object value = invocation.getArgument(1, Object.class);
-            return mockCache.put(key, value);
+            Object previous = store.putIfAbsent(key, value);
+            if (previous == null) {
+                versions.put(key, lastVersion.incrementAndGet());
+            }
+            return previous;
+        });
+        when(cache.replaceWithVersion(any(), any(), anyLong())).then(invocation -> {
+            Object key = invocation.getArgument(0, Object.class);
+            if (!versions.containsKey(key) || versions.get(key) != invocation.getArgument(2, Long.class).longValue()) {
+                return false;
+            }
+            versions.put(key, lastVersion.incrementAndGet());
+            store.put(key, invocation.getArgument(1, Object.class));
+            return true;
+        });
+        when(cache.removeWithVersion(any(), anyLong())).then(invocation -> {
+            Object key = invocation.getArgument(0, Object.class);
+            if (!versions.containsKey(key) || versions.get(key) != invocation.getArgument(1, Long.class).longValue()) {
+                return false;
+            }
+            versions.remove(key);
+            store.remove(key);
+            return true;
         });
         when(cache.get(any())).then(invocation -> {
             Object key = invocation.getArgument(0, Object.class);
-            return mockCache.get(key);
+            return store.get(key);
+        });
+        when(cache.getWithMetadata(any())).then(invocation -> {
+            Object key = invocation.getArgument(0, Object.class);
+            Object value = store.get(key);
+            if (value == null) {
+                return null;
+            }
+            return metadataValue(value, versions.get(key));
+        });
+        when(cache.retrieveEntriesWithMetadata(any(), anyInt())).then(invocation -> {
+            Iterator<Map.Entry<Object, MetadataValue<Object>>> entries = store.entrySet().stream()
+                    .<Map.Entry<Object, MetadataValue<Object>>> map(e -> new SimpleEntry<>(e.getKey(), metadataValue(e.getValue(), versions.get(e.getKey()))))
+                    .collect(Collectors.toList())
+                    .iterator();
+            return Closeables.iterator(entries);
         });
         when(cache.remove(any())).then(invocation -> {
             Object key = invocation.getArgument(0, Object.class);
-            return mockCache.remove(key);
+            return store.remove(key);
+        });
+        when(cache.removeAsync(any())).then(invocation -> {
+            Object key = invocation.getArgument(0, Object.class);
+            return CompletableFuture.completedFuture(store.remove(key));
+        });
+        when(cache.removeAsync(any(), any())).then(invocation -> {
+            Object key = invocation.getArgument(0, Object.class);
+            Object value = invocation.getArgument(1, Object.class);
+            return CompletableFuture.completedFuture(store.remove(key, value));
         });
-        when(cache.size()).then(invocation -> mockCache.size());
+        doAnswer(invocation -> {
+            Map<Object, Object> entries = invocation.getArgument(0);
+            entries.forEach((key, value) -> {
+                versions.put(key, lastVersion.incrementAndGet());
+                store.put(key, value);
+            });
+            return null;
+        }).when(cache).putAll(anyMap());
+        when(cache.retrieveEntries(any(), anyInt())).then(invocation -> Closeables.iterator(new ArrayList<>(store.entrySet()).iterator()));
+        when(cache.size()).then(invocation -> store.size());
+        return cache;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static MetadataValue<Object> metadataValue(Object value, long version) {
+        MetadataValue<Object> metadataValue = mock(MetadataValue.class);
+        when(metadataValue.getValue()).thenReturn(value);
+        when(metadataValue.getVersion()).thenReturn(version);
+        return metadataValue;
     }
 
     @Test
@@ -194,6 +291,89 @@ public class MockCacheProcessInstancesTest {
         assertThat(loaded).isNotPresent();
     }
 
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testWaitingFor() {
+        BpmnProcess process = BpmnProcess.from(new ClassPathResource("BPMN2-UserTask.bpmn2")).get(0);
+        process.setProcessInstancesFactory(new CacheProcessInstancesFactory(cacheManager));
+        process.configure();
+        MutableProcessInstances<BpmnVariables> instances = (MutableProcessInstances<BpmnVariables>) process.instances();
+
+        ProcessInstance<BpmnVariables> processInstance = process.createInstance(BpmnVariables.create(Collections.singletonMap("test", "test")));
+        processInstance.start();
+
+        assertThat(instances.waitingFor("workItemCompleted")).hasValueSatisfying(ids -> assertThat(ids).containsExactly(processInstance.id()));
+        assertThat(instances.waitingFor("unknown")).hasValueSatisfying(ids -> assertThat(ids).isEmpty());
+
+        WorkItem workItem = processInstance.workItems(SecurityPolicy.of(new StaticIdentityProvider("john"))).get(0);
+        processInstance.completeWorkItem(workItem.getId(), null, SecurityPolicy.of(new StaticIdentityProvider("john")));
+
+        assertThat(instances.waitingFor("workItemCompleted")).hasValueSatisfying(ids -> assertThat(ids).isEmpty());
+        assertThat(mockWaitingCache).isEmpty();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testWaitingForInstancesNotTrackedBroadcasts() {
+        BpmnProcess process = BpmnProcess.from(new ClassPathResource("BPMN2-UserTask.bpmn2")).get(0);
+        process.setProcessInstancesFactory(new CacheProcessInstancesFactory(cacheManager));
+        process.configure();
+        MutableProcessInstances<BpmnVariables> instances = (MutableProcessInstances<BpmnVariables>) process.instances();
+
+        ProcessInstance<BpmnVariables> processInstance = process.createInstance(BpmnVariables.create(Collections.singletonMap("test", "test")));
+        processInstance.start();
+        mockEventsCache.clear();
+
+        assertThat(instances.waitingFor("workItemCompleted")).isEmpty();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testConcurrentUpdateRejected() {
+        BpmnProcess process = BpmnProcess.from(new ClassPathResource("BPMN2-UserTask.bpmn2")).get(0);
+        process.setProcessInstancesFactory(new CacheProcessInstancesFactory(cacheManager));
+        process.configure();
+
+        ProcessInstance<BpmnVariables> processInstance = process.createInstance(BpmnVariables.create(Collections.singletonMap("test", "test")));
+        processInstance.start();
+
+        ProcessInstance<BpmnVariables> first = process.instances().findById(processInstance.id()).get();
+        ProcessInstance<BpmnVariables> second = process.instances().findById(processInstance.id()).get();
+
+        first.updateVariables(BpmnVariables.create(Collections.singletonMap("s", "first")));
+        assertThatThrownBy(() -> second.updateVariables(BpmnVariables.create(Collections.singletonMap("s", "second"))))
+                .isInstanceOf(ProcessInstanceOptimisticLockingException.class);
+
+        assertThat(process.instances().findById(processInstance.id(), ProcessInstanceReadMode.READ_ONLY).get().variables().toMap())
+                .containsEntry("s", "first");
+        // the rejected update keeps the instance listening
+        assertThat(((MutableProcessInstances<BpmnVariables>) process.instances()).waitingFor("workItemCompleted"))
+                .hasValueSatisfying(ids -> assertThat(ids).containsExactly(processInstance.id()));
+    }
+
+    @Test
+    public void testConcurrentUpdateOfBulkReadRejected() {
+        BpmnProcess process = BpmnProcess.from(new ClassPathResource("BPMN2-UserTask.bpmn2")).get(0);
+        process.setProcessInstancesFactory(new CacheProcessInstancesFactory(cacheManager));
+        process.configure();
+
+        ProcessInstance<BpmnVariables> processInstance = process.createInstance(BpmnVariables.create(Collections.singletonMap("test", "test")));
+        processInstance.start();
+
+        ProcessInstance<BpmnVariables> first = process.instances().values(ProcessInstanceReadMode.MUTABLE).iterator().next();
+        ProcessInstance<BpmnVariables> second;
+        try (Stream<ProcessInstance<BpmnVariables>> stream = process.instances().stream(ProcessInstanceReadMode.MUTABLE)) {
+            second = stream.findFirst().get();
+        }
+
+        first.updateVariables(BpmnVariables.create(Collections.singletonMap("s", "first")));
+        assertThatThrownBy(() -> second.updateVariables(BpmnVariables.create(Collections.singletonMap("s", "second"))))
+                .isInstanceOf(ProcessInstanceOptimisticLockingException.class);
+
+        assertThat(process.instances().findById(processInstance.id(), ProcessInstanceReadMode.READ_ONLY).get().variables().toMap())
+                .containsEntry("s", "first");
+    }
+
     @Test
     public void testBasicFlowWithErrorAndRetry() {
         testBasicFlowWithError((processInstance) -> {
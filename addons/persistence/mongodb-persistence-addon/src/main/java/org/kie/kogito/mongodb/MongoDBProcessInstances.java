@@ -17,13 +17,32 @@ package org.kie.kogito.mongodb;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoCursor;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.DeleteOneModel;
 import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.WriteModel;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.jbpm.workflow.instance.WorkflowProcessInstance;
 import org.kie.kogito.Model;
 import org.kie.kogito.mongodb.marshalling.DocumentMarshallingStrategy;
 import org.kie.kogito.mongodb.marshalling.DocumentProcessInstanceMarshaller;
@@ -31,12 +50,22 @@ import org.kie.kogito.mongodb.model.ProcessInstanceDocument;
 import org.kie.kogito.process.MutableProcessInstances;
 import org.kie.kogito.process.ProcessInstance;
 import org.kie.kogito.process.ProcessInstanceDuplicatedException;
+import org.kie.kogito.process.ProcessInstanceFilter;
+import org.kie.kogito.process.ProcessInstanceOptimisticLockingException;
 import org.kie.kogito.process.ProcessInstanceReadMode;
+import org.kie.kogito.process.impl.AbstractProcess;
 import org.kie.kogito.process.impl.AbstractProcessInstance;
+import org.kie.kogito.process.impl.ProcessInstanceEventIndex;
+import org.kie.kogito.process.impl.ProcessInstanceNearCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import static org.kie.kogito.mongodb.utils.DocumentConstants.BUSINESS_KEY;
 import static org.kie.kogito.mongodb.utils.DocumentConstants.DOCUMENT_ID;
+import static org.kie.kogito.mongodb.utils.DocumentConstants.EVENTS;
+import static org.kie.kogito.mongodb.utils.DocumentConstants.PROCESS_INSTANCE;
+import static org.kie.kogito.mongodb.utils.DocumentConstants.STATE;
+import static org.kie.kogito.mongodb.utils.DocumentConstants.VERSION;
 import static org.kie.kogito.mongodb.utils.DocumentUtils.getCollection;
 import static org.kie.kogito.process.ProcessInstanceReadMode.MUTABLE;
 
@@ -46,10 +75,24 @@ public class MongoDBProcessInstances<T extends Model> implements MutableProcessI
     private org.kie.kogito.process.Process<?> process;
     private DocumentProcessInstanceMarshaller marshaller;
     private final MongoCollection<ProcessInstanceDocument> collection;
+    // optional cache of hydrated instances, keyed by the version field of the stored document
+    private final ProcessInstanceNearCache nearCache;
+    // writes buffered while a batch runs on the current thread, flushed with a single ordered bulk write
+    private final ThreadLocal<List<WriteModel<ProcessInstanceDocument>>> pendingWrites = new ThreadLocal<>();
+    private final ThreadLocal<Map<String, ProcessInstanceDocument>> pendingReplaces = new ThreadLocal<>();
+    // hydrated instances of the buffered replaces, cached once their replace is known to be applied
+    private final ThreadLocal<Map<String, WorkflowProcessInstance>> pendingCached = new ThreadLocal<>();
 
     public MongoDBProcessInstances(MongoClient mongoClient, org.kie.kogito.process.Process<?> process, String dbName) {
+        this(mongoClient, process, dbName, null);
+    }
+
+    public MongoDBProcessInstances(MongoClient mongoClient, org.kie.kogito.process.Process<?> process, String dbName, ProcessInstanceNearCache nearCache) {
         this.process = process;
+        this.nearCache = nearCache;
         collection = getCollection(mongoClient, process.id(), dbName);
+        // signals look up the instances listening to an event type, creating an existing index is a no-op
+        collection.createIndex(Indexes.ascending(EVENTS));
         marshaller = new DocumentProcessInstanceMarshaller(new DocumentMarshallingStrategy());
     }
 
@@ -59,7 +102,7 @@ public class MongoDBProcessInstances<T extends Model> implements MutableProcessI
         if (piDoc == null) {
             return Optional.empty();
         }
-        return Optional.of(mode == MUTABLE ? marshaller.unmarshallProcessInstance(piDoc, process) : marshaller.unmarshallReadOnlyProcessInstance(piDoc, process));
+        return Optional.of(unmarshall(piDoc, mode));
     }
 
     @Override
@@ -67,12 +110,61 @@ public class MongoDBProcessInstances<T extends Model> implements MutableProcessI
         List<ProcessInstance<T>> list = new ArrayList<>();
         try (MongoCursor<ProcessInstanceDocument> cursor = collection.find().iterator()) {
             while (cursor.hasNext()) {
-                list.add(mode == MUTABLE ? marshaller.unmarshallProcessInstance(cursor.next(), process) : marshaller.unmarshallReadOnlyProcessInstance(cursor.next(), process));
+                list.add(unmarshall(cursor.next(), mode));
             }
         }
         return list;
     }
 
+    @Override
+    public Stream<ProcessInstance<T>> stream(ProcessInstanceReadMode mode) {
+        return stream(ProcessInstanceFilter.all(), mode);
+    }
+
+    @Override
+    public Stream<ProcessInstance<T>> stream(ProcessInstanceFilter filter, ProcessInstanceReadMode mode) {
+        MongoCursor<ProcessInstanceDocument> cursor = collection.find(toBson(filter)).iterator();
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(cursor, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(cursor::close)
+                .map(doc -> unmarshall(doc, mode));
+    }
+
+    @Override
+    public List<ProcessInstance<T>> page(ProcessInstanceFilter filter, int offset, int limit, ProcessInstanceReadMode mode) {
+        List<ProcessInstance<T>> list = new ArrayList<>();
+        try (MongoCursor<ProcessInstanceDocument> cursor = collection.find(toBson(filter)).skip(offset).limit(limit).iterator()) {
+            while (cursor.hasNext()) {
+                list.add(unmarshall(cursor.next(), mode));
+            }
+        }
+        return list;
+    }
+
+    private Bson toBson(ProcessInstanceFilter filter) {
+        List<Bson> filters = new ArrayList<>();
+        if (!filter.getStatuses().isEmpty()) {
+            filters.add(Filters.in(PROCESS_INSTANCE + "." + STATE, filter.getStatuses()));
+        }
+        if (filter.getBusinessKey() != null) {
+            filters.add(Filters.eq(PROCESS_INSTANCE + "." + BUSINESS_KEY, filter.getBusinessKey()));
+        }
+        return filters.isEmpty() ? new Document() : Filters.and(filters);
+    }
+
+    @SuppressWarnings("unchecked")
+    private ProcessInstance<T> unmarshall(ProcessInstanceDocument piDoc, ProcessInstanceReadMode mode) {
+        WorkflowProcessInstance cached = fromNearCache(piDoc, mode);
+        ProcessInstance<T> instance;
+        if (cached != null) {
+            AbstractProcess<T> abstractProcess = (AbstractProcess<T>) process;
+            instance = mode == MUTABLE ? abstractProcess.createInstance(cached) : abstractProcess.createReadOnlyInstance(cached);
+        } else {
+            instance = mode == MUTABLE ? marshaller.unmarshallProcessInstance(piDoc, process) : marshaller.unmarshallReadOnlyProcessInstance(piDoc, process);
+        }
+        ((AbstractProcessInstance<?>) instance).setVersion(piDoc.getVersion());
+        return instance;
+    }
+
     @Override
     public void create(String id, ProcessInstance<T> instance) {
         updateStorage(id, instance, true);
@@ -86,19 +178,38 @@ public class MongoDBProcessInstances<T extends Model> implements MutableProcessI
     protected void updateStorage(String id, ProcessInstance<T> instance, boolean checkDuplicates) {
         if (isActive(instance)) {
             ProcessInstanceDocument doc = marshaller.marshalProcessInstance(instance);
+            doc.setEvents(new ArrayList<>(ProcessInstanceEventIndex.eventTypesOf(instance)));
+            long version = ((AbstractProcessInstance<?>) instance).version();
+            doc.setVersion(version + 1);
+            WorkflowProcessInstance hydrated = ((AbstractProcessInstance<?>) instance).internalGetProcessInstance();
             if (checkDuplicates) {
                 if (exists(id)) {
                     throw new ProcessInstanceDuplicatedException(id);
                 } else {
                     collection.insertOne(doc);
+                    toNearCache(id, doc.getVersion(), hydrated);
+                }
+            } else if (pendingWrites.get() != null) {
+                if (pendingReplaces.get().put(id, doc) != null) {
+                    // another unit of work of this batch already updated the same instance
+                    throw new ProcessInstanceOptimisticLockingException(id);
                 }
+                pendingWrites.get().add(new ReplaceOneModel<>(versionFilter(id, version), doc));
+                pendingCached.get().put(id, hydrated);
+            } else if (collection.replaceOne(versionFilter(id, version), doc).getMatchedCount() == 0) {
+                throw new ProcessInstanceOptimisticLockingException(id);
             } else {
-                collection.replaceOne(Filters.eq(DOCUMENT_ID, id), doc);
+                toNearCache(id, doc.getVersion(), hydrated);
             }
         }
         reloadProcessInstance(instance, id);
     }
 
+    private static Bson versionFilter(String id, long version) {
+        // documents stored before versions were tracked have no version at all
+        return Filters.and(Filters.eq(DOCUMENT_ID, id), version == 0L ? Filters.exists(VERSION, false) : Filters.eq(VERSION, version));
+    }
+
     private ProcessInstanceDocument find(String id) {
         return collection.find(Filters.eq(DOCUMENT_ID, id)).first();
     }
@@ -110,7 +221,102 @@ public class MongoDBProcessInstances<T extends Model> implements MutableProcessI
 
     @Override
     public void remove(String id) {
-        collection.deleteOne(Filters.eq(DOCUMENT_ID, id));
+        if (pendingWrites.get() != null) {
+            pendingReplaces.get().remove(id);
+            pendingCached.get().remove(id);
+            pendingWrites.get().add(new DeleteOneModel<>(Filters.eq(DOCUMENT_ID, id)));
+        } else {
+            collection.deleteOne(Filters.eq(DOCUMENT_ID, id));
+        }
+        if (nearCache != null) {
+            nearCache.invalidate(id);
+        }
+    }
+
+    @Override
+    public void batch(Runnable operations) {
+        if (pendingWrites.get() != null) {
+            operations.run();
+            return;
+        }
+        List<WriteModel<ProcessInstanceDocument>> writes = new ArrayList<>();
+        Map<String, ProcessInstanceDocument> replaces = new HashMap<>();
+        Map<String, WorkflowProcessInstance> cached = new HashMap<>();
+        pendingWrites.set(writes);
+        pendingReplaces.set(replaces);
+        pendingCached.set(cached);
+        try {
+            operations.run();
+        } finally {
+            pendingWrites.remove();
+            pendingReplaces.remove();
+            pendingCached.remove();
+        }
+        if (!writes.isEmpty()) {
+            BulkWriteResult result = collection.bulkWrite(writes, new BulkWriteOptions().ordered(true));
+            Set<String> conflicts = result.getMatchedCount() < writes.stream().filter(ReplaceOneModel.class::isInstance).count()
+                    ? findConflicts(replaces)
+                    : Collections.emptySet();
+            cached.forEach((id, hydrated) -> {
+                if (!conflicts.contains(id)) {
+                    toNearCache(id, replaces.get(id).getVersion(), hydrated);
+                }
+            });
+            throwConflicts(conflicts);
+        }
+    }
+
+    /**
+     * Bulk write results do not tell which replace did not match, a replace was applied if the stored
+     * document holds exactly the replacement
+     */
+    private Set<String> findConflicts(Map<String, ProcessInstanceDocument> replaces) {
+        Map<String, ProcessInstanceDocument> stored = new HashMap<>();
+        try (MongoCursor<ProcessInstanceDocument> cursor = collection.find(Filters.in(DOCUMENT_ID, replaces.keySet())).iterator()) {
+            while (cursor.hasNext()) {
+                ProcessInstanceDocument doc = cursor.next();
+                stored.put(doc.getId(), doc);
+            }
+        }
+        Set<String> conflicts = new HashSet<>();
+        for (Map.Entry<String, ProcessInstanceDocument> replace : replaces.entrySet()) {
+            ProcessInstanceDocument doc = stored.get(replace.getKey());
+            if (doc == null || doc.getVersion() != replace.getValue().getVersion()
+                    || !doc.getProcessInstance().toJson().equals(replace.getValue().getProcessInstance().toJson())) {
+                conflicts.add(replace.getKey());
+            }
+        }
+        return conflicts;
+    }
+
+    private static void throwConflicts(Set<String> conflicts) {
+        ProcessInstanceOptimisticLockingException conflict = null;
+        for (String id : conflicts) {
+            ProcessInstanceOptimisticLockingException e = new ProcessInstanceOptimisticLockingException(id);
+            if (conflict == null) {
+                conflict = e;
+            } else {
+                conflict.addSuppressed(e);
+            }
+        }
+        if (conflict != null) {
+            throw conflict;
+        }
+    }
+
+    @Override
+    public Optional<Collection<String>> waitingFor(String eventType) {
+        // documents stored before event types were tracked are always included, only ids are projected
+        List<String> ids = new ArrayList<>();
+        try (MongoCursor<Document> cursor = collection.withDocumentClass(Document.class)
+                .find(Filters.or(Filters.eq(EVENTS, eventType), Filters.exists(EVENTS, false)))
+                .projection(Projections.include(DOCUMENT_ID))
+                .iterator()) {
+            while (cursor.hasNext()) {
+                ids.add(cursor.next().getString(DOCUMENT_ID));
+            }
+        }
+        return Optional.of(ids);
     }
 
     private void reloadProcessInstance(ProcessInstance<T> instance, String id) {
@@ -118,7 +324,9 @@ public class MongoDBProcessInstances<T extends Model> implements MutableProcessI
             try {
                 ProcessInstanceDocument reloaded = find(id);
                 if (reloaded != null) {
-                    return marshaller.unmarshallWorkflowProcessInstance(reloaded, process);
+                    ((AbstractProcessInstance<?>) instance).setVersion(reloaded.getVersion());
+                    WorkflowProcessInstance cached = fromNearCache(reloaded, MUTABLE);
+                    return cached != null ? cached : marshaller.unmarshallWorkflowProcessInstance(reloaded, process);
                 }
             } catch (RuntimeException e) {
                 LOGGER.error("Unexpected exception thrown when reloading process instance {}", instance.id(), e);
@@ -127,6 +335,26 @@ public class MongoDBProcessInstances<T extends Model> implements MutableProcessI
         });
     }
 
+    /**
+     * Versions are only set once an instance is written by this store, documents stored before have none and
+     * are never cached
+     */
+    private void toNearCache(String id, long version, WorkflowProcessInstance hydrated) {
+        if (nearCache != null && version != 0L) {
+            nearCache.put(id, version, hydrated);
+        }
+    }
+
+    /**
+     * Only mutable reads are served from the near cache, read only callers get their own unmarshalled copy
+     */
+    private WorkflowProcessInstance fromNearCache(ProcessInstanceDocument doc, ProcessInstanceReadMode mode) {
+        if (nearCache == null || mode != MUTABLE || doc.getVersion() == 0L) {
+            return null;
+        }
+        return nearCache.take(doc.getId(), doc.getVersion());
+    }
+
     @Override
     public Integer size() {
         return (int) collection.countDocuments();
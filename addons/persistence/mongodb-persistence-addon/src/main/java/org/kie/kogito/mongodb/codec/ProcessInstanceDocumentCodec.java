@@ -15,6 +15,8 @@
 
 package org.kie.kogito.mongodb.codec;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.stream.Collectors;
 
 import com.mongodb.MongoClientSettings;
@@ -30,11 +32,13 @@ import org.bson.codecs.EncoderContext;
 import org.kie.kogito.mongodb.model.ProcessInstanceDocument;
 
 import static org.kie.kogito.mongodb.utils.DocumentConstants.DOCUMENT_ID;
+import static org.kie.kogito.mongodb.utils.DocumentConstants.EVENTS;
 import static org.kie.kogito.mongodb.utils.DocumentConstants.NAME;
 import static org.kie.kogito.mongodb.utils.DocumentConstants.PROCESS_INSTANCE;
 import static org.kie.kogito.mongodb.utils.DocumentConstants.PROCESS_INSTANCE_ID;
 import static org.kie.kogito.mongodb.utils.DocumentConstants.STRATEGIES;
 import static org.kie.kogito.mongodb.utils.DocumentConstants.VALUE;
+import static org.kie.kogito.mongodb.utils.DocumentConstants.VERSION;
 
 public class ProcessInstanceDocumentCodec implements CollectibleCodec<ProcessInstanceDocument> {
 
@@ -50,6 +54,8 @@ public class ProcessInstanceDocumentCodec implements CollectibleCodec<ProcessIns
         doc.put(DOCUMENT_ID, piDoc.getProcessInstance().get(PROCESS_INSTANCE_ID));
         doc.put(PROCESS_INSTANCE, piDoc.getProcessInstance());
         doc.put(STRATEGIES, piDoc.getStrategies().entrySet().stream().map(e -> new Document().append(NAME, e.getKey()).append(VALUE, e.getValue())).collect(Collectors.toList()));
+        doc.put(EVENTS, piDoc.getEvents());
+        doc.put(VERSION, piDoc.getVersion());
         documentCodec.encode(writer, doc, encoderContext);
     }
 
@@ -83,6 +89,11 @@ public class ProcessInstanceDocumentCodec implements CollectibleCodec<ProcessIns
         piDoc.setId(document.getString(DOCUMENT_ID));
         piDoc.setProcessInstance((Document) (document.get(PROCESS_INSTANCE)));
         piDoc.setStrategies(document.getList(STRATEGIES, Document.class).stream().collect(Collectors.toMap(d -> d.getString(NAME), d -> d.getInteger(VALUE))));
+        List<String> events = document.getList(EVENTS, String.class);
+        piDoc.setEvents(events == null ? new ArrayList<>() : events);
+        // documents stored before versions were tracked have none
+        Number version = (Number) document.get(VERSION);
+        piDoc.setVersion(version == null ? 0L : version.longValue());
         return piDoc;
     }
 }
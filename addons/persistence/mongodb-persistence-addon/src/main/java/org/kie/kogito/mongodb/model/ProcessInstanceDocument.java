@@ -15,7 +15,9 @@
 
 package org.kie.kogito.mongodb.model;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.bson.Document;
@@ -28,6 +30,10 @@ public class ProcessInstanceDocument {
 
     private Map<String, Integer> strategies = new HashMap<>();
 
+    private List<String> events = new ArrayList<>();
+
+    private long version;
+
     public ProcessInstanceDocument() {
         super();
     }
@@ -55,4 +61,20 @@ public class ProcessInstanceDocument {
     public void setStrategies(Map<String, Integer> strategies) {
         this.strategies = strategies;
     }
+
+    public List<String> getEvents() {
+        return events;
+    }
+
+    public void setEvents(List<String> events) {
+        this.events = events;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
 }
@@ -24,6 +24,10 @@ public class DocumentConstants {
     public static final String STRATEGIES = "strategies";
     public static final String NAME = "name";
     public static final String PROCESS_INSTANCE = "processInstance";
+    public static final String STATE = "state";
+    public static final String BUSINESS_KEY = "correlationKey";
+    public static final String EVENTS = "events";
+    public static final String VERSION = "version";
     public static final String DOCUMENT_MARSHALLING_ERROR_MSG = "Error while marshalling process instance with id as document : ";
     public static final String DOCUMENT_UNMARSHALLING_ERROR_MSG = "Error while unmarshalling document for process instance with id : ";
 
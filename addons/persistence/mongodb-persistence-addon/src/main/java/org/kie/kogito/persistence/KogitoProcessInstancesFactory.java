@@ -19,6 +19,7 @@ import com.mongodb.client.MongoClient;
 import org.kie.kogito.mongodb.MongoDBProcessInstances;
 import org.kie.kogito.process.Process;
 import org.kie.kogito.process.ProcessInstancesFactory;
+import org.kie.kogito.process.impl.ProcessInstanceNearCache;
 
 /**
  * This class must always have exact FQCN as
@@ -37,6 +38,18 @@ public abstract class KogitoProcessInstancesFactory implements ProcessInstancesF
 
     @Override
     public MongoDBProcessInstances<?> createProcessInstances(Process<?> process) {
-        return new MongoDBProcessInstances<>(mongoClient, process, dbName());
+        ProcessInstanceNearCache nearCache = nearCacheSize() > 0 ? new ProcessInstanceNearCache(nearCacheSize(), nearCacheTtl()) : null;
+        return new MongoDBProcessInstances<>(mongoClient, process, dbName(), nearCache);
+    }
+
+    /**
+     * Maximum number of hydrated process instances kept per process, near cache is disabled when zero
+     */
+    public int nearCacheSize() {
+        return 0;
+    }
+
+    public long nearCacheTtl() {
+        return ProcessInstanceNearCache.DEFAULT_TTL;
     }
 }
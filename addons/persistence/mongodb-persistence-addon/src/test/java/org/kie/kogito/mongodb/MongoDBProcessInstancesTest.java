@@ -15,24 +15,35 @@
 
 package org.kie.kogito.mongodb;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
 import com.mongodb.client.MongoClient;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Updates;
+import org.bson.Document;
 import org.drools.core.io.impl.ClassPathResource;
 import org.junit.jupiter.api.Test;
 import org.kie.kogito.persistence.KogitoProcessInstancesFactory;
 import org.kie.kogito.process.ProcessInstance;
+import org.kie.kogito.process.ProcessInstanceOptimisticLockingException;
 import org.kie.kogito.process.ProcessInstanceReadMode;
 import org.kie.kogito.process.bpmn2.BpmnProcess;
 import org.kie.kogito.process.bpmn2.BpmnProcessInstance;
 import org.kie.kogito.process.bpmn2.BpmnVariables;
+import org.kie.kogito.process.impl.ProcessInstanceNearCache;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.assertj.core.api.Assertions.entry;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.kie.kogito.internal.process.runtime.KogitoProcessInstance.STATE_ACTIVE;
+import static org.kie.kogito.mongodb.utils.DocumentConstants.DOCUMENT_ID;
+import static org.kie.kogito.mongodb.utils.DocumentConstants.EVENTS;
+import static org.kie.kogito.mongodb.utils.DocumentConstants.VERSION;
 
 class MongoDBProcessInstancesTest extends TestHelper {
 
@@ -70,6 +81,92 @@ class MongoDBProcessInstancesTest extends TestHelper {
         assertThat(mongodbInstance.values()).isEmpty();
     }
 
+    @Test
+    void testWaitingFor() {
+        BpmnProcess process = BpmnProcess.from(new ClassPathResource("BPMN2-UserTask.bpmn2")).get(0);
+        process.setProcessInstancesFactory(new MongoDBProcessInstancesFactory(getMongoClient()));
+        process.configure();
+
+        ProcessInstance<BpmnVariables> processInstance = process.createInstance(BpmnVariables.create(Collections.singletonMap("test", "test")));
+        processInstance.start();
+
+        MongoDBProcessInstances<?> mongodbInstance = new MongoDBProcessInstances<>(getMongoClient(), process, DB_NAME);
+        assertThat(mongodbInstance.waitingFor("workItemCompleted")).hasValueSatisfying(ids -> assertThat(ids).containsExactly(processInstance.id()));
+        assertThat(mongodbInstance.waitingFor("unknown")).hasValueSatisfying(ids -> assertThat(ids).isEmpty());
+
+        List<String> indexedKeys = new ArrayList<>();
+        getMongoClient().getDatabase(DB_NAME).getCollection(process.id()).listIndexes()
+                .forEach(index -> indexedKeys.addAll(((Document) index.get("key")).keySet()));
+        assertThat(indexedKeys).contains(EVENTS);
+
+        mongodbInstance.remove(processInstance.id());
+    }
+
+    @Test
+    void testConcurrentUpdateRejected() {
+        BpmnProcess process = BpmnProcess.from(new ClassPathResource("BPMN2-UserTask.bpmn2")).get(0);
+        process.setProcessInstancesFactory(new MongoDBProcessInstancesFactory(getMongoClient()));
+        process.configure();
+
+        ProcessInstance<BpmnVariables> processInstance = process.createInstance(BpmnVariables.create(Collections.singletonMap("test", "test")));
+        processInstance.start();
+
+        ProcessInstance<BpmnVariables> first = process.instances().findById(processInstance.id()).get();
+        ProcessInstance<BpmnVariables> second = process.instances().findById(processInstance.id()).get();
+
+        first.updateVariables(BpmnVariables.create(Collections.singletonMap("test", "first")));
+        assertThatThrownBy(() -> second.updateVariables(BpmnVariables.create(Collections.singletonMap("test", "second"))))
+                .isInstanceOf(ProcessInstanceOptimisticLockingException.class);
+
+        assertThat(process.instances().findById(processInstance.id(), ProcessInstanceReadMode.READ_ONLY).get().variables().toMap())
+                .containsEntry("test", "first");
+        process.instances().findById(processInstance.id()).get().abort();
+    }
+
+    @Test
+    void testNearCache() {
+        ProcessInstanceNearCache nearCache = new ProcessInstanceNearCache(10);
+        BpmnProcess process = BpmnProcess.from(new ClassPathResource("BPMN2-UserTask.bpmn2")).get(0);
+        process.setProcessInstancesFactory(new MongoDBProcessInstancesFactory(getMongoClient()) {
+            @Override
+            public MongoDBProcessInstances<?> createProcessInstances(org.kie.kogito.process.Process<?> p) {
+                return new MongoDBProcessInstances<>(mongoClient, p, dbName(), nearCache);
+            }
+        });
+        process.configure();
+
+        ProcessInstance<BpmnVariables> processInstance = process.createInstance(BpmnVariables.create(Collections.singletonMap("test", "test")));
+        processInstance.start();
+        assertThat(nearCache.size()).isOne();
+
+        ProcessInstanceNearCache.Statistics statistics = ProcessInstanceNearCache.statistics();
+        long hits = statistics.hits();
+        long misses = statistics.misses();
+
+        // read only lookups unmarshall their own copy and leave the cache alone
+        assertThat(process.instances().findById(processInstance.id(), ProcessInstanceReadMode.READ_ONLY)).isPresent();
+        assertThat(statistics.hits()).isEqualTo(hits);
+        assertThat(statistics.misses()).isEqualTo(misses);
+        assertThat(nearCache.size()).isOne();
+
+        // mutable lookups take the instance, it is cached again once updated
+        ProcessInstance<BpmnVariables> mutable = process.instances().findById(processInstance.id()).get();
+        assertThat(statistics.hits()).isEqualTo(hits + 1);
+        assertThat(nearCache.size()).isZero();
+        mutable.updateVariables(BpmnVariables.create(Collections.singletonMap("test", "updated")));
+        assertThat(nearCache.size()).isOne();
+
+        // the stored document changed behind the store's back
+        getMongoClient().getDatabase(DB_NAME).getCollection(process.id())
+                .updateOne(Filters.eq(DOCUMENT_ID, processInstance.id()), Updates.inc(VERSION, 1L));
+        ProcessInstance<BpmnVariables> reloaded = process.instances().findById(processInstance.id()).get();
+        assertThat(reloaded.variables().toMap()).containsEntry("test", "updated");
+        assertThat(statistics.hits()).isEqualTo(hits + 1);
+        assertThat(statistics.misses()).isEqualTo(misses + 1);
+
+        reloaded.abort();
+    }
+
     private class MongoDBProcessInstancesFactory extends KogitoProcessInstancesFactory {
 
         public MongoDBProcessInstancesFactory(MongoClient mongoClient) {
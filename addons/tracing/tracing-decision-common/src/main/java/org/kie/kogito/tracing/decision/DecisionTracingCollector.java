@@ -16,17 +16,20 @@
 
 package org.kie.kogito.tracing.decision;
 
-import java.util.LinkedList;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
+import java.util.function.LongSupplier;
 import java.util.function.Supplier;
 
 import org.kie.dmn.api.core.DMNModel;
-import org.kie.kogito.cloudevents.CloudEventUtils;
 import org.kie.kogito.conf.ConfigBean;
 import org.kie.kogito.tracing.decision.aggregator.Aggregator;
 import org.kie.kogito.tracing.decision.aggregator.DefaultAggregator;
@@ -38,15 +41,21 @@ import org.slf4j.LoggerFactory;
 
 public class DecisionTracingCollector {
 
+    public static final long DEFAULT_EVICTION_TIMEOUT = 60_000L;
+
     private static final Logger LOG = LoggerFactory.getLogger(DecisionTracingCollector.class);
 
-    private final Map<String, List<EvaluateEvent>> cacheMap;
-    private final Map<String, TerminationDetector> terminationDetectorMap;
+    private final Map<String, Execution> executions;
     private final Aggregator aggregator;
-    private final Consumer<String> payloadConsumer;
+    private final Consumer<byte[]> payloadConsumer;
     private final BiFunction<String, String, DMNModel> modelSupplier;
     private final Supplier<TerminationDetector> terminationDetectorSupplier;
     private final ConfigBean configBean;
+    private final long evictionTimeout;
+    private final LongSupplier clock;
+    private final LongAdder evicted = new LongAdder();
+
+    private volatile long nextEviction;
 
     public DecisionTracingCollector(Consumer<String> payloadConsumer, BiFunction<String, String, DMNModel> modelSupplier, ConfigBean configBean) {
         this(new DefaultAggregator(), payloadConsumer, modelSupplier, CounterTerminationDetector::new, configBean);
@@ -59,47 +68,128 @@ public class DecisionTracingCollector {
             Supplier<TerminationDetector> terminationDetectorSupplier,
             ConfigBean configBean
     ) {
-        this.cacheMap = new ConcurrentHashMap<>();
-        this.terminationDetectorMap = new ConcurrentHashMap<>();
+        this(aggregator, payload -> payloadConsumer.accept(new String(payload, StandardCharsets.UTF_8)),
+                modelSupplier, terminationDetectorSupplier, configBean, DEFAULT_EVICTION_TIMEOUT, System::currentTimeMillis);
+    }
+
+    /**
+     * @param payloadConsumer receives the UTF-8 encoded CloudEvent of each aggregated evaluation
+     * @param evictionTimeout milliseconds after the last received event an evaluation that never terminated is discarded
+     * @param clock source of the current time in milliseconds
+     */
+    public DecisionTracingCollector(
+            Aggregator aggregator,
+            Consumer<byte[]> payloadConsumer,
+            BiFunction<String, String, DMNModel> modelSupplier,
+            Supplier<TerminationDetector> terminationDetectorSupplier,
+            ConfigBean configBean,
+            long evictionTimeout,
+            LongSupplier clock
+    ) {
+        this.executions = new ConcurrentHashMap<>();
         this.aggregator = aggregator;
         this.payloadConsumer = payloadConsumer;
         this.modelSupplier = modelSupplier;
         this.terminationDetectorSupplier = terminationDetectorSupplier;
         this.configBean = configBean;
+        this.evictionTimeout = evictionTimeout;
+        this.clock = clock;
+        this.nextEviction = clock.getAsLong() + evictionTimeout;
     }
 
     public void addEvent(EvaluateEvent event) {
         LOG.trace("Received {}(executionId: {}, modelName: {}, modelNamespace: {})", event.getType(), event.getExecutionId(), event.getModelName(), event.getModelNamespace());
 
         String executionId = event.getExecutionId();
-        if (!cacheMap.containsKey(executionId)) {
-            cacheMap.put(executionId, new LinkedList<>());
-            terminationDetectorMap.put(executionId, terminationDetectorSupplier.get());
-            LOG.trace("Added evaluation {} to cache (current size: {})", executionId, cacheMap.size());
+        long now = clock.getAsLong();
+        Execution execution = executions.get(executionId);
+        if (execution == null) {
+            if (now >= nextEviction) {
+                evictStale(now);
+            }
+            execution = new Execution(terminationDetectorSupplier.get());
+            executions.put(executionId, execution);
+            LOG.trace("Added evaluation {} to cache (current size: {})", executionId, executions.size());
         }
 
-        cacheMap.get(executionId).add(event);
-        terminationDetectorMap.get(executionId).add(event);
+        execution.add(event, now);
+
+        if (execution.detector.isTerminated()) {
+            executions.remove(executionId);
+            LOG.trace("Removed evaluation {} from cache (current size: {})", executionId, executions.size());
 
-        if (terminationDetectorMap.get(executionId).isTerminated()) {
             DMNModel dmnModel = modelSupplier.apply(event.getModelNamespace(), event.getModelName());
-            Optional<String> optPayload = aggregate(dmnModel, executionId, cacheMap.get(executionId));
+            Optional<byte[]> optPayload = aggregator.encode(dmnModel, executionId, execution.events, configBean);
 
             if (optPayload.isPresent()) {
-                String payload = optPayload.get();
+                byte[] payload = optPayload.get();
                 payloadConsumer.accept(payload);
-                LOG.debug("Generated aggregated event for evaluation {} (length {})", executionId, payload.length());
+                LOG.debug("Generated aggregated event for evaluation {} (length {})", executionId, payload.length);
             } else {
                 LOG.error("Failed aggregating data for evaluation {}", executionId);
             }
+        }
+    }
 
-            cacheMap.remove(executionId);
-            terminationDetectorMap.remove(executionId);
-            LOG.trace("Removed evaluation {} from cache (current size: {})", executionId, cacheMap.size());
+    /**
+     * Discards the events collected so far for the given evaluation
+     */
+    public void discard(String executionId) {
+        executions.remove(executionId);
+    }
+
+    /**
+     * Discards evaluations that did not receive any event for longer than the eviction timeout
+     * @return number of discarded evaluations
+     */
+    public int evictStale() {
+        return evictStale(clock.getAsLong());
+    }
+
+    public int size() {
+        return executions.size();
+    }
+
+    /**
+     * Returns the number of evaluations discarded so far because they did not terminate
+     */
+    public long evicted() {
+        return evicted.sum();
+    }
+
+    private int evictStale(long now) {
+        nextEviction = now + evictionTimeout;
+        int evicted = 0;
+        Iterator<Map.Entry<String, Execution>> iterator = executions.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Execution> entry = iterator.next();
+            if (now - entry.getValue().lastUpdate > evictionTimeout) {
+                iterator.remove();
+                this.evicted.increment();
+                evicted++;
+                LOG.warn("Evaluation {} did not terminate within {}ms, discarding its trace", entry.getKey(), evictionTimeout);
+            }
         }
+        return evicted;
     }
 
-    private Optional<String> aggregate(DMNModel model, String executionId, List<EvaluateEvent> events) {
-        return aggregator.aggregate(model, executionId, events, configBean).flatMap(CloudEventUtils::encode);
+    /**
+     * Events and termination state of a single evaluation, only ever updated by the thread running that evaluation
+     */
+    private static class Execution {
+
+        private final List<EvaluateEvent> events = new ArrayList<>();
+        private final TerminationDetector detector;
+        private volatile long lastUpdate;
+
+        private Execution(TerminationDetector detector) {
+            this.detector = detector;
+        }
+
+        private void add(EvaluateEvent event, long timestamp) {
+            events.add(event);
+            detector.add(event);
+            lastUpdate = timestamp;
+        }
     }
 }
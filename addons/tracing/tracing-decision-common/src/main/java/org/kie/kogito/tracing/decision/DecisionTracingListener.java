@@ -16,7 +16,9 @@
 
 package org.kie.kogito.tracing.decision;
 
+import java.util.EnumSet;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -25,22 +27,52 @@ import org.kie.dmn.api.core.event.AfterEvaluateBKMEvent;
 import org.kie.dmn.api.core.event.BeforeEvaluateBKMEvent;
 import org.kie.dmn.api.core.event.DMNEvent;
 import org.kie.dmn.api.core.event.DMNRuntimeEventListener;
+import org.kie.kogito.decision.DecisionExecutionIdUtils;
+import org.kie.kogito.decision.DecisionSampler;
 import org.kie.kogito.tracing.decision.event.evaluate.EvaluateEvent;
+import org.kie.kogito.tracing.decision.event.evaluate.EvaluateEventType;
 
 import static org.kie.kogito.explainability.Constants.SKIP_TRACING;
+import static org.kie.kogito.tracing.decision.event.evaluate.EvaluateEventType.AFTER_EVALUATE_ALL;
+import static org.kie.kogito.tracing.decision.event.evaluate.EvaluateEventType.AFTER_EVALUATE_BKM;
+import static org.kie.kogito.tracing.decision.event.evaluate.EvaluateEventType.AFTER_EVALUATE_CONTEXT_ENTRY;
+import static org.kie.kogito.tracing.decision.event.evaluate.EvaluateEventType.AFTER_EVALUATE_DECISION;
+import static org.kie.kogito.tracing.decision.event.evaluate.EvaluateEventType.AFTER_EVALUATE_DECISION_SERVICE;
+import static org.kie.kogito.tracing.decision.event.evaluate.EvaluateEventType.AFTER_EVALUATE_DECISION_TABLE;
+import static org.kie.kogito.tracing.decision.event.evaluate.EvaluateEventType.BEFORE_EVALUATE_ALL;
+import static org.kie.kogito.tracing.decision.event.evaluate.EvaluateEventType.BEFORE_EVALUATE_BKM;
+import static org.kie.kogito.tracing.decision.event.evaluate.EvaluateEventType.BEFORE_EVALUATE_CONTEXT_ENTRY;
+import static org.kie.kogito.tracing.decision.event.evaluate.EvaluateEventType.BEFORE_EVALUATE_DECISION;
+import static org.kie.kogito.tracing.decision.event.evaluate.EvaluateEventType.BEFORE_EVALUATE_DECISION_SERVICE;
+import static org.kie.kogito.tracing.decision.event.evaluate.EvaluateEventType.BEFORE_EVALUATE_DECISION_TABLE;
 
 /**
  * This class must always have exact FQCN as <code>org.kie.kogito.tracing.decision.DecisionTracingListener</code>
  * for code generation plugins to correctly detect if this addon is enabled.
+ * <br/>
+ * Evaluations can be sampled with a {@link DecisionSampler}: the sampling decision is taken on the first event of
+ * an evaluation and kept in its context metadata, so no event is created for the evaluations that are not sampled.
+ * When the sampler records evaluations with errors, only the root events of those evaluations are emitted.
+ * Event types not in the allowed event types are never emitted, root events (evaluate all, decision service)
+ * are always emitted so traces can still be aggregated.
  */
 public class DecisionTracingListener implements DMNRuntimeEventListener {
 
+    private static final String SAMPLING_KEY = "__kogito_tracing_sampling__";
+
     private Consumer<EvaluateEvent> eventConsumer;
+    private DecisionSampler sampler = DecisionSampler.ALWAYS;
+    private Set<EvaluateEventType> eventTypes = EnumSet.allOf(EvaluateEventType.class);
 
     public DecisionTracingListener(Consumer<EvaluateEvent> eventConsumer) {
         this.eventConsumer = eventConsumer;
     }
 
+    public DecisionTracingListener(Consumer<EvaluateEvent> eventConsumer, DecisionSampler sampler, Set<EvaluateEventType> eventTypes) {
+        this.eventConsumer = eventConsumer;
+        setSampling(sampler, eventTypes);
+    }
+
     protected DecisionTracingListener() {
     }
 
@@ -48,69 +80,138 @@ public class DecisionTracingListener implements DMNRuntimeEventListener {
         this.eventConsumer = eventConsumer;
     }
 
+    /**
+     * @param sampler sampler of the traced evaluations
+     * @param eventTypes types of the events to be emitted, all types if empty
+     */
+    protected void setSampling(DecisionSampler sampler, Set<EvaluateEventType> eventTypes) {
+        this.sampler = sampler;
+        this.eventTypes = eventTypes.isEmpty() ? EnumSet.allOf(EvaluateEventType.class) : EnumSet.copyOf(eventTypes);
+        this.eventTypes.addAll(EnumSet.of(BEFORE_EVALUATE_ALL, AFTER_EVALUATE_ALL, BEFORE_EVALUATE_DECISION_SERVICE, AFTER_EVALUATE_DECISION_SERVICE));
+    }
+
+    /**
+     * Parses a comma separated list of event types, e.g. <code>EVALUATE_DECISION,EVALUATE_DECISION_TABLE</code>.
+     * Each name selects both events of the pair, with or without the <code>BEFORE_</code> or <code>AFTER_</code> prefix,
+     * as a before event without its after event cannot be aggregated into a trace
+     */
+    public static Set<EvaluateEventType> parseEventTypes(String eventTypes) {
+        Set<EvaluateEventType> types = EnumSet.noneOf(EvaluateEventType.class);
+        if (eventTypes == null) {
+            return types;
+        }
+        for (String name : eventTypes.split(",")) {
+            String type = name.trim().toUpperCase();
+            if (type.isEmpty()) {
+                continue;
+            }
+            if (type.startsWith("BEFORE_")) {
+                type = type.substring("BEFORE_".length());
+            } else if (type.startsWith("AFTER_")) {
+                type = type.substring("AFTER_".length());
+            }
+            types.add(EvaluateEventType.valueOf("BEFORE_" + type));
+            types.add(EvaluateEventType.valueOf("AFTER_" + type));
+        }
+        return types;
+    }
+
     @Override
     public void beforeEvaluateAll(org.kie.dmn.api.core.event.BeforeEvaluateAllEvent event) {
-        commonHandleEvent(EvaluateEvent::from, event);
+        startEvaluation(event, event.getModelNamespace(), event.getModelName());
+        commonHandleEvent(EvaluateEvent::from, event, BEFORE_EVALUATE_ALL);
     }
 
     @Override
     public void afterEvaluateAll(org.kie.dmn.api.core.event.AfterEvaluateAllEvent event) {
-        commonHandleEvent(EvaluateEvent::from, event);
+        commonHandleEvent(EvaluateEvent::from, event, AFTER_EVALUATE_ALL);
     }
 
     @Override
     public void beforeEvaluateDecision(org.kie.dmn.api.core.event.BeforeEvaluateDecisionEvent event) {
-        commonHandleEvent(EvaluateEvent::from, event);
+        commonHandleEvent(EvaluateEvent::from, event, BEFORE_EVALUATE_DECISION);
     }
 
     @Override
     public void afterEvaluateDecision(org.kie.dmn.api.core.event.AfterEvaluateDecisionEvent event) {
-        commonHandleEvent(EvaluateEvent::from, event);
+        commonHandleEvent(EvaluateEvent::from, event, AFTER_EVALUATE_DECISION);
     }
 
     @Override
     public void beforeEvaluateContextEntry(org.kie.dmn.api.core.event.BeforeEvaluateContextEntryEvent event) {
-        commonHandleEvent(EvaluateEvent::from, event);
+        commonHandleEvent(EvaluateEvent::from, event, BEFORE_EVALUATE_CONTEXT_ENTRY);
     }
 
     @Override
     public void afterEvaluateContextEntry(org.kie.dmn.api.core.event.AfterEvaluateContextEntryEvent event) {
-        commonHandleEvent(EvaluateEvent::from, event);
+        commonHandleEvent(EvaluateEvent::from, event, AFTER_EVALUATE_CONTEXT_ENTRY);
     }
 
     @Override
     public void beforeEvaluateDecisionTable(org.kie.dmn.api.core.event.BeforeEvaluateDecisionTableEvent event) {
-        commonHandleEvent(EvaluateEvent::from, event);
+        commonHandleEvent(EvaluateEvent::from, event, BEFORE_EVALUATE_DECISION_TABLE);
     }
 
     @Override
     public void afterEvaluateDecisionTable(org.kie.dmn.api.core.event.AfterEvaluateDecisionTableEvent event) {
-        commonHandleEvent(EvaluateEvent::from, event);
+        commonHandleEvent(EvaluateEvent::from, event, AFTER_EVALUATE_DECISION_TABLE);
     }
 
     @Override
     public void beforeEvaluateDecisionService(org.kie.dmn.api.core.event.BeforeEvaluateDecisionServiceEvent event) {
-        commonHandleEvent(EvaluateEvent::from, event);
+        startEvaluation(event, event.getDecisionService().getModelNamespace(), event.getDecisionService().getModelName());
+        commonHandleEvent(EvaluateEvent::from, event, BEFORE_EVALUATE_DECISION_SERVICE);
     }
 
     @Override
     public void afterEvaluateDecisionService(org.kie.dmn.api.core.event.AfterEvaluateDecisionServiceEvent event) {
-        commonHandleEvent(EvaluateEvent::from, event);
+        commonHandleEvent(EvaluateEvent::from, event, AFTER_EVALUATE_DECISION_SERVICE);
     }
 
     @Override
     public void beforeEvaluateBKM(BeforeEvaluateBKMEvent event) {
-        commonHandleEvent(EvaluateEvent::from, event);
+        commonHandleEvent(EvaluateEvent::from, event, BEFORE_EVALUATE_BKM);
     }
 
     @Override
     public void afterEvaluateBKM(AfterEvaluateBKMEvent event) {
-        commonHandleEvent(EvaluateEvent::from, event);
+        commonHandleEvent(EvaluateEvent::from, event, AFTER_EVALUATE_BKM);
+    }
+
+    private void startEvaluation(DMNEvent event, String modelNamespace, String modelName) {
+        if (sampler.isAlwaysSampled()) {
+            return;
+        }
+        DMNMetadata metadata = event.getResult().getContext().getMetadata();
+        String executionId = DecisionExecutionIdUtils.get(event.getResult().getContext());
+        Sampling sampling = (Sampling) metadata.get(SAMPLING_KEY);
+        if (sampling == null || !sampling.isFor(executionId)) {
+            metadata.set(SAMPLING_KEY, new Sampling(executionId, sampler.isSampled(modelNamespace, modelName, executionId)));
+        }
     }
 
-    private <T extends DMNEvent> void commonHandleEvent(Function<T, EvaluateEvent> factory, T event) {
-        if (!isTracingEnabled(event.getResult().getContext().getMetadata())) {
-            eventConsumer.accept(factory.apply(event));
+    private <T extends DMNEvent> void commonHandleEvent(Function<T, EvaluateEvent> factory, T event, EvaluateEventType type) {
+        DMNMetadata metadata = event.getResult().getContext().getMetadata();
+        if (isTracingEnabled(metadata)) {
+            return;
+        }
+        Sampling sampling = sampler.isAlwaysSampled() ? null : (Sampling) metadata.get(SAMPLING_KEY);
+        if (sampling == null || sampling.sampled) {
+            if (eventTypes.contains(type)) {
+                eventConsumer.accept(factory.apply(event));
+            }
+        } else if (sampler.isAlwaysOnError() && isRoot(type)) {
+            if (type.isBefore()) {
+                if (sampling.depth++ == 0) {
+                    sampling.root = factory.apply(event);
+                }
+            } else if (--sampling.depth == 0 && sampling.root != null) {
+                if (event.getResult().hasErrors()) {
+                    eventConsumer.accept(sampling.root);
+                    eventConsumer.accept(factory.apply(event));
+                }
+                sampling.root = null;
+            }
         }
     }
 
@@ -119,5 +220,27 @@ public class DecisionTracingListener implements DMNRuntimeEventListener {
         return skipTracing.orElse(false);
     }
 
+    private static boolean isRoot(EvaluateEventType type) {
+        return type == BEFORE_EVALUATE_ALL || type == AFTER_EVALUATE_ALL || type == BEFORE_EVALUATE_DECISION_SERVICE || type == AFTER_EVALUATE_DECISION_SERVICE;
+    }
+
+    /**
+     * Sampling decision of an evaluation, only ever accessed by the thread running the evaluation
+     */
+    private static class Sampling {
 
+        private final String executionId;
+        private final boolean sampled;
+        private int depth;
+        private EvaluateEvent root;
+
+        private Sampling(String executionId, boolean sampled) {
+            this.executionId = executionId;
+            this.sampled = sampled;
+        }
+
+        private boolean isFor(String executionId) {
+            return this.executionId == null ? executionId == null : this.executionId.equals(executionId);
+        }
+    }
 }
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.tracing.decision;
+
+import java.util.function.ToDoubleFunction;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Exposes the events and evaluations lost by decision tracing as counters
+ */
+public class DecisionTracingMetrics {
+
+    private DecisionTracingMetrics() {
+    }
+
+    public static void register(MeterRegistry registry, DecisionTracingPipeline pipeline) {
+        DecisionTracingPipeline.Statistics statistics = pipeline.statistics();
+        counter(registry, statistics, "kogito_tracing_decision_accepted_events_total", "Evaluate events handed over to tracing workers",
+                DecisionTracingPipeline.Statistics::acceptedEvents);
+        counter(registry, statistics, "kogito_tracing_decision_dropped_events_total", "Evaluate events dropped because a tracing queue was full",
+                DecisionTracingPipeline.Statistics::droppedEvents);
+        counter(registry, statistics, "kogito_tracing_decision_dropped_evaluations_total", "Evaluations not traced because a tracing queue was full",
+                DecisionTracingPipeline.Statistics::droppedEvaluations);
+        counter(registry, statistics, "kogito_tracing_decision_evicted_evaluations_total", "Evaluations not traced because they did not terminate",
+                DecisionTracingPipeline.Statistics::evictedEvaluations);
+    }
+
+    public static void register(MeterRegistry registry, DecisionTracingCollector collector) {
+        counter(registry, collector, "kogito_tracing_decision_evicted_evaluations_total", "Evaluations not traced because they did not terminate",
+                DecisionTracingCollector::evicted);
+    }
+
+    private static <T> void counter(MeterRegistry registry, T source, String name, String description, ToDoubleFunction<T> value) {
+        FunctionCounter.builder(name, source, value)
+                .description(description)
+                .register(registry);
+    }
+}
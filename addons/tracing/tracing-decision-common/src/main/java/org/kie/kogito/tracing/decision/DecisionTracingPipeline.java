@@ -0,0 +1,242 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.tracing.decision;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.kie.kogito.tracing.decision.event.evaluate.EvaluateEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Hands evaluate events over from the DMN evaluation thread to a pool of aggregation workers, so that
+ * aggregating and encoding traces does not add to the decision latency.
+ * <br/>
+ * Events are partitioned by execution id, each partition has a bounded lock free queue drained by a single worker
+ * owning its own {@link DecisionTracingCollector}, so events of an evaluation are collected in order without locking.
+ * When the queue of a partition is full the whole evaluation is dropped: the overflowing event and all the following
+ * events of that evaluation are discarded and counted, and so are the events already collected for it.
+ * <br/>
+ * Closing the pipeline stops accepting events and waits for the workers to collect the events already queued.
+ */
+public class DecisionTracingPipeline implements Consumer<EvaluateEvent>, AutoCloseable {
+
+    public static final int DEFAULT_QUEUE_CAPACITY = 10_000;
+
+    private static final long CLOSE_TIMEOUT = 10_000L;
+
+    private static final Logger LOG = LoggerFactory.getLogger(DecisionTracingPipeline.class);
+
+    private final Partition[] partitions;
+    private final long evictionTimeout;
+    private final Statistics statistics = new Statistics();
+
+    private volatile boolean running = true;
+
+    public DecisionTracingPipeline(int workers, Supplier<DecisionTracingCollector> collectorSupplier) {
+        this(workers, DEFAULT_QUEUE_CAPACITY, DecisionTracingCollector.DEFAULT_EVICTION_TIMEOUT, collectorSupplier);
+    }
+
+    /**
+     * @param workers number of aggregation workers
+     * @param queueCapacity maximum number of events waiting for each worker
+     * @param evictionTimeout milliseconds after which collectors are checked for evaluations that never terminated,
+     *        it should match the eviction timeout of the supplied collectors
+     * @param collectorSupplier creates the collector owned by each worker
+     */
+    public DecisionTracingPipeline(int workers, int queueCapacity, long evictionTimeout, Supplier<DecisionTracingCollector> collectorSupplier) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("Number of tracing workers must be positive, was " + workers);
+        }
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("Tracing queue capacity must be positive, was " + queueCapacity);
+        }
+        this.evictionTimeout = evictionTimeout;
+        this.partitions = new Partition[workers];
+        for (int i = 0; i < workers; i++) {
+            partitions[i] = new Partition(queueCapacity, collectorSupplier.get());
+            partitions[i].start("kogito-tracing-" + i);
+        }
+    }
+
+    @Override
+    public void accept(EvaluateEvent event) {
+        if (!running) {
+            statistics.droppedEvents.increment();
+            return;
+        }
+        String executionId = event.getExecutionId();
+        partitions[(executionId.hashCode() & Integer.MAX_VALUE) % partitions.length].offer(executionId, event);
+    }
+
+    public Statistics statistics() {
+        return statistics;
+    }
+
+    @Override
+    public void close() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        for (Partition partition : partitions) {
+            LockSupport.unpark(partition.worker);
+        }
+        long deadline = System.currentTimeMillis() + CLOSE_TIMEOUT;
+        for (Partition partition : partitions) {
+            try {
+                partition.worker.join(Math.max(1L, deadline - System.currentTimeMillis()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (partition.worker.isAlive()) {
+                LOG.warn("Decision tracing worker {} did not drain its queue within {}ms", partition.worker.getName(), CLOSE_TIMEOUT);
+            }
+        }
+    }
+
+    public class Statistics {
+
+        private final LongAdder acceptedEvents = new LongAdder();
+        private final LongAdder droppedEvents = new LongAdder();
+        private final LongAdder droppedEvaluations = new LongAdder();
+
+        public long acceptedEvents() {
+            return acceptedEvents.sum();
+        }
+
+        public long droppedEvents() {
+            return droppedEvents.sum();
+        }
+
+        public long droppedEvaluations() {
+            return droppedEvaluations.sum();
+        }
+
+        public long evictedEvaluations() {
+            long evicted = 0;
+            for (Partition partition : partitions) {
+                evicted += partition.collector.evicted();
+            }
+            return evicted;
+        }
+    }
+
+    private class Partition {
+
+        private final int capacity;
+        private final DecisionTracingCollector collector;
+        private final Queue<EvaluateEvent> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger size = new AtomicInteger();
+        // evaluations dropped on overflow, with the time they were dropped
+        private final Map<String, Long> dropped = new ConcurrentHashMap<>();
+        private Thread worker;
+        private volatile boolean waiting;
+
+        private Partition(int capacity, DecisionTracingCollector collector) {
+            this.capacity = capacity;
+            this.collector = collector;
+        }
+
+        private void start(String name) {
+            worker = new Thread(this::run, name);
+            worker.setDaemon(true);
+            worker.start();
+        }
+
+        private void offer(String executionId, EvaluateEvent event) {
+            if (!dropped.isEmpty() && dropped.containsKey(executionId)) {
+                statistics.droppedEvents.increment();
+                return;
+            }
+            if (size.incrementAndGet() > capacity) {
+                size.decrementAndGet();
+                dropped.put(executionId, System.currentTimeMillis());
+                statistics.droppedEvents.increment();
+                statistics.droppedEvaluations.increment();
+                LOG.warn("Decision tracing queue is full, dropping trace of evaluation {}", executionId);
+                return;
+            }
+            queue.offer(event);
+            statistics.acceptedEvents.increment();
+            if (waiting) {
+                LockSupport.unpark(worker);
+            }
+        }
+
+        private void run() {
+            long nextEviction = System.currentTimeMillis() + evictionTimeout;
+            while (true) {
+                EvaluateEvent event = queue.poll();
+                if (event != null) {
+                    size.decrementAndGet();
+                    collect(event);
+                } else if (!running) {
+                    // the pipeline is closed and the queue drained
+                    return;
+                } else {
+                    waiting = true;
+                    if (queue.isEmpty() && running) {
+                        LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(Math.max(1L, nextEviction - System.currentTimeMillis())));
+                    }
+                    waiting = false;
+                }
+                long now = System.currentTimeMillis();
+                if (now >= nextEviction) {
+                    evict(now);
+                    nextEviction = now + evictionTimeout;
+                }
+            }
+        }
+
+        private void collect(EvaluateEvent event) {
+            String executionId = event.getExecutionId();
+            if (!dropped.isEmpty() && dropped.containsKey(executionId)) {
+                // events queued before the evaluation overflowed, its trace would be incomplete
+                collector.discard(executionId);
+                return;
+            }
+            try {
+                collector.addEvent(event);
+            } catch (RuntimeException e) {
+                LOG.error("Error while collecting decision tracing event of evaluation {}", executionId, e);
+                collector.discard(executionId);
+            }
+        }
+
+        private void evict(long now) {
+            collector.evictStale();
+            Iterator<Long> iterator = dropped.values().iterator();
+            while (iterator.hasNext()) {
+                if (now - iterator.next() > evictionTimeout) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+}
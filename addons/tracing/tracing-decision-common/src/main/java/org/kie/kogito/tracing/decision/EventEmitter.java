@@ -16,6 +16,8 @@
 
 package org.kie.kogito.tracing.decision;
 
+import java.nio.charset.StandardCharsets;
+
 public interface EventEmitter {
 
     /**
@@ -23,4 +25,12 @@ public interface EventEmitter {
      * @param payload Payload to emit.
      */
     void emit(final String payload);
+
+    /**
+     * Emit UTF-8 encoded payload as an event.
+     * @param payload Payload to emit.
+     */
+    default void emit(final byte[] payload) {
+        emit(new String(payload, StandardCharsets.UTF_8));
+    }
 }
@@ -21,6 +21,7 @@ import java.util.Optional;
 
 import io.cloudevents.CloudEvent;
 import org.kie.dmn.api.core.DMNModel;
+import org.kie.kogito.cloudevents.CloudEventUtils;
 import org.kie.kogito.conf.ConfigBean;
 import org.kie.kogito.tracing.decision.event.evaluate.EvaluateEvent;
 
@@ -28,4 +29,11 @@ import org.kie.kogito.tracing.decision.event.evaluate.EvaluateEvent;
 public interface Aggregator {
 
     Optional<CloudEvent> aggregate(DMNModel model, String executionId, List<EvaluateEvent> events, ConfigBean configBean);
+
+    /**
+     * Aggregates the events and encodes the resulting CloudEvent as UTF-8 JSON
+     */
+    default Optional<byte[]> encode(DMNModel model, String executionId, List<EvaluateEvent> events, ConfigBean configBean) {
+        return aggregate(model, executionId, events, configBean).flatMap(CloudEventUtils::encodeToBytes);
+    }
 }
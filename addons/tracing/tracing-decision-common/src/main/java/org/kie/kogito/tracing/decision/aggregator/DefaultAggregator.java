@@ -77,12 +77,26 @@ public class DefaultAggregator implements Aggregator {
 
     @Override
     public Optional<CloudEvent> aggregate(DMNModel model, String executionId, List<EvaluateEvent> events, ConfigBean configBean) {
+        Pair<URI, TraceEvent> event = buildTraceEvent(model, executionId, events, configBean);
+        return CloudEventUtils.build(executionId, event.getLeft(), event.getRight(), TraceEvent.class);
+    }
+
+    /**
+     * Writes the trace event straight into the encoded CloudEvent, without serializing its data separately
+     */
+    @Override
+    public Optional<byte[]> encode(DMNModel model, String executionId, List<EvaluateEvent> events, ConfigBean configBean) {
+        Pair<URI, TraceEvent> event = buildTraceEvent(model, executionId, events, configBean);
+        return CloudEventUtils.encodeToBytes(executionId, event.getLeft(), TraceEvent.class.getName(), null, event.getRight());
+    }
+
+    private static Pair<URI, TraceEvent> buildTraceEvent(DMNModel model, String executionId, List<EvaluateEvent> events, ConfigBean configBean) {
         return events == null || events.isEmpty()
-                ? buildNotEnoughDataCloudEvent(model, executionId, configBean)
-                : buildDefaultCloudEvent(model, executionId, events, configBean);
+                ? buildNotEnoughDataTraceEvent(model, executionId, configBean)
+                : buildDefaultTraceEvent(model, executionId, events, configBean);
     }
 
-    private static Optional<CloudEvent> buildNotEnoughDataCloudEvent(DMNModel model, String executionId, ConfigBean configBean) {
+    private static Pair<URI, TraceEvent> buildNotEnoughDataTraceEvent(DMNModel model, String executionId, ConfigBean configBean) {
         TraceHeader header = new TraceHeader(
                 TraceEventType.DMN,
                 executionId,
@@ -97,11 +111,10 @@ public class DefaultAggregator implements Aggregator {
         );
 
         TraceEvent event = new TraceEvent(header, Collections.emptyList(), Collections.emptyList(), Collections.emptyList());
-        return CloudEventUtils
-                .build(executionId, buildSource(configBean.getServiceUrl(), null), event, TraceEvent.class);
+        return new Pair<>(buildSource(configBean.getServiceUrl(), null), event);
     }
 
-    private static Optional<CloudEvent> buildDefaultCloudEvent(DMNModel model, String executionId, List<EvaluateEvent> events, ConfigBean configBean) {
+    private static Pair<URI, TraceEvent> buildDefaultTraceEvent(DMNModel model, String executionId, List<EvaluateEvent> events, ConfigBean configBean) {
         EvaluateEvent firstEvent = events.get(0);
         EvaluateEvent lastEvent = events.get(events.size() - 1);
 
@@ -128,8 +141,7 @@ public class DefaultAggregator implements Aggregator {
 
         // complete event
         TraceEvent event = new TraceEvent(header, inputs, outputs, executionStepsPair.getLeft());
-        return CloudEventUtils
-                .build(executionId, buildSource(configBean.getServiceUrl(), firstEvent), event, TraceEvent.class);
+        return new Pair<>(buildSource(configBean.getServiceUrl(), firstEvent), event);
     }
 
     private static URI buildSource(String serviceUrl, EvaluateEvent event) {
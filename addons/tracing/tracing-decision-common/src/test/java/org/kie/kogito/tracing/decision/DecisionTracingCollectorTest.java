@@ -20,6 +20,7 @@ import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
@@ -46,7 +47,9 @@ import static org.kie.kogito.decision.DecisionTestUtils.createDMNModel;
 import static org.kie.kogito.tracing.decision.DecisionTracingTestUtils.EVALUATE_ALL_JSON_RESOURCE;
 import static org.kie.kogito.tracing.decision.DecisionTracingTestUtils.EVALUATE_DECISION_SERVICE_JSON_RESOURCE;
 import static org.kie.kogito.tracing.decision.DecisionTracingTestUtils.readEvaluateEventsFromJsonResource;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -71,6 +74,39 @@ class DecisionTracingCollectorTest {
         testInterleavedEvaluations(CounterTerminationDetector::new);
     }
 
+    @Test
+    void testCollectorEvictsEvaluationsThatNeverTerminate() throws IOException {
+        AtomicLong clock = new AtomicLong();
+        Consumer<String> payloadConsumer = mock(Consumer.class);
+
+        DecisionTracingCollector collector = new DecisionTracingCollector(
+                new MockDefaultAggregator(),
+                payloadConsumer,
+                (namespace, name) -> model,
+                CounterTerminationDetector::new,
+                configBean,
+                1000L,
+                clock::get
+        );
+
+        List<EvaluateEvent> evaluateAllEvents = readEvaluateEventsFromJsonResource(EVALUATE_ALL_JSON_RESOURCE);
+        evaluateAllEvents.subList(0, evaluateAllEvents.size() - 1).forEach(collector::addEvent);
+        assertEquals(1, collector.size());
+
+        clock.set(500L);
+        assertEquals(0, collector.evictStale());
+        assertEquals(1, collector.size());
+
+        clock.set(2000L);
+        assertEquals(1, collector.evictStale());
+        assertEquals(0, collector.size());
+        assertEquals(1, collector.evicted());
+
+        // the last event of an evicted evaluation does not produce an incomplete trace
+        collector.addEvent(evaluateAllEvents.get(evaluateAllEvents.size() - 1));
+        verify(payloadConsumer, never()).accept(any());
+    }
+
     private void testInterleavedEvaluations(Supplier<TerminationDetector> terminationDetectorSupplier) throws IOException {
         MockDefaultAggregator aggregator = new MockDefaultAggregator();
         Consumer<String> payloadConsumer = mock(Consumer.class);
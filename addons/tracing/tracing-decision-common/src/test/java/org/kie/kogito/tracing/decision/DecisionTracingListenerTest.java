@@ -16,11 +16,16 @@
 
 package org.kie.kogito.tracing.decision;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
+import java.util.function.Function;
 
 import org.junit.jupiter.api.Test;
 import org.kie.dmn.api.core.DMNContext;
@@ -32,6 +37,7 @@ import org.kie.dmn.core.impl.DMNModelImpl;
 import org.kie.dmn.core.impl.DMNResultImpl;
 import org.kie.kogito.decision.DecisionExecutionIdUtils;
 import org.kie.kogito.decision.DecisionModel;
+import org.kie.kogito.decision.DecisionSampler;
 import org.kie.kogito.dmn.DmnDecisionModel;
 import org.kie.kogito.tracing.decision.event.evaluate.EvaluateEvent;
 import org.kie.kogito.tracing.decision.event.evaluate.EvaluateEventType;
@@ -117,6 +123,61 @@ class DecisionTracingListenerTest {
         testWithRealEvaluateDecisionService(contextVariables, 6);
     }
 
+    @Test
+    void testListenerWithSampledOutEvaluationEmitsNothing() {
+        DecisionSampler sampler = DecisionSampler.of(0.0, true, Collections.emptySet());
+        List<EvaluateEvent> events = collectWithRealRuntime(getEvaluateAllContext(), new ArrayList<>(), consumer -> new DecisionTracingListener(consumer, sampler, Collections.emptySet()));
+        assertTrue(events.isEmpty());
+    }
+
+    @Test
+    void testListenerWithSampledOutEvaluationWithErrorEmitsRootEvents() {
+        DecisionSampler sampler = DecisionSampler.of(0.0, true, Collections.emptySet());
+        List<EvaluateEvent> events = collectWithRealRuntime(getEvaluateAllContextForError(), new ArrayList<>(), consumer -> new DecisionTracingListener(consumer, sampler, Collections.emptySet()));
+        assertEquals(2, events.size());
+        assertEvaluateAllEvents(events, MODEL_NAMESPACE, MODEL_NAME, TEST_EXECUTION_ID_2);
+
+        DecisionSampler neverOnError = DecisionSampler.of(0.0, false, Collections.emptySet());
+        assertTrue(collectWithRealRuntime(getEvaluateAllContextForError(), new ArrayList<>(),
+                consumer -> new DecisionTracingListener(consumer, neverOnError, Collections.emptySet())).isEmpty());
+    }
+
+    @Test
+    void testListenerWithModelNotAllowedEmitsNothing() {
+        DecisionSampler sampler = DecisionSampler.of(1.0, false, Collections.singleton("anotherModel"));
+        List<EvaluateEvent> events = collectWithRealRuntime(getEvaluateAllContext(), new ArrayList<>(), consumer -> new DecisionTracingListener(consumer, sampler, Collections.emptySet()));
+        assertTrue(events.isEmpty());
+    }
+
+    @Test
+    void testListenerWithAllowedEventTypes() {
+        List<EvaluateEvent> events = collectWithRealRuntime(getEvaluateAllContext(), new ArrayList<>(),
+                consumer -> new DecisionTracingListener(consumer, DecisionSampler.ALWAYS, DecisionTracingListener.parseEventTypes("EVALUATE_DECISION")));
+        assertTrue(events.size() > 2 && events.size() < 14);
+        assertEvaluateAllEvents(events, MODEL_NAMESPACE, MODEL_NAME, TEST_EXECUTION_ID_2);
+        Set<EvaluateEventType> allowed = EnumSet.of(EvaluateEventType.BEFORE_EVALUATE_ALL, EvaluateEventType.AFTER_EVALUATE_ALL,
+                EvaluateEventType.BEFORE_EVALUATE_DECISION, EvaluateEventType.AFTER_EVALUATE_DECISION);
+        events.forEach(e -> assertTrue(allowed.contains(e.getType()), e.getType().name()));
+    }
+
+    @Test
+    void testParseEventTypesSelectsPairs() {
+        assertEquals(EnumSet.of(EvaluateEventType.BEFORE_EVALUATE_DECISION, EvaluateEventType.AFTER_EVALUATE_DECISION,
+                EvaluateEventType.BEFORE_EVALUATE_BKM, EvaluateEventType.AFTER_EVALUATE_BKM),
+                DecisionTracingListener.parseEventTypes("before_evaluate_decision, AFTER_EVALUATE_BKM"));
+        assertEquals(DecisionTracingListener.parseEventTypes("EVALUATE_DECISION"), DecisionTracingListener.parseEventTypes("AFTER_EVALUATE_DECISION"));
+    }
+
+    private static List<EvaluateEvent> collectWithRealRuntime(Map<String, Object> contextVariables, List<EvaluateEvent> events,
+            Function<Consumer<EvaluateEvent>, DecisionTracingListener> listenerFactory) {
+        final DMNRuntime runtime = createDMNRuntime();
+        runtime.addListener(listenerFactory.apply(events::add));
+
+        final DecisionModel model = new DmnDecisionModel(runtime, MODEL_NAMESPACE, MODEL_NAME, () -> TEST_EXECUTION_ID_2);
+        model.evaluateAll(model.newContext(contextVariables));
+        return events;
+    }
+
     private static void testWithRealEvaluateAll(Map<String, Object> contextVariables, int expectedEvents) {
         List<EvaluateEvent> events = testWithRealRuntime(contextVariables, expectedEvents, DecisionModel::evaluateAll);
         assertEvaluateAllEvents(events, MODEL_NAMESPACE, MODEL_NAME, TEST_EXECUTION_ID_2);
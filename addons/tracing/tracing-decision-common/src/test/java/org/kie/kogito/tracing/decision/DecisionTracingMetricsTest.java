@@ -0,0 +1,62 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.tracing.decision;
+
+import java.util.List;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.kie.kogito.conf.StaticConfigBean;
+import org.kie.kogito.tracing.decision.event.evaluate.EvaluateEvent;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.kie.kogito.decision.DecisionTestUtils.createDMNModel;
+import static org.kie.kogito.tracing.decision.DecisionTracingTestUtils.EVALUATE_ALL_JSON_RESOURCE;
+import static org.kie.kogito.tracing.decision.DecisionTracingTestUtils.readEvaluateEventsFromJsonResource;
+
+class DecisionTracingMetricsTest {
+
+    @Test
+    void testPipelineCounters() throws Exception {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        List<EvaluateEvent> events = readEvaluateEventsFromJsonResource(EVALUATE_ALL_JSON_RESOURCE);
+
+        DecisionTracingPipeline pipeline = new DecisionTracingPipeline(1,
+                () -> new DecisionTracingCollector(payload -> {
+                }, (namespace, name) -> createDMNModel(), new StaticConfigBean()));
+        DecisionTracingMetrics.register(registry, pipeline);
+        events.forEach(pipeline);
+        pipeline.close();
+        pipeline.accept(events.get(0));
+
+        assertEquals(events.size(), registry.get("kogito_tracing_decision_accepted_events_total").functionCounter().count());
+        assertEquals(1, registry.get("kogito_tracing_decision_dropped_events_total").functionCounter().count());
+        assertEquals(0, registry.get("kogito_tracing_decision_dropped_evaluations_total").functionCounter().count());
+        assertEquals(0, registry.get("kogito_tracing_decision_evicted_evaluations_total").functionCounter().count());
+    }
+
+    @Test
+    void testCollectorCounters() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        DecisionTracingCollector collector = new DecisionTracingCollector(payload -> {
+        }, (namespace, name) -> createDMNModel(), new StaticConfigBean());
+        DecisionTracingMetrics.register(registry, collector);
+
+        assertEquals(0, registry.get("kogito_tracing_decision_evicted_evaluations_total").functionCounter().count());
+    }
+}
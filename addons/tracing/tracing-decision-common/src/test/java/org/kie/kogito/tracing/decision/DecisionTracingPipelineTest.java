@@ -0,0 +1,156 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.tracing.decision;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.kie.dmn.api.core.DMNModel;
+import org.kie.kogito.conf.ConfigBean;
+import org.kie.kogito.conf.StaticConfigBean;
+import org.kie.kogito.tracing.decision.aggregator.DefaultAggregator;
+import org.kie.kogito.tracing.decision.event.evaluate.EvaluateEvent;
+import org.kie.kogito.tracing.decision.terminationdetector.CounterTerminationDetector;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.kie.kogito.decision.DecisionTestUtils.createDMNModel;
+import static org.kie.kogito.tracing.decision.DecisionTracingTestUtils.EVALUATE_ALL_JSON_RESOURCE;
+import static org.kie.kogito.tracing.decision.DecisionTracingTestUtils.EVALUATE_DECISION_SERVICE_JSON_RESOURCE;
+import static org.kie.kogito.tracing.decision.DecisionTracingTestUtils.readEvaluateEventsFromJsonResource;
+
+class DecisionTracingPipelineTest {
+
+    private static DMNModel model;
+    private static ConfigBean configBean;
+
+    @BeforeAll
+    static void initModel() {
+        model = createDMNModel();
+        configBean = new StaticConfigBean();
+    }
+
+    @Test
+    void testPipelineAggregatesInterleavedEvaluations() throws Exception {
+        List<String> payloads = new CopyOnWriteArrayList<>();
+        CountDownLatch emitted = new CountDownLatch(2);
+
+        try (DecisionTracingPipeline pipeline = new DecisionTracingPipeline(2, collectorSupplier(payload -> {
+            payloads.add(payload);
+            emitted.countDown();
+        }))) {
+            List<EvaluateEvent> evaluateAllEvents = readEvaluateEventsFromJsonResource(EVALUATE_ALL_JSON_RESOURCE);
+            List<EvaluateEvent> evaluateDecisionServiceEvents = readEvaluateEventsFromJsonResource(EVALUATE_DECISION_SERVICE_JSON_RESOURCE);
+            for (int i = 0; i < Math.max(evaluateAllEvents.size(), evaluateDecisionServiceEvents.size()); i++) {
+                if (i < evaluateAllEvents.size()) {
+                    pipeline.accept(evaluateAllEvents.get(i));
+                }
+                if (i < evaluateDecisionServiceEvents.size()) {
+                    pipeline.accept(evaluateDecisionServiceEvents.get(i));
+                }
+            }
+
+            assertTrue(emitted.await(10, TimeUnit.SECONDS));
+            assertEquals(2, payloads.size());
+            assertEquals(evaluateAllEvents.size() + evaluateDecisionServiceEvents.size(), pipeline.statistics().acceptedEvents());
+            assertEquals(0, pipeline.statistics().droppedEvents());
+        }
+    }
+
+    @Test
+    void testPipelineDropsWholeEvaluationWhenQueueIsFull() throws IOException, InterruptedException {
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> payloads = new CopyOnWriteArrayList<>();
+
+        List<EvaluateEvent> events = readEvaluateEventsFromJsonResource(EVALUATE_ALL_JSON_RESOURCE);
+        try (DecisionTracingPipeline pipeline = new DecisionTracingPipeline(1, 1, 60_000L, () -> new DecisionTracingCollector(
+                new DefaultAggregator(),
+                payloads::add,
+                (namespace, name) -> model,
+                CounterTerminationDetector::new,
+                configBean) {
+            @Override
+            public void addEvent(EvaluateEvent event) {
+                blocked.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.addEvent(event);
+            }
+        })) {
+            // the worker is busy with the first event, the second one fills the queue
+            pipeline.accept(events.get(0));
+            assertTrue(blocked.await(10, TimeUnit.SECONDS));
+            events.subList(1, events.size()).forEach(pipeline);
+            release.countDown();
+
+            assertEquals(2, pipeline.statistics().acceptedEvents());
+            assertEquals(events.size() - 2, pipeline.statistics().droppedEvents());
+            assertEquals(1, pipeline.statistics().droppedEvaluations());
+        }
+        assertTrue(payloads.isEmpty());
+    }
+
+    @Test
+    void testCloseDrainsQueuedEvents() throws IOException, InterruptedException {
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> payloads = new CopyOnWriteArrayList<>();
+
+        List<EvaluateEvent> events = readEvaluateEventsFromJsonResource(EVALUATE_ALL_JSON_RESOURCE);
+        DecisionTracingPipeline pipeline = new DecisionTracingPipeline(1, () -> new DecisionTracingCollector(
+                new DefaultAggregator(),
+                payloads::add,
+                (namespace, name) -> model,
+                CounterTerminationDetector::new,
+                configBean) {
+            @Override
+            public void addEvent(EvaluateEvent event) {
+                blocked.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.addEvent(event);
+            }
+        });
+        // the worker is busy with the first event while the others are queued
+        events.forEach(pipeline);
+        assertTrue(blocked.await(10, TimeUnit.SECONDS));
+        release.countDown();
+        pipeline.close();
+
+        assertEquals(1, payloads.size());
+        pipeline.accept(events.get(0));
+        assertEquals(1, pipeline.statistics().droppedEvents());
+    }
+
+    private static Supplier<DecisionTracingCollector> collectorSupplier(Consumer<String> payloadConsumer) {
+        return () -> new DecisionTracingCollector(payloadConsumer, (namespace, name) -> model, configBean);
+    }
+}
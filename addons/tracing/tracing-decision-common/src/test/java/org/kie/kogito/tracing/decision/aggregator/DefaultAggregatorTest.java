@@ -17,6 +17,7 @@
 package org.kie.kogito.tracing.decision.aggregator;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -25,6 +26,7 @@ import io.cloudevents.CloudEvent;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.kie.dmn.api.core.DMNModel;
+import org.kie.kogito.cloudevents.CloudEventUtils;
 import org.kie.kogito.conf.StaticConfigBean;
 import org.kie.kogito.decision.DecisionTestUtils;
 import org.kie.kogito.tracing.decision.DecisionTracingTestUtils;
@@ -85,6 +87,19 @@ class DefaultAggregatorTest {
         assertTraceEvent(traceEvent, 2, 2, 2);
     }
 
+    @Test
+    void testEncodeOnEvaluateAllMatchesAggregate() throws IOException {
+        final DefaultAggregator aggregator = new DefaultAggregator();
+        List<EvaluateEvent> events = DecisionTracingTestUtils.readEvaluateEventsFromJsonResource(EVALUATE_ALL_JSON_RESOURCE);
+        byte[] payload = aggregator.encode(model, EVALUATE_ALL_EXECUTION_ID, events, configBean).orElseThrow(IllegalStateException::new);
+        CloudEvent cloudEvent = CloudEventUtils.decode(new String(payload, StandardCharsets.UTF_8)).orElseThrow(IllegalStateException::new);
+        CloudEvent expected = aggregator.aggregate(model, EVALUATE_ALL_EXECUTION_ID, events, configBean).orElseThrow(IllegalStateException::new);
+        assertEquals(expected.getSource(), cloudEvent.getSource());
+        assertEquals(expected.getType(), cloudEvent.getType());
+        TraceEvent traceEvent = assertValidCloudEventAndGetData(cloudEvent, EVALUATE_ALL_EXECUTION_ID);
+        assertTraceEvent(traceEvent, 2, 2, 2);
+    }
+
     @Test
     void testAggregateOnEvaluateAllWithNullModelReturnsDmnModelNotFound() throws IOException {
         final DefaultAggregator aggregator = new DefaultAggregator();
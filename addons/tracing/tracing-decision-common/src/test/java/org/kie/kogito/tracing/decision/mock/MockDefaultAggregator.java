@@ -24,6 +24,7 @@ import java.util.Optional;
 import io.cloudevents.CloudEvent;
 import org.kie.dmn.api.core.DMNModel;
 import org.kie.dmn.feel.util.Pair;
+import org.kie.kogito.cloudevents.CloudEventUtils;
 import org.kie.kogito.conf.ConfigBean;
 import org.kie.kogito.tracing.decision.aggregator.DefaultAggregator;
 import org.kie.kogito.tracing.decision.event.evaluate.EvaluateEvent;
@@ -43,4 +44,9 @@ public class MockDefaultAggregator extends DefaultAggregator {
         return Optional.of(result);
     }
 
+    @Override
+    public Optional<byte[]> encode(DMNModel model, String executionId, List<EvaluateEvent> events, ConfigBean configBean) {
+        return aggregate(model, executionId, events, configBean).flatMap(CloudEventUtils::encodeToBytes);
+    }
+
 }
@@ -17,36 +17,90 @@
 package org.kie.kogito.tracing.decision;
 
 import java.util.function.BiFunction;
+import java.util.function.Consumer;
 
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
+import io.micrometer.core.instrument.Metrics;
 import io.quarkus.vertx.ConsumeEvent;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.kie.kogito.Application;
 import org.kie.kogito.conf.ConfigBean;
+import org.kie.kogito.tracing.decision.aggregator.DefaultAggregator;
 import org.kie.kogito.tracing.decision.event.evaluate.EvaluateEvent;
 import org.kie.kogito.tracing.decision.modelsupplier.ApplicationModelSupplier;
+import org.kie.kogito.tracing.decision.terminationdetector.CounterTerminationDetector;
 
 @Singleton
 public class QuarkusDecisionTracingCollector {
 
-    private final DecisionTracingCollector collector;
+    private final Consumer<EvaluateEvent> collector;
+    private final DecisionTracingPipeline pipeline;
 
     public QuarkusDecisionTracingCollector(final QuarkusTraceEventEmitter eventEmitter,
                                            final ConfigBean configBean,
                                            final BiFunction<String, String, org.kie.dmn.api.core.DMNModel> modelSupplier) {
-        this.collector = new DecisionTracingCollector(eventEmitter::emit, modelSupplier, configBean);
+        DecisionTracingCollector directCollector = newCollector(eventEmitter, configBean, modelSupplier, DecisionTracingCollector.DEFAULT_EVICTION_TIMEOUT);
+        DecisionTracingMetrics.register(Metrics.globalRegistry, directCollector);
+        this.collector = directCollector::addEvent;
+        this.pipeline = null;
     }
 
-    @Inject
     public QuarkusDecisionTracingCollector(final QuarkusTraceEventEmitter eventEmitter,
                                            final ConfigBean configBean,
                                            final Application application) {
         this(eventEmitter, configBean, new ApplicationModelSupplier(application));
     }
 
+    @Inject
+    public QuarkusDecisionTracingCollector(final QuarkusTraceEventEmitter eventEmitter,
+                                           final ConfigBean configBean,
+                                           final Application application,
+                                           @ConfigProperty(name = "kogito.addon.tracing.decision.pipeline.workers", defaultValue = "0") final int pipelineWorkers,
+                                           @ConfigProperty(name = "kogito.addon.tracing.decision.pipeline.queueCapacity", defaultValue = "10000") final int queueCapacity,
+                                           @ConfigProperty(name = "kogito.addon.tracing.decision.evictionTimeout", defaultValue = "60000") final long evictionTimeout) {
+        if (pipelineWorkers > 0) {
+            ApplicationModelSupplier modelSupplier = new ApplicationModelSupplier(application);
+            this.pipeline = new DecisionTracingPipeline(pipelineWorkers, queueCapacity, evictionTimeout,
+                    () -> newCollector(eventEmitter, configBean, modelSupplier, evictionTimeout));
+            DecisionTracingMetrics.register(Metrics.globalRegistry, pipeline);
+            this.collector = pipeline;
+        } else {
+            DecisionTracingCollector directCollector = newCollector(eventEmitter, configBean, new ApplicationModelSupplier(application), evictionTimeout);
+            DecisionTracingMetrics.register(Metrics.globalRegistry, directCollector);
+            this.collector = directCollector::addEvent;
+            this.pipeline = null;
+        }
+    }
+
+    private static DecisionTracingCollector newCollector(QuarkusTraceEventEmitter eventEmitter,
+                                                         ConfigBean configBean,
+                                                         BiFunction<String, String, org.kie.dmn.api.core.DMNModel> modelSupplier,
+                                                         long evictionTimeout) {
+        // traces are encoded straight into bytes, see DefaultAggregator#encode
+        return new DecisionTracingCollector(new DefaultAggregator(), eventEmitter::emit, modelSupplier,
+                CounterTerminationDetector::new, configBean, evictionTimeout, System::currentTimeMillis);
+    }
+
+    /**
+     * Returns true if events are handed over to a {@link DecisionTracingPipeline}, so they can be passed
+     * to this collector directly from the evaluation thread
+     */
+    public boolean isPipelined() {
+        return pipeline != null;
+    }
+
     @ConsumeEvent("kogito-tracing-decision_EvaluateEvent")
     public void onEvent(final EvaluateEvent event) {
-        collector.addEvent(event);
+        collector.accept(event);
+    }
+
+    @PreDestroy
+    void close() {
+        if (pipeline != null) {
+            pipeline.close();
+        }
     }
 }
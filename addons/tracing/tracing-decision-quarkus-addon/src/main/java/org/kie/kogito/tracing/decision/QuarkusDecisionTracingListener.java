@@ -16,11 +16,14 @@
 
 package org.kie.kogito.tracing.decision;
 
+import java.util.Optional;
+
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 
 import io.vertx.core.eventbus.EventBus;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.kie.kogito.decision.DecisionSampler;
 
 /**
  * This class must always extend <code>org.kie.kogito.tracing.decision.DecisionTracingListener</code>
@@ -29,16 +32,30 @@ import org.eclipse.microprofile.config.inject.ConfigProperty;
 @ApplicationScoped
 public final class QuarkusDecisionTracingListener extends DecisionTracingListener {
 
-    @Inject
     public QuarkusDecisionTracingListener(
             EventBus bus,
             QuarkusDecisionTracingCollector collector,
-            @ConfigProperty(name = "kogito.addon.tracing.decision.asyncEnabled", defaultValue = "true") boolean asyncEnabled
+            boolean asyncEnabled
     ) {
-        if (asyncEnabled) {
+        if (asyncEnabled && !collector.isPipelined()) {
             setEventConsumer(event -> bus.send("kogito-tracing-decision_EvaluateEvent", event));
         } else {
             setEventConsumer(collector::onEvent);
         }
     }
+
+    @Inject
+    public QuarkusDecisionTracingListener(
+            EventBus bus,
+            QuarkusDecisionTracingCollector collector,
+            @ConfigProperty(name = "kogito.addon.tracing.decision.asyncEnabled", defaultValue = "true") boolean asyncEnabled,
+            @ConfigProperty(name = DecisionSampler.SAMPLING_RATE_KEY) Optional<String> samplingRate,
+            @ConfigProperty(name = DecisionSampler.SAMPLING_ALWAYS_ON_ERROR_KEY) Optional<String> samplingAlwaysOnError,
+            @ConfigProperty(name = DecisionSampler.SAMPLING_MODELS_KEY) Optional<String> samplingModels,
+            @ConfigProperty(name = "kogito.addon.tracing.decision.eventTypes") Optional<String> eventTypes
+    ) {
+        this(bus, collector, asyncEnabled);
+        setSampling(DecisionSampler.parse(samplingRate.orElse(null), samplingAlwaysOnError.orElse(null), samplingModels.orElse(null)),
+                parseEventTypes(eventTypes.orElse(null)));
+    }
 }
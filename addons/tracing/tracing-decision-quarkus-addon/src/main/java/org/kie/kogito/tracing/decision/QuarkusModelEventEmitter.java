@@ -16,6 +16,8 @@
 
 package org.kie.kogito.tracing.decision;
 
+import java.nio.charset.StandardCharsets;
+
 import io.reactivex.BackpressureStrategy;
 import io.reactivex.subjects.PublishSubject;
 import javax.inject.Inject;
@@ -27,7 +29,7 @@ import org.reactivestreams.Publisher;
 @Singleton
 public class QuarkusModelEventEmitter extends BaseModelEventEmitter {
 
-    private final PublishSubject<String> eventSubject;
+    private final PublishSubject<byte[]> eventSubject;
 
     @Inject
     public QuarkusModelEventEmitter(final DecisionModelResourcesProvider decisionModelResourcesProvider) {
@@ -41,12 +43,17 @@ public class QuarkusModelEventEmitter extends BaseModelEventEmitter {
     }
 
     @Outgoing("kogito-tracing-model")
-    public Publisher<String> getEventPublisher() {
+    public Publisher<byte[]> getEventPublisher() {
         return eventSubject.toFlowable(BackpressureStrategy.BUFFER);
     }
 
     @Override
     public void emit(final String payload) {
+        eventSubject.onNext(payload.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void emit(final byte[] payload) {
         eventSubject.onNext(payload);
     }
 }
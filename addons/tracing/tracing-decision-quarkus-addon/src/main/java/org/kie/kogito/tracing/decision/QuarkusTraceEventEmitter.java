@@ -16,6 +16,8 @@
 
 package org.kie.kogito.tracing.decision;
 
+import java.nio.charset.StandardCharsets;
+
 import javax.inject.Singleton;
 
 import io.reactivex.BackpressureStrategy;
@@ -26,19 +28,24 @@ import org.reactivestreams.Publisher;
 @Singleton
 public class QuarkusTraceEventEmitter implements EventEmitter {
 
-    private final PublishSubject<String> eventSubject;
+    private final PublishSubject<byte[]> eventSubject;
 
     public QuarkusTraceEventEmitter() {
         this.eventSubject = PublishSubject.create();
     }
 
     @Outgoing("kogito-tracing-decision")
-    public Publisher<String> getEventPublisher() {
+    public Publisher<byte[]> getEventPublisher() {
         return eventSubject.toFlowable(BackpressureStrategy.BUFFER);
     }
 
     @Override
     public void emit(final String payload) {
+        eventSubject.onNext(payload.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void emit(final byte[] payload) {
         eventSubject.onNext(payload);
     }
 }
@@ -17,6 +17,7 @@
 package org.kie.kogito.tracing.decision;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -125,7 +126,7 @@ public class QuarkusDecisionTracingTest {
     }
 
     private void testCollector(List<EvaluateEvent> events, DecisionModel model) throws IOException {
-        TestSubscriber<String> subscriber = new TestSubscriber<>();
+        TestSubscriber<byte[]> subscriber = new TestSubscriber<>();
 
         final DecisionModels mockedDecisionModels = mock(DecisionModels.class);
         when(mockedDecisionModels.getDecisionModel(TEST_MODEL_NAMESPACE, TEST_MODEL_NAME)).thenReturn(model);
@@ -141,7 +142,7 @@ public class QuarkusDecisionTracingTest {
         subscriber.assertValueCount(1);
 
         CloudEvent cloudEvent = CloudEventUtils
-                .decode(subscriber.values().get(0))
+                .decode(new String(subscriber.values().get(0), StandardCharsets.UTF_8))
                 .orElseThrow(() -> new IllegalStateException("Can't decode CloudEvent"));
 
         assertEquals(TEST_EXECUTION_ID, cloudEvent.getId());
@@ -16,6 +16,7 @@
 
 package org.kie.kogito.tracing.decision;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.List;
 
@@ -36,7 +37,7 @@ public class QuarkusModelEventEmitterTest {
 
     @Test
     public void testEmitEvent() {
-        final TestSubscriber<String> subscriber = new TestSubscriber<>();
+        final TestSubscriber<byte[]> subscriber = new TestSubscriber<>();
         final List<DecisionModelResource> models = Arrays.asList(makeModel(), makeModel());
         final DecisionModelResourcesProvider mockedDecisionModelResourcesProvider = () -> models;
 
@@ -45,8 +46,8 @@ public class QuarkusModelEventEmitterTest {
         eventEmitter.publishDecisionModels();
 
         subscriber.assertValueCount(2);
-        final String rawCloudEvent1 = subscriber.values().get(0);
-        final String rawCloudEvent2 = subscriber.values().get(1);
+        final String rawCloudEvent1 = new String(subscriber.values().get(0), StandardCharsets.UTF_8);
+        final String rawCloudEvent2 = new String(subscriber.values().get(1), StandardCharsets.UTF_8);
         final CloudEvent cloudEvent1 = CloudEventUtils.decode(rawCloudEvent1).orElseThrow(IllegalStateException::new);
         final CloudEvent cloudEvent2 = CloudEventUtils.decode(rawCloudEvent2).orElseThrow(IllegalStateException::new);
 
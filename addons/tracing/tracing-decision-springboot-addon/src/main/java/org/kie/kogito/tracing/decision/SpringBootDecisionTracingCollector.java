@@ -17,21 +17,53 @@
 package org.kie.kogito.tracing.decision;
 
 import java.util.function.BiFunction;
+import java.util.function.Consumer;
 
+import io.micrometer.core.instrument.Metrics;
 import org.kie.dmn.api.core.DMNModel;
 import org.kie.kogito.Application;
 import org.kie.kogito.conf.ConfigBean;
+import org.kie.kogito.tracing.decision.aggregator.DefaultAggregator;
 import org.kie.kogito.tracing.decision.event.evaluate.EvaluateEvent;
 import org.kie.kogito.tracing.decision.modelsupplier.ApplicationModelSupplier;
+import org.kie.kogito.tracing.decision.terminationdetector.CounterTerminationDetector;
+import org.springframework.beans.factory.DisposableBean;
 
-public class SpringBootDecisionTracingCollector {
+public class SpringBootDecisionTracingCollector implements DisposableBean {
 
-    private final DecisionTracingCollector collector;
+    private final Consumer<EvaluateEvent> collector;
+    private final DecisionTracingPipeline pipeline;
 
     public SpringBootDecisionTracingCollector(final SpringBootTraceEventEmitter eventEmitter,
                                               final ConfigBean configBean,
                                               final BiFunction<String, String, DMNModel> modelSupplier) {
-        this.collector = new DecisionTracingCollector(eventEmitter::emit, modelSupplier, configBean);
+        this(eventEmitter, configBean, modelSupplier, DecisionTracingCollector.DEFAULT_EVICTION_TIMEOUT);
+    }
+
+    public SpringBootDecisionTracingCollector(final SpringBootTraceEventEmitter eventEmitter,
+                                              final ConfigBean configBean,
+                                              final BiFunction<String, String, DMNModel> modelSupplier,
+                                              final long evictionTimeout) {
+        DecisionTracingCollector directCollector = newCollector(eventEmitter, configBean, modelSupplier, evictionTimeout);
+        DecisionTracingMetrics.register(Metrics.globalRegistry, directCollector);
+        this.collector = directCollector::addEvent;
+        this.pipeline = null;
+    }
+
+    /**
+     * Creates a collector handing events over to a {@link DecisionTracingPipeline} with the given number of workers
+     */
+    public SpringBootDecisionTracingCollector(final SpringBootTraceEventEmitter eventEmitter,
+                                              final ConfigBean configBean,
+                                              final Application application,
+                                              final int pipelineWorkers,
+                                              final int queueCapacity,
+                                              final long evictionTimeout) {
+        BiFunction<String, String, DMNModel> modelSupplier = new ApplicationModelSupplier(application);
+        this.pipeline = new DecisionTracingPipeline(pipelineWorkers, queueCapacity, evictionTimeout,
+                () -> newCollector(eventEmitter, configBean, modelSupplier, evictionTimeout));
+        DecisionTracingMetrics.register(Metrics.globalRegistry, pipeline);
+        this.collector = pipeline;
     }
 
     public SpringBootDecisionTracingCollector(final SpringBootTraceEventEmitter eventEmitter,
@@ -40,7 +72,38 @@ public class SpringBootDecisionTracingCollector {
         this(eventEmitter, configBean, new ApplicationModelSupplier(application));
     }
 
+    public SpringBootDecisionTracingCollector(final SpringBootTraceEventEmitter eventEmitter,
+                                              final ConfigBean configBean,
+                                              final Application application,
+                                              final long evictionTimeout) {
+        this(eventEmitter, configBean, new ApplicationModelSupplier(application), evictionTimeout);
+    }
+
+    private static DecisionTracingCollector newCollector(SpringBootTraceEventEmitter eventEmitter,
+                                                         ConfigBean configBean,
+                                                         BiFunction<String, String, DMNModel> modelSupplier,
+                                                         long evictionTimeout) {
+        // traces are encoded straight into bytes, see DefaultAggregator#encode
+        return new DecisionTracingCollector(new DefaultAggregator(), eventEmitter::emit, modelSupplier,
+                CounterTerminationDetector::new, configBean, evictionTimeout, System::currentTimeMillis);
+    }
+
+    /**
+     * Returns true if events are handed over to a {@link DecisionTracingPipeline}, so they can be passed
+     * to this collector directly from the evaluation thread
+     */
+    public boolean isPipelined() {
+        return pipeline != null;
+    }
+
     public void onApplicationEvent(final EvaluateEvent event) {
-        collector.addEvent(event);
+        collector.accept(event);
+    }
+
+    @Override
+    public void destroy() {
+        if (pipeline != null) {
+            pipeline.close();
+        }
     }
 }
@@ -35,6 +35,10 @@ public class SpringBootDecisionTracingCollectorAsync extends SpringBootDecisionT
         super(eventEmitter, configBean, application);
     }
 
+    public SpringBootDecisionTracingCollectorAsync(SpringBootTraceEventEmitter eventEmitter, ConfigBean configBean, Application application, long evictionTimeout) {
+        super(eventEmitter, configBean, application, evictionTimeout);
+    }
+
     @Override
     @Async("kogitoTracingDecisionAddonTaskExecutor")
     @EventListener
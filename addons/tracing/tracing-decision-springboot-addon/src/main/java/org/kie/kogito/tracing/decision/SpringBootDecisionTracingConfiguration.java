@@ -24,6 +24,7 @@ import java.util.concurrent.Executors;
 import org.apache.kafka.clients.admin.AdminClientConfig;
 import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.kie.kogito.Application;
 import org.kie.kogito.conf.ConfigBean;
@@ -63,12 +64,17 @@ public class SpringBootDecisionTracingConfiguration {
             final SpringBootTraceEventEmitter eventEmitter,
             final ConfigBean configBean,
             final Application application,
-            @Value(value = "${kogito.addon.tracing.decision.asyncEnabled:true}") final boolean asyncEnabled
+            @Value(value = "${kogito.addon.tracing.decision.asyncEnabled:true}") final boolean asyncEnabled,
+            @Value(value = "${kogito.addon.tracing.decision.pipeline.workers:0}") final int pipelineWorkers,
+            @Value(value = "${kogito.addon.tracing.decision.pipeline.queueCapacity:10000}") final int queueCapacity,
+            @Value(value = "${kogito.addon.tracing.decision.evictionTimeout:60000}") final long evictionTimeout
     ) {
-        if (asyncEnabled) {
-            return new SpringBootDecisionTracingCollectorAsync(eventEmitter, configBean, application);
+        if (pipelineWorkers > 0) {
+            return new SpringBootDecisionTracingCollector(eventEmitter, configBean, application, pipelineWorkers, queueCapacity, evictionTimeout);
+        } else if (asyncEnabled) {
+            return new SpringBootDecisionTracingCollectorAsync(eventEmitter, configBean, application, evictionTimeout);
         } else {
-            return new SpringBootDecisionTracingCollector(eventEmitter, configBean, application);
+            return new SpringBootDecisionTracingCollector(eventEmitter, configBean, application, evictionTimeout);
         }
     }
 
@@ -94,11 +100,11 @@ public class SpringBootDecisionTracingConfiguration {
      * Configure producers
      */
     @Bean
-    public ProducerFactory<String, String> producerFactory() {
+    public ProducerFactory<String, byte[]> producerFactory() {
         Map<String, Object> configProps = new HashMap<>();
         configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, kafkaBootstrapAddress);
         configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
         return new DefaultKafkaProducerFactory<>(configProps);
     }
 
@@ -106,7 +112,7 @@ public class SpringBootDecisionTracingConfiguration {
      * Configure {@link KafkaTemplate} object used by producers to send messages
      */
     @Bean
-    public KafkaTemplate<String, String> kafkaTemplate() {
+    public KafkaTemplate<String, byte[]> kafkaTemplate() {
         return new KafkaTemplate<>(producerFactory());
     }
 
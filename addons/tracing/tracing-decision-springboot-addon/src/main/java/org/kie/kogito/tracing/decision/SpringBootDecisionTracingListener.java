@@ -16,6 +16,7 @@
 
 package org.kie.kogito.tracing.decision;
 
+import org.kie.kogito.decision.DecisionSampler;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationEventPublisher;
@@ -28,17 +29,30 @@ import org.springframework.stereotype.Component;
 @Component
 public final class SpringBootDecisionTracingListener extends DecisionTracingListener {
 
-    @Autowired
     public SpringBootDecisionTracingListener(
             ApplicationEventPublisher eventPublisher,
             SpringBootDecisionTracingCollector collector,
-            @Value(value = "${kogito.addon.tracing.decision.asyncEnabled:true}") boolean asyncEnabled
+            boolean asyncEnabled
     ) {
-        if (asyncEnabled) {
+        if (asyncEnabled && !collector.isPipelined()) {
             setEventConsumer(eventPublisher::publishEvent);
         } else {
             setEventConsumer(collector::onApplicationEvent);
         }
     }
 
+    @Autowired
+    public SpringBootDecisionTracingListener(
+            ApplicationEventPublisher eventPublisher,
+            SpringBootDecisionTracingCollector collector,
+            @Value(value = "${kogito.addon.tracing.decision.asyncEnabled:true}") boolean asyncEnabled,
+            @Value(value = "${" + DecisionSampler.SAMPLING_RATE_KEY + ":}") String samplingRate,
+            @Value(value = "${" + DecisionSampler.SAMPLING_ALWAYS_ON_ERROR_KEY + ":}") String samplingAlwaysOnError,
+            @Value(value = "${" + DecisionSampler.SAMPLING_MODELS_KEY + ":}") String samplingModels,
+            @Value(value = "${kogito.addon.tracing.decision.eventTypes:}") String eventTypes
+    ) {
+        this(eventPublisher, collector, asyncEnabled);
+        setSampling(DecisionSampler.parse(samplingRate, samplingAlwaysOnError, samplingModels), parseEventTypes(eventTypes));
+    }
+
 }
@@ -16,6 +16,8 @@
 
 package org.kie.kogito.tracing.decision;
 
+import java.nio.charset.StandardCharsets;
+
 import javax.annotation.PostConstruct;
 
 import org.kie.kogito.decision.DecisionModelResourcesProvider;
@@ -27,12 +29,12 @@ import org.springframework.stereotype.Component;
 @Component
 public class SpringBootModelEventEmitter extends BaseModelEventEmitter {
 
-    private final KafkaTemplate<String, String> template;
+    private final KafkaTemplate<String, byte[]> template;
     private final String kafkaTopicName;
 
     @Autowired
     public SpringBootModelEventEmitter(final DecisionModelResourcesProvider decisionModelResourcesProvider,
-                                       final KafkaTemplate<String, String> template,
+                                       final KafkaTemplate<String, byte[]> template,
                                        final @Value(value = "${kogito.addon.tracing.model.kafka.topic.name:kogito-tracing-model}") String kafkaTopicName) {
         super(decisionModelResourcesProvider);
         this.template = template;
@@ -47,6 +49,11 @@ public class SpringBootModelEventEmitter extends BaseModelEventEmitter {
 
     @Override
     public void emit(final String payload) {
+        template.send(kafkaTopicName, payload.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void emit(final byte[] payload) {
         template.send(kafkaTopicName, payload);
     }
 }
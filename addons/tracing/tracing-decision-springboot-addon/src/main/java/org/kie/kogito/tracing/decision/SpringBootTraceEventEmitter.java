@@ -16,6 +16,8 @@
 
 package org.kie.kogito.tracing.decision;
 
+import java.nio.charset.StandardCharsets;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
@@ -24,11 +26,11 @@ import org.springframework.stereotype.Component;
 @Component
 public class SpringBootTraceEventEmitter implements EventEmitter {
 
-    private final KafkaTemplate<String, String> template;
+    private final KafkaTemplate<String, byte[]> template;
     private final String kafkaTopicName;
 
     @Autowired
-    public SpringBootTraceEventEmitter(final KafkaTemplate<String, String> template,
+    public SpringBootTraceEventEmitter(final KafkaTemplate<String, byte[]> template,
                                        final @Value(value = "${kogito.addon.tracing.decision.kafka.topic.name:kogito-tracing-decision}") String kafkaTopicName) {
         this.template = template;
         this.kafkaTopicName = kafkaTopicName;
@@ -36,6 +38,11 @@ public class SpringBootTraceEventEmitter implements EventEmitter {
 
     @Override
     public void emit(final String payload) {
+        template.send(kafkaTopicName, payload.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void emit(final byte[] payload) {
         template.send(kafkaTopicName, payload);
     }
 }
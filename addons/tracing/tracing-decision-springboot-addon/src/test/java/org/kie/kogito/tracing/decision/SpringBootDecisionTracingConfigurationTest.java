@@ -34,10 +34,15 @@ class SpringBootDecisionTracingConfigurationTest {
 
         SpringBootDecisionTracingConfiguration config = new SpringBootDecisionTracingConfiguration("localhost:9092", "kogito-tracing-decision", 1, (short) 1);
 
-        SpringBootDecisionTracingCollector asyncCollector = config.collector(mockedEmitter, mockedConfigBean, mockedApplication, true);
+        SpringBootDecisionTracingCollector asyncCollector = config.collector(mockedEmitter, mockedConfigBean, mockedApplication, true, 0, 10000, 60000L);
         assertTrue(asyncCollector instanceof SpringBootDecisionTracingCollectorAsync);
 
-        SpringBootDecisionTracingCollector syncCollector = config.collector(mockedEmitter, mockedConfigBean, mockedApplication, false);
+        SpringBootDecisionTracingCollector syncCollector = config.collector(mockedEmitter, mockedConfigBean, mockedApplication, false, 0, 10000, 60000L);
         assertFalse(syncCollector instanceof SpringBootDecisionTracingCollectorAsync);
+
+        SpringBootDecisionTracingCollector pipelinedCollector = config.collector(mockedEmitter, mockedConfigBean, mockedApplication, true, 2, 10000, 60000L);
+        assertFalse(pipelinedCollector instanceof SpringBootDecisionTracingCollectorAsync);
+        assertTrue(pipelinedCollector.isPipelined());
+        pipelinedCollector.destroy();
     }
 }
@@ -17,6 +17,7 @@
 package org.kie.kogito.tracing.decision;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -135,17 +136,17 @@ public class SpringBootDecisionTracingTest {
 
         final ConfigBean configBean = new StaticConfigBean(TEST_SERVICE_URL, true);
 
-        final KafkaTemplate<String, String> mockedTemplate = mock(KafkaTemplate.class);
+        final KafkaTemplate<String, byte[]> mockedTemplate = mock(KafkaTemplate.class);
         final SpringBootTraceEventEmitter eventEmitter = new SpringBootTraceEventEmitter(mockedTemplate, TEST_KAFKA_TOPIC);
 
         SpringBootDecisionTracingCollector collector = new SpringBootDecisionTracingCollector(eventEmitter, configBean, mockedApplication);
         events.forEach(collector::onApplicationEvent);
 
-        ArgumentCaptor<String> payloadCaptor = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<byte[]> payloadCaptor = ArgumentCaptor.forClass(byte[].class);
         verify(mockedTemplate).send(eq(TEST_KAFKA_TOPIC), payloadCaptor.capture());
 
         CloudEvent cloudEvent = CloudEventUtils
-                .decode(payloadCaptor.getValue())
+                .decode(new String(payloadCaptor.getValue(), StandardCharsets.UTF_8))
                 .orElseThrow(() -> new IllegalStateException("Can't decode CloudEvent"));
 
         assertEquals(TEST_EXECUTION_ID, cloudEvent.getId());
@@ -16,6 +16,7 @@
 
 package org.kie.kogito.tracing.decision;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.List;
 
@@ -45,7 +46,7 @@ public class SpringBootModelEventEmitterTest {
     @Test
     public void testEmitEvent() throws JsonProcessingException {
         @SuppressWarnings("unchecked")
-        final KafkaTemplate<String, String> mockedKarkaTemplate = mock(KafkaTemplate.class);
+        final KafkaTemplate<String, byte[]> mockedKarkaTemplate = mock(KafkaTemplate.class);
         final List<DecisionModelResource> models = Arrays.asList(makeModel(), makeModel());
         final DecisionModelResourcesProvider mockedDecisionModelResourcesProvider = () -> models;
 
@@ -53,13 +54,13 @@ public class SpringBootModelEventEmitterTest {
         eventEmitter.publishDecisionModels();
 
         final ArgumentCaptor<String> topicCaptor = ArgumentCaptor.forClass(String.class);
-        final ArgumentCaptor<String> payloadCaptor = ArgumentCaptor.forClass(String.class);
+        final ArgumentCaptor<byte[]> payloadCaptor = ArgumentCaptor.forClass(byte[].class);
         verify(mockedKarkaTemplate, times(2)).send(topicCaptor.capture(), payloadCaptor.capture());
 
         topicCaptor.getAllValues().forEach(v -> assertEquals(TEST_TOPIC, v));
 
-        final String rawCloudEvent1 = payloadCaptor.getAllValues().get(0);
-        final String rawCloudEvent2 = payloadCaptor.getAllValues().get(1);
+        final String rawCloudEvent1 = new String(payloadCaptor.getAllValues().get(0), StandardCharsets.UTF_8);
+        final String rawCloudEvent2 = new String(payloadCaptor.getAllValues().get(1), StandardCharsets.UTF_8);
         final CloudEvent cloudEvent1 = OBJECT_MAPPER.readValue(rawCloudEvent1, CloudEvent.class);
         final CloudEvent cloudEvent2 = OBJECT_MAPPER.readValue(rawCloudEvent2, CloudEvent.class);
 
@@ -22,4 +22,55 @@ public interface ConfigBean extends KogitoConfig {
 
     Optional<Boolean> useCloudEvents();
     String getServiceUrl();
+
+    /**
+     * Number of incoming messages consumed concurrently, messages for the same process instance
+     * are always consumed in order
+     */
+    default int messagingConcurrency() {
+        return 1;
+    }
+
+    /**
+     * Max number of incoming messages received but not consumed yet when consuming concurrently,
+     * the concurrency by default as messages are acknowledged when received
+     */
+    default int messagingMaxInFlight() {
+        return messagingConcurrency();
+    }
+
+    /**
+     * Whether the generated REST work item handlers complete their work items asynchronously
+     */
+    default boolean restWorkItemAsync() {
+        return false;
+    }
+
+    /**
+     * Timeout in milliseconds of the requests sent by the generated REST work item handlers, 0 for none
+     */
+    default long restWorkItemTimeout() {
+        return 0L;
+    }
+
+    /**
+     * Number of times a failed request of the generated REST work item handlers is retried
+     */
+    default int restWorkItemMaxRetries() {
+        return 0;
+    }
+
+    /**
+     * Delay in milliseconds before the first retry of a failed request, doubled on each retry
+     */
+    default long restWorkItemRetryBackoff() {
+        return 100L;
+    }
+
+    /**
+     * Max number of connections of the generated REST work item handlers, 0 for the client default
+     */
+    default int restWorkItemMaxPoolSize() {
+        return 0;
+    }
 }
@@ -20,6 +20,15 @@ public class StaticConfigBean implements ConfigBean {
 
     private String serviceUrl;
     private Optional<Boolean> useCloudEvents = Optional.empty();
+    private int messagingConcurrency = 1;
+    // not set, the concurrency is used
+    private int messagingMaxInFlight = 0;
+    private boolean restWorkItemAsync;
+    private long restWorkItemTimeout;
+    private int restWorkItemMaxRetries;
+    private long restWorkItemRetryBackoff = 100L;
+    // not set, the client default is used
+    private int restWorkItemMaxPoolSize;
 
     public StaticConfigBean() {
     }
@@ -37,6 +46,34 @@ public class StaticConfigBean implements ConfigBean {
         this.useCloudEvents = useCloudEvents;
     }
 
+    protected void setMessagingConcurrency(int messagingConcurrency) {
+        this.messagingConcurrency = messagingConcurrency;
+    }
+
+    protected void setMessagingMaxInFlight(int messagingMaxInFlight) {
+        this.messagingMaxInFlight = messagingMaxInFlight;
+    }
+
+    protected void setRestWorkItemAsync(boolean restWorkItemAsync) {
+        this.restWorkItemAsync = restWorkItemAsync;
+    }
+
+    protected void setRestWorkItemTimeout(long restWorkItemTimeout) {
+        this.restWorkItemTimeout = restWorkItemTimeout;
+    }
+
+    protected void setRestWorkItemMaxRetries(int restWorkItemMaxRetries) {
+        this.restWorkItemMaxRetries = restWorkItemMaxRetries;
+    }
+
+    protected void setRestWorkItemRetryBackoff(long restWorkItemRetryBackoff) {
+        this.restWorkItemRetryBackoff = restWorkItemRetryBackoff;
+    }
+
+    protected void setRestWorkItemMaxPoolSize(int restWorkItemMaxPoolSize) {
+        this.restWorkItemMaxPoolSize = restWorkItemMaxPoolSize;
+    }
+
     @Override
     public Optional<Boolean> useCloudEvents() {
         return useCloudEvents;
@@ -46,4 +83,39 @@ public class StaticConfigBean implements ConfigBean {
     public String getServiceUrl() {
         return serviceUrl;
     }
+
+    @Override
+    public int messagingConcurrency() {
+        return messagingConcurrency;
+    }
+
+    @Override
+    public int messagingMaxInFlight() {
+        return messagingMaxInFlight > 0 ? messagingMaxInFlight : messagingConcurrency;
+    }
+
+    @Override
+    public boolean restWorkItemAsync() {
+        return restWorkItemAsync;
+    }
+
+    @Override
+    public long restWorkItemTimeout() {
+        return restWorkItemTimeout;
+    }
+
+    @Override
+    public int restWorkItemMaxRetries() {
+        return restWorkItemMaxRetries;
+    }
+
+    @Override
+    public long restWorkItemRetryBackoff() {
+        return restWorkItemRetryBackoff;
+    }
+
+    @Override
+    public int restWorkItemMaxPoolSize() {
+        return restWorkItemMaxPoolSize;
+    }
 }
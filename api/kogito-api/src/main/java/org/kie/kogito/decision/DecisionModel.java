@@ -16,6 +16,7 @@
 package org.kie.kogito.decision;
 
 import java.util.Map;
+import java.util.stream.Stream;
 
 import org.kie.dmn.api.core.DMNContext;
 import org.kie.dmn.api.core.DMNModel;
@@ -30,6 +31,14 @@ public interface DecisionModel {
 
     DMNResult evaluateAll(DMNContext context);
 
+    /**
+     * Evaluates all the given contexts, which are independent of each other
+     * @return results in the order of the contexts
+     */
+    default Stream<DMNResult> evaluateAllBatch(Stream<DMNContext> contexts) {
+        return contexts.map(this::evaluateAll);
+    }
+
     DMNResult evaluateDecisionService(DMNContext context, String decisionServiceName);
 
     DMNModel getDMNModel();
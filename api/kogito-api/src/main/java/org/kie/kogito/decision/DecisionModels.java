@@ -15,9 +15,19 @@
 
 package org.kie.kogito.decision;
 
+import java.util.Collection;
+import java.util.Collections;
+
 import org.kie.kogito.KogitoEngine;
 
 public interface DecisionModels extends KogitoEngine {
 
     DecisionModel getDecisionModel(String namespace, String name);
+
+    /**
+     * Returns all the decision models known at startup, none by default
+     */
+    default Collection<DecisionModel> getDecisionModels() {
+        return Collections.emptyList();
+    }
 }
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.decision;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * Head based sampling of decision evaluations used by decision instrumentation (tracing, metrics).
+ * <br/>
+ * The decision is taken once per evaluation from its execution id, so every instrumentation sampling
+ * with the same configuration agrees on the evaluations it keeps. Evaluations of models not in the allow list
+ * are never sampled, an empty allow list allows all models.
+ */
+public final class DecisionSampler {
+
+    public static final String SAMPLING_RATE_KEY = "kogito.decisions.sampling.rate";
+    public static final String SAMPLING_ALWAYS_ON_ERROR_KEY = "kogito.decisions.sampling.alwaysOnError";
+    public static final String SAMPLING_MODELS_KEY = "kogito.decisions.sampling.models";
+
+    public static final DecisionSampler ALWAYS = new DecisionSampler(1.0, true, Collections.emptySet());
+
+    private final double rate;
+    private final boolean alwaysOnError;
+    private final Set<String> models;
+    private final long threshold;
+
+    private DecisionSampler(double rate, boolean alwaysOnError, Set<String> models) {
+        if (rate < 0.0 || rate > 1.0) {
+            throw new IllegalArgumentException("Decision sampling rate must be between 0 and 1, was " + rate);
+        }
+        this.rate = rate;
+        this.alwaysOnError = alwaysOnError;
+        this.models = models;
+        this.threshold = (long) (rate * (1L << 32));
+    }
+
+    /**
+     * @param rate fraction of the evaluations to be sampled, between 0 and 1
+     * @param alwaysOnError true if evaluations with errors should be recorded even if not sampled
+     * @param models names of the models to be sampled, either <code>name</code> or <code>namespace#name</code>
+     */
+    public static DecisionSampler of(double rate, boolean alwaysOnError, Collection<String> models) {
+        if (rate >= 1.0 && models.isEmpty()) {
+            return ALWAYS;
+        }
+        return new DecisionSampler(rate, alwaysOnError, Collections.unmodifiableSet(new HashSet<>(models)));
+    }
+
+    /**
+     * Creates a sampler from configuration values, missing or empty values fall back to sampling everything
+     * @param rate fraction of the evaluations to be sampled
+     * @param alwaysOnError "true" if evaluations with errors should be recorded even if not sampled
+     * @param models comma separated list of the models to be sampled
+     */
+    public static DecisionSampler parse(String rate, String alwaysOnError, String models) {
+        return of(isBlank(rate) ? 1.0 : Double.parseDouble(rate.trim()),
+                isBlank(alwaysOnError) || Boolean.parseBoolean(alwaysOnError.trim()),
+                isBlank(models) ? Collections.emptySet()
+                        : Arrays.stream(models.split(",")).map(String::trim).filter(s -> !s.isEmpty()).collect(Collectors.toSet()));
+    }
+
+    public boolean isAlwaysSampled() {
+        return this == ALWAYS;
+    }
+
+    public boolean isAlwaysOnError() {
+        return alwaysOnError;
+    }
+
+    public double getRate() {
+        return rate;
+    }
+
+    public Set<String> getModels() {
+        return models;
+    }
+
+    public boolean isModelAllowed(String modelNamespace, String modelName) {
+        return models.isEmpty() || models.contains(modelName) || models.contains(modelNamespace + "#" + modelName);
+    }
+
+    /**
+     * Returns true if the evaluation with the given execution id should be sampled
+     * @param executionId execution id of the evaluation, a random decision is taken if null
+     */
+    public boolean isSampled(String modelNamespace, String modelName, String executionId) {
+        if (!isModelAllowed(modelNamespace, modelName)) {
+            return false;
+        }
+        if (rate >= 1.0) {
+            return true;
+        }
+        if (rate <= 0.0) {
+            return false;
+        }
+        int hash = executionId == null ? ThreadLocalRandom.current().nextInt() : mix(executionId.hashCode());
+        return (hash & 0xffffffffL) < threshold;
+    }
+
+    // finalizer of murmur3, spreads similar execution ids over the whole range
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+}
@@ -15,6 +15,9 @@
 
 package org.kie.kogito.process;
 
+import java.util.Collection;
+import java.util.Optional;
+
 public interface MutableProcessInstances<T> extends ProcessInstances<T> {
     
     boolean exists(String id);
@@ -25,6 +28,23 @@ public interface MutableProcessInstances<T> extends ProcessInstances<T> {
     
     void remove(String id);
     
+    /**
+     * Returns the ids of the process instances listening to the given event type, or an empty optional
+     * when the store does not keep track of listeners and every process instance has to be signalled.
+     * The ids may include instances that stopped listening or were removed, but never miss a listening one.
+     */
+    default Optional<Collection<String>> waitingFor(String eventType) {
+        return Optional.empty();
+    }
+
+    /**
+     * Runs the given create, update and remove operations as one batch. Stores that are able to send several writes
+     * in a single request buffer them and flush once the operations are done, by default they are run one by one.
+     */
+    default void batch(Runnable operations) {
+        operations.run();
+    }
+
     default boolean isActive(ProcessInstance<T> instance) {
         return instance.status() == ProcessInstance.STATE_ACTIVE || instance.status() == ProcessInstance.STATE_ERROR;        
     }
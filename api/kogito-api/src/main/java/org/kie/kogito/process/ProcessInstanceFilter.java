@@ -0,0 +1,84 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.process;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Immutable criteria used to restrict the process instances returned by {@link ProcessInstances}.
+ * Stores that are able to evaluate the criteria natively are expected to do so, everything else
+ * falls back to testing every unmarshalled instance.
+ */
+public final class ProcessInstanceFilter implements Predicate<ProcessInstance<?>> {
+
+    private static final ProcessInstanceFilter ALL = new ProcessInstanceFilter(Collections.emptySet(), null);
+
+    private final Set<Integer> statuses;
+    private final String businessKey;
+
+    private ProcessInstanceFilter(Set<Integer> statuses, String businessKey) {
+        this.statuses = statuses;
+        this.businessKey = businessKey;
+    }
+
+    public static ProcessInstanceFilter all() {
+        return ALL;
+    }
+
+    public ProcessInstanceFilter withStatus(Integer... statuses) {
+        return new ProcessInstanceFilter(Collections.unmodifiableSet(new HashSet<>(Arrays.asList(statuses))), businessKey);
+    }
+
+    public ProcessInstanceFilter withBusinessKey(String businessKey) {
+        return new ProcessInstanceFilter(statuses, businessKey);
+    }
+
+    /**
+     * Statuses accepted by this filter, empty when any status is accepted
+     */
+    public Set<Integer> getStatuses() {
+        return statuses;
+    }
+
+    /**
+     * Business key accepted by this filter, <code>null</code> when any business key is accepted
+     */
+    public String getBusinessKey() {
+        return businessKey;
+    }
+
+    public boolean isEmpty() {
+        return statuses.isEmpty() && businessKey == null;
+    }
+
+    public boolean acceptsStatus(int status) {
+        return statuses.isEmpty() || statuses.contains(status);
+    }
+
+    @Override
+    public boolean test(ProcessInstance<?> processInstance) {
+        return acceptsStatus(processInstance.status()) && (businessKey == null || businessKey.equals(processInstance.businessKey()));
+    }
+
+    @Override
+    public String toString() {
+        return "ProcessInstanceFilter [statuses=" + statuses + ", businessKey=" + businessKey + "]";
+    }
+}
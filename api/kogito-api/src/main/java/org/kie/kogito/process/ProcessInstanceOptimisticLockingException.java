@@ -0,0 +1,37 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.process;
+
+/**
+ * Thrown when a process instance is stored based on a version that was updated or removed concurrently,
+ * the work should be retried on the latest version of the process instance
+ */
+public class ProcessInstanceOptimisticLockingException extends RuntimeException {
+
+    private static final long serialVersionUID = -2735428765712618491L;
+
+    private final String processInstanceId;
+
+    public ProcessInstanceOptimisticLockingException(String processInstanceId) {
+        super("Process instance with id '" + processInstanceId + "' was updated or removed concurrently");
+        this.processInstanceId = processInstanceId;
+    }
+
+    public String getProcessInstanceId() {
+        return processInstanceId;
+    }
+
+}
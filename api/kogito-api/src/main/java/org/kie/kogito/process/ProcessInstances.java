@@ -16,7 +16,10 @@
 package org.kie.kogito.process;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public interface ProcessInstances<T> {
 
@@ -31,6 +34,41 @@ public interface ProcessInstances<T> {
     }
     
     Collection<ProcessInstance<T>> values(ProcessInstanceReadMode mode);
+
+    default Stream<ProcessInstance<T>> stream() {
+        return stream(ProcessInstanceReadMode.READ_ONLY);
+    }
+
+    /**
+     * Returns a lazily populated stream of process instances, instances are only unmarshalled when consumed.
+     * Streams backed by an external store hold resources and should be closed once consumed.
+     */
+    default Stream<ProcessInstance<T>> stream(ProcessInstanceReadMode mode) {
+        return values(mode).stream();
+    }
+
+    default Stream<ProcessInstance<T>> stream(ProcessInstanceFilter filter, ProcessInstanceReadMode mode) {
+        Stream<ProcessInstance<T>> stream = stream(mode);
+        return filter.isEmpty() ? stream : stream.filter(filter);
+    }
+
+    default List<ProcessInstance<T>> page(int offset, int limit) {
+        return page(ProcessInstanceFilter.all(), offset, limit, ProcessInstanceReadMode.READ_ONLY);
+    }
+
+    /**
+     * Returns at most <code>limit</code> process instances matching the given filter, skipping the first
+     * <code>offset</code> matches.
+     * @throws IllegalArgumentException if <code>offset</code> or <code>limit</code> is negative
+     */
+    default List<ProcessInstance<T>> page(ProcessInstanceFilter filter, int offset, int limit, ProcessInstanceReadMode mode) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("Offset and limit must not be negative, got offset " + offset + " and limit " + limit);
+        }
+        try (Stream<ProcessInstance<T>> stream = stream(filter, mode)) {
+            return stream.skip(offset).limit(limit).collect(Collectors.toList());
+        }
+    }
     
     Integer size();
 }
@@ -16,6 +16,8 @@
 
 package org.kie.kogito.rules;
 
+import java.util.Collection;
+
 import org.kie.api.runtime.rule.FactHandle;
 
 public interface DataProcessor<T> {
@@ -24,6 +26,10 @@ public interface DataProcessor<T> {
         insert( null, object );
     }
 
+    default void insertAll(Collection<? extends T> objects) {
+        objects.forEach( this::insert );
+    }
+
     FactHandle insert( DataHandle handle, T object);
 
     void update(DataHandle handle, T object);
@@ -28,6 +28,13 @@ public interface DataSource<T> extends Iterable<T> {
 
     void subscribe(DataProcessor<T> subscriber);
 
+    /**
+     * Stops notifying the given subscriber of the changes of this data source, the values it already received are
+     * left untouched. Data sources that do not support it keep notifying the subscriber.
+     */
+    default void unsubscribe(DataProcessor<T> subscriber) {
+    }
+
     interface Factory {
         <T> DataStream<T> createStream();
         <T> DataStore<T> createStore();
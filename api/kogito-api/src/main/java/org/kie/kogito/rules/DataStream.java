@@ -16,6 +16,12 @@
 
 package org.kie.kogito.rules;
 
+import java.util.Collection;
+
 public interface DataStream<T> extends DataSource<T> {
     void append( T value );
+
+    default void appendAll( Collection<? extends T> values ) {
+        values.forEach( this::append );
+    }
 }
@@ -31,4 +31,10 @@ public interface RuleUnitInstance<T extends RuleUnitData> {
     <Q> Q executeQuery(Class<? extends RuleUnitQuery<Q>> query);
 
     <T extends SessionClock> T getClock();
+
+    /**
+     * Releases the session backing this instance, which must not be used afterwards
+     */
+    default void dispose() {
+    }
 }
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.decision;
+
+import java.util.Collections;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DecisionSamplerTest {
+
+    private static final String NAMESPACE = "https://kiegroup.org/dmn";
+
+    @Test
+    public void testParseDefaults() {
+        assertSame(DecisionSampler.ALWAYS, DecisionSampler.parse(null, null, null));
+        assertSame(DecisionSampler.ALWAYS, DecisionSampler.parse("", " ", ""));
+        assertThrows(IllegalArgumentException.class, () -> DecisionSampler.parse("2", null, null));
+    }
+
+    @Test
+    public void testSamplingDecisionIsStablePerExecution() {
+        DecisionSampler sampler = DecisionSampler.of(0.5, false, Collections.emptySet());
+        String executionId = UUID.randomUUID().toString();
+        boolean sampled = sampler.isSampled(NAMESPACE, "model", executionId);
+        IntStream.range(0, 10).forEach(i -> assertEquals(sampled, sampler.isSampled(NAMESPACE, "model", executionId)));
+    }
+
+    @Test
+    public void testSamplingRate() {
+        DecisionSampler sampler = DecisionSampler.parse("0.1", "false", null);
+        long sampled = IntStream.range(0, 10_000)
+                .filter(i -> sampler.isSampled(NAMESPACE, "model", UUID.randomUUID().toString()))
+                .count();
+        assertTrue(sampled > 700 && sampled < 1300, "sampled " + sampled);
+
+        DecisionSampler never = DecisionSampler.parse("0", "true", null);
+        assertFalse(never.isSampled(NAMESPACE, "model", "id"));
+        assertTrue(never.isAlwaysOnError());
+    }
+
+    @Test
+    public void testModelAllowList() {
+        DecisionSampler sampler = DecisionSampler.parse("1", null, "first, " + NAMESPACE + "#second");
+        assertTrue(sampler.isSampled(NAMESPACE, "first", "id"));
+        assertTrue(sampler.isSampled(NAMESPACE, "second", "id"));
+        assertFalse(sampler.isSampled("other", "second", "id"));
+        assertFalse(sampler.isSampled(NAMESPACE, "third", "id"));
+    }
+}
@@ -23,6 +23,7 @@ import org.kie.kogito.Application;
 import org.kie.kogito.Model;
 import org.kie.kogito.process.Process;
 import org.kie.kogito.services.event.AbstractProcessDataEvent;
+import org.kie.kogito.services.event.EventConsumer;
 import org.kie.kogito.services.event.EventConsumerFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -38,6 +39,7 @@ public abstract class AbstractMessageConsumer<M extends Model, D, T extends Abst
     private String trigger;
     private Class<D> dataEventClass;
     private Class<T> cloudEventClass;
+    private EventConsumer<M> eventConsumer;
 
     // in general we should favor the non-empty constructor
     // but there is an issue with Quarkus https://github.com/quarkusio/quarkus/issues/2949#issuecomment-513017781
@@ -77,15 +79,15 @@ public abstract class AbstractMessageConsumer<M extends Model, D, T extends Abst
         this.eventConsumerFactory = eventConsumerFactory;
         this.trigger = trigger;
         this.useCloudEvents = useCloudEvents;
+        this.eventConsumer = eventConsumerFactory.get(this::eventToModel, dataEventClass, cloudEventClass, useCloudEvents);
 
         logger.info("Consumer for {} started.", dataEventClass);
     }
 
     public void consume(String payload) {
         logger.debug("Received: {} on thread {}", payload, Thread.currentThread().getName());
-        eventConsumerFactory.get(this::eventToModel, dataEventClass, cloudEventClass, useCloudEvents)
-                .consume(application, (Process<Model>) process, payload, trigger);
+        eventConsumer.consume(application, process, payload, trigger);
     }
 
-    protected abstract Model eventToModel(D event);
+    protected abstract M eventToModel(D event);
 }
\ No newline at end of file
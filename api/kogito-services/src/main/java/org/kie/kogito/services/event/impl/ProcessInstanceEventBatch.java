@@ -17,6 +17,7 @@ package org.kie.kogito.services.event.impl;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -24,6 +25,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+import org.kie.api.definition.process.Node;
 import org.kie.api.event.process.ProcessCompletedEvent;
 import org.kie.api.event.process.ProcessEvent;
 import org.kie.api.event.process.ProcessNodeEvent;
@@ -48,10 +50,18 @@ public class ProcessInstanceEventBatch implements EventBatch {
 
     public static final String TRACKED = "tracked";
 
+    private static final String[] NO_ROLES = new String[0];
+
     private final String service;
     private Addons addons;
     private List<ProcessEvent> rawEvents = new ArrayList<>();
 
+    // constant per process or node type, computed once per batch
+    private String kogitoAddons;
+    private final Map<String, String> runtimeSources = new HashMap<>();
+    private final Map<String, String[]> securityRoles = new HashMap<>();
+    private final Map<Class<?>, String> nodeTypes = new HashMap<>();
+
     public ProcessInstanceEventBatch(String service, Addons addons) {
         this.service = service;
         this.addons = addons;
@@ -66,19 +76,19 @@ public class ProcessInstanceEventBatch implements EventBatch {
 
     @Override
     public Collection<DataEvent<?>> events() {
-        Map<String, ProcessInstanceEventBody> processInstances = new LinkedHashMap<>();
+        Map<String, ProcessInstanceEvents> processInstances = new LinkedHashMap<>();
         Map<String, UserTaskInstanceEventBody> userTaskInstances = new LinkedHashMap<>();
         Set<VariableInstanceEventBody> variables = new LinkedHashSet<>();
 
         for (ProcessEvent event : rawEvents) {
-            ProcessInstanceEventBody body = processInstances.computeIfAbsent( ((KogitoProcessInstance) event.getProcessInstance()).getStringId(), key -> create(event));
+            ProcessInstanceEvents instanceEvents = processInstances.computeIfAbsent(((KogitoProcessInstance) event.getProcessInstance()).getStringId(), key -> new ProcessInstanceEvents(create(event)));
 
             if (event instanceof ProcessNodeTriggeredEvent) {
-                handleProcessNodeTriggeredEvent((ProcessNodeTriggeredEvent) event, body);
+                handleProcessNodeTriggeredEvent((ProcessNodeTriggeredEvent) event, instanceEvents.nodeInstances);
             } else if (event instanceof ProcessNodeLeftEvent) {
-                handleProcessNodeLeftEvent((ProcessNodeLeftEvent) event, body);
+                handleProcessNodeLeftEvent((ProcessNodeLeftEvent) event, instanceEvents.nodeInstances);
             } else if (event instanceof ProcessCompletedEvent) {
-                handleProcessCompletedEvent((ProcessCompletedEvent) event, body);
+                handleProcessCompletedEvent((ProcessCompletedEvent) event, instanceEvents.body);
             } else if (event instanceof ProcessWorkItemTransitionEvent) {
                 handleProcessWorkItemTransitionEvent((ProcessWorkItemTransitionEvent) event, userTaskInstances);
             } else if (event instanceof ProcessVariableChangedEvent) {
@@ -86,11 +96,24 @@ public class ProcessInstanceEventBatch implements EventBatch {
             }
         }
 
-        Collection<DataEvent<?>> processedEvents = new ArrayList<>();
+        Collection<DataEvent<?>> processedEvents = new ArrayList<>(processInstances.size() + userTaskInstances.size() + variables.size());
+        String kogitoAddons = addons();
 
-        processInstances.values().stream().map(pi -> new ProcessInstanceDataEvent(extractRuntimeSource(pi.metaData()), addons.toString(), pi.metaData(), pi)).forEach(processedEvents::add);
-        userTaskInstances.values().stream().map(pi -> new UserTaskInstanceDataEvent(extractRuntimeSource(pi.metaData()), addons.toString(), pi.metaData(), pi)).forEach(processedEvents::add);
-        variables.stream().map(pi -> new VariableInstanceDataEvent(extractRuntimeSource(pi.metaData()), addons.toString(), pi.metaData(), pi)).forEach(processedEvents::add);
+        for (ProcessInstanceEvents instanceEvents : processInstances.values()) {
+            ProcessInstanceEventBody pi = instanceEvents.body;
+            ProcessInstanceEventBody.Builder builder = pi.update();
+            instanceEvents.nodeInstances.values().forEach(builder::nodeInstance);
+            Map<String, String> metaData = pi.metaData();
+            processedEvents.add(new ProcessInstanceDataEvent(extractRuntimeSource(metaData), kogitoAddons, metaData, pi));
+        }
+        for (UserTaskInstanceEventBody ut : userTaskInstances.values()) {
+            Map<String, String> metaData = ut.metaData();
+            processedEvents.add(new UserTaskInstanceDataEvent(extractRuntimeSource(metaData), kogitoAddons, metaData, ut));
+        }
+        for (VariableInstanceEventBody vi : variables) {
+            Map<String, String> metaData = vi.metaData();
+            processedEvents.add(new VariableInstanceDataEvent(extractRuntimeSource(metaData), kogitoAddons, metaData, vi));
+        }
 
         return processedEvents;
     }
@@ -102,20 +125,17 @@ public class ProcessInstanceEventBatch implements EventBatch {
                 .state(event.getProcessInstance().getState());
     }
 
-    protected void handleProcessNodeTriggeredEvent(ProcessNodeTriggeredEvent event, ProcessInstanceEventBody body) {
-        NodeInstanceEventBody nodeInstanceBody = create((ProcessNodeEvent) event);
-        if (!body.getNodeInstances().contains(nodeInstanceBody)) {
-            // add it only if it does not exist
-            body.update().nodeInstance(nodeInstanceBody);
-        }
+    protected void handleProcessNodeTriggeredEvent(ProcessNodeTriggeredEvent event, Map<String, NodeInstanceEventBody> nodeInstances) {
+        // add it only if it does not exist, without creating its body otherwise
+        nodeInstances.computeIfAbsent(((KogitoNodeInstance) event.getNodeInstance()).getStringId(), id -> create((ProcessNodeEvent) event));
     }
 
-    protected void handleProcessNodeLeftEvent(ProcessNodeLeftEvent event, ProcessInstanceEventBody body) {
+    protected void handleProcessNodeLeftEvent(ProcessNodeLeftEvent event, Map<String, NodeInstanceEventBody> nodeInstances) {
         NodeInstanceEventBody nodeInstanceBody = create((ProcessNodeEvent) event);
         // if it's already there, remove it
-        body.getNodeInstances().remove(nodeInstanceBody);
+        nodeInstances.remove(nodeInstanceBody.getId());
         // and add it back as the node left event has latest information
-        body.update().nodeInstance(nodeInstanceBody);
+        nodeInstances.put(nodeInstanceBody.getId(), nodeInstanceBody);
     }
 
     protected void handleProcessWorkItemTransitionEvent(ProcessWorkItemTransitionEvent workItemTransitionEvent, Map<String, UserTaskInstanceEventBody> userTaskInstances) {
@@ -182,9 +202,12 @@ public class ProcessInstanceEventBatch implements EventBatch {
                                        .build());
         }
 
-        String securityRoles = (String) pi.getProcess().getMetaData().get("securityRoles");
-        if (securityRoles != null) {
-            eventBuilder.roles(securityRoles.split(","));
+        String[] roles = securityRoles.computeIfAbsent(pi.getProcessId(), processId -> {
+            String value = (String) pi.getProcess().getMetaData().get("securityRoles");
+            return value == null ? NO_ROLES : value.split(",");
+        });
+        if (roles != NO_ROLES) {
+            eventBuilder.roles(roles);
         }
 
         return eventBuilder.build();
@@ -208,7 +231,7 @@ public class ProcessInstanceEventBatch implements EventBatch {
                 .nodeId(String.valueOf(ni.getNodeId()))
                 .nodeDefinitionId(ni.getNodeDefinitionId())
                 .nodeName(ni.getNodeName())
-                .nodeType(ni.getNode().getClass().getSimpleName())
+                .nodeType(nodeType(ni.getNode()))
                 .triggerTime(ni.getTriggerTime())
                 .leaveTime(ni.getLeaveTime())
                 .build();
@@ -231,7 +254,7 @@ public class ProcessInstanceEventBatch implements EventBatch {
             eventBuilder
                     .changedByNodeId(event.getNodeInstance().getNodeDefinitionId())
                     .changedByNodeName(event.getNodeInstance().getNodeName())
-                    .changedByNodeType(event.getNodeInstance().getNode().getClass().getSimpleName());
+                    .changedByNodeType(nodeType(event.getNodeInstance().getNode()));
         }
 
         return eventBuilder.build();
@@ -242,7 +265,31 @@ public class ProcessInstanceEventBatch implements EventBatch {
         if(processId == null){
             return null;
         } else {
-            return service + "/" + (processId.contains(".") ? processId.substring(processId.lastIndexOf('.') + 1) : processId);
+            return runtimeSources.computeIfAbsent(processId, id -> service + "/" + (id.contains(".") ? id.substring(id.lastIndexOf('.') + 1) : id));
+        }
+    }
+
+    private String addons() {
+        if (kogitoAddons == null) {
+            kogitoAddons = addons.toString();
+        }
+        return kogitoAddons;
+    }
+
+    private String nodeType(Node node) {
+        return nodeTypes.computeIfAbsent(node.getClass(), Class::getSimpleName);
+    }
+
+    /**
+     * Process instance body and its node instances indexed by id, in the order they are published
+     */
+    private static class ProcessInstanceEvents {
+
+        private final ProcessInstanceEventBody body;
+        private final Map<String, NodeInstanceEventBody> nodeInstances = new LinkedHashMap<>();
+
+        private ProcessInstanceEvents(ProcessInstanceEventBody body) {
+            this.body = body;
         }
     }
 }
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.services.uow;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.kie.kogito.event.EventManager;
+import org.kie.kogito.uow.WorkUnit;
+
+/**
+ * Collecting unit of work that hands its process instance work over to the {@link BatchingUnitOfWorkFactory}
+ * so it is persisted together with the work of other units of work ending at the same time. The caller is
+ * blocked until the batch holding its work is stored, remaining work is then performed on the caller thread.
+ *
+ */
+public class BatchingUnitOfWork extends CollectingUnitOfWork {
+
+    private final BatchingUnitOfWorkFactory factory;
+
+    public BatchingUnitOfWork(EventManager eventManager, BatchingUnitOfWorkFactory factory) {
+        super(eventManager);
+        this.factory = factory;
+    }
+
+    @Override
+    protected void perform(Collection<WorkUnit<?>> work) {
+        List<WorkUnit<?>> persistence = new ArrayList<>();
+        List<WorkUnit<?>> remaining = new ArrayList<>();
+        for (WorkUnit<?> unit : work) {
+            if (unit instanceof ProcessInstanceWorkUnit) {
+                persistence.add(unit);
+            } else {
+                remaining.add(unit);
+            }
+        }
+        if (!persistence.isEmpty()) {
+            factory.store(persistence);
+        }
+        super.perform(remaining);
+    }
+}
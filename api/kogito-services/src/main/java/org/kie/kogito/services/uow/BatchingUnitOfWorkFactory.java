@@ -0,0 +1,297 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.services.uow;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.kie.kogito.event.EventManager;
+import org.kie.kogito.process.MutableProcessInstances;
+import org.kie.kogito.process.ProcessInstance;
+import org.kie.kogito.process.ProcessInstanceOptimisticLockingException;
+import org.kie.kogito.process.ProcessInstances;
+import org.kie.kogito.uow.UnitOfWork;
+import org.kie.kogito.uow.UnitOfWorkFactory;
+import org.kie.kogito.uow.WorkUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Write-behind unit of work factory. Process instance work of units of work ending concurrently is grouped
+ * into batches of at most <code>maxBatchSize</code> work units, waiting up to <code>lingerTime</code> milliseconds
+ * for more work to arrive, and every batch is handed to each affected store through
+ * {@link MutableProcessInstances#batch(Runnable)} so stores can write it in a single request.
+ *
+ * Units of work created by this factory complete only once the batch holding their work is stored,
+ * or fail once <code>storeTimeout</code> milliseconds have elapsed without the batch being stored.
+ */
+public class BatchingUnitOfWorkFactory implements UnitOfWorkFactory, AutoCloseable {
+
+    public static final int DEFAULT_MAX_BATCH_SIZE = 100;
+    public static final long DEFAULT_LINGER_TIME = 5L;
+    public static final long DEFAULT_STORE_TIMEOUT = 30000L;
+
+    private static final long IDLE_POLL_TIME = 100L;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BatchingUnitOfWorkFactory.class);
+
+    private final int maxBatchSize;
+    private final long lingerTime;
+    private final long storeTimeout;
+
+    private final BlockingQueue<PendingWork> queue = new LinkedBlockingQueue<>();
+    private Thread flusher;
+    private volatile boolean running = true;
+
+    public BatchingUnitOfWorkFactory() {
+        this(DEFAULT_MAX_BATCH_SIZE, DEFAULT_LINGER_TIME);
+    }
+
+    public BatchingUnitOfWorkFactory(int maxBatchSize, long lingerTime) {
+        this(maxBatchSize, lingerTime, DEFAULT_STORE_TIMEOUT);
+    }
+
+    public BatchingUnitOfWorkFactory(int maxBatchSize, long lingerTime, long storeTimeout) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("Max batch size must be positive, was " + maxBatchSize);
+        }
+        this.maxBatchSize = maxBatchSize;
+        this.lingerTime = lingerTime;
+        this.storeTimeout = storeTimeout;
+    }
+
+    @Override
+    public UnitOfWork create(EventManager eventManager) {
+        return new BatchingUnitOfWork(eventManager, this);
+    }
+
+    /**
+     * Queues the given work for the next batch and blocks until that batch is stored
+     * @param work process instance work units to be stored
+     */
+    public void store(Collection<WorkUnit<?>> work) {
+        PendingWork pending = new PendingWork(work);
+        synchronized (this) {
+            // checked under the lock, so that no work is queued once close has started
+            if (!running) {
+                throw new IllegalStateException("Batching unit of work factory is closed");
+            }
+            startFlusher();
+            queue.add(pending);
+        }
+        try {
+            pending.result.get(storeTimeout, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Unexpected error when storing unit of work", e.getCause());
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Unit of work not stored within " + storeTimeout + " ms");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for unit of work to be stored", e);
+        }
+    }
+
+    /**
+     * Stops accepting work and waits, up to the store timeout, for the queued work to be stored
+     */
+    @Override
+    public void close() {
+        Thread current;
+        synchronized (this) {
+            running = false;
+            current = flusher;
+        }
+        if (current != null) {
+            try {
+                current.join(storeTimeout);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (current.isAlive()) {
+                current.interrupt();
+            }
+        }
+        failRemaining(new IllegalStateException("Batching unit of work factory is closed"));
+    }
+
+    private synchronized void startFlusher() {
+        if (flusher == null) {
+            flusher = new Thread(this::flushLoop, "kogito-uow-batcher");
+            flusher.setDaemon(true);
+            flusher.start();
+        }
+    }
+
+    private void flushLoop() {
+        try {
+            // once closed, keeps flushing until the queued work is stored
+            while (running || !queue.isEmpty()) {
+                List<PendingWork> batch = nextBatch();
+                try {
+                    flush(batch);
+                } catch (Throwable e) {
+                    LOGGER.error("Unexpected error thrown when storing batch of {} units of work", batch.size(), e);
+                    batch.forEach(pending -> pending.fail(e));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failRemaining(new IllegalStateException("Batching unit of work factory is closed"));
+        }
+    }
+
+    private void failRemaining(RuntimeException e) {
+        List<PendingWork> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        remaining.forEach(pending -> pending.fail(e));
+    }
+
+    private List<PendingWork> nextBatch() throws InterruptedException {
+        List<PendingWork> batch = new ArrayList<>();
+        PendingWork first = queue.poll(IDLE_POLL_TIME, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return batch;
+        }
+        batch.add(first);
+        int size = first.work.size();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lingerTime);
+        while (size < maxBatchSize) {
+            PendingWork next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+            size += next.work.size();
+        }
+        return batch;
+    }
+
+    private void flush(List<PendingWork> batch) {
+        Map<MutableProcessInstances<?>, List<PendingWork>> byStore = new LinkedHashMap<>();
+        List<PendingWork> unbatched = new ArrayList<>();
+        for (PendingWork pending : batch) {
+            if (pending.work.stream().anyMatch(unit -> storeOf(unit) == null)) {
+                unbatched.add(pending);
+                continue;
+            }
+            for (WorkUnit<?> unit : pending.work) {
+                List<PendingWork> stored = byStore.computeIfAbsent(storeOf(unit), s -> new ArrayList<>());
+                if (!stored.contains(pending)) {
+                    stored.add(pending);
+                }
+            }
+        }
+
+        for (Map.Entry<MutableProcessInstances<?>, List<PendingWork>> entry : byStore.entrySet()) {
+            MutableProcessInstances<?> store = entry.getKey();
+            try {
+                store.batch(() -> entry.getValue().forEach(pending -> pending.perform(store)));
+            } catch (ProcessInstanceOptimisticLockingException e) {
+                // only the work holding conflicting instances was rejected, the rest of the batch is stored
+                Set<String> conflicting = conflictingIds(e);
+                entry.getValue().stream().filter(pending -> pending.holdsAny(conflicting)).forEach(pending -> pending.fail(e));
+            } catch (RuntimeException e) {
+                // the buffered writes of the store failed, none of the work stored through it is durable
+                LOGGER.error("Unexpected exception thrown when storing batch of {} units of work", entry.getValue().size(), e);
+                entry.getValue().forEach(pending -> pending.fail(e));
+            }
+        }
+        for (PendingWork pending : unbatched) {
+            pending.perform(null);
+        }
+        for (PendingWork pending : batch) {
+            pending.complete();
+        }
+    }
+
+    private static Set<String> conflictingIds(ProcessInstanceOptimisticLockingException e) {
+        Set<String> ids = new HashSet<>();
+        ids.add(e.getProcessInstanceId());
+        for (Throwable suppressed : e.getSuppressed()) {
+            if (suppressed instanceof ProcessInstanceOptimisticLockingException) {
+                ids.add(((ProcessInstanceOptimisticLockingException) suppressed).getProcessInstanceId());
+            }
+        }
+        return ids;
+    }
+
+    private static MutableProcessInstances<?> storeOf(WorkUnit<?> unit) {
+        Object data = unit.data();
+        if (data instanceof ProcessInstance && ((ProcessInstance<?>) data).process() != null) {
+            ProcessInstances<?> instances = ((ProcessInstance<?>) data).process().instances();
+            if (instances instanceof MutableProcessInstances) {
+                return (MutableProcessInstances<?>) instances;
+            }
+        }
+        return null;
+    }
+
+    private static class PendingWork {
+
+        private final Collection<WorkUnit<?>> work;
+        private final CompletableFuture<Void> result = new CompletableFuture<>();
+
+        private PendingWork(Collection<WorkUnit<?>> work) {
+            this.work = work;
+        }
+
+        /**
+         * Performs the work stored through the given store, or all the work if no store is given
+         */
+        private void perform(MutableProcessInstances<?> store) {
+            if (result.isDone()) {
+                return;
+            }
+            try {
+                for (WorkUnit<?> unit : work) {
+                    if (store == null || storeOf(unit) == store) {
+                        unit.perform();
+                    }
+                }
+            } catch (RuntimeException e) {
+                fail(e);
+            }
+        }
+
+        private boolean holdsAny(Set<String> processInstanceIds) {
+            return work.stream()
+                    .map(WorkUnit::data)
+                    .anyMatch(data -> data instanceof ProcessInstance && processInstanceIds.contains(((ProcessInstance<?>) data).id()));
+        }
+
+        private void fail(Throwable e) {
+            result.completeExceptionally(e);
+        }
+
+        private void complete() {
+            result.complete(null);
+        }
+    }
+}
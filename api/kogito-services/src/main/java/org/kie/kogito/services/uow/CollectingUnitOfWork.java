@@ -59,10 +59,11 @@ public class CollectingUnitOfWork implements UnitOfWork {
         checkStarted();
         EventBatch batch = eventManager.newBatch();        
         
-        for (WorkUnit<?> work : sorted()) {
+        Collection<WorkUnit<?>> sortedWork = sorted();
+        for (WorkUnit<?> work : sortedWork) {
             batch.append(work.data());
-            work.perform();
         }
+        perform(sortedWork);
         eventManager.publish(batch);
         done();
     }
@@ -87,6 +88,16 @@ public class CollectingUnitOfWork implements UnitOfWork {
         collectedWork.add(work);
     }
     
+    /**
+     * Performs collected work in the given order, invoked when the unit of work ends
+     * @param work sorted work collected by this unit of work
+     */
+    protected void perform(Collection<WorkUnit<?>> work) {
+        for (WorkUnit<?> unit : work) {
+            unit.perform();
+        }
+    }
+
     protected Collection<WorkUnit<?>> sorted() {
         List<WorkUnit<?>> sortedCollectedWork = new ArrayList<>(collectedWork);
         sortedCollectedWork.sort((u1, u2) -> u1.priority().compareTo(u2.priority()));
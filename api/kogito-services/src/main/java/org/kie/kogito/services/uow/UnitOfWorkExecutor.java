@@ -18,12 +18,41 @@ package org.kie.kogito.services.uow;
 import java.util.function.Supplier;
 
 import org.kie.kogito.process.ProcessInstanceExecutionException;
+import org.kie.kogito.process.ProcessInstanceOptimisticLockingException;
 import org.kie.kogito.uow.UnitOfWork;
 import org.kie.kogito.uow.UnitOfWorkManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 public class UnitOfWorkExecutor {
 
+    public static final int DEFAULT_MAX_RETRIES = 3;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UnitOfWorkExecutor.class);
+
     public static <T> T executeInUnitOfWork(UnitOfWorkManager uowManager, Supplier<T> supplier) {
+        return executeInUnitOfWork(uowManager, supplier, DEFAULT_MAX_RETRIES);
+    }
+
+    /**
+     * Executes the supplier in a new unit of work. When a process instance it touched was updated concurrently
+     * the whole unit of work is executed again, at most <code>maxRetries</code> times, so the supplier
+     * must look up the process instances it works on itself.
+     */
+    public static <T> T executeInUnitOfWork(UnitOfWorkManager uowManager, Supplier<T> supplier, int maxRetries) {
+        for (int attempt = 0;; attempt++) {
+            try {
+                return execute(uowManager, supplier);
+            } catch (ProcessInstanceOptimisticLockingException e) {
+                if (attempt >= maxRetries) {
+                    throw e;
+                }
+                LOGGER.debug("Process instance {} was updated concurrently, retrying unit of work", e.getProcessInstanceId());
+            }
+        }
+    }
+
+    private static <T> T execute(UnitOfWorkManager uowManager, Supplier<T> supplier) {
         T result = null;
         UnitOfWork uow = uowManager.newUnitOfWork();
         
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.services.jobs.impl;
+
+import java.nio.file.Path;
+
+import org.kie.kogito.internal.process.runtime.KogitoProcessRuntime;
+import org.kie.kogito.jobs.ExpirationTime;
+import org.kie.kogito.jobs.ProcessInstanceJobDescription;
+import org.kie.kogito.uow.UnitOfWorkManager;
+import org.kie.kogito.uow.WorkUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link HashedWheelJobService} keeping its process instance jobs in a local {@link FileJobStore}, so timers
+ * survive a restart of the application without running the external Jobs Service.
+ * <br/>
+ * Jobs stored by a previous run are scheduled again when the service is created, the ones that expired
+ * in the meantime fire right away. Process jobs, which start new process instances, are not stored
+ * because the process runtime schedules them again on startup.
+ * <br/>
+ * Scheduled and cancelled jobs are written to the store when the current unit of work ends, a job scheduled
+ * by an aborted unit of work is cancelled and never stored.
+ */
+public class DurableJobService extends HashedWheelJobService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DurableJobService.class);
+
+    private final FileJobStore store;
+
+    public DurableJobService(Path file, KogitoProcessRuntime processRuntime, UnitOfWorkManager unitOfWorkManager) {
+        this(new FileJobStore(file, false), 1, HashedWheelTimer.DEFAULT_TICK_MILLIS, HashedWheelTimer.DEFAULT_WHEEL_SIZE, processRuntime, unitOfWorkManager);
+    }
+
+    public DurableJobService(FileJobStore store, int workers, long tickMillis, int wheelSize, KogitoProcessRuntime processRuntime, UnitOfWorkManager unitOfWorkManager) {
+        super(workers, tickMillis, wheelSize, processRuntime, unitOfWorkManager);
+        this.store = store;
+        for (FileJobStore.JobRecord job : store.jobs()) {
+            restoreProcessInstanceJob(job.getId(), job.getProcessInstanceId(), job.getDeadline(), job.getRepeatInterval(), job.getLimit());
+        }
+        LOGGER.debug("Restored {} jobs", store.size());
+    }
+
+    @Override
+    public String scheduleProcessInstanceJob(ProcessInstanceJobDescription description) {
+        ExpirationTime expirationTime = description.expirationTime();
+        FileJobStore.JobRecord job = new FileJobStore.JobRecord(description.id(),
+                description.processInstanceId(),
+                description.processId(),
+                expirationTime.get().toInstant().toEpochMilli(),
+                expirationTime.repeatInterval(),
+                expirationTime.repeatInterval() != null && expirationTime.repeatLimit() != null ? expirationTime.repeatLimit() : -1);
+        String id = super.scheduleProcessInstanceJob(description);
+        // a job that already fired for the last time is not stored
+        unitOfWorkManager.currentUnitOfWork().intercept(WorkUnit.create(job, j -> {
+            if (isScheduled(j.getId())) {
+                store.store(j);
+            }
+        }, j -> super.cancelJob(j.getId())));
+        return id;
+    }
+
+    @Override
+    public boolean cancelJob(String id) {
+        boolean cancelled = super.cancelJob(id);
+        unitOfWorkManager.currentUnitOfWork().intercept(WorkUnit.create(id, store::remove));
+        return cancelled;
+    }
+
+    @Override
+    public void close() {
+        super.close();
+        store.close();
+    }
+
+    @Override
+    protected void jobRescheduled(String id, long deadline, int limit) {
+        FileJobStore.JobRecord job = store.get(id);
+        if (job != null) {
+            store.store(job.rescheduled(deadline, limit));
+        }
+    }
+
+    @Override
+    protected void jobCompleted(String id) {
+        store.remove(id);
+    }
+}
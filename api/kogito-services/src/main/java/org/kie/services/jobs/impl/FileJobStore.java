@@ -0,0 +1,361 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.services.jobs.impl;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Append only file holding the pending process instance jobs.
+ * <br/>
+ * Every change of a job appends a record, the file is compacted by rewriting only the live records once
+ * the records of removed or superseded jobs outnumber them. Every record is prefixed by its length and checksum,
+ * a record partially written or corrupted when the application stopped ends the file and is discarded on load,
+ * together with anything following it.
+ */
+public class FileJobStore implements AutoCloseable {
+
+    static final int MIN_COMPACTION_RECORDS = 1024;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FileJobStore.class);
+
+    private static final int MAGIC = 0x4b4a4f42;
+    private static final byte STORE = 1;
+    private static final byte REMOVE = 2;
+    private static final int MAX_RECORD_LENGTH = 64 * 1024;
+
+    private final Path file;
+    private final boolean sync;
+    private final Map<String, JobRecord> live = new LinkedHashMap<>();
+
+    private FileChannel channel;
+    private DataOutputStream out;
+    private long records;
+
+    /**
+     * Opens the store, creating the file if needed
+     * @param sync true if each change should be forced to the storage device, otherwise it is only
+     *        handed over to the operating system and survives the application but not a system crash
+     */
+    public FileJobStore(Path file, boolean sync) {
+        this.file = file;
+        this.sync = sync;
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            long validLength = Files.exists(file) ? load() : 0L;
+            open(validLength);
+            if (validLength == 0L) {
+                writeHeader();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to open job store " + file, e);
+        }
+    }
+
+    /**
+     * Returns the jobs pending when the store was opened, followed by the ones stored since
+     */
+    public synchronized Collection<JobRecord> jobs() {
+        return new ArrayList<>(live.values());
+    }
+
+    public synchronized JobRecord get(String id) {
+        return live.get(id);
+    }
+
+    public synchronized void store(JobRecord job) {
+        live.put(job.getId(), job);
+        append(STORE, job.getId(), job);
+    }
+
+    public synchronized void remove(String id) {
+        if (live.remove(id) != null) {
+            append(REMOVE, id, null);
+        }
+    }
+
+    public synchronized int size() {
+        return live.size();
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            out.close();
+        } catch (IOException e) {
+            LOGGER.warn("Unable to close job store {}", file, e);
+        }
+    }
+
+    private void append(byte type, String id, JobRecord job) {
+        try {
+            writeRecord(out, type, id, job);
+            out.flush();
+            if (sync) {
+                channel.force(false);
+            }
+            records++;
+            if (records >= MIN_COMPACTION_RECORDS && records > 2L * live.size()) {
+                compact();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write job " + id + " to job store " + file, e);
+        }
+    }
+
+    // rewrites the live records to a new file, then atomically replaces the current one
+    private void compact() throws IOException {
+        Path compacted = file.resolveSibling(file.getFileName() + ".compact");
+        try (FileChannel compactedChannel = FileChannel.open(compacted, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+                DataOutputStream compactedOut = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(compactedChannel)))) {
+            compactedOut.writeInt(MAGIC);
+            for (JobRecord job : live.values()) {
+                writeRecord(compactedOut, STORE, job.getId(), job);
+            }
+            compactedOut.flush();
+            compactedChannel.force(true);
+        }
+        out.close();
+        Files.move(compacted, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        records = live.size();
+        open(Files.size(file));
+        LOGGER.debug("Compacted job store {} to {} jobs", file, records);
+    }
+
+    private long load() throws IOException {
+        long validLength = 0L;
+        CountingInputStream counter = new CountingInputStream(new BufferedInputStream(Files.newInputStream(file)));
+        try (DataInputStream in = new DataInputStream(counter)) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("File " + file + " is not a job store");
+            }
+            validLength = Integer.BYTES;
+            byte[] record;
+            while ((record = readRecord(in)) != null) {
+                if (!applyRecord(record)) {
+                    break;
+                }
+                records++;
+                validLength = counter.count;
+            }
+        } catch (EOFException e) {
+            // end of file or incomplete last record
+        }
+        long length = Files.size(file);
+        if (validLength < length) {
+            LOGGER.warn("Discarding {} bytes of incomplete or corrupted records at the end of job store {}", length - validLength, file);
+        }
+        LOGGER.debug("Loaded {} jobs from job store {}", live.size(), file);
+        return validLength;
+    }
+
+    /**
+     * Reads the next record, null if it is corrupted
+     */
+    private static byte[] readRecord(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        int checksum = in.readInt();
+        if (length <= 0 || length > MAX_RECORD_LENGTH) {
+            return null;
+        }
+        byte[] record = new byte[length];
+        in.readFully(record);
+        return checksum(record) == checksum ? record : null;
+    }
+
+    /**
+     * Applies a record to the live jobs, false if it cannot be read
+     */
+    private boolean applyRecord(byte[] record) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(record))) {
+            byte type = in.readByte();
+            String id = in.readUTF();
+            if (type == STORE) {
+                live.put(id, readJob(in, id));
+                return true;
+            } else if (type == REMOVE) {
+                live.remove(id);
+                return true;
+            }
+            return false;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private void open(long validLength) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        // drops an incomplete record left by a crash
+        channel.truncate(validLength);
+        channel.position(validLength);
+        out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+    }
+
+    private void writeHeader() throws IOException {
+        out.writeInt(MAGIC);
+        out.flush();
+    }
+
+    private static void writeRecord(DataOutputStream out, byte type, String id, JobRecord job) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream record = new DataOutputStream(bytes)) {
+            record.writeByte(type);
+            record.writeUTF(id);
+            if (job != null) {
+                writeNullable(record, job.getProcessInstanceId());
+                writeNullable(record, job.getProcessId());
+                record.writeLong(job.getDeadline());
+                record.writeLong(job.getRepeatInterval() == null ? -1L : job.getRepeatInterval());
+                record.writeInt(job.getLimit());
+            }
+        }
+        byte[] content = bytes.toByteArray();
+        out.writeInt(content.length);
+        out.writeInt(checksum(content));
+        out.write(content);
+    }
+
+    private static int checksum(byte[] content) {
+        CRC32 crc = new CRC32();
+        crc.update(content, 0, content.length);
+        return (int) crc.getValue();
+    }
+
+    private static JobRecord readJob(DataInputStream in, String id) throws IOException {
+        String processInstanceId = readNullable(in);
+        String processId = readNullable(in);
+        long deadline = in.readLong();
+        long repeatInterval = in.readLong();
+        int limit = in.readInt();
+        return new JobRecord(id, processInstanceId, processId, deadline, repeatInterval < 0 ? null : repeatInterval, limit);
+    }
+
+    private static void writeNullable(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullable(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static class CountingInputStream extends FilterInputStream {
+
+        private long count;
+
+        private CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+    }
+
+    public static class JobRecord {
+
+        private final String id;
+        private final String processInstanceId;
+        private final String processId;
+        private final long deadline;
+        private final Long repeatInterval;
+        private final int limit;
+
+        /**
+         * @param deadline next expiration time in epoch milliseconds
+         * @param repeatInterval milliseconds between expirations, null if the job expires only once
+         * @param limit remaining expirations, negative when unlimited
+         */
+        public JobRecord(String id, String processInstanceId, String processId, long deadline, Long repeatInterval, int limit) {
+            this.id = id;
+            this.processInstanceId = processInstanceId;
+            this.processId = processId;
+            this.deadline = deadline;
+            this.repeatInterval = repeatInterval;
+            this.limit = limit;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public String getProcessInstanceId() {
+            return processInstanceId;
+        }
+
+        public String getProcessId() {
+            return processId;
+        }
+
+        public long getDeadline() {
+            return deadline;
+        }
+
+        public Long getRepeatInterval() {
+            return repeatInterval;
+        }
+
+        public int getLimit() {
+            return limit;
+        }
+
+        public JobRecord rescheduled(long deadline, int limit) {
+            return new JobRecord(id, processInstanceId, processId, deadline, repeatInterval, limit);
+        }
+    }
+}
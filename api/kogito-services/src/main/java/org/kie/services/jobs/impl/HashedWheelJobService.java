@@ -0,0 +1,330 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.services.jobs.impl;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.kie.api.runtime.process.ProcessInstance;
+import org.kie.kogito.internal.process.runtime.KogitoProcessInstance;
+import org.kie.kogito.internal.process.runtime.KogitoProcessRuntime;
+import org.kie.kogito.jobs.ExpirationTime;
+import org.kie.kogito.jobs.JobsService;
+import org.kie.kogito.jobs.ProcessInstanceJobDescription;
+import org.kie.kogito.jobs.ProcessJobDescription;
+import org.kie.kogito.services.uow.UnitOfWorkExecutor;
+import org.kie.kogito.timer.TimerInstance;
+import org.kie.kogito.uow.UnitOfWorkManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * In memory {@link JobsService} meant for processes keeping a large number of pending timers, alternative to
+ * {@link InMemoryJobService}.
+ * <br/>
+ * Jobs are kept in a {@link HashedWheelTimer}, so scheduling and cancelling do not depend on the number of pending jobs.
+ * Jobs expiring in the same tick are grouped by process instance and each group is fired in a single unit of work.
+ * If that unit of work fails, the jobs of the group are fired again each in its own unit of work.
+ * Groups are dispatched to a pool of workers partitioned by process instance, so jobs of a process instance
+ * never fire concurrently.
+ */
+public class HashedWheelJobService implements JobsService, AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HashedWheelJobService.class);
+    private static final String TRIGGER = "timer";
+
+    protected final KogitoProcessRuntime processRuntime;
+    protected final UnitOfWorkManager unitOfWorkManager;
+
+    private final HashedWheelTimer<Job> timer;
+    private final ExecutorService[] workers;
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+    public HashedWheelJobService(KogitoProcessRuntime processRuntime, UnitOfWorkManager unitOfWorkManager) {
+        this(1, HashedWheelTimer.DEFAULT_TICK_MILLIS, HashedWheelTimer.DEFAULT_WHEEL_SIZE, processRuntime, unitOfWorkManager);
+    }
+
+    /**
+     * @param workers number of threads firing expired jobs
+     * @param tickMillis resolution of the timer in milliseconds
+     * @param wheelSize number of buckets of each level of the timer
+     */
+    public HashedWheelJobService(int workers, long tickMillis, int wheelSize, KogitoProcessRuntime processRuntime, UnitOfWorkManager unitOfWorkManager) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("Number of job workers must be positive, was " + workers);
+        }
+        this.processRuntime = processRuntime;
+        this.unitOfWorkManager = unitOfWorkManager;
+        this.workers = new ExecutorService[workers];
+        AtomicInteger threads = new AtomicInteger();
+        for (int i = 0; i < workers; i++) {
+            this.workers[i] = Executors.newSingleThreadExecutor(r -> {
+                Thread thread = new Thread(r, "kogito-jobs-" + threads.getAndIncrement());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        this.timer = new HashedWheelTimer<>(tickMillis, wheelSize, this::dispatch);
+    }
+
+    @Override
+    public String scheduleProcessJob(ProcessJobDescription description) {
+        LOGGER.debug("ScheduleProcessJob: {}", description);
+        schedule(new Job(description.id(), null, description, description.expirationTime()));
+        return description.id();
+    }
+
+    @Override
+    public String scheduleProcessInstanceJob(ProcessInstanceJobDescription description) {
+        schedule(new Job(description.id(), description.processInstanceId(), null, description.expirationTime()));
+        return description.id();
+    }
+
+    @Override
+    public boolean cancelJob(String id) {
+        LOGGER.debug("Cancel Job: {}", id);
+        Job job = jobs.remove(id);
+        return job != null && job.cancel();
+    }
+
+    @Override
+    public ZonedDateTime getScheduledTime(String id) {
+        Job job = jobs.get(id);
+        HashedWheelTimer.Timeout<Job> timeout = job != null ? job.timeout : null;
+        if (timeout != null && timeout.deadline() > System.currentTimeMillis()) {
+            return ZonedDateTime.ofInstant(Instant.ofEpochMilli(timeout.deadline()), ZoneId.systemDefault());
+        }
+        return null;
+    }
+
+    /**
+     * Returns the number of jobs waiting for their expiration
+     */
+    public long pendingJobs() {
+        return timer.pending();
+    }
+
+    @Override
+    public void close() {
+        timer.close();
+        for (ExecutorService worker : workers) {
+            worker.shutdownNow();
+        }
+    }
+
+    /**
+     * Returns true if the job with the given id is waiting for its expiration
+     */
+    protected boolean isScheduled(String id) {
+        return jobs.containsKey(id);
+    }
+
+    /**
+     * Schedules again a process instance job restored from a previous run, keeping its id
+     * @param deadline next expiration time in epoch milliseconds
+     * @param repeatInterval milliseconds between expirations, null if the job expires only once
+     * @param limit remaining expirations, negative when unlimited
+     */
+    protected void restoreProcessInstanceJob(String id, String processInstanceId, long deadline, Long repeatInterval, int limit) {
+        schedule(new Job(id, processInstanceId, null, deadline, repeatInterval, limit));
+    }
+
+    /**
+     * Called after a repeatable job fired and was scheduled again
+     */
+    protected void jobRescheduled(String id, long deadline, int limit) {
+        // nothing to do by default
+    }
+
+    /**
+     * Called after a job fired for the last time
+     */
+    protected void jobCompleted(String id) {
+        // nothing to do by default
+    }
+
+    private void schedule(Job job) {
+        Job previous = jobs.put(job.id, job);
+        if (previous != null) {
+            previous.cancel();
+        }
+        job.timeout = timer.schedule(job.deadline, job);
+        if (job.cancelled) {
+            // cancelled before its timeout was set
+            job.timeout.cancel();
+        }
+    }
+
+    // runs on the timer thread, groups expired jobs by process instance and hands them over to the workers
+    private void dispatch(List<HashedWheelTimer.Timeout<Job>> expired) {
+        Map<String, List<Job>> groups = new LinkedHashMap<>();
+        for (HashedWheelTimer.Timeout<Job> timeout : expired) {
+            Job job = timeout.payload();
+            String key = job.processInstanceId != null ? job.processInstanceId : job.id;
+            groups.computeIfAbsent(key, k -> new ArrayList<>()).add(job);
+        }
+        for (Map.Entry<String, List<Job>> group : groups.entrySet()) {
+            ExecutorService worker = workers[(group.getKey().hashCode() & Integer.MAX_VALUE) % workers.length];
+            try {
+                worker.execute(() -> fire(group.getValue()));
+            } catch (RejectedExecutionException e) {
+                LOGGER.debug("Job service is closed, jobs {} not fired", group.getKey());
+            }
+        }
+    }
+
+    private void fire(List<Job> group) {
+        try {
+            LOGGER.debug("Jobs {} started", group);
+            fireInUnitOfWork(group);
+            LOGGER.debug("Jobs {} completed", group);
+        } catch (RuntimeException e) {
+            if (group.size() == 1) {
+                LOGGER.error("Error while firing jobs {}", group, e);
+            } else {
+                // the whole group was rolled back, each job is fired again on its own so only the failing ones are lost
+                LOGGER.warn("Error while firing jobs {} together, firing them one by one", group, e);
+                group.forEach(this::fireAlone);
+            }
+        } finally {
+            group.forEach(this::rescheduleOrRemove);
+        }
+    }
+
+    private void fireAlone(Job job) {
+        try {
+            fireInUnitOfWork(Collections.singletonList(job));
+        } catch (RuntimeException e) {
+            LOGGER.error("Error while firing job {}", job, e);
+        }
+    }
+
+    private void fireInUnitOfWork(List<Job> group) {
+        UnitOfWorkExecutor.executeInUnitOfWork(unitOfWorkManager, () -> {
+            for (Job job : group) {
+                if (job.cancelled) {
+                    continue;
+                }
+                if (job.processInstanceId != null) {
+                    signalProcessInstance(job);
+                } else {
+                    startProcess(job);
+                }
+            }
+            return null;
+        });
+    }
+
+    private void signalProcessInstance(Job job) {
+        ProcessInstance pi = processRuntime.getProcessInstance(job.processInstanceId);
+        if (pi != null) {
+            String[] ids = job.id.split("_");
+            pi.signalEvent("timerTriggered", TimerInstance.with(Long.valueOf(ids[1]), job.id, job.limit - 1));
+        } else {
+            // since owning process instance does not exist cancel timers
+            job.limit = 1;
+        }
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private void startProcess(Job job) {
+        if (job.description.process() != null) {
+            org.kie.kogito.process.Process process = job.description.process();
+            org.kie.kogito.process.ProcessInstance<?> pi = process.createInstance(process.createModel());
+            if (pi != null) {
+                pi.start(TRIGGER, null);
+            }
+        } else {
+            KogitoProcessInstance pi = (KogitoProcessInstance) processRuntime.createProcessInstance(job.description.processId(), null);
+            if (pi != null) {
+                processRuntime.startProcessInstance(pi.getStringId(), TRIGGER);
+            }
+        }
+    }
+
+    private void rescheduleOrRemove(Job job) {
+        job.limit--;
+        if (job.repeatInterval == null || job.limit == 0) {
+            if (jobs.remove(job.id, job)) {
+                jobCompleted(job.id);
+            }
+            return;
+        }
+        // the job could have been cancelled while firing
+        boolean[] rescheduled = new boolean[1];
+        jobs.computeIfPresent(job.id, (id, current) -> {
+            if (current == job) {
+                job.deadline += job.repeatInterval;
+                job.timeout = timer.schedule(job.deadline, job);
+                rescheduled[0] = true;
+            }
+            return current;
+        });
+        if (rescheduled[0]) {
+            jobRescheduled(job.id, job.deadline, job.limit);
+        }
+    }
+
+    private static class Job {
+
+        private final String id;
+        private final String processInstanceId;
+        private final ProcessJobDescription description;
+        private final Long repeatInterval;
+        private long deadline;
+        // remaining expirations, negative when unlimited
+        private int limit;
+        private volatile HashedWheelTimer.Timeout<Job> timeout;
+        private volatile boolean cancelled;
+
+        private Job(String id, String processInstanceId, ProcessJobDescription description, ExpirationTime expirationTime) {
+            this(id, processInstanceId, description, expirationTime.get().toInstant().toEpochMilli(), expirationTime.repeatInterval(),
+                    expirationTime.repeatInterval() != null && expirationTime.repeatLimit() != null ? expirationTime.repeatLimit() : -1);
+        }
+
+        private Job(String id, String processInstanceId, ProcessJobDescription description, long deadline, Long repeatInterval, int limit) {
+            this.id = id;
+            this.processInstanceId = processInstanceId;
+            this.description = description;
+            this.deadline = deadline;
+            this.repeatInterval = repeatInterval;
+            this.limit = limit;
+        }
+
+        private boolean cancel() {
+            cancelled = true;
+            HashedWheelTimer.Timeout<Job> current = timeout;
+            return current == null || current.cancel();
+        }
+
+        @Override
+        public String toString() {
+            return id;
+        }
+    }
+}
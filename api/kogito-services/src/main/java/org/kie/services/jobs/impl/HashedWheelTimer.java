@@ -0,0 +1,358 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.services.jobs.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Hierarchical hashed timing wheel, scheduling and cancelling a timeout are O(1) whatever the number of pending timeouts.
+ * <br/>
+ * Level 0 has one bucket per tick, each bucket of level <code>n</code> spans <code>wheelSize^n</code> ticks.
+ * A timeout is put in the lowest level able to hold it and moved down one or more levels when the bucket
+ * holding it is reached, so each timeout is touched at most once per level.
+ * <br/>
+ * Buckets are only accessed by the single tick thread: new and cancelled timeouts are handed over through
+ * lock free queues and all the timeouts expired during a tick are passed at once to the expiration handler,
+ * which runs on the tick thread and is expected to dispatch them to other threads.
+ */
+public class HashedWheelTimer<T> implements AutoCloseable {
+
+    public static final long DEFAULT_TICK_MILLIS = 10L;
+    public static final int DEFAULT_WHEEL_SIZE = 512;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HashedWheelTimer.class);
+
+    private static final int INIT = 0;
+    private static final int CANCELLED = 1;
+    private static final int EXPIRED = 2;
+
+    private final long tickMillis;
+    private final int bits;
+    private final int mask;
+    private final Bucket<T>[][] wheels;
+    private final LongSupplier clock;
+    private final long startTime;
+    private final Consumer<List<Timeout<T>>> expirationHandler;
+
+    private final Queue<Timeout<T>> additions = new ConcurrentLinkedQueue<>();
+    private final Queue<Timeout<T>> cancellations = new ConcurrentLinkedQueue<>();
+    private final LongAdder pending = new LongAdder();
+
+    // ticks processed so far, only updated by the tick thread
+    private long currentTick;
+    private volatile boolean running;
+    private Thread worker;
+
+    public HashedWheelTimer(Consumer<List<Timeout<T>>> expirationHandler) {
+        this(DEFAULT_TICK_MILLIS, DEFAULT_WHEEL_SIZE, expirationHandler);
+    }
+
+    /**
+     * Creates and starts a timer
+     * @param tickMillis resolution of the timer in milliseconds
+     * @param wheelSize number of buckets of each level, rounded up to a power of two
+     * @param expirationHandler receives the timeouts expired during each tick
+     */
+    public HashedWheelTimer(long tickMillis, int wheelSize, Consumer<List<Timeout<T>>> expirationHandler) {
+        this(tickMillis, wheelSize, System::currentTimeMillis, expirationHandler);
+        start();
+    }
+
+    @SuppressWarnings("unchecked")
+    HashedWheelTimer(long tickMillis, int wheelSize, LongSupplier clock, Consumer<List<Timeout<T>>> expirationHandler) {
+        if (tickMillis < 1) {
+            throw new IllegalArgumentException("Timer tick must be at least one millisecond, was " + tickMillis);
+        }
+        if (wheelSize < 2 || wheelSize > (1 << 16)) {
+            throw new IllegalArgumentException("Timer wheel size must be between 2 and 65536, was " + wheelSize);
+        }
+        this.tickMillis = tickMillis;
+        this.bits = 32 - Integer.numberOfLeadingZeros(wheelSize - 1);
+        this.mask = (1 << bits) - 1;
+        // enough levels to hold any positive tick count
+        this.wheels = new Bucket[(63 + bits - 1) / bits][1 << bits];
+        this.clock = clock;
+        this.startTime = clock.getAsLong();
+        this.expirationHandler = expirationHandler;
+    }
+
+    void start() {
+        running = true;
+        worker = new Thread(this::run, "kogito-timer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Schedules a timeout, thread safe
+     * @param deadline expiration time in epoch milliseconds, timeouts in the past expire on the next tick
+     */
+    public Timeout<T> schedule(long deadline, T payload) {
+        if (worker != null && !running) {
+            throw new IllegalStateException("Timer has been closed");
+        }
+        Timeout<T> timeout = new Timeout<>(this, deadline, payload);
+        pending.increment();
+        additions.offer(timeout);
+        return timeout;
+    }
+
+    /**
+     * Returns the number of timeouts neither expired nor cancelled
+     */
+    public long pending() {
+        return pending.sum();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    private void run() {
+        while (running) {
+            long now = clock.getAsLong();
+            advance(now);
+            long sleep = startTime + (currentTick + 1) * tickMillis - now;
+            if (sleep > 0) {
+                LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(sleep));
+            }
+        }
+    }
+
+    /**
+     * Processes the ticks elapsed until the given time, only ever called by the tick thread
+     */
+    void advance(long now) {
+        long targetTick = (now - startTime) / tickMillis;
+        List<Timeout<T>> expired = new ArrayList<>();
+        processCancellations();
+        processAdditions(expired);
+        while (currentTick < targetTick) {
+            currentTick++;
+            cascade(currentTick);
+            Bucket<T> bucket = wheels[0][(int) (currentTick & mask)];
+            if (bucket != null) {
+                bucket.expireAll(expired);
+            }
+        }
+        if (!expired.isEmpty()) {
+            try {
+                expirationHandler.accept(expired);
+            } catch (RuntimeException e) {
+                LOGGER.error("Error while handling {} expired timeouts", expired.size(), e);
+            }
+        }
+    }
+
+    // moves the timeouts of the higher level buckets reached at this tick down the wheels, top level first
+    private void cascade(long tick) {
+        int levels = 0;
+        while (levels + 1 < wheels.length && (tick & ((1L << (bits * (levels + 1))) - 1)) == 0) {
+            levels++;
+        }
+        for (int level = levels; level > 0; level--) {
+            Bucket<T> bucket = wheels[level][(int) ((tick >>> (bits * level)) & mask)];
+            if (bucket != null) {
+                Timeout<T> timeout = bucket.clear();
+                while (timeout != null) {
+                    Timeout<T> next = timeout.next;
+                    timeout.next = null;
+                    timeout.prev = null;
+                    timeout.bucket = null;
+                    place(timeout, null);
+                    timeout = next;
+                }
+            }
+        }
+    }
+
+    private void processAdditions(List<Timeout<T>> expired) {
+        Timeout<T> timeout;
+        while ((timeout = additions.poll()) != null) {
+            if (timeout.state.get() == INIT) {
+                long delta = timeout.deadline - startTime;
+                // rounded up, timeouts never expire early
+                timeout.deadlineTick = delta <= 0 ? 0 : (delta + tickMillis - 1) / tickMillis;
+                place(timeout, expired);
+            }
+        }
+    }
+
+    private void processCancellations() {
+        Timeout<T> timeout;
+        while ((timeout = cancellations.poll()) != null) {
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+            }
+        }
+    }
+
+    private void place(Timeout<T> timeout, List<Timeout<T>> expired) {
+        long delta = timeout.deadlineTick - currentTick;
+        if (delta <= 0) {
+            // already due, either added late or moved down exactly at its deadline
+            if (expired != null) {
+                timeout.expire(expired);
+            } else {
+                bucket(0, timeout.deadlineTick <= currentTick ? currentTick : timeout.deadlineTick).add(timeout);
+            }
+            return;
+        }
+        int level = 0;
+        while (level + 1 < wheels.length && delta >= (1L << (bits * (level + 1)))) {
+            level++;
+        }
+        bucket(level, timeout.deadlineTick).add(timeout);
+    }
+
+    private Bucket<T> bucket(int level, long tick) {
+        int index = (int) ((tick >>> (bits * level)) & mask);
+        Bucket<T> bucket = wheels[level][index];
+        if (bucket == null) {
+            bucket = new Bucket<>();
+            wheels[level][index] = bucket;
+        }
+        return bucket;
+    }
+
+    public static class Timeout<T> {
+
+        private final HashedWheelTimer<T> timer;
+        private final long deadline;
+        private final T payload;
+        private final AtomicInteger state = new AtomicInteger(INIT);
+
+        // only accessed by the tick thread
+        private long deadlineTick;
+        private Bucket<T> bucket;
+        private Timeout<T> prev;
+        private Timeout<T> next;
+
+        private Timeout(HashedWheelTimer<T> timer, long deadline, T payload) {
+            this.timer = timer;
+            this.deadline = deadline;
+            this.payload = payload;
+        }
+
+        /**
+         * Returns the expiration time in epoch milliseconds
+         */
+        public long deadline() {
+            return deadline;
+        }
+
+        public T payload() {
+            return payload;
+        }
+
+        public boolean isCancelled() {
+            return state.get() == CANCELLED;
+        }
+
+        public boolean isExpired() {
+            return state.get() == EXPIRED;
+        }
+
+        /**
+         * Cancels the timeout, thread safe
+         * @return false if the timeout already expired or was cancelled
+         */
+        public boolean cancel() {
+            if (!state.compareAndSet(INIT, CANCELLED)) {
+                return false;
+            }
+            timer.pending.decrement();
+            timer.cancellations.offer(this);
+            return true;
+        }
+
+        private void expire(List<Timeout<T>> expired) {
+            if (state.compareAndSet(INIT, EXPIRED)) {
+                timer.pending.decrement();
+                expired.add(this);
+            }
+        }
+    }
+
+    // doubly linked list of timeouts, O(1) add and remove
+    private static class Bucket<T> {
+
+        private Timeout<T> head;
+        private Timeout<T> tail;
+
+        private void add(Timeout<T> timeout) {
+            timeout.bucket = this;
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        private void remove(Timeout<T> timeout) {
+            if (timeout.prev != null) {
+                timeout.prev.next = timeout.next;
+            } else {
+                head = timeout.next;
+            }
+            if (timeout.next != null) {
+                timeout.next.prev = timeout.prev;
+            } else {
+                tail = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+
+        private Timeout<T> clear() {
+            Timeout<T> first = head;
+            head = tail = null;
+            return first;
+        }
+
+        private void expireAll(List<Timeout<T>> expired) {
+            Timeout<T> timeout = clear();
+            while (timeout != null) {
+                Timeout<T> next = timeout.next;
+                timeout.next = null;
+                timeout.prev = null;
+                timeout.bucket = null;
+                timeout.expire(expired);
+                timeout = next;
+            }
+        }
+    }
+}
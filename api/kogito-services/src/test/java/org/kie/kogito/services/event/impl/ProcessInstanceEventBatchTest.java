@@ -16,11 +16,26 @@
 
 package org.kie.kogito.services.event.impl;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
 import org.junit.jupiter.api.Test;
+import org.kie.api.definition.process.Node;
+import org.kie.api.definition.process.Process;
+import org.kie.api.event.process.ProcessNodeLeftEvent;
+import org.kie.api.event.process.ProcessNodeTriggeredEvent;
+import org.kie.kogito.Addons;
+import org.kie.kogito.event.DataEvent;
+import org.kie.kogito.internal.process.runtime.KogitoNodeInstance;
 import org.kie.kogito.process.flexible.Milestone;
 import org.kie.kogito.internal.process.runtime.KogitoWorkflowProcessInstance;
+import org.kie.kogito.services.event.ProcessInstanceDataEvent;
 
 import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
 import static java.util.Collections.emptyMap;
 import static java.util.Collections.singleton;
 import static java.util.Collections.singletonMap;
@@ -73,4 +88,63 @@ public class ProcessInstanceEventBatchTest {
         MilestoneEventBody milestoneEventBody = MilestoneEventBody.create().id("id").name("name").status(Status.AVAILABLE.name()).build();
         assertThat(batch.createMilestones(pi)).containsOnly(milestoneEventBody);
     }
+
+    @Test
+    public void testLargeMultiInstanceTransaction() {
+        int items = 10_000;
+        ProcessInstanceEventBatch batch = new ProcessInstanceEventBatch("http://localhost:8080", new Addons(singletonList("monitoring")));
+
+        Process process = mock(Process.class);
+        when(process.getMetaData()).thenReturn(Collections.<String, Object> singletonMap("securityRoles", "admin,user"));
+        KogitoWorkflowProcessInstance pi = mock(KogitoWorkflowProcessInstance.class);
+        when(pi.getStringId()).thenReturn("pi");
+        when(pi.getProcessId()).thenReturn("demo.travels");
+        when(pi.getProcess()).thenReturn(process);
+        when(pi.getState()).thenReturn(KogitoWorkflowProcessInstance.STATE_ACTIVE);
+        Node node = mock(Node.class);
+
+        List<KogitoNodeInstance> nodeInstances = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            KogitoNodeInstance ni = mock(KogitoNodeInstance.class);
+            when(ni.getStringId()).thenReturn("ni-" + i);
+            when(ni.getNode()).thenReturn(node);
+            nodeInstances.add(ni);
+            batch.append(triggered(pi, ni));
+        }
+        // every item is triggered twice and then completed, in reverse order
+        for (KogitoNodeInstance ni : nodeInstances) {
+            batch.append(triggered(pi, ni));
+        }
+        for (int i = items - 1; i >= 0; i--) {
+            KogitoNodeInstance ni = nodeInstances.get(i);
+            when(ni.getLeaveTime()).thenReturn(new Date());
+            batch.append(left(pi, ni));
+        }
+
+        Collection<DataEvent<?>> events = batch.events();
+
+        assertThat(events).hasSize(1);
+        ProcessInstanceDataEvent event = (ProcessInstanceDataEvent) events.iterator().next();
+        assertThat(event.getSource()).isEqualTo("http://localhost:8080/travels");
+        assertThat(event.getKogitoAddons()).isEqualTo("monitoring");
+        assertThat(event.getData().getRoles()).containsExactly("admin", "user");
+        assertThat(event.getData().getNodeInstances())
+                .hasSize(items)
+                .allSatisfy(ni -> assertThat(ni.getLeaveTime()).isNotNull());
+        assertThat(event.getData().getNodeInstances().iterator().next().getId()).isEqualTo("ni-" + (items - 1));
+    }
+
+    private static ProcessNodeTriggeredEvent triggered(KogitoWorkflowProcessInstance pi, KogitoNodeInstance ni) {
+        ProcessNodeTriggeredEvent event = mock(ProcessNodeTriggeredEvent.class);
+        when(event.getProcessInstance()).thenReturn(pi);
+        when(event.getNodeInstance()).thenReturn(ni);
+        return event;
+    }
+
+    private static ProcessNodeLeftEvent left(KogitoWorkflowProcessInstance pi, KogitoNodeInstance ni) {
+        ProcessNodeLeftEvent event = mock(ProcessNodeLeftEvent.class);
+        when(event.getProcessInstance()).thenReturn(pi);
+        when(event.getNodeInstance()).thenReturn(ni);
+        return event;
+    }
 }
@@ -0,0 +1,188 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.services.uow;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kie.kogito.process.MutableProcessInstances;
+import org.kie.kogito.process.Process;
+import org.kie.kogito.process.ProcessInstance;
+import org.kie.kogito.process.ProcessInstanceOptimisticLockingException;
+import org.kie.kogito.uow.UnitOfWork;
+import org.kie.kogito.uow.UnitOfWorkManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class BatchingUnitOfWorkFactoryTest {
+
+    private static final int UNITS = 8;
+
+    private BatchingUnitOfWorkFactory factory;
+    private UnitOfWorkManager unitOfWorkManager;
+    private MutableProcessInstances<?> instances;
+    private AtomicInteger batches;
+    private ProcessInstance<?> processInstance;
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    @BeforeEach
+    public void setup() {
+        factory = new BatchingUnitOfWorkFactory(UNITS, 200);
+        unitOfWorkManager = new DefaultUnitOfWorkManager(factory);
+        batches = new AtomicInteger();
+        instances = mock(MutableProcessInstances.class);
+        doAnswer(invocation -> {
+            batches.incrementAndGet();
+            invocation.getArgument(0, Runnable.class).run();
+            return null;
+        }).when(instances).batch(any());
+        Process process = mock(Process.class);
+        when(process.instances()).thenReturn(instances);
+        processInstance = mock(ProcessInstance.class);
+        when(processInstance.process()).thenReturn(process);
+        when(processInstance.id()).thenReturn("pi-1");
+    }
+
+    @AfterEach
+    public void cleanup() {
+        factory.close();
+    }
+
+    @Test
+    public void testConcurrentUnitsOfWorkShareBatch() throws Exception {
+        AtomicInteger stored = new AtomicInteger();
+        CountDownLatch ready = new CountDownLatch(UNITS);
+        ExecutorService executor = Executors.newFixedThreadPool(UNITS);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int i = 0; i < UNITS; i++) {
+                results.add(executor.submit(() -> {
+                    UnitOfWork unit = unitOfWorkManager.newUnitOfWork();
+                    unit.start();
+                    unit.intercept(new ProcessInstanceWorkUnit<>(processInstance, pi -> stored.incrementAndGet()));
+                    ready.countDown();
+                    ready.await();
+                    unit.end();
+                    // the unit of work only ends once its work has been stored
+                    assertThat(stored.get()).isPositive();
+                    return null;
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(stored.get()).isEqualTo(UNITS);
+        assertThat(batches.get()).isLessThan(UNITS);
+    }
+
+    @Test
+    public void testOtherWorkPerformedAfterBatch() {
+        AtomicInteger counter = new AtomicInteger();
+        AtomicInteger picounter = new AtomicInteger(-1);
+
+        UnitOfWork unit = unitOfWorkManager.newUnitOfWork();
+        unit.start();
+        unit.intercept(new BaseWorkUnit(counter, d -> ((AtomicInteger) d).incrementAndGet()));
+        unit.intercept(new ProcessInstanceWorkUnit<>(processInstance, pi -> picounter.set(counter.get())));
+        unit.end();
+
+        assertThat(counter.get()).isEqualTo(1);
+        assertThat(picounter.get()).isZero();
+        assertThat(batches.get()).isEqualTo(1);
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    @Test
+    public void testConflictReportedToAffectedUnitOfWorkOnly() {
+        doAnswer(invocation -> {
+            invocation.getArgument(0, Runnable.class).run();
+            throw new ProcessInstanceOptimisticLockingException("pi-2");
+        }).when(instances).batch(any());
+        ProcessInstance conflicting = mock(ProcessInstance.class);
+        when(conflicting.process()).thenReturn(processInstance.process());
+        when(conflicting.id()).thenReturn("pi-2");
+
+        UnitOfWork unit = unitOfWorkManager.newUnitOfWork();
+        unit.start();
+        unit.intercept(new ProcessInstanceWorkUnit<>(processInstance, pi -> {
+        }));
+        unit.end();
+
+        UnitOfWork conflictingUnit = unitOfWorkManager.newUnitOfWork();
+        conflictingUnit.start();
+        conflictingUnit.intercept(new ProcessInstanceWorkUnit<>(conflicting, pi -> {
+        }));
+        assertThatThrownBy(conflictingUnit::end).isInstanceOf(ProcessInstanceOptimisticLockingException.class);
+    }
+
+    @Test
+    public void testFailureReportedToUnitOfWork() {
+        UnitOfWork unit = unitOfWorkManager.newUnitOfWork();
+        unit.start();
+        unit.intercept(new ProcessInstanceWorkUnit<>(processInstance, pi -> {
+            throw new IllegalStateException("store failed");
+        }));
+
+        assertThatThrownBy(unit::end).isInstanceOf(IllegalStateException.class).hasMessage("store failed");
+    }
+
+    @Test
+    public void testFlusherSurvivesError() {
+        UnitOfWork unit = unitOfWorkManager.newUnitOfWork();
+        unit.start();
+        unit.intercept(new ProcessInstanceWorkUnit<>(processInstance, pi -> {
+            throw new AssertionError("store failed");
+        }));
+        assertThatThrownBy(unit::end).isInstanceOf(IllegalStateException.class).hasCauseInstanceOf(AssertionError.class);
+
+        AtomicInteger stored = new AtomicInteger();
+        UnitOfWork next = unitOfWorkManager.newUnitOfWork();
+        next.start();
+        next.intercept(new ProcessInstanceWorkUnit<>(processInstance, pi -> stored.incrementAndGet()));
+        next.end();
+
+        assertThat(stored.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void testWorkRejectedAfterClose() {
+        factory.close();
+
+        UnitOfWork unit = unitOfWorkManager.newUnitOfWork();
+        unit.start();
+        unit.intercept(new ProcessInstanceWorkUnit<>(processInstance, pi -> {
+        }));
+
+        assertThatThrownBy(unit::end).isInstanceOf(IllegalStateException.class).hasMessageContaining("closed");
+    }
+}
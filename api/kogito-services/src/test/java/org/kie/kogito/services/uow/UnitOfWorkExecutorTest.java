@@ -0,0 +1,75 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.services.uow;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kie.kogito.process.ProcessInstanceOptimisticLockingException;
+import org.kie.kogito.uow.UnitOfWorkManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class UnitOfWorkExecutorTest {
+
+    private UnitOfWorkManager unitOfWorkManager;
+
+    @BeforeEach
+    public void setup() {
+        this.unitOfWorkManager = new DefaultUnitOfWorkManager(new CollectingUnitOfWorkFactory());
+    }
+
+    @Test
+    public void testRetriedOnConflict() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = UnitOfWorkExecutor.executeInUnitOfWork(unitOfWorkManager, () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new ProcessInstanceOptimisticLockingException("pi-1");
+            }
+            return "done";
+        });
+
+        assertThat(result).isEqualTo("done");
+        assertThat(attempts.get()).isEqualTo(3);
+    }
+
+    @Test
+    public void testConflictRethrownAfterMaxRetries() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThatThrownBy(() -> UnitOfWorkExecutor.executeInUnitOfWork(unitOfWorkManager, () -> {
+            attempts.incrementAndGet();
+            throw new ProcessInstanceOptimisticLockingException("pi-1");
+        }, 2)).isInstanceOf(ProcessInstanceOptimisticLockingException.class);
+
+        assertThat(attempts.get()).isEqualTo(3);
+    }
+
+    @Test
+    public void testOtherFailuresNotRetried() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThatThrownBy(() -> UnitOfWorkExecutor.executeInUnitOfWork(unitOfWorkManager, () -> {
+            attempts.incrementAndGet();
+            throw new IllegalStateException("failed");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(attempts.get()).isOne();
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.services.jobs.impl;
+
+import java.nio.file.Path;
+import java.time.ZonedDateTime;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.kie.api.runtime.process.ProcessInstance;
+import org.kie.kogito.internal.process.runtime.KogitoProcessRuntime;
+import org.kie.kogito.jobs.ExactExpirationTime;
+import org.kie.kogito.jobs.ProcessInstanceJobDescription;
+import org.kie.kogito.services.uow.CollectingUnitOfWorkFactory;
+import org.kie.kogito.services.uow.DefaultUnitOfWorkManager;
+import org.kie.kogito.uow.UnitOfWork;
+import org.kie.kogito.uow.UnitOfWorkManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class DurableJobServiceTest {
+
+    @TempDir
+    Path directory;
+
+    private KogitoProcessRuntime processRuntime;
+    private UnitOfWorkManager unitOfWorkManager;
+    private ProcessInstance processInstance;
+
+    @BeforeEach
+    public void setup() {
+        processRuntime = mock(KogitoProcessRuntime.class);
+        unitOfWorkManager = new DefaultUnitOfWorkManager(new CollectingUnitOfWorkFactory());
+        processInstance = mock(ProcessInstance.class);
+        when(processRuntime.getProcessInstance("pi-1")).thenReturn(processInstance);
+    }
+
+    @Test
+    public void testExpiredJobsFireAfterRestart() throws InterruptedException {
+        Path file = directory.resolve("jobs.log");
+        ZonedDateTime expiration = ZonedDateTime.now().plusNanos(300_000_000L);
+        try (DurableJobService jobService = newJobService(file)) {
+            UnitOfWork unitOfWork = unitOfWorkManager.newUnitOfWork();
+            unitOfWork.start();
+            jobService.scheduleProcessInstanceJob(ProcessInstanceJobDescription.of(1, ExactExpirationTime.of(expiration), "pi-1", "process"));
+            unitOfWork.end();
+        }
+        verify(processInstance, never()).signalEvent(any(), any());
+
+        // the job expires while the application is stopped
+        Thread.sleep(400);
+
+        try (DurableJobService jobService = newJobService(file)) {
+            verify(processInstance, timeout(5000)).signalEvent(eq("timerTriggered"), any());
+        }
+    }
+
+    @Test
+    public void testJobOfAbortedUnitOfWorkNotStored() {
+        Path file = directory.resolve("jobs.log");
+        ZonedDateTime expiration = ZonedDateTime.now().plusHours(1);
+        try (DurableJobService jobService = newJobService(file)) {
+            UnitOfWork unitOfWork = unitOfWorkManager.newUnitOfWork();
+            unitOfWork.start();
+            String id = jobService.scheduleProcessInstanceJob(ProcessInstanceJobDescription.of(1, ExactExpirationTime.of(expiration), "pi-1", "process"));
+            assertThat(jobService.getScheduledTime(id)).isNotNull();
+            unitOfWork.abort();
+
+            assertThat(jobService.getScheduledTime(id)).isNull();
+            assertThat(jobService.pendingJobs()).isZero();
+        }
+        try (FileJobStore store = new FileJobStore(file, false)) {
+            assertThat(store.size()).isZero();
+        }
+    }
+
+    private DurableJobService newJobService(Path file) {
+        return new DurableJobService(new FileJobStore(file, false), 1, 10L, 64, processRuntime, unitOfWorkManager);
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.services.jobs.impl;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class FileJobStoreTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testJobsReloaded() {
+        Path file = directory.resolve("jobs.log");
+        try (FileJobStore store = new FileJobStore(file, false)) {
+            store.store(new FileJobStore.JobRecord("job-1", "pi-1", "process", 1000L, null, -1));
+            store.store(new FileJobStore.JobRecord("job-2", "pi-2", "process", 2000L, 500L, 3));
+            store.store(new FileJobStore.JobRecord("job-3", "pi-3", null, 3000L, null, -1));
+            store.remove("job-1");
+            store.store(store.get("job-2").rescheduled(2500L, 2));
+        }
+
+        try (FileJobStore store = new FileJobStore(file, false)) {
+            assertThat(store.size()).isEqualTo(2);
+            assertThat(store.get("job-1")).isNull();
+            FileJobStore.JobRecord repeated = store.get("job-2");
+            assertThat(repeated.getProcessInstanceId()).isEqualTo("pi-2");
+            assertThat(repeated.getDeadline()).isEqualTo(2500L);
+            assertThat(repeated.getRepeatInterval()).isEqualTo(500L);
+            assertThat(repeated.getLimit()).isEqualTo(2);
+            assertThat(store.get("job-3").getProcessId()).isNull();
+        }
+    }
+
+    @Test
+    public void testIncompleteRecordDiscarded() throws IOException {
+        Path file = directory.resolve("jobs.log");
+        try (FileJobStore store = new FileJobStore(file, true)) {
+            store.store(new FileJobStore.JobRecord("job-1", "pi-1", "process", 1000L, null, -1));
+            store.store(new FileJobStore.JobRecord("job-2", "pi-2", "process", 2000L, null, -1));
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+
+        try (FileJobStore store = new FileJobStore(file, false)) {
+            assertThat(store.size()).isEqualTo(1);
+            store.store(new FileJobStore.JobRecord("job-3", "pi-3", "process", 3000L, null, -1));
+        }
+        try (FileJobStore store = new FileJobStore(file, false)) {
+            assertThat(store.jobs()).extracting(FileJobStore.JobRecord::getId).containsExactly("job-1", "job-3");
+        }
+    }
+
+    @Test
+    public void testCompaction() throws IOException {
+        Path file = directory.resolve("jobs.log");
+        try (FileJobStore store = new FileJobStore(file, false)) {
+            store.store(new FileJobStore.JobRecord("kept", "pi-0", "process", 1000L, null, -1));
+            for (int i = 0; i < FileJobStore.MIN_COMPACTION_RECORDS * 2; i++) {
+                store.store(new FileJobStore.JobRecord("job-" + i, "pi-" + i, "process", 1000L, null, -1));
+                store.remove("job-" + i);
+            }
+            // without compaction the file would hold twice as many records
+            assertThat(Files.size(file)).isLessThan(FileJobStore.MIN_COMPACTION_RECORDS * 64L);
+        }
+        try (FileJobStore store = new FileJobStore(file, false)) {
+            assertThat(store.jobs()).extracting(FileJobStore.JobRecord::getId).containsExactly("kept");
+        }
+    }
+
+    @Test
+    public void testZeroFilledTailDiscarded() throws IOException {
+        Path file = directory.resolve("jobs.log");
+        try (FileJobStore store = new FileJobStore(file, true)) {
+            store.store(new FileJobStore.JobRecord("job-1", "pi-1", "process", 1000L, null, -1));
+        }
+        Files.write(file, new byte[64], StandardOpenOption.APPEND);
+
+        try (FileJobStore store = new FileJobStore(file, false)) {
+            assertThat(store.jobs()).extracting(FileJobStore.JobRecord::getId).containsExactly("job-1");
+            store.store(new FileJobStore.JobRecord("job-2", "pi-2", "process", 2000L, null, -1));
+        }
+        try (FileJobStore store = new FileJobStore(file, false)) {
+            assertThat(store.jobs()).extracting(FileJobStore.JobRecord::getId).containsExactly("job-1", "job-2");
+        }
+    }
+
+    @Test
+    public void testCorruptedRecordDiscarded() throws IOException {
+        Path file = directory.resolve("jobs.log");
+        try (FileJobStore store = new FileJobStore(file, true)) {
+            store.store(new FileJobStore.JobRecord("job-1", "pi-1", "process", 1000L, null, -1));
+            store.store(new FileJobStore.JobRecord("job-2", "pi-2", "process", 2000L, null, -1));
+        }
+        // flips a byte of the last record
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer last = ByteBuffer.allocate(1);
+            channel.read(last, channel.size() - 1);
+            last.put(0, (byte) ~last.get(0));
+            last.rewind();
+            channel.write(last, channel.size() - 1);
+        }
+
+        try (FileJobStore store = new FileJobStore(file, false)) {
+            assertThat(store.jobs()).extracting(FileJobStore.JobRecord::getId).containsExactly("job-1");
+        }
+    }
+}
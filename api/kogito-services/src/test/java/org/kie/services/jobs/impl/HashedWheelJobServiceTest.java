@@ -0,0 +1,106 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.services.jobs.impl;
+
+import java.time.ZonedDateTime;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kie.api.runtime.process.ProcessInstance;
+import org.kie.kogito.internal.process.runtime.KogitoProcessRuntime;
+import org.kie.kogito.jobs.ExactExpirationTime;
+import org.kie.kogito.jobs.ProcessInstanceJobDescription;
+import org.kie.kogito.uow.UnitOfWork;
+import org.kie.kogito.uow.UnitOfWorkManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class HashedWheelJobServiceTest {
+
+    private KogitoProcessRuntime processRuntime;
+    private UnitOfWorkManager unitOfWorkManager;
+    private ProcessInstance first;
+    private ProcessInstance second;
+    private HashedWheelJobService jobService;
+
+    @BeforeEach
+    public void setup() {
+        processRuntime = mock(KogitoProcessRuntime.class);
+        unitOfWorkManager = mock(UnitOfWorkManager.class);
+        when(unitOfWorkManager.newUnitOfWork()).thenAnswer(invocation -> mock(UnitOfWork.class));
+        first = mock(ProcessInstance.class);
+        second = mock(ProcessInstance.class);
+        when(processRuntime.getProcessInstance("pi-1")).thenReturn(first);
+        when(processRuntime.getProcessInstance("pi-2")).thenReturn(second);
+        jobService = new HashedWheelJobService(2, 10L, 64, processRuntime, unitOfWorkManager);
+    }
+
+    @AfterEach
+    public void close() {
+        jobService.close();
+    }
+
+    @Test
+    public void testJobsOfProcessInstanceFireInOneUnitOfWork() {
+        ZonedDateTime expiration = ZonedDateTime.now().plusNanos(100_000_000L);
+        jobService.scheduleProcessInstanceJob(ProcessInstanceJobDescription.of(1, ExactExpirationTime.of(expiration), "pi-1", "process"));
+        jobService.scheduleProcessInstanceJob(ProcessInstanceJobDescription.of(2, ExactExpirationTime.of(expiration), "pi-1", "process"));
+        jobService.scheduleProcessInstanceJob(ProcessInstanceJobDescription.of(3, ExactExpirationTime.of(expiration), "pi-2", "process"));
+        assertThat(jobService.pendingJobs()).isEqualTo(3);
+
+        verify(first, timeout(5000).times(2)).signalEvent(eq("timerTriggered"), any());
+        verify(second, timeout(5000)).signalEvent(eq("timerTriggered"), any());
+        verify(unitOfWorkManager, times(2)).newUnitOfWork();
+        assertThat(jobService.pendingJobs()).isZero();
+    }
+
+    @Test
+    public void testCancelledJobDoesNotFire() {
+        ZonedDateTime expiration = ZonedDateTime.now().plusNanos(100_000_000L);
+        String id = jobService.scheduleProcessInstanceJob(ProcessInstanceJobDescription.of(1, ExactExpirationTime.of(expiration), "pi-1", "process"));
+        assertThat(jobService.getScheduledTime(id)).isNotNull();
+
+        assertThat(jobService.cancelJob(id)).isTrue();
+        assertThat(jobService.cancelJob(id)).isFalse();
+        assertThat(jobService.getScheduledTime(id)).isNull();
+
+        verify(first, after(300).never()).signalEvent(any(), any());
+    }
+
+    @Test
+    public void testJobsOfFailedGroupFiredOneByOne() {
+        doThrow(new IllegalStateException("signal failed")).doNothing().when(first).signalEvent(eq("timerTriggered"), any());
+        ZonedDateTime expiration = ZonedDateTime.now().plusNanos(100_000_000L);
+        jobService.scheduleProcessInstanceJob(ProcessInstanceJobDescription.of(1, ExactExpirationTime.of(expiration), "pi-1", "process"));
+        jobService.scheduleProcessInstanceJob(ProcessInstanceJobDescription.of(2, ExactExpirationTime.of(expiration), "pi-1", "process"));
+
+        // the group fails once, then each job fires in its own unit of work
+        verify(first, timeout(5000).times(3)).signalEvent(eq("timerTriggered"), any());
+        verify(unitOfWorkManager, times(3)).newUnitOfWork();
+        assertThat(jobService.pendingJobs()).isZero();
+    }
+}
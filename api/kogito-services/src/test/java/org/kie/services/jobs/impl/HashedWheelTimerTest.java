@@ -0,0 +1,107 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.services.jobs.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class HashedWheelTimerTest {
+
+    private static final long TICK = 10L;
+
+    private AtomicLong clock;
+    private List<HashedWheelTimer.Timeout<String>> expired;
+    private HashedWheelTimer<String> timer;
+
+    @BeforeEach
+    public void setup() {
+        clock = new AtomicLong(1_000_000L);
+        expired = new ArrayList<>();
+        // small wheels so that timeouts go through several levels
+        timer = new HashedWheelTimer<>(TICK, 8, clock::get, expired::addAll);
+    }
+
+    @Test
+    public void testExpiresAtDeadline() {
+        timer.schedule(clock.get() + 25, "first");
+        timer.schedule(clock.get() - 5, "overdue");
+
+        advanceTo(clock.get());
+        assertThat(payloads()).containsExactly("overdue");
+
+        advanceTo(clock.get() + 20);
+        assertThat(payloads()).containsExactly("overdue");
+
+        advanceTo(clock.get() + 10);
+        assertThat(payloads()).containsExactly("overdue", "first");
+        assertThat(timer.pending()).isZero();
+    }
+
+    @Test
+    public void testTimeoutsCascadeThroughLevels() {
+        long start = clock.get();
+        List<Long> deadlines = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            long deadline = start + ThreadLocalRandom.current().nextLong(1, 100_000);
+            deadlines.add(deadline);
+            timer.schedule(deadline, String.valueOf(deadline));
+        }
+
+        for (long now = start; now <= start + 100_000 + TICK; now += TICK) {
+            advanceTo(now);
+            for (HashedWheelTimer.Timeout<String> timeout : expired) {
+                assertThat(timeout.deadline()).isLessThanOrEqualTo(now);
+                assertThat(timeout.deadline()).isGreaterThan(now - TICK);
+            }
+            expired.clear();
+        }
+        assertThat(timer.pending()).isZero();
+    }
+
+    @Test
+    public void testCancel() {
+        HashedWheelTimer.Timeout<String> cancelled = timer.schedule(clock.get() + 500, "cancelled");
+        HashedWheelTimer.Timeout<String> kept = timer.schedule(clock.get() + 500, "kept");
+        advanceTo(clock.get() + 100);
+
+        assertThat(cancelled.cancel()).isTrue();
+        assertThat(cancelled.cancel()).isFalse();
+        assertThat(timer.pending()).isEqualTo(1);
+
+        advanceTo(clock.get() + 400);
+        assertThat(payloads()).containsExactly("kept");
+        assertThat(kept.isExpired()).isTrue();
+        assertThat(kept.cancel()).isFalse();
+    }
+
+    private void advanceTo(long now) {
+        clock.set(now);
+        timer.advance(now);
+    }
+
+    private List<String> payloads() {
+        return expired.stream().map(HashedWheelTimer.Timeout::payload).collect(Collectors.toList());
+    }
+}
@@ -15,22 +15,35 @@
 package org.kie.kogito.dmn;
 
 import java.io.Reader;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.kie.api.runtime.KieRuntimeFactory;
+import org.kie.dmn.api.core.DMNModel;
 import org.kie.dmn.api.core.DMNRuntime;
 import org.kie.kogito.Application;
 import org.kie.kogito.ExecutionIdSupplier;
 import org.kie.kogito.decision.DecisionConfig;
 import org.kie.kogito.decision.DecisionModel;
 import org.kie.kogito.decision.DecisionModels;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 public abstract class AbstractDecisionModels implements DecisionModels {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(AbstractDecisionModels.class);
+    private static final String WARM_UP_ALL = "true";
     private static final boolean CAN_PLATFORM_CLASSLOAD = org.kie.dmn.feel.util.ClassLoaderUtil.CAN_PLATFORM_CLASSLOAD;
     private static DMNRuntime dmnRuntime = null;
     private static ExecutionIdSupplier execIdSupplier = null;
     private static Function<DecisionModel, DecisionModel> decisionModelTransformer = null;
+    private static Map<String, DecisionModel> decisionModels = Collections.emptyMap();
 
     protected static void init(Function<String, KieRuntimeFactory> sKieRuntimeFactoryFunction,
                                ExecutionIdSupplier executionIdSupplier,
@@ -39,15 +52,57 @@ public abstract class AbstractDecisionModels implements DecisionModels {
         dmnRuntime = DMNKogito.createGenericDMNRuntime(sKieRuntimeFactoryFunction, readers);
         execIdSupplier = executionIdSupplier;
         decisionModelTransformer = decisionModelTransformerInit;
+        Map<String, DecisionModel> models = new LinkedHashMap<>();
+        for (DMNModel dmnModel : dmnRuntime.getModels()) {
+            models.put(key(dmnModel.getNamespace(), dmnModel.getName()), createDecisionModel(dmnModel.getNamespace(), dmnModel.getName()));
+        }
+        decisionModels = Collections.unmodifiableMap(models);
     }
 
-    public DecisionModel getDecisionModel(String namespace, String name) {
+    /**
+     * Evaluates the given models once with an empty context, so FEEL compilation and class loading happen at startup
+     * instead of during the first requests. Warm-up evaluations bypass tracing, monitoring and decision event
+     * listeners.
+     * @param models comma separated names of the models to warm up, or <code>true</code> (in any case) for all models
+     */
+    protected static void warmUp(String models) {
+        Set<String> names = Arrays.stream(models.split(",")).map(String::trim).filter(name -> !name.isEmpty()).collect(Collectors.toSet());
+        boolean all = names.stream().anyMatch(WARM_UP_ALL::equalsIgnoreCase);
+        for (DMNModel dmnModel : dmnRuntime.getModels()) {
+            if (all || names.contains(dmnModel.getName())) {
+                try {
+                    DecisionModel model = new DmnDecisionModel(dmnRuntime, dmnModel.getNamespace(), dmnModel.getName());
+                    model.evaluateAll(model.newContext(Collections.emptyMap()));
+                } catch (RuntimeException e) {
+                    LOGGER.debug("Warm-up evaluation of decision model {} failed", dmnModel.getName(), e);
+                }
+            }
+        }
+    }
+
+    private static DecisionModel createDecisionModel(String namespace, String name) {
         DecisionModel model = new DmnDecisionModel(dmnRuntime, namespace, name, execIdSupplier);
         return decisionModelTransformer == null
                 ? model
                 : decisionModelTransformer.apply(model);
     }
 
+    private static String key(String namespace, String name) {
+        return namespace + '#' + name;
+    }
+
+    @Override
+    public DecisionModel getDecisionModel(String namespace, String name) {
+        DecisionModel model = decisionModels.get(key(namespace, name));
+        // models not known at startup fail with the same error as before
+        return model != null ? model : createDecisionModel(namespace, name);
+    }
+
+    @Override
+    public Collection<DecisionModel> getDecisionModels() {
+        return decisionModels.values();
+    }
+
     public AbstractDecisionModels() {
         // needed by CDI
     }
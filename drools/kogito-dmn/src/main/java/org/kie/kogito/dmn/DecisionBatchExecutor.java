@@ -0,0 +1,110 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.dmn;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Evaluates batches of independent inputs in parallel on a bounded fork join pool shared by all decision models.
+ * Results are streamed back in the order of the inputs, and at most <code>window</code> inputs are in flight at
+ * any time, so arbitrarily long input streams are evaluated in bounded memory.
+ */
+public class DecisionBatchExecutor {
+
+    public static final String PARALLELISM_PROPERTY = "kogito.decisions.batch.parallelism";
+    public static final int WINDOW_PER_THREAD = 4;
+
+    private static final DecisionBatchExecutor INSTANCE = new DecisionBatchExecutor(
+            Integer.getInteger(PARALLELISM_PROPERTY, Runtime.getRuntime().availableProcessors()));
+
+    private final ForkJoinPool pool;
+    private final int window;
+
+    public DecisionBatchExecutor(int parallelism) {
+        this(new ForkJoinPool(parallelism), parallelism * WINDOW_PER_THREAD);
+    }
+
+    public DecisionBatchExecutor(ForkJoinPool pool, int window) {
+        if (window < 1) {
+            throw new IllegalArgumentException("Batch window must be positive, was " + window);
+        }
+        this.pool = pool;
+        this.window = window;
+    }
+
+    public static DecisionBatchExecutor get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Lazily applies the given function to every input in parallel
+     * @return results in the order of the inputs, closing the stream cancels the evaluations still in flight
+     */
+    public <T, R> Stream<R> map(Stream<T> inputs, Function<T, R> function) {
+        OrderedSpliterator<T, R> spliterator = new OrderedSpliterator<>(inputs.iterator(), function);
+        return StreamSupport.stream(spliterator, false).onClose(spliterator::cancel).onClose(inputs::close);
+    }
+
+    private class OrderedSpliterator<T, R> extends Spliterators.AbstractSpliterator<R> {
+
+        private final Iterator<T> inputs;
+        private final Function<T, R> function;
+        private final Deque<CompletableFuture<R>> inFlight = new ArrayDeque<>();
+
+        private OrderedSpliterator(Iterator<T> inputs, Function<T, R> function) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED);
+            this.inputs = inputs;
+            this.function = function;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super R> action) {
+            while (inFlight.size() < window && inputs.hasNext()) {
+                T input = inputs.next();
+                inFlight.add(CompletableFuture.supplyAsync(() -> function.apply(input), pool));
+            }
+            CompletableFuture<R> next = inFlight.poll();
+            if (next == null) {
+                return false;
+            }
+            try {
+                action.accept(next.join());
+            } catch (CompletionException e) {
+                cancel();
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw e;
+            }
+            return true;
+        }
+
+        private void cancel() {
+            inFlight.forEach(future -> future.cancel(false));
+            inFlight.clear();
+        }
+    }
+}
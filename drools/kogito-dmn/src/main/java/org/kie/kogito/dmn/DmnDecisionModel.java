@@ -16,6 +16,7 @@ package org.kie.kogito.dmn;
 
 import java.util.Collections;
 import java.util.Map;
+import java.util.stream.Stream;
 
 import org.kie.dmn.api.core.DMNContext;
 import org.kie.dmn.api.core.DMNModel;
@@ -60,6 +61,11 @@ public class DmnDecisionModel implements DecisionModel {
         return dmnRuntime.evaluateAll(dmnModel, injectExecutionId(context));
     }
 
+    @Override
+    public Stream<DMNResult> evaluateAllBatch(Stream<DMNContext> contexts) {
+        return DecisionBatchExecutor.get().map(contexts, this::evaluateAll);
+    }
+
     @Override
     public DMNResult evaluateDecisionService(DMNContext context, String decisionServiceName) {
         return dmnRuntime.evaluateDecisionService(dmnModel, injectExecutionId(context), decisionServiceName);
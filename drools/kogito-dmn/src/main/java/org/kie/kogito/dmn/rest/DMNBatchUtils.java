@@ -0,0 +1,161 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.dmn.rest;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.kie.dmn.api.core.DMNContext;
+import org.kie.dmn.api.core.DMNResult;
+import org.kie.kogito.decision.DecisionModel;
+
+/**
+ * Internal Utility class.<br/>
+ * Used to simplify generated/scaffolded code to evaluate a batch of independent inputs, given either as a JSON array
+ * or as newline delimited JSON, with one result per input in the order of the inputs.
+ * An input that cannot be read or converted into a DMN context is answered with an {@link InputError} in its place,
+ * the other inputs are still evaluated.
+ */
+public class DMNBatchUtils {
+
+    public static final String APPLICATION_NDJSON = "application/x-ndjson";
+
+    private static final TypeReference<Map<String, Object>> INPUT_TYPE = new TypeReference<Map<String, Object>>() {
+    };
+
+    /**
+     * Internal Utility method.<br/>
+     * Used to simplify generated/scaffolded code to evaluate a JSON array of inputs
+     * @return a {@link KogitoDMNResult} or an {@link InputError} for each input
+     */
+    public static List<Object> evaluate(DecisionModel dm, String namespace, String name, List<Map<String, Object>> inputs) {
+        AtomicInteger index = new AtomicInteger();
+        List<Object> results = new ArrayList<>(inputs.size());
+        evaluate(dm, namespace, name, inputs.stream().map(variables -> toContext(dm, index.getAndIncrement(), variables)), results::add);
+        return results;
+    }
+
+    /**
+     * Internal Utility method.<br/>
+     * Used to simplify generated/scaffolded code to evaluate newline delimited JSON inputs, results are written as
+     * newline delimited JSON as soon as they are available in order, blank lines are skipped
+     */
+    public static void evaluate(DecisionModel dm, String namespace, String name, InputStream inputs, OutputStream output, ObjectMapper objectMapper) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(inputs, StandardCharsets.UTF_8));
+        AtomicInteger index = new AtomicInteger();
+        Stream<Object> contexts = reader.lines()
+                .filter(line -> !line.trim().isEmpty())
+                .map(line -> readInput(dm, objectMapper, index.getAndIncrement(), line));
+        try {
+            evaluate(dm, namespace, name, contexts, result -> {
+                try {
+                    output.write(objectMapper.writeValueAsBytes(result));
+                    output.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        output.flush();
+    }
+
+    /**
+     * Evaluates the given contexts in a batch, passing the errors of the inputs that could not be read in their place.
+     * Inputs are pulled by the batch evaluation in order on the calling thread, so the pulled inputs not answered yet are
+     * queued and each result is matched with the first context among them.
+     */
+    private static void evaluate(DecisionModel dm, String namespace, String name, Stream<Object> inputs, Consumer<Object> consumer) {
+        Deque<Object> pending = new ArrayDeque<>();
+        Stream<DMNContext> contexts = inputs.peek(pending::add)
+                .filter(DMNContext.class::isInstance)
+                .map(DMNContext.class::cast);
+        try (Stream<DMNResult> results = dm.evaluateAllBatch(contexts)) {
+            Iterator<DMNResult> iterator = results.iterator();
+            while (iterator.hasNext()) {
+                DMNResult result = iterator.next();
+                while (pending.peek() instanceof InputError) {
+                    consumer.accept(pending.poll());
+                }
+                pending.poll();
+                consumer.accept(new KogitoDMNResult(namespace, name, result));
+            }
+        }
+        pending.forEach(consumer);
+    }
+
+    private static Object readInput(DecisionModel dm, ObjectMapper objectMapper, int index, String line) {
+        try {
+            return toContext(dm, index, objectMapper.readValue(line, INPUT_TYPE));
+        } catch (IOException e) {
+            return new InputError(index, e.getMessage());
+        }
+    }
+
+    private static Object toContext(DecisionModel dm, int index, Map<String, Object> variables) {
+        try {
+            return DMNJSONUtils.ctx(dm, variables);
+        } catch (RuntimeException e) {
+            return new InputError(index, e.getMessage());
+        }
+    }
+
+    /**
+     * Answer to an input of the batch that could not be evaluated
+     */
+    public static class InputError {
+
+        private final int index;
+        private final String error;
+
+        public InputError(int index, String error) {
+            this.index = index;
+            this.error = error;
+        }
+
+        /**
+         * Position of the input in the batch, starting at 0
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        public String getError() {
+            return error;
+        }
+    }
+
+    private DMNBatchUtils() {
+        // intentionally private.
+    }
+}
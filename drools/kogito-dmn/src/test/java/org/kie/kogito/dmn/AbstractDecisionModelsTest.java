@@ -0,0 +1,72 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.dmn;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.kie.kogito.decision.DecisionModel;
+import org.kie.kogito.decision.DecisionModels;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class AbstractDecisionModelsTest {
+
+    private static final String TRAFFIC_VIOLATION_NS = "https://github.com/kiegroup/drools/kie-dmn/_A4BCA8B8-CF08-433F-93B2-A2598F19ECFF";
+    private static final String TRAFFIC_VIOLATION_NAME = "Traffic Violation";
+
+    private static final AtomicInteger TRANSFORMED = new AtomicInteger();
+
+    static class TestDecisionModels extends AbstractDecisionModels {
+
+        static {
+            init(null,
+                 null,
+                 model -> {
+                     TRANSFORMED.incrementAndGet();
+                     return model;
+                 },
+                 readResource(AbstractDecisionModelsTest.class.getResourceAsStream("TrafficViolation.dmn")));
+            warmUp(TRAFFIC_VIOLATION_NAME);
+        }
+    }
+
+    @Test
+    public void testDecisionModelsBuiltOnce() {
+        TestDecisionModels decisionModels = new TestDecisionModels();
+
+        DecisionModel model = decisionModels.getDecisionModel(TRAFFIC_VIOLATION_NS, TRAFFIC_VIOLATION_NAME);
+        assertThat(model.getDMNModel().getName()).isEqualTo(TRAFFIC_VIOLATION_NAME);
+        assertThat(decisionModels.getDecisionModel(TRAFFIC_VIOLATION_NS, TRAFFIC_VIOLATION_NAME)).isSameAs(model);
+        assertThat(decisionModels.getDecisionModels()).containsExactly(model);
+        assertThat(TRANSFORMED.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void testUnknownDecisionModel() {
+        TestDecisionModels decisionModels = new TestDecisionModels();
+
+        assertThatThrownBy(() -> decisionModels.getDecisionModel(TRAFFIC_VIOLATION_NS, "unknown")).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> decisionModels.getDecisionModels().clear()).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    public void testNoDecisionModelsByDefault() {
+        DecisionModels decisionModels = (namespace, name) -> null;
+
+        assertThat(decisionModels.getDecisionModels()).isEmpty();
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.dmn;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.kie.dmn.api.core.DMNRuntime;
+import org.kie.kogito.decision.DecisionModel;
+import org.kie.kogito.dmn.rest.DMNBatchUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class DecisionBatchExecutorTest {
+
+    private static final String TRAFFIC_VIOLATION_NS = "https://github.com/kiegroup/drools/kie-dmn/_A4BCA8B8-CF08-433F-93B2-A2598F19ECFF";
+    private static final String TRAFFIC_VIOLATION_NAME = "Traffic Violation";
+
+    @Test
+    public void testResultsInInputOrder() {
+        DecisionBatchExecutor executor = new DecisionBatchExecutor(4);
+        AtomicInteger evaluated = new AtomicInteger();
+
+        List<Integer> results;
+        try (Stream<Integer> stream = executor.map(IntStream.range(0, 100).boxed(), i -> {
+            evaluated.incrementAndGet();
+            sleep((100 - i) % 7);
+            return i * 2;
+        })) {
+            results = stream.collect(Collectors.toList());
+        }
+
+        assertThat(results).isEqualTo(IntStream.range(0, 100).map(i -> i * 2).boxed().collect(Collectors.toList()));
+        assertThat(evaluated.get()).isEqualTo(100);
+    }
+
+    @Test
+    public void testInputsConsumedWithinWindow() {
+        DecisionBatchExecutor executor = new DecisionBatchExecutor(new ForkJoinPool(2), 3);
+        AtomicInteger pulled = new AtomicInteger();
+
+        try (Stream<Integer> stream = executor.map(Stream.iterate(0, i -> i + 1).peek(i -> pulled.incrementAndGet()), i -> i)) {
+            assertThat(stream.findFirst()).contains(0);
+        }
+        assertThat(pulled.get()).isEqualTo(3);
+    }
+
+    @Test
+    public void testFailurePropagated() {
+        DecisionBatchExecutor executor = new DecisionBatchExecutor(2);
+
+        assertThatThrownBy(() -> executor.map(Stream.of(1, 2, 3), i -> {
+            if (i == 2) {
+                throw new IllegalStateException("failed " + i);
+            }
+            return i;
+        }).collect(Collectors.toList())).isInstanceOf(IllegalStateException.class).hasMessage("failed 2");
+    }
+
+    @Test
+    public void testNdjsonBatch() throws Exception {
+        DMNRuntime dmnRuntime = DMNKogito.createGenericDMNRuntime(new InputStreamReader(DecisionBatchExecutorTest.class.getResourceAsStream("TrafficViolation.dmn")));
+        DecisionModel decisionModel = new DmnDecisionModel(dmnRuntime, TRAFFIC_VIOLATION_NS, TRAFFIC_VIOLATION_NAME);
+        ObjectMapper objectMapper = new ObjectMapper();
+        String violation = "\"Violation\":{\"Type\":\"speed\",\"Actual Speed\":120,\"Speed Limit\":100}";
+        String inputs = "{\"Driver\":{\"Points\":2}," + violation + "}\n\n{\"Driver\":{\"Points\":18}," + violation + "}\n";
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        DMNBatchUtils.evaluate(decisionModel, TRAFFIC_VIOLATION_NS, TRAFFIC_VIOLATION_NAME,
+                new ByteArrayInputStream(inputs.getBytes(StandardCharsets.UTF_8)), output, objectMapper);
+
+        String[] lines = new String(output.toByteArray(), StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(2);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        JsonNode second = objectMapper.readTree(lines[1]);
+        assertThat(first.at("/dmnContext/Should the driver be suspended?").asText()).isEqualTo("No");
+        assertThat(second.at("/dmnContext/Should the driver be suspended?").asText()).isEqualTo("Yes");
+    }
+
+    @Test
+    public void testNdjsonBatchReportsInputErrors() throws Exception {
+        DMNRuntime dmnRuntime = DMNKogito.createGenericDMNRuntime(new InputStreamReader(DecisionBatchExecutorTest.class.getResourceAsStream("TrafficViolation.dmn")));
+        DecisionModel decisionModel = new DmnDecisionModel(dmnRuntime, TRAFFIC_VIOLATION_NS, TRAFFIC_VIOLATION_NAME);
+        ObjectMapper objectMapper = new ObjectMapper();
+        String violation = "\"Violation\":{\"Type\":\"speed\",\"Actual Speed\":120,\"Speed Limit\":100}";
+        String inputs = "{\"Driver\":{\"Points\":2}," + violation + "}\n{\"Driver\":\n{\"Driver\":{\"Points\":18}," + violation + "}\n[]\n";
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        DMNBatchUtils.evaluate(decisionModel, TRAFFIC_VIOLATION_NS, TRAFFIC_VIOLATION_NAME,
+                new ByteArrayInputStream(inputs.getBytes(StandardCharsets.UTF_8)), output, objectMapper);
+
+        String[] lines = new String(output.toByteArray(), StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(4);
+        assertThat(objectMapper.readTree(lines[0]).at("/dmnContext/Should the driver be suspended?").asText()).isEqualTo("No");
+        assertThat(objectMapper.readTree(lines[1]).get("index").asInt()).isEqualTo(1);
+        assertThat(objectMapper.readTree(lines[1]).get("error").asText()).isNotEmpty();
+        assertThat(objectMapper.readTree(lines[2]).at("/dmnContext/Should the driver be suspended?").asText()).isEqualTo("Yes");
+        assertThat(objectMapper.readTree(lines[3]).get("index").asInt()).isEqualTo(3);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -22,7 +22,6 @@ import java.util.List;
 import java.util.Map;
 
 import org.kie.api.runtime.KieSession;
-import org.kie.api.runtime.rule.EntryPoint;
 import org.kie.api.runtime.rule.QueryResults;
 import org.kie.api.runtime.rule.QueryResultsRow;
 import org.kie.api.time.SessionClock;
@@ -37,6 +36,8 @@ public class AbstractRuleUnitInstance<T extends RuleUnitData> implements RuleUni
     private final T unitMemory;
     private final RuleUnit<T> unit;
     private final KieSession runtime;
+    private final List<ConcurrentDataStore<?>> concurrentStores = new ArrayList<>();
+    private final List<Runnable> unsubscriptions = new ArrayList<>();
 
     public AbstractRuleUnitInstance( RuleUnit<T> unit, T unitMemory, KieSession runtime ) {
         this.unit = unit;
@@ -47,7 +48,23 @@ public class AbstractRuleUnitInstance<T extends RuleUnitData> implements RuleUni
 
     @Override
     public int fire() {
-        return runtime.fireAllRules();
+        if (concurrentStores.isEmpty()) {
+            return runtime.fireAllRules();
+        }
+        Thread[] previous = new Thread[concurrentStores.size()];
+        for (int i = 0; i < previous.length; i++) {
+            previous[i] = concurrentStores.get( i ).startFiring();
+        }
+        try {
+            // changes enqueued by producer threads are applied on the thread firing the rules
+            concurrentStores.forEach( ConcurrentDataStore::drain );
+            return runtime.fireAllRules();
+        } finally {
+            // restored in reverse order, so a store listed twice gets back the thread it had before
+            for (int i = previous.length - 1; i >= 0; i--) {
+                concurrentStores.get( i ).endFiring( previous[i] );
+            }
+        }
     }
 
     @Override
@@ -79,6 +96,15 @@ public class AbstractRuleUnitInstance<T extends RuleUnitData> implements RuleUni
         return runtime.getSessionClock();
     }
 
+    @Override
+    public void dispose() {
+        // a session taken from a sessions pool is reset and returned to it, it must no longer receive
+        // the changes of the data sources of this instance
+        unsubscriptions.forEach( Runnable::run );
+        unsubscriptions.clear();
+        runtime.dispose();
+    }
+
     public T workingMemory() {
         return unitMemory;
     }
@@ -92,9 +118,7 @@ public class AbstractRuleUnitInstance<T extends RuleUnitData> implements RuleUni
                 String dataSourceName = String.format(
                         "%s.%s", workingMemory.getClass().getCanonicalName(), f.getName());
                 if ( v instanceof DataSource ) {
-                    DataSource<?> o = ( DataSource<?> ) v;
-                    EntryPoint ep = runtime.getEntryPoint(dataSourceName);
-                    o.subscribe(new EntryPointDataProcessor( ep ));
+                    bindDataSource( runtime, ( DataSource<?> ) v, dataSourceName );
                 }
                 try {
                     runtime.setGlobal( dataSourceName, v );
@@ -107,6 +131,22 @@ public class AbstractRuleUnitInstance<T extends RuleUnitData> implements RuleUni
         }
     }
 
+    /**
+     * Subscribes the entry point of the session to a data source of the unit until this instance is disposed,
+     * called by {@link #bind(KieSession, RuleUnitData)}
+     */
+    protected void bindDataSource(KieSession runtime, DataSource<?> dataSource, String entryPointName) {
+        if ( dataSource instanceof ConcurrentDataStore ) {
+            ConcurrentDataStore<?> store = ( ConcurrentDataStore<?> ) dataSource;
+            store.bind( this );
+            concurrentStores.add( store );
+            unsubscriptions.add( () -> store.unbind( this ) );
+        }
+        EntryPointDataProcessor processor = new EntryPointDataProcessor( runtime.getEntryPoint( entryPointName ) );
+        dataSource.subscribe( processor );
+        unsubscriptions.add( () -> dataSource.unsubscribe( processor ) );
+    }
+
     static List<Map<String, Object>> toList(QueryResults queryResults) {
         String[] columns = queryResults.getIdentifiers();
         List<Map<String, Object>> results = new ArrayList<>(queryResults.size());
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.rules.units;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+import org.kie.kogito.rules.DataProcessor;
+import org.kie.kogito.rules.DataStream;
+
+/**
+ * Data stream retaining a bounded number of values to be replayed to late subscribers, unlike {@link ListDataStream}
+ * which retains every appended value. Values are kept in a ring buffer and evicted once more than
+ * <code>maxCount</code> values are retained or once they are older than <code>maxAge</code>.
+ * <br/>
+ * Retention only bounds the memory held by the stream, facts inserted into subscribed sessions must still be
+ * expired by the rules, for instance through <code>@expires</code> in stream mode.
+ */
+public class BoundedDataStream<T> implements DataStream<T> {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final int maxCount;
+    private final long maxAge;
+    private final LongSupplier clock;
+
+    private final List<DataProcessor<T>> subscribers = new ArrayList<>();
+
+    private Object[] values;
+    private long[] timestamps;
+    private int head;
+    private int size;
+
+    /**
+     * Creates a stream that does not replay any value to late subscribers
+     */
+    public static <T> BoundedDataStream<T> notRetaining() {
+        return new BoundedDataStream<>(0, 0L, System::currentTimeMillis);
+    }
+
+    /**
+     * Creates a stream replaying at most the last <code>count</code> values to late subscribers
+     */
+    public static <T> BoundedDataStream<T> retainingLast(int count) {
+        return new BoundedDataStream<>(count, Long.MAX_VALUE, System::currentTimeMillis);
+    }
+
+    /**
+     * Creates a stream replaying the values appended within the given duration to late subscribers
+     */
+    public static <T> BoundedDataStream<T> retainingFor(Duration duration) {
+        return new BoundedDataStream<>(Integer.MAX_VALUE, duration.toMillis(), System::currentTimeMillis);
+    }
+
+    /**
+     * @param maxCount maximum number of retained values, 0 to retain none
+     * @param maxAge maximum age in milliseconds of retained values
+     * @param clock time source in milliseconds
+     */
+    public BoundedDataStream(int maxCount, long maxAge, LongSupplier clock) {
+        if (maxCount < 0) {
+            throw new IllegalArgumentException("Retained values count must not be negative, was " + maxCount);
+        }
+        this.maxCount = maxCount;
+        this.maxAge = maxAge;
+        this.clock = clock;
+        int capacity = Math.min(maxCount, INITIAL_CAPACITY);
+        this.values = new Object[capacity];
+        this.timestamps = new long[capacity];
+    }
+
+    @Override
+    public synchronized void append(T t) {
+        retain(t, clock.getAsLong());
+        subscribers.forEach(s -> s.insert(t));
+    }
+
+    @Override
+    public synchronized void appendAll(Collection<? extends T> ts) {
+        long now = clock.getAsLong();
+        ts.forEach(t -> retain(t, now));
+        subscribers.forEach(s -> s.insertAll(ts));
+    }
+
+    @Override
+    public synchronized void subscribe(DataProcessor<T> subscriber) {
+        evictExpired(clock.getAsLong());
+        for (int i = 0; i < size; i++) {
+            subscriber.insert(valueAt(i));
+        }
+        subscribers.add(subscriber);
+    }
+
+    @Override
+    public synchronized void unsubscribe(DataProcessor<T> subscriber) {
+        subscribers.remove(subscriber);
+    }
+
+    /**
+     * Returns the number of values currently retained for late subscribers
+     */
+    public synchronized int retained() {
+        evictExpired(clock.getAsLong());
+        return size;
+    }
+
+    private void retain(T t, long now) {
+        if (maxCount == 0) {
+            return;
+        }
+        evictExpired(now);
+        if (size == maxCount) {
+            evictOldest();
+        } else if (size == values.length) {
+            grow();
+        }
+        int tail = (head + size) % values.length;
+        values[tail] = t;
+        timestamps[tail] = now;
+        size++;
+    }
+
+    private void evictExpired(long now) {
+        while (size > 0 && now - timestamps[head] > maxAge) {
+            evictOldest();
+        }
+    }
+
+    private void evictOldest() {
+        values[head] = null;
+        head = (head + 1) % values.length;
+        size--;
+    }
+
+    private void grow() {
+        int capacity = (int) Math.min((long) values.length * 2, maxCount);
+        Object[] newValues = new Object[capacity];
+        long[] newTimestamps = new long[capacity];
+        for (int i = 0; i < size; i++) {
+            int index = (head + i) % values.length;
+            newValues[i] = values[index];
+            newTimestamps[i] = timestamps[index];
+        }
+        values = newValues;
+        timestamps = newTimestamps;
+        head = 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T valueAt(int i) {
+        return (T) values[(head + i) % values.length];
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.rules.units;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.kie.kogito.rules.DataHandle;
+import org.kie.kogito.rules.units.impl.DataHandleImpl;
+
+/**
+ * Data store that can be fed by many producer threads at the same time. Inserts, updates and removals made by
+ * other threads than the one firing the rules are only enqueued, without blocking, and are applied to the subscribed
+ * sessions in the order they were enqueued when the store is drained. Rule unit instances drain the concurrent stores
+ * of their data before every fire, so all the changes made to the sessions happen on the thread firing the rules.
+ * Changes made on the thread firing the rules, e.g. by the rules themselves, are applied right away.
+ * <br/>
+ * Subscriptions must happen on the thread firing the rules. A store tracks a single firing thread, so it can only be
+ * bound to one rule unit instance at a time, binding it to another one before the first is disposed is rejected.
+ */
+public class ConcurrentDataStore<T> extends ListDataStore<T> {
+
+    private final Queue<Runnable> pending = new ConcurrentLinkedQueue<>();
+    private volatile Thread firingThread;
+    private Object owner;
+
+    @Override
+    public DataHandle add(T t) {
+        DataHandle dh = new DataHandleImpl( t );
+        apply( () -> internalAdd( dh ) );
+        return dh;
+    }
+
+    @Override
+    public void update(DataHandle handle, T object) {
+        apply( () -> internalUpdate( handle, object ) );
+    }
+
+    @Override
+    public void remove(Object object) {
+        apply( () -> {
+            DataHandle handle = internalGet( object );
+            if (handle != null) {
+                internalRemove( handle );
+            }
+        } );
+    }
+
+    @Override
+    public void remove(DataHandle handle) {
+        apply( () -> internalRemove( handle ) );
+    }
+
+    private void apply(Runnable change) {
+        if (Thread.currentThread() == firingThread) {
+            // the changes enqueued before come first
+            drain();
+            change.run();
+        } else {
+            pending.add( change );
+        }
+    }
+
+    /**
+     * Binds the store to the rule unit instance firing the rules on its subscribers
+     * @throws IllegalStateException if the store is bound to another instance
+     */
+    synchronized void bind(Object instance) {
+        if (owner != null && owner != instance) {
+            throw new IllegalStateException("Concurrent data store is already bound to another rule unit instance");
+        }
+        owner = instance;
+    }
+
+    synchronized void unbind(Object instance) {
+        if (owner == instance) {
+            owner = null;
+        }
+    }
+
+    /**
+     * Marks the current thread as the one firing the rules on the subscribed sessions
+     * @return the thread previously marked, to be restored by {@link #endFiring(Thread)}
+     */
+    Thread startFiring() {
+        Thread previous = firingThread;
+        firingThread = Thread.currentThread();
+        return previous;
+    }
+
+    void endFiring(Thread previous) {
+        firingThread = previous;
+    }
+
+    /**
+     * Applies the enqueued changes to the subscribers
+     * @return number of applied changes
+     */
+    public int drain() {
+        int drained = 0;
+        Runnable change;
+        while ((change = pending.poll()) != null) {
+            change.run();
+            drained++;
+        }
+        return drained;
+    }
+
+    /**
+     * Returns the number of changes waiting to be applied
+     */
+    public int pending() {
+        return pending.size();
+    }
+}
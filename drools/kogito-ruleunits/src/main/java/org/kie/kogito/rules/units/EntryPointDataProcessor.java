@@ -16,6 +16,7 @@
 
 package org.kie.kogito.rules.units;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -49,6 +50,13 @@ public class EntryPointDataProcessor implements DataProcessor {
         return fh;
     }
 
+    @Override
+    public void insertAll(Collection objects) {
+        for (Object object : objects) {
+            entryPoint.insert( object );
+        }
+    }
+
     public void update( DataHandle dh, Object obj, BitMask mask, Class<?> modifiedClass, Activation activation) {
         update( handles.get(dh), obj, mask, modifiedClass, activation );
     }
@@ -41,30 +41,46 @@ public class ListDataStore<T> implements DataStore<T>,
 
     public DataHandle add(T t) {
         DataHandle dh = new DataHandleImpl( t );
-        store.put(t, dh);
-        entryPointSubscribers.forEach( s -> internalInsert( dh, s ) );
-        subscribers.forEach( s -> internalInsert( dh, s ) );
+        internalAdd( dh );
         return dh;
     }
 
     @Override
     public void update(DataHandle handle, T object) {
-        entryPointSubscribers.forEach( s -> s.update( handle, handle.getObject() ) );
-        subscribers.forEach( s -> s.update( handle, object ) );
+        internalUpdate( handle, object );
     }
 
     @Override
     public void remove(Object object) {
-        remove( store.get(object) );
+        internalRemove( internalGet( object ) );
     }
 
     @Override
     public void remove(DataHandle handle) {
+        internalRemove( handle );
+    }
+
+    protected void internalAdd(DataHandle dh) {
+        store.put(dh.getObject(), dh);
+        entryPointSubscribers.forEach( s -> internalInsert( dh, s ) );
+        subscribers.forEach( s -> internalInsert( dh, s ) );
+    }
+
+    protected void internalUpdate(DataHandle handle, T object) {
+        entryPointSubscribers.forEach( s -> s.update( handle, handle.getObject() ) );
+        subscribers.forEach( s -> s.update( handle, object ) );
+    }
+
+    protected void internalRemove(DataHandle handle) {
         entryPointSubscribers.forEach( s -> s.delete( handle ) );
         subscribers.forEach( s -> s.delete( handle ) );
         store.remove( handle.getObject() );
     }
 
+    protected DataHandle internalGet(Object object) {
+        return store.get(object);
+    }
+
     @Override
     public void subscribe(DataProcessor processor) {
         if (processor instanceof EntryPointDataProcessor) {
@@ -76,6 +92,15 @@ public class ListDataStore<T> implements DataStore<T>,
         store.values().forEach( dh -> internalInsert( dh, processor ) );
     }
 
+    @Override
+    public void unsubscribe(DataProcessor processor) {
+        if (processor instanceof EntryPointDataProcessor) {
+            entryPointSubscribers.remove(processor);
+        } else {
+            subscribers.remove(processor);
+        }
+    }
+
     @Override
     public void update( KogitoInternalFactHandle fh, Object obj, BitMask mask, Class<?> modifiedClass, Activation activation) {
         DataHandle dh = ((KogitoInternalFactHandle)fh).getDataHandle();
@@ -17,6 +17,7 @@
 package org.kie.kogito.rules.units;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 import org.kie.kogito.rules.DataProcessor;
@@ -42,10 +43,21 @@ public class ListDataStream<T> implements DataStream<T> {
         subscribers.forEach(s -> s.insert(t));
     }
 
+    @Override
+    public void appendAll(Collection<? extends T> ts) {
+        values.addAll(ts);
+        subscribers.forEach(s -> s.insertAll(ts));
+    }
+
     @Override
     public void subscribe(DataProcessor subscriber) {
         subscribers.add(subscriber);
         values.forEach(subscriber::insert);
     }
 
+    @Override
+    public void unsubscribe(DataProcessor subscriber) {
+        subscribers.remove(subscriber);
+    }
+
 }
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.rules.units;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.kie.api.runtime.rule.FactHandle;
+import org.kie.kogito.rules.DataHandle;
+import org.kie.kogito.rules.DataProcessor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class BoundedDataStreamTest {
+
+    @Test
+    public void testRetainingLast() {
+        BoundedDataStream<Integer> integers = BoundedDataStream.retainingLast(20);
+        for (int i = 0; i < 100; i++) {
+            integers.append(i);
+        }
+        assertEquals(20, integers.retained());
+
+        Collector<Integer> collector = new Collector<>();
+        integers.subscribe(collector);
+        assertEquals(80, collector.values.get(0));
+        assertEquals(99, collector.values.get(19));
+
+        integers.append(100);
+        assertEquals(21, collector.values.size());
+        assertEquals(20, integers.retained());
+    }
+
+    @Test
+    public void testRetainingFor() {
+        AtomicLong clock = new AtomicLong();
+        BoundedDataStream<Integer> integers = new BoundedDataStream<>(Integer.MAX_VALUE, 10L, clock::get);
+        integers.append(1);
+        clock.set(5L);
+        integers.append(2);
+        clock.set(12L);
+
+        Collector<Integer> collector = new Collector<>();
+        integers.subscribe(collector);
+        assertEquals(Arrays.asList(2), collector.values);
+        assertEquals(1, integers.retained());
+    }
+
+    @Test
+    public void testNotRetaining() {
+        BoundedDataStream<Integer> integers = BoundedDataStream.notRetaining();
+        Collector<Integer> early = new Collector<>();
+        integers.subscribe(early);
+        integers.appendAll(Arrays.asList(1, 2, 3));
+
+        Collector<Integer> late = new Collector<>();
+        integers.subscribe(late);
+        assertEquals(Arrays.asList(1, 2, 3), early.values);
+        assertEquals(0, late.values.size());
+        assertEquals(0, integers.retained());
+    }
+
+    @Test
+    public void testAppendAll() {
+        BoundedDataStream<Integer> integers = BoundedDataStream.retainingFor(Duration.ofMinutes(1));
+        Collector<Integer> collector = new Collector<>();
+        integers.subscribe(collector);
+        integers.appendAll(Arrays.asList(1, 2, 3));
+        assertEquals(1, collector.batches);
+        assertEquals(Arrays.asList(1, 2, 3), collector.values);
+        assertEquals(3, integers.retained());
+    }
+
+    private static class Collector<T> implements DataProcessor<T> {
+
+        final List<T> values = new ArrayList<>();
+        int batches = 0;
+
+        @Override
+        public void insertAll(Collection<? extends T> objects) {
+            batches++;
+            values.addAll(objects);
+        }
+
+        @Override
+        public FactHandle insert(DataHandle handle, T object) {
+            values.add(object);
+            return null;
+        }
+
+        @Override
+        public void update(DataHandle handle, T object) {
+        }
+
+        @Override
+        public void delete(DataHandle handle) {
+        }
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.rules.units;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.kie.api.runtime.rule.FactHandle;
+import org.kie.kogito.rules.DataHandle;
+import org.kie.kogito.rules.DataProcessor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ConcurrentDataStoreTest {
+
+    private static final int PRODUCERS = 4;
+    private static final int VALUES = 1000;
+
+    @Test
+    public void testConcurrentProducers() throws Exception {
+        ConcurrentDataStore<Integer> store = new ConcurrentDataStore<>();
+        Tracker<Integer> tracker = new Tracker<>();
+        store.subscribe(tracker);
+
+        ExecutorService executor = Executors.newFixedThreadPool(PRODUCERS);
+        try {
+            List<Future<?>> producers = new ArrayList<>();
+            for (int p = 0; p < PRODUCERS; p++) {
+                int offset = p * VALUES;
+                producers.add(executor.submit(() -> {
+                    for (int i = 0; i < VALUES; i++) {
+                        store.add(offset + i);
+                    }
+                }));
+            }
+            for (Future<?> producer : producers) {
+                producer.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertTrue(tracker.values.isEmpty());
+        assertEquals(PRODUCERS * VALUES, store.pending());
+        assertEquals(PRODUCERS * VALUES, store.drain());
+        assertEquals(PRODUCERS * VALUES, tracker.values.size());
+        assertEquals(0, store.pending());
+    }
+
+    @Test
+    public void testChangesAppliedInOrder() {
+        ConcurrentDataStore<String> store = new ConcurrentDataStore<>();
+        Tracker<String> tracker = new Tracker<>();
+        store.subscribe(tracker);
+
+        String hello = "hello";
+        DataHandle handle = store.add(hello);
+        store.update(handle, hello);
+        store.add("world");
+        store.remove(hello);
+        store.drain();
+
+        assertEquals(1, tracker.updates);
+        assertEquals(1, tracker.values.size());
+        assertTrue(tracker.values.contains("world"));
+
+        Tracker<String> late = new Tracker<>();
+        store.subscribe(late);
+        assertEquals(1, late.values.size());
+    }
+
+    @Test
+    public void testChangesOnFiringThreadAppliedDirectly() throws Exception {
+        ConcurrentDataStore<String> store = new ConcurrentDataStore<>();
+        Tracker<String> tracker = new Tracker<>();
+        store.subscribe(tracker);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Thread previous = store.startFiring();
+        try {
+            executor.submit(() -> store.add("producer")).get();
+            assertEquals(1, store.pending());
+            assertTrue(tracker.values.isEmpty());
+
+            store.add("rule");
+            assertEquals(0, store.pending());
+            assertEquals(2, tracker.values.size());
+        } finally {
+            store.endFiring(previous);
+            executor.shutdownNow();
+        }
+
+        store.add("outside");
+        assertEquals(1, store.pending());
+    }
+
+    @Test
+    public void testUnsubscribedNotNotified() {
+        ConcurrentDataStore<String> store = new ConcurrentDataStore<>();
+        Tracker<String> tracker = new Tracker<>();
+        store.subscribe(tracker);
+
+        store.add("hello");
+        store.drain();
+        store.unsubscribe(tracker);
+        store.add("world");
+        store.drain();
+
+        assertEquals(1, tracker.values.size());
+        assertTrue(tracker.values.contains("hello"));
+    }
+
+    @Test
+    public void testBoundToSingleInstance() {
+        ConcurrentDataStore<String> store = new ConcurrentDataStore<>();
+        Object first = new Object();
+        Object second = new Object();
+
+        store.bind(first);
+        store.bind(first);
+        assertThrows(IllegalStateException.class, () -> store.bind(second));
+
+        store.unbind(second);
+        assertThrows(IllegalStateException.class, () -> store.bind(second));
+
+        store.unbind(first);
+        store.bind(second);
+    }
+
+    private static class Tracker<T> implements DataProcessor<T> {
+
+        final Set<Object> values = new HashSet<>();
+        final List<DataHandle> handles = new ArrayList<>();
+        int updates = 0;
+
+        @Override
+        public FactHandle insert(DataHandle handle, T object) {
+            values.add(object);
+            handles.add(handle);
+            return null;
+        }
+
+        @Override
+        public void update(DataHandle handle, T object) {
+            updates++;
+        }
+
+        @Override
+        public void delete(DataHandle handle) {
+            values.remove(handle.getObject());
+        }
+    }
+}
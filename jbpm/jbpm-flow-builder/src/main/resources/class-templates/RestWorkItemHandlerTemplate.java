@@ -1,16 +1,37 @@
 package org.jbpm.process.codegen;
 
+import io.vertx.ext.web.client.WebClientOptions;
 import io.vertx.mutiny.ext.web.client.WebClient;
 import io.vertx.mutiny.core.Vertx;
+import org.kie.kogito.conf.ConfigBean;
 import org.kogito.workitem.rest.RestWorkItemHandler;
 
 public class xxxRestWorkItemHandler extends RestWorkItemHandler {
 
     public xxxRestWorkItemHandler() {
-        this(Vertx.vertx());
+        // without dependency injection there is no config bean, the settings are read from system properties
+        this(Vertx.vertx(),
+             Integer.getInteger("kogito.rest.workitem.max-pool-size", 0),
+             Boolean.getBoolean("kogito.rest.workitem.async"),
+             Long.getLong("kogito.rest.workitem.timeout", 0L),
+             Integer.getInteger("kogito.rest.workitem.max-retries", 0),
+             Long.getLong("kogito.rest.workitem.retry-backoff", DEFAULT_RETRY_BACKOFF));
     }
 
-    public xxxRestWorkItemHandler(Vertx vertx) {
-        super(WebClient.create(vertx));
+    public xxxRestWorkItemHandler(Vertx vertx, ConfigBean configBean) {
+        this(vertx,
+             configBean.restWorkItemMaxPoolSize(),
+             configBean.restWorkItemAsync(),
+             configBean.restWorkItemTimeout(),
+             configBean.restWorkItemMaxRetries(),
+             configBean.restWorkItemRetryBackoff());
     }
-}
\ No newline at end of file
+
+    private xxxRestWorkItemHandler(Vertx vertx, int maxPoolSize, boolean async, long timeout, int maxRetries, long retryBackoff) {
+        super(WebClient.create(vertx, new WebClientOptions().setMaxPoolSize(maxPoolSize > 0 ? maxPoolSize : WebClientOptions.DEFAULT_MAX_POOL_SIZE)),
+              async,
+              timeout,
+              maxRetries,
+              retryBackoff);
+    }
+}
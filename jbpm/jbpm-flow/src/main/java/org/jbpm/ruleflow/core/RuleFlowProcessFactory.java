@@ -215,6 +215,8 @@ public class RuleFlowProcessFactory extends RuleFlowNodeContainerFactory {
         RuleFlowProcess process = getRuleFlowProcess();
         linkBoundaryEvents(process);
         postProcessNodes(process, process);
+        // the process is complete, build the event index now rather than on the first signal
+        process.getEventNodeIndex();
         return this;
     }
 
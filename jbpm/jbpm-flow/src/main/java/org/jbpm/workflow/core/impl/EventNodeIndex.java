@@ -0,0 +1,192 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jbpm.workflow.core.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.jbpm.process.core.event.BroadcastEventTypeFilter;
+import org.jbpm.process.core.event.EventFilter;
+import org.jbpm.process.core.event.EventTypeFilter;
+import org.jbpm.process.core.event.NonAcceptingEventTypeFilter;
+import org.jbpm.workflow.core.node.BoundaryEventNode;
+import org.jbpm.workflow.core.node.CompositeNode;
+import org.jbpm.workflow.core.node.EventNode;
+import org.jbpm.workflow.core.node.EventNodeInterface;
+import org.jbpm.workflow.core.node.EventSubProcessNode;
+import org.kie.api.definition.process.Node;
+
+/**
+ * Index of the top level nodes of a process that might handle a signalled event, by event type.
+ * <br/>
+ * Nodes whose accepted event types are known up front are indexed by those types, the others
+ * (e.g. event types given as expressions, broadcast filters) are candidates for every event.
+ * Candidates keep the order of the nodes in the process, they still have to be asked whether they
+ * accept the event.
+ */
+public class EventNodeIndex {
+
+    private static final String EXPRESSION_START = "#{";
+
+    private final Map<String, List<Node>> eventNodes;
+    private final List<Node> anyEventNodes;
+    private final Map<String, List<Node>> dynamicNodes;
+    private final List<Node> anyDynamicNodes;
+
+    public EventNodeIndex(Node[] nodes) {
+        List<Set<String>> eventTypes = new ArrayList<>(nodes.length);
+        List<Set<String>> names = new ArrayList<>(nodes.length);
+        for (Node node : nodes) {
+            eventTypes.add(node instanceof EventNodeInterface ? acceptedTypes(node, true) : Collections.emptySet());
+            if (node instanceof CompositeNode) {
+                names.add(null);
+            } else if (node.getIncomingConnections().isEmpty() && node.getName() != null) {
+                // nodes without incoming connections are triggered by name in dynamic processes
+                names.add(Collections.singleton(node.getName()));
+            } else {
+                names.add(Collections.emptySet());
+            }
+        }
+        this.eventNodes = index(nodes, eventTypes);
+        this.anyEventNodes = candidates(nodes, eventTypes, null);
+        this.dynamicNodes = index(nodes, names);
+        this.anyDynamicNodes = candidates(nodes, names, null);
+    }
+
+    /**
+     * Returns the nodes that might accept the given event type
+     */
+    public List<Node> getEventNodes(String type) {
+        return eventNodes.getOrDefault(type, anyEventNodes);
+    }
+
+    /**
+     * Returns the nodes of a dynamic process that might be triggered or signalled by the given event type,
+     * that is the nodes without incoming connections named after it and the composite nodes
+     */
+    public List<Node> getDynamicNodes(String type) {
+        return dynamicNodes.getOrDefault(type, anyDynamicNodes);
+    }
+
+    private static Map<String, List<Node>> index(Node[] nodes, List<Set<String>> keys) {
+        Set<String> allKeys = new HashSet<>();
+        keys.stream().filter(k -> k != null).forEach(allKeys::addAll);
+        Map<String, List<Node>> index = new HashMap<>();
+        for (String key : allKeys) {
+            index.put(key, candidates(nodes, keys, key));
+        }
+        return index;
+    }
+
+    // nodes indexed by the given key, or by none when null, along with the nodes that cannot be indexed
+    private static List<Node> candidates(Node[] nodes, List<Set<String>> keys, String key) {
+        List<Node> candidates = new ArrayList<>();
+        for (int i = 0; i < nodes.length; i++) {
+            Set<String> nodeKeys = keys.get(i);
+            if (nodeKeys == null || (key != null && nodeKeys.contains(key))) {
+                candidates.add(nodes[i]);
+            }
+        }
+        return Collections.unmodifiableList(candidates);
+    }
+
+    /**
+     * Returns the event types the given node might accept, null if they are not known up front
+     * @param resolved true if the node is asked with a resolver for the expressions in event types
+     */
+    private static Set<String> acceptedTypes(Node node, boolean resolved) {
+        if (node instanceof BoundaryEventNode && resolved) {
+            List<EventFilter> filters = ((EventNode) node).getEventFilters();
+            return union(anyFilterTypes(filters, true), allFiltersTypes(filters));
+        }
+        if (node instanceof EventNode) {
+            return allFiltersTypes(((EventNode) node).getEventFilters());
+        }
+        if (node instanceof EventSubProcessNode) {
+            return union(anyFilterTypes(((EventSubProcessNode) node).getEventTypeFilters(), resolved), innerTypes((CompositeNode) node));
+        }
+        if (node instanceof CompositeNode) {
+            return innerTypes((CompositeNode) node);
+        }
+        return null;
+    }
+
+    private static Set<String> innerTypes(CompositeNode compositeNode) {
+        Set<String> types = new HashSet<>();
+        for (Node node : compositeNode.internalGetNodes()) {
+            if (node instanceof EventNodeInterface) {
+                Set<String> nodeTypes = acceptedTypes(node, false);
+                if (nodeTypes == null) {
+                    return null;
+                }
+                types.addAll(nodeTypes);
+            }
+        }
+        return types;
+    }
+
+    // types accepted by any of the filters
+    private static Set<String> anyFilterTypes(List<? extends EventFilter> filters, boolean resolved) {
+        Set<String> types = new LinkedHashSet<>();
+        for (EventFilter filter : filters) {
+            if (filter.getClass() == NonAcceptingEventTypeFilter.class) {
+                continue;
+            }
+            boolean exact = filter.getClass() == EventTypeFilter.class || (resolved && filter.getClass() == BroadcastEventTypeFilter.class);
+            if (!exact) {
+                return null;
+            }
+            String type = ((EventTypeFilter) filter).getType();
+            if (type != null) {
+                if (resolved && type.contains(EXPRESSION_START)) {
+                    return null;
+                }
+                types.add(type);
+            }
+        }
+        return types;
+    }
+
+    // types accepted by all the filters, it is enough to find one filter accepting a single type
+    private static Set<String> allFiltersTypes(List<EventFilter> filters) {
+        for (EventFilter filter : filters) {
+            if (filter.getClass() == NonAcceptingEventTypeFilter.class) {
+                return Collections.emptySet();
+            }
+            if (filter.getClass() == EventTypeFilter.class) {
+                String type = ((EventTypeFilter) filter).getType();
+                return type == null ? Collections.emptySet() : Collections.singleton(type);
+            }
+        }
+        return null;
+    }
+
+    private static Set<String> union(Set<String> first, Set<String> second) {
+        if (first == null || second == null) {
+            return null;
+        }
+        Set<String> union = new HashSet<>(first);
+        union.addAll(second);
+        return union;
+    }
+}
@@ -48,6 +48,7 @@ public class WorkflowProcessImpl extends ProcessImpl implements WorkflowProcess,
     private boolean autoComplete = false;
     private boolean dynamic = false;
     private org.jbpm.workflow.core.NodeContainer nodeContainer;
+    private transient volatile EventNodeIndex eventNodeIndex;
     
     
     private transient BiFunction<String, ProcessInstance, String> expressionEvaluator = (expression, p) -> {
@@ -109,15 +110,30 @@ public class WorkflowProcessImpl extends ProcessImpl implements WorkflowProcess,
     }
 
     public void removeNode(final org.kie.api.definition.process.Node node) {
+        eventNodeIndex = null;
         nodeContainer.removeNode(node);
         (( Node ) node).setParentContainer(null);
     }
 
     public void addNode(final org.kie.api.definition.process.Node node) {
+        eventNodeIndex = null;
         nodeContainer.addNode(node);
         (( Node ) node).setParentContainer(this);
     }
 
+    /**
+     * Returns the index of the nodes that might handle a signalled event, built on first use
+     * after the nodes of the process changed
+     */
+    public EventNodeIndex getEventNodeIndex() {
+        EventNodeIndex index = eventNodeIndex;
+        if (index == null) {
+            index = new EventNodeIndex(getNodes());
+            eventNodeIndex = index;
+        }
+        return index;
+    }
+
     public boolean isAutoComplete() {
         return autoComplete;
     }
@@ -16,16 +16,18 @@
 
 package org.jbpm.workflow.instance.impl;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CopyOnWriteArrayList;
@@ -49,7 +51,9 @@ import org.jbpm.ruleflow.core.Metadata;
 import org.jbpm.util.PatternConstants;
 import org.jbpm.workflow.core.DroolsAction;
 import org.jbpm.workflow.core.Node;
+import org.jbpm.workflow.core.impl.EventNodeIndex;
 import org.jbpm.workflow.core.impl.NodeImpl;
+import org.jbpm.workflow.core.impl.WorkflowProcessImpl;
 import org.jbpm.workflow.core.node.ActionNode;
 import org.jbpm.workflow.core.node.BoundaryEventNode;
 import org.jbpm.workflow.core.node.CompositeNode;
@@ -119,6 +123,9 @@ public abstract class WorkflowProcessInstanceImpl extends ProcessInstanceImpl im
     private static final Logger logger = LoggerFactory.getLogger(WorkflowProcessInstanceImpl.class);
 
     private final List<NodeInstance> nodeInstances = new ArrayList<>();
+    private final Map<Long, List<NodeInstance>> nodeInstancesByNodeId = new HashMap<>();
+    // node instances of the nodes changed since the signals being dispatched started, innermost signal first
+    private final Deque<Map<Long, List<NodeInstance>>> signalViews = new ArrayDeque<>();
 
     private Map<String, List<KogitoEventListener>> eventListeners = new HashMap<>();
     private Map<String, List<KogitoEventListener>> externalEventListeners = new HashMap<>();
@@ -162,6 +169,8 @@ public abstract class WorkflowProcessInstanceImpl extends ProcessInstanceImpl im
             ((NodeInstanceImpl) nodeInstance).setId(UUID.randomUUID().toString());
         }
         this.nodeInstances.add(nodeInstance);
+        recordSignalViews(nodeInstance.getNodeId());
+        this.nodeInstancesByNodeId.computeIfAbsent(nodeInstance.getNodeId(), id -> new ArrayList<>()).add(nodeInstance);
     }
 
     @Override
@@ -190,6 +199,35 @@ public abstract class WorkflowProcessInstanceImpl extends ProcessInstanceImpl im
                     getKnowledgeRuntime().getFactHandle(nodeInstance));
         }
         this.nodeInstances.remove(nodeInstance);
+        List<NodeInstance> instances = this.nodeInstancesByNodeId.get(nodeInstance.getNodeId());
+        if (instances != null) {
+            recordSignalViews(nodeInstance.getNodeId());
+            instances.remove(nodeInstance);
+            if (instances.isEmpty()) {
+                this.nodeInstancesByNodeId.remove(nodeInstance.getNodeId());
+            }
+        }
+    }
+
+    private void recordSignalViews(long nodeId) {
+        for (Map<Long, List<NodeInstance>> view : signalViews) {
+            if (!view.containsKey(nodeId)) {
+                List<NodeInstance> instances = nodeInstancesByNodeId.get(nodeId);
+                view.put(nodeId, instances == null ? Collections.emptyList() : new ArrayList<>(instances));
+            }
+        }
+    }
+
+    /**
+     * Returns the node instances of the given node as they were when the signal being dispatched started
+     */
+    private List<NodeInstance> getSignalViewNodeInstances(long nodeId) {
+        Map<Long, List<NodeInstance>> view = signalViews.peek();
+        if (view != null && view.containsKey(nodeId)) {
+            return view.get(nodeId);
+        }
+        List<NodeInstance> instances = nodeInstancesByNodeId.get(nodeId);
+        return instances == null ? Collections.emptyList() : new ArrayList<>(instances);
     }
 
     @Override
@@ -246,8 +284,8 @@ public abstract class WorkflowProcessInstanceImpl extends ProcessInstanceImpl im
 
     @Override
     public NodeInstance getFirstNodeInstance(final long nodeId) {
-        for (final NodeInstance nodeInstance : this.nodeInstances) {
-            if (nodeInstance.getNodeId() == nodeId && nodeInstance.getLevel() == getCurrentLevel()) {
+        for (final NodeInstance nodeInstance : this.nodeInstancesByNodeId.getOrDefault(nodeId, Collections.emptyList())) {
+            if (nodeInstance.getLevel() == getCurrentLevel()) {
                 return nodeInstance;
             }
         }
@@ -255,13 +293,7 @@ public abstract class WorkflowProcessInstanceImpl extends ProcessInstanceImpl im
     }
 
     public List<NodeInstance> getNodeInstances(final long nodeId) {
-        List<NodeInstance> result = new ArrayList<>();
-        for (final NodeInstance nodeInstance : this.nodeInstances) {
-            if (nodeInstance.getNodeId() == nodeId) {
-                result.add(nodeInstance);
-            }
-        }
-        return result;
+        return new ArrayList<>(this.nodeInstancesByNodeId.getOrDefault(nodeId, Collections.emptyList()));
     }
 
     public List<NodeInstance> getNodeInstances(final long nodeId, final List<NodeInstance> currentView) {
@@ -587,8 +619,24 @@ public abstract class WorkflowProcessInstanceImpl extends ProcessInstanceImpl im
                 return;
             }
 
-            List<NodeInstance> currentView = new ArrayList<>(this.nodeInstances);
+            // only the nodes that might handle the event are visited
+            List<org.kie.api.definition.process.Node> eventNodes;
+            List<org.kie.api.definition.process.Node> dynamicNodes = null;
+            KogitoWorkflowProcess process = getWorkflowProcess();
+            if (process instanceof WorkflowProcessImpl) {
+                EventNodeIndex index = ((WorkflowProcessImpl) process).getEventNodeIndex();
+                eventNodes = index.getEventNodes(type);
+                if (((WorkflowProcessImpl) process).isDynamic()) {
+                    dynamicNodes = index.getDynamicNodes(type);
+                }
+            } else {
+                eventNodes = Arrays.asList(process.getNodes());
+                if (((org.jbpm.workflow.core.WorkflowProcess) process).isDynamic()) {
+                    dynamicNodes = eventNodes;
+                }
+            }
 
+            signalViews.push(new HashMap<>());
             try {
                 this.activatingNodeIds = new ArrayList<>();
                 List<KogitoEventListener> listeners = eventListeners.get(type);
@@ -603,9 +651,9 @@ public abstract class WorkflowProcessInstanceImpl extends ProcessInstanceImpl im
                         listener.signalEvent(type, event);
                     }
                 }
-                for (org.kie.api.definition.process.Node node : getWorkflowProcess().getNodes()) {
+                for (org.kie.api.definition.process.Node node : eventNodes) {
                     if (node instanceof EventNodeInterface
-                            && ((EventNodeInterface) node).acceptsEvent(type, event, getResolver(node, currentView))) {
+                            && ((EventNodeInterface) node).acceptsEvent(type, event, getResolver(node))) {
                         if (node instanceof EventNode && ((EventNode) node).getFrom() == null) {
                             EventNodeInstance eventNodeInstance = (EventNodeInstance) getNodeInstance(node);
                             eventNodeInstance.signalEvent(type, event);
@@ -614,18 +662,15 @@ public abstract class WorkflowProcessInstanceImpl extends ProcessInstanceImpl im
                                 EventSubProcessNodeInstance eventNodeInstance = (EventSubProcessNodeInstance) getNodeInstance(node);
                                 eventNodeInstance.signalEvent(type, event);
                             } else {
-                                List<NodeInstance> nodeInstances = getNodeInstances(node.getId(), currentView);
-                                if (nodeInstances != null && !nodeInstances.isEmpty()) {
-                                    for (NodeInstance nodeInstance : nodeInstances) {
-                                        ((EventNodeInstanceInterface) nodeInstance).signalEvent(type, event);
-                                    }
+                                for (NodeInstance nodeInstance : getSignalViewNodeInstances(node.getId())) {
+                                    ((EventNodeInstanceInterface) nodeInstance).signalEvent(type, event);
                                 }
                             }
                         }
                     }
                 }
-                if (((org.jbpm.workflow.core.WorkflowProcess) getWorkflowProcess()).isDynamic()) {
-                    for (org.kie.api.definition.process.Node node : getWorkflowProcess().getNodes()) {
+                if (dynamicNodes != null) {
+                    for (org.kie.api.definition.process.Node node : dynamicNodes) {
                         if (type.equals(node.getName()) && node.getIncomingConnections().isEmpty()) {
                             NodeInstance nodeInstance = getNodeInstance(node);
                             if (event != null) {
@@ -639,12 +684,15 @@ public abstract class WorkflowProcessInstanceImpl extends ProcessInstanceImpl im
                             }
                             nodeInstance.trigger(null, Node.CONNECTION_DEFAULT_TYPE);
                         } else if (node instanceof CompositeNode) {
-                            Optional<NodeInstance> instance = this.nodeInstances.stream().filter(ni -> ni.getNodeId() == node.getId()).findFirst();
-                            instance.ifPresent(n -> ((CompositeNodeInstance) n).signalEvent(type, event));
+                            List<NodeInstance> instances = this.nodeInstancesByNodeId.get(node.getId());
+                            if (instances != null && !instances.isEmpty()) {
+                                ((CompositeNodeInstance) instances.get(0)).signalEvent(type, event);
+                            }
                         }
                     }
                 }
             } finally {
+                signalViews.pop();
                 if (this.activatingNodeIds != null) {
                     this.activatingNodeIds.clear();
                     this.activatingNodeIds = null;
@@ -653,13 +701,13 @@ public abstract class WorkflowProcessInstanceImpl extends ProcessInstanceImpl im
         }
     }
 
-    private Function<String, String> getResolver( org.kie.api.definition.process.Node node, List<NodeInstance> currentView) {
+    private Function<String, String> getResolver( org.kie.api.definition.process.Node node) {
         if (node instanceof DynamicNode) {
             // special handling for dynamic node to allow to resolve variables from individual node instances of the dynamic node
             // instead of just relying on process instance's variables
             return e -> {
-                List<NodeInstance> nodeInstances = getNodeInstances(node.getId(), currentView);
-                if (nodeInstances != null && !nodeInstances.isEmpty()) {
+                List<NodeInstance> nodeInstances = getSignalViewNodeInstances(node.getId());
+                if (!nodeInstances.isEmpty()) {
                     StringBuilder st = new StringBuilder();
                     for (NodeInstance ni : nodeInstances) {
                         String result = resolveVariable(e, new NodeInstanceResolverFactory(ni));
@@ -750,6 +798,17 @@ public abstract class WorkflowProcessInstanceImpl extends ProcessInstanceImpl im
         }
     }
 
+    /**
+     * Returns all event types, internal and external, the process instance currently has listeners for
+     * with variable expressions already resolved
+     */
+    public Set<String> getListenedEventTypes() {
+        Set<String> types = new LinkedHashSet<>();
+        eventListeners.keySet().forEach(type -> types.add(resolveVariable(type)));
+        externalEventListeners.keySet().forEach(type -> types.add(resolveVariable(type)));
+        return types;
+    }
+
     @Override
     public String[] getEventTypes() {
         return externalEventListeners.keySet().stream().map(this::resolveVariable).collect(Collectors.toList()).toArray(new String[externalEventListeners.size()]);
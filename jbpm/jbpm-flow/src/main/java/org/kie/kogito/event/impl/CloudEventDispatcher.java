@@ -0,0 +1,375 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.event.impl;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.kie.kogito.conf.ConfigBean;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Single subscriber of an incoming event stream, routing each CloudEvent to the message consumers
+ * registered for its type or source.
+ * <br/>
+ * Only the type and source attributes of an event are read to route it, the consumers matching it bind
+ * the whole event. Consumers of plain data events receive every message.
+ * <br/>
+ * Messages are consumed one at a time on the thread delivering them, unless a concurrency greater than one
+ * is given. Messages are then consumed by that many workers, those referencing the same process instance
+ * by the same worker in the order they were received. At most the given number of messages are requested
+ * from the stream before being consumed, each consumed message requesting another one.
+ * <br/>
+ * The dispatcher is closed once all its consumers are unregistered: it cancels its subscription and
+ * waits for the workers to consume the messages already received.
+ */
+public class CloudEventDispatcher implements Subscriber<String> {
+
+    private static final Logger logger = LoggerFactory.getLogger(CloudEventDispatcher.class);
+
+    private static final String TYPE = "type";
+    private static final String SOURCE = "source";
+    private static final String REFERENCE_ID = "kogitoReferenceId";
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 10;
+
+    private static final Map<Publisher<String>, CloudEventDispatcher> DISPATCHERS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final AtomicLong registrations = new AtomicLong();
+    private final Map<String, List<Registration>> consumersByKey = new ConcurrentHashMap<>();
+    private final List<Registration> dataEventConsumers = new CopyOnWriteArrayList<>();
+    private final int maxInFlight;
+    private final ExecutorService[] workers;
+    private final AtomicLong nextWorker = new AtomicLong();
+
+    private volatile Subscription subscription;
+    private volatile boolean closed;
+
+    public CloudEventDispatcher() {
+        this(1, 0);
+    }
+
+    /**
+     * @param concurrency number of workers consuming messages, 1 or less to consume them on the delivering thread
+     * @param maxInFlight max number of messages received and not consumed yet when consuming concurrently,
+     *        at least the concurrency
+     */
+    public CloudEventDispatcher(int concurrency, int maxInFlight) {
+        if (concurrency > 1) {
+            this.maxInFlight = Math.max(maxInFlight, concurrency);
+            this.workers = new ExecutorService[concurrency];
+            for (int i = 0; i < concurrency; i++) {
+                String name = "kogito-messaging-" + i;
+                workers[i] = Executors.newSingleThreadExecutor(r -> {
+                    Thread thread = new Thread(r, name);
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            }
+        } else {
+            this.maxInFlight = 0;
+            this.workers = null;
+        }
+    }
+
+    /**
+     * Returns the dispatcher subscribed to the given event stream, subscribing a new one on first call
+     */
+    public static CloudEventDispatcher of(Publisher<String> publisher) {
+        return of(publisher, 1, 0);
+    }
+
+    /**
+     * Returns the dispatcher subscribed to the given event stream, subscribing a new one consuming messages
+     * with the given concurrency on first call
+     */
+    public static CloudEventDispatcher of(Publisher<String> publisher, int concurrency, int maxInFlight) {
+        return DISPATCHERS.computeIfAbsent(publisher, p -> {
+            CloudEventDispatcher dispatcher = new CloudEventDispatcher(concurrency, maxInFlight);
+            p.subscribe(dispatcher);
+            return dispatcher;
+        });
+    }
+
+    /**
+     * Registers a message consumer on the event stream, consuming messages as configured
+     * @param routingKeys event types or sources the consumer accepts, used only for CloudEvents
+     * @return the registration of the consumer, to be closed when the consumer is destroyed
+     */
+    public static Registration subscribe(Publisher<String> publisher, ConfigBean config, Consumer<String> consumer, String... routingKeys) {
+        CloudEventDispatcher dispatcher = of(publisher, config.messagingConcurrency(), config.messagingMaxInFlight());
+        if (config.useCloudEvents().orElse(true)) {
+            return dispatcher.register(consumer, routingKeys);
+        }
+        return dispatcher.registerDataEventConsumer(consumer);
+    }
+
+    /**
+     * Registers a message consumer on the event stream
+     * @param useCloudEvents whether the messages are CloudEvents, true if empty
+     * @param routingKeys event types or sources the consumer accepts, used only for CloudEvents
+     * @return the registration of the consumer, to be closed when the consumer is destroyed
+     */
+    public static Registration subscribe(Publisher<String> publisher, Optional<Boolean> useCloudEvents, Consumer<String> consumer, String... routingKeys) {
+        CloudEventDispatcher dispatcher = of(publisher);
+        if (useCloudEvents.orElse(true)) {
+            return dispatcher.register(consumer, routingKeys);
+        }
+        return dispatcher.registerDataEventConsumer(consumer);
+    }
+
+    public Registration register(Consumer<String> consumer, String... routingKeys) {
+        Registration registration = new Registration(this, registrations.incrementAndGet(), consumer);
+        for (String key : routingKeys) {
+            List<Registration> consumers = consumersByKey.computeIfAbsent(key, k -> new CopyOnWriteArrayList<>());
+            if (!consumers.contains(registration)) {
+                consumers.add(registration);
+            }
+        }
+        return registration;
+    }
+
+    public Registration registerDataEventConsumer(Consumer<String> consumer) {
+        Registration registration = new Registration(this, registrations.incrementAndGet(), consumer);
+        dataEventConsumers.add(registration);
+        return registration;
+    }
+
+    private synchronized void unregister(Registration registration) {
+        dataEventConsumers.remove(registration);
+        for (String key : consumersByKey.keySet()) {
+            consumersByKey.computeIfPresent(key, (k, consumers) -> {
+                consumers.remove(registration);
+                return consumers.isEmpty() ? null : consumers;
+            });
+        }
+        if (dataEventConsumers.isEmpty() && consumersByKey.isEmpty()) {
+            close();
+        }
+    }
+
+    /**
+     * Stops receiving messages and waits for the workers to consume those already received
+     */
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        synchronized (DISPATCHERS) {
+            DISPATCHERS.values().remove(this);
+        }
+        if (subscription != null) {
+            subscription.cancel();
+        }
+        if (workers == null) {
+            return;
+        }
+        for (ExecutorService worker : workers) {
+            worker.shutdown();
+        }
+        try {
+            for (ExecutorService worker : workers) {
+                if (!worker.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                    logger.warn("Messages not consumed within {} seconds on shutdown, interrupting their consumers", SHUTDOWN_TIMEOUT_SECONDS);
+                    worker.shutdownNow();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            for (ExecutorService worker : workers) {
+                worker.shutdownNow();
+            }
+        }
+    }
+
+    @Override
+    public void onSubscribe(Subscription subscription) {
+        this.subscription = subscription;
+        subscription.request(workers == null ? Long.MAX_VALUE : maxInFlight);
+    }
+
+    @Override
+    public void onNext(String payload) {
+        if (workers == null) {
+            dispatch(payload, consumersByKey.isEmpty() ? null : readEnvelope(payload, false));
+            return;
+        }
+        Envelope envelope = consumersByKey.isEmpty() ? null : readEnvelope(payload, true);
+        try {
+            worker(envelope == null ? null : envelope.referenceId).execute(() -> {
+                try {
+                    dispatch(payload, envelope);
+                } finally {
+                    // the message has been consumed and its unit of work completed
+                    subscription.request(1);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            logger.warn("Ignoring message received after the dispatcher was closed '{}'", payload);
+        }
+    }
+
+    private ExecutorService worker(String referenceId) {
+        if (referenceId == null || referenceId.isEmpty()) {
+            return workers[(int) (nextWorker.getAndIncrement() % workers.length)];
+        }
+        return workers[Math.floorMod(referenceId.hashCode(), workers.length)];
+    }
+
+    private void dispatch(String payload, Envelope envelope) {
+        for (Registration registration : dataEventConsumers) {
+            deliver(registration, payload);
+        }
+        if (consumersByKey.isEmpty()) {
+            return;
+        }
+        if (envelope == null) {
+            logger.warn("Ignoring payload which is not a CloudEvent '{}'", payload);
+            return;
+        }
+        List<Registration> consumers = route(envelope.type, envelope.source);
+        if (consumers.isEmpty()) {
+            logger.warn("No consumer for CloudEvent type '{}', source '{}': ignoring message", envelope.type, envelope.source);
+            return;
+        }
+        for (Registration registration : consumers) {
+            deliver(registration, payload);
+        }
+    }
+
+    @Override
+    public void onError(Throwable t) {
+        logger.error("Incoming event stream failed", t);
+    }
+
+    @Override
+    public void onComplete() {
+        logger.debug("Incoming event stream completed");
+    }
+
+    private List<Registration> route(String type, String source) {
+        List<Registration> byType = type == null ? null : consumersByKey.get(type);
+        List<Registration> bySource = source == null || source.equals(type) ? null : consumersByKey.get(source);
+        if (bySource == null || bySource.isEmpty()) {
+            return byType == null ? Collections.emptyList() : byType;
+        }
+        if (byType == null || byType.isEmpty()) {
+            return bySource;
+        }
+        List<Registration> consumers = new ArrayList<>(byType);
+        for (Registration registration : bySource) {
+            if (!consumers.contains(registration)) {
+                consumers.add(registration);
+            }
+        }
+        // keep the registration order
+        consumers.sort((first, second) -> Long.compare(first.order, second.order));
+        return consumers;
+    }
+
+    private void deliver(Registration registration, String payload) {
+        try {
+            registration.consumer.accept(payload);
+        } catch (RuntimeException e) {
+            logger.error("Consumer failed processing message '{}'", payload, e);
+        }
+    }
+
+    /**
+     * Reads the type and source of a CloudEvent, skipping the other attributes and the data
+     * @param withReferenceId true to read the referenced process instance too
+     * @return the attributes read, null if the payload is not a JSON object
+     */
+    Envelope readEnvelope(String payload, boolean withReferenceId) {
+        Envelope envelope = new Envelope();
+        try (JsonParser parser = jsonFactory.createParser(payload)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            while (!envelope.isComplete(withReferenceId) && parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if (value != JsonToken.VALUE_STRING) {
+                    parser.skipChildren();
+                } else if (TYPE.equals(field)) {
+                    envelope.type = parser.getText();
+                } else if (SOURCE.equals(field)) {
+                    envelope.source = parser.getText();
+                } else if (withReferenceId && REFERENCE_ID.equals(field)) {
+                    envelope.referenceId = parser.getText();
+                }
+            }
+        } catch (IOException e) {
+            logger.debug("Unable to read CloudEvent attributes", e);
+            return null;
+        }
+        return envelope;
+    }
+
+    static class Envelope {
+
+        String type;
+        String source;
+        String referenceId;
+
+        private boolean isComplete(boolean withReferenceId) {
+            return type != null && source != null && (!withReferenceId || referenceId != null);
+        }
+    }
+
+    /**
+     * Registration of a message consumer, closing it unregisters the consumer
+     */
+    public static class Registration implements AutoCloseable {
+
+        private final CloudEventDispatcher dispatcher;
+        private final long order;
+        private final Consumer<String> consumer;
+
+        private Registration(CloudEventDispatcher dispatcher, long order, Consumer<String> consumer) {
+            this.dispatcher = dispatcher;
+            this.order = order;
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void close() {
+            dispatcher.unregister(this);
+        }
+    }
+}
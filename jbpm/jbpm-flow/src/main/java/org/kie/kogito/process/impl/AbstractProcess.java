@@ -18,8 +18,13 @@ package org.kie.kogito.process.impl;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
+import org.jbpm.process.core.event.EventFilter;
+import org.jbpm.process.core.event.EventTypeFilter;
 import org.jbpm.process.core.timer.DateTimeUtils;
 import org.jbpm.process.core.timer.Timer;
 import org.jbpm.process.instance.InternalProcessRuntime;
@@ -28,7 +33,11 @@ import org.jbpm.process.instance.LightProcessRuntimeContext;
 import org.jbpm.process.instance.LightProcessRuntimeServiceProvider;
 import org.jbpm.process.instance.ProcessRuntimeServiceProvider;
 import org.jbpm.workflow.core.impl.WorkflowProcessImpl;
+import org.jbpm.workflow.core.node.BoundaryEventNode;
+import org.jbpm.workflow.core.node.DynamicNode;
+import org.jbpm.workflow.core.node.EventNode;
 import org.jbpm.workflow.core.node.StartNode;
+import org.kie.api.definition.process.Node;
 import org.kie.api.runtime.process.EventListener;
 import org.kie.api.runtime.process.WorkflowProcessInstance;
 import org.kie.kogito.Application;
@@ -63,6 +72,8 @@ public abstract class AbstractProcess<T extends Model> implements Process<T> {
     protected boolean activated;
     protected List<String> startTimerInstances = new ArrayList<>();
     protected KogitoProcessRuntime processRuntime;
+    // event types accepted by the definition regardless of listeners, empty when every signal is broadcast
+    private Optional<Set<String>> definitionEventTypes;
 
     protected AbstractProcess() {
         this(new LightProcessRuntimeServiceProvider());
@@ -125,7 +136,47 @@ public abstract class AbstractProcess<T extends Model> implements Process<T> {
 
     @Override
     public <S> void send(Signal<S> signal) {
-        instances().values(ProcessInstanceReadMode.MUTABLE).forEach(pi -> pi.send(signal));
+        Optional<Collection<String>> waiting = isBroadcast(signal.channel()) ? Optional.empty() : instances.waitingFor(signal.channel());
+        if (waiting.isPresent()) {
+            for (String id : waiting.get()) {
+                instances.findById(id, ProcessInstanceReadMode.MUTABLE).ifPresent(pi -> pi.send(signal));
+            }
+        } else {
+            instances().values(ProcessInstanceReadMode.MUTABLE).forEach(pi -> pi.send(signal));
+        }
+    }
+
+    /**
+     * Boundary events and event nodes without incoming connections are triggered from the definition without
+     * registering any listener on the instance, signals of such types (or of any type in dynamic processes) are
+     * delivered to every instance.
+     */
+    protected boolean isBroadcast(String eventType) {
+        if (definitionEventTypes == null) {
+            definitionEventTypes = collectDefinitionEventTypes();
+        }
+        return !definitionEventTypes.isPresent() || definitionEventTypes.get().contains(eventType);
+    }
+
+    private Optional<Set<String>> collectDefinitionEventTypes() {
+        if (!(process() instanceof WorkflowProcessImpl) || ((WorkflowProcessImpl) process()).isDynamic()) {
+            return Optional.empty();
+        }
+        Set<String> types = new HashSet<>();
+        for (Node node : ((WorkflowProcessImpl) process()).getNodesRecursively()) {
+            if (node instanceof DynamicNode) {
+                return Optional.empty();
+            }
+            if (node instanceof BoundaryEventNode || (node instanceof EventNode && ((EventNode) node).getFrom() == null)) {
+                for (EventFilter filter : ((EventNode) node).getEventFilters()) {
+                    if (!(filter instanceof EventTypeFilter) || ((EventTypeFilter) filter).getType().contains("#{")) {
+                        return Optional.empty();
+                    }
+                    types.add(((EventTypeFilter) filter).getType());
+                }
+            }
+        }
+        return Optional.of(types);
     }
 
     public Process<T> configure() {
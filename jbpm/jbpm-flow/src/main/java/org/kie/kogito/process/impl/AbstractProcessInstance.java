@@ -75,6 +75,8 @@ public abstract class AbstractProcessInstance<T extends Model> implements Proces
     protected String id;
     protected CorrelationKey correlationKey;
     protected String description;
+    // version of the stored process instance this instance is based on, zero when unknown
+    protected long version;
 
     protected ProcessError processError;
 
@@ -178,6 +180,18 @@ public abstract class AbstractProcessInstance<T extends Model> implements Proces
         return processInstance;
     }
 
+    /**
+     * Version of the stored process instance this instance was loaded from, used by stores to detect
+     * concurrent updates. Meaning of the value is up to the store, zero means the version is not known.
+     */
+    public long version() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
     public void internalRemoveProcessInstance(Supplier<WorkflowProcessInstance> reloadSupplier) {
         this.reloadSupplier = reloadSupplier;
         this.status = processInstance.getState();
@@ -435,6 +449,14 @@ public abstract class AbstractProcessInstance<T extends Model> implements Proces
         removeOnFinish();
     }
 
+    /**
+     * Returns the event types the process instance currently listens to, stores use it to keep track of the
+     * instances a signal has to be delivered to
+     */
+    public Set<String> listenedEventTypes() {
+        return ((WorkflowProcessInstanceImpl) processInstance()).getListenedEventTypes();
+    }
+
     @Override
     public Set<EventDescription<?>> events() {
         return processInstance().getEventDescriptions();
@@ -27,6 +27,7 @@ import org.kie.kogito.process.ProcessInstanceReadMode;
 class MapProcessInstances<T> implements MutableProcessInstances<T> {
 
     private final ConcurrentHashMap<String, ProcessInstance<T>> instances = new ConcurrentHashMap<>();
+    private final ProcessInstanceEventIndex eventIndex = new ProcessInstanceEventIndex();
 
     @Override
     public Integer size() {
@@ -50,6 +51,7 @@ class MapProcessInstances<T> implements MutableProcessInstances<T> {
             if (existing != null) {
                 throw new ProcessInstanceDuplicatedException(id);
             }
+            eventIndex.update(id, ProcessInstanceEventIndex.eventTypesOf(instance));
         }
     }
 
@@ -57,16 +59,23 @@ class MapProcessInstances<T> implements MutableProcessInstances<T> {
     public void update(String id, ProcessInstance<T> instance) {
         if (isActive(instance)) {
             instances.put(id, instance);
+            eventIndex.update(id, ProcessInstanceEventIndex.eventTypesOf(instance));
         }
     }
 
     @Override
     public void remove(String id) {
         instances.remove(id);
+        eventIndex.remove(id);
     }
 
     @Override
     public boolean exists(String id) {
         return instances.containsKey(id);
     }
+
+    @Override
+    public Optional<Collection<String>> waitingFor(String eventType) {
+        return Optional.of(eventIndex.find(eventType));
+    }
 }
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.kie.kogito.process.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.kie.kogito.process.ProcessInstance;
+
+/**
+ * In memory reverse index from event type to the ids of the process instances that currently listen to it.
+ * Stores keep it up to date whenever a process instance is created, updated or removed so that signals are only
+ * delivered to the instances waiting for them.
+ */
+public class ProcessInstanceEventIndex {
+
+    private final Map<String, Set<String>> idsByType = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> typesById = new ConcurrentHashMap<>();
+
+    public static Set<String> eventTypesOf(ProcessInstance<?> instance) {
+        if (instance instanceof AbstractProcessInstance) {
+            return ((AbstractProcessInstance<?>) instance).listenedEventTypes();
+        }
+        return Collections.emptySet();
+    }
+
+    public synchronized void update(String id, Collection<String> types) {
+        Set<String> current = new LinkedHashSet<>(types);
+        Set<String> previous = typesById.put(id, current);
+        if (previous != null) {
+            for (String type : previous) {
+                if (!current.contains(type)) {
+                    removeId(type, id);
+                }
+            }
+        }
+        for (String type : current) {
+            idsByType.computeIfAbsent(type, t -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+    }
+
+    public synchronized void remove(String id) {
+        Set<String> previous = typesById.remove(id);
+        if (previous != null) {
+            for (String type : previous) {
+                removeId(type, id);
+            }
+        }
+    }
+
+    /**
+     * Returns a snapshot of the ids of the process instances listening to the given event type
+     */
+    public Collection<String> find(String type) {
+        Set<String> ids = idsByType.get(type);
+        return ids == null ? Collections.emptyList() : new ArrayList<>(ids);
+    }
+
+    public Set<String> typesOf(String id) {
+        return typesById.getOrDefault(id, Collections.emptySet());
+    }
+
+    private void removeId(String type, String id) {
+        idsByType.computeIfPresent(type, (t, ids) -> {
+            ids.remove(id);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+}
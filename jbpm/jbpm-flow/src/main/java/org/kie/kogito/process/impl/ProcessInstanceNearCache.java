@@ -0,0 +1,157 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.process.impl;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.jbpm.workflow.instance.WorkflowProcessInstance;
+
+/**
+ * Size and time bounded cache of hydrated process instances that remote stores keep in front of unmarshalling.
+ * Entries are keyed by process instance id and the version of the stored instance, so an instance changed by
+ * another node is never served from the cache.
+ * <br/>
+ * Process instances are mutable, so a cached instance is handed out to a single mutating caller only: a successful
+ * lookup removes it from the cache and the store puts it back once the instance is stored again. Read only callers
+ * never use the cache, they unmarshall their own copy of the instance.
+ */
+public class ProcessInstanceNearCache {
+
+    public static final long DEFAULT_TTL = 60_000L;
+
+    private static final Statistics STATISTICS = new Statistics();
+
+    private final int maxSize;
+    private final long ttl;
+
+    private final Map<String, Entry> entries;
+
+    public ProcessInstanceNearCache(int maxSize) {
+        this(maxSize, DEFAULT_TTL);
+    }
+
+    public ProcessInstanceNearCache(int maxSize, long ttl) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Near cache size must be positive, was " + maxSize);
+        }
+        this.maxSize = maxSize;
+        this.ttl = ttl;
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > ProcessInstanceNearCache.this.maxSize) {
+                    STATISTICS.evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns statistics aggregated over all near caches
+     */
+    public static Statistics statistics() {
+        return STATISTICS;
+    }
+
+    /**
+     * Computes the version of a stored process instance from its marshalled form
+     */
+    public static long version(byte[] data) {
+        // 64 bit FNV-1a
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : data) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * Removes and returns the cached process instance if it matches the given version and has not expired
+     * @return cached process instance or null
+     */
+    public synchronized WorkflowProcessInstance take(String id, long version) {
+        Entry entry = entries.remove(id);
+        if (entry == null) {
+            STATISTICS.misses.increment();
+            return null;
+        }
+        if (System.currentTimeMillis() - entry.timestamp > ttl) {
+            STATISTICS.evictions.increment();
+            STATISTICS.misses.increment();
+            return null;
+        }
+        if (entry.version != version) {
+            STATISTICS.misses.increment();
+            return null;
+        }
+        STATISTICS.hits.increment();
+        return entry.instance;
+    }
+
+    public synchronized void put(String id, long version, WorkflowProcessInstance instance) {
+        if (instance != null) {
+            entries.put(id, new Entry(version, instance, System.currentTimeMillis()));
+        }
+    }
+
+    public synchronized void invalidate(String id) {
+        entries.remove(id);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public static class Statistics {
+
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder evictions = new LongAdder();
+
+        public long hits() {
+            return hits.sum();
+        }
+
+        public long misses() {
+            return misses.sum();
+        }
+
+        public long evictions() {
+            return evictions.sum();
+        }
+    }
+
+    private static class Entry {
+
+        private final long version;
+        private final WorkflowProcessInstance instance;
+        private final long timestamp;
+
+        private Entry(long version, WorkflowProcessInstance instance, long timestamp) {
+            this.version = version;
+            this.instance = instance;
+            this.timestamp = timestamp;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jbpm.workflow.core.impl;
+
+import org.jbpm.process.core.event.BroadcastEventTypeFilter;
+import org.jbpm.process.core.event.EventTypeFilter;
+import org.jbpm.ruleflow.core.RuleFlowProcess;
+import org.jbpm.workflow.core.node.ActionNode;
+import org.jbpm.workflow.core.node.BoundaryEventNode;
+import org.jbpm.workflow.core.node.CompositeNode;
+import org.jbpm.workflow.core.node.EventNode;
+import org.jbpm.workflow.core.node.EventSubProcessNode;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EventNodeIndexTest {
+
+    @Test
+    public void testEventNodesIndexedByType() {
+        RuleFlowProcess process = new RuleFlowProcess();
+        ActionNode action = node(new ActionNode(), 1, "action");
+        EventNode expression = eventNode(new BoundaryEventNode(), 2, new EventTypeFilter(), "#{signalName}");
+        EventNode first = eventNode(new EventNode(), 3, new EventTypeFilter(), "first");
+        EventNode broadcast = eventNode(new EventNode(), 4, new BroadcastEventTypeFilter(), "Escalation");
+        EventSubProcessNode subProcess = node(new EventSubProcessNode(), 5, "subProcess");
+        subProcess.addEvent(filter(new EventTypeFilter(), "Message-second"));
+        CompositeNode composite = node(new CompositeNode(), 6, "composite");
+        composite.addNode(eventNode(new EventNode(), 7, new EventTypeFilter(), "#{inner}"));
+        process.addNode(action);
+        process.addNode(expression);
+        process.addNode(first);
+        process.addNode(broadcast);
+        process.addNode(subProcess);
+        process.addNode(composite);
+
+        EventNodeIndex index = process.getEventNodeIndex();
+        assertThat(index.getEventNodes("first")).containsExactly(expression, first, broadcast);
+        assertThat(index.getEventNodes("Message-second")).containsExactly(expression, broadcast, subProcess);
+        // inner nodes are asked without resolving the expressions
+        assertThat(index.getEventNodes("#{inner}")).containsExactly(expression, broadcast, composite);
+        assertThat(index.getEventNodes("unknown")).containsExactly(expression, broadcast);
+    }
+
+    @Test
+    public void testIndexRebuiltWhenNodesChange() {
+        RuleFlowProcess process = new RuleFlowProcess();
+        process.addNode(eventNode(new EventNode(), 1, new EventTypeFilter(), "first"));
+        assertThat(process.getEventNodeIndex().getEventNodes("second")).isEmpty();
+
+        EventNode second = eventNode(new EventNode(), 2, new EventTypeFilter(), "second");
+        process.addNode(second);
+        assertThat(process.getEventNodeIndex().getEventNodes("second")).containsExactly(second);
+    }
+
+    @Test
+    public void testDynamicNodes() {
+        RuleFlowProcess process = new RuleFlowProcess();
+        ActionNode adHoc = node(new ActionNode(), 1, "adHoc");
+        CompositeNode composite = node(new CompositeNode(), 2, "composite");
+        process.addNode(adHoc);
+        process.addNode(composite);
+
+        EventNodeIndex index = process.getEventNodeIndex();
+        assertThat(index.getDynamicNodes("adHoc")).containsExactly(adHoc, composite);
+        assertThat(index.getDynamicNodes("other")).containsExactly(composite);
+    }
+
+    private static <T extends NodeImpl> T node(T node, long id, String name) {
+        node.setId(id);
+        node.setName(name);
+        return node;
+    }
+
+    private static EventNode eventNode(EventNode node, long id, EventTypeFilter filter, String type) {
+        node(node, id, type);
+        node.addEventFilter(filter(filter, type));
+        return node;
+    }
+
+    private static EventTypeFilter filter(EventTypeFilter filter, String type) {
+        filter.setType(type);
+        return filter;
+    }
+}
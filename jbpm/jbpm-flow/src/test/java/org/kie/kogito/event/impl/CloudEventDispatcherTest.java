@@ -0,0 +1,229 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.event.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CloudEventDispatcherTest {
+
+    private TestPublisher publisher;
+    private List<String> first;
+    private List<String> second;
+    private List<String> data;
+
+    @BeforeEach
+    void setup() {
+        publisher = new TestPublisher();
+        first = new ArrayList<>();
+        second = new ArrayList<>();
+        data = new ArrayList<>();
+        CloudEventDispatcher.subscribe(publisher, Optional.empty(), first::add, "FirstDataEvent", "first");
+        CloudEventDispatcher.subscribe(publisher, Optional.of(true), second::add, "SecondDataEvent", "second");
+    }
+
+    @Test
+    void testSingleSubscription() {
+        CloudEventDispatcher.subscribe(publisher, Optional.of(false), data::add);
+        assertThat(publisher.subscribers).hasSize(1);
+        assertThat(CloudEventDispatcher.of(publisher)).isSameAs(publisher.subscribers.get(0));
+    }
+
+    @Test
+    void testRoutedByTypeOrSource() {
+        String byType = event("first", "/process/other");
+        String bySource = event("other", "second");
+        String both = event("first", "SecondDataEvent");
+        publisher.emit(byType);
+        publisher.emit(bySource);
+        publisher.emit(both);
+        publisher.emit(event("unknown", ""));
+
+        assertThat(first).containsExactly(byType, both);
+        assertThat(second).containsExactly(bySource, both);
+    }
+
+    @Test
+    void testDataEventConsumersReceiveEverything() {
+        CloudEventDispatcher.subscribe(publisher, Optional.of(false), data::add);
+        publisher.emit("{\"dummyField\":\"pepe\"}");
+        publisher.emit("not json");
+
+        assertThat(data).containsExactly("{\"dummyField\":\"pepe\"}", "not json");
+        assertThat(first).isEmpty();
+        assertThat(second).isEmpty();
+    }
+
+    @Test
+    void testFailingConsumerDoesNotStopDispatching() {
+        CloudEventDispatcher.of(publisher).register(payload -> {
+            throw new IllegalStateException("failure");
+        }, "first");
+        String event = event("first", "");
+        publisher.emit(event);
+        publisher.emit(event);
+
+        assertThat(first).containsExactly(event, event);
+    }
+
+    @Test
+    void testReadEnvelopeSkipsData() {
+        CloudEventDispatcher.Envelope envelope = new CloudEventDispatcher().readEnvelope(
+                "{\"data\":{\"type\":\"nested\",\"list\":[1,{\"source\":\"x\"}]},\"specversion\":\"1.0\",\"source\":\"/process\",\"type\":\"first\",\"kogitoReferenceId\":\"pi-1\"}",
+                true);
+        assertThat(envelope.type).isEqualTo("first");
+        assertThat(envelope.source).isEqualTo("/process");
+        assertThat(envelope.referenceId).isEqualTo("pi-1");
+        assertThat(new CloudEventDispatcher().readEnvelope("[1]", false)).isNull();
+    }
+
+    @Test
+    void testConcurrentConsumptionKeepsOrderPerProcessInstance() throws InterruptedException {
+        int messages = 400;
+        CountDownLatch consumed = new CountDownLatch(messages);
+        Map<String, List<Integer>> received = new ConcurrentHashMap<>();
+        CloudEventDispatcher dispatcher = new CloudEventDispatcher(4, 16);
+        TestPublisher concurrentPublisher = new TestPublisher();
+        concurrentPublisher.subscribe(dispatcher);
+        dispatcher.register(payload -> {
+            String[] referenceAndSequence = payload.substring(payload.indexOf("\"subject\":\"") + 11, payload.lastIndexOf('"')).split("/");
+            received.computeIfAbsent(referenceAndSequence[0], k -> new CopyOnWriteArrayList<>()).add(Integer.valueOf(referenceAndSequence[1]));
+            consumed.countDown();
+        }, "first");
+        assertThat(concurrentPublisher.requested.get()).isEqualTo(16);
+
+        for (int i = 0; i < messages; i++) {
+            String reference = "pi-" + (i % 10);
+            concurrentPublisher.emit("{\"type\":\"first\",\"source\":\"\",\"kogitoReferenceId\":\"" + reference + "\",\"subject\":\"" + reference + "/" + i + "\"}");
+        }
+
+        assertThat(consumed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(received).hasSize(10);
+        received.values().forEach(sequence -> assertThat(sequence).isSorted());
+        // every consumed message requests another one
+        long deadline = System.currentTimeMillis() + 5000;
+        while (concurrentPublisher.requested.get() < 16L + messages && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(concurrentPublisher.requested.get()).isEqualTo(16L + messages);
+    }
+
+    @Test
+    void testClosedWhenAllConsumersUnregistered() {
+        CloudEventDispatcher dispatcher = CloudEventDispatcher.of(publisher);
+        CloudEventDispatcher.Registration third = CloudEventDispatcher.subscribe(publisher, Optional.of(false), data::add);
+        third.close();
+        assertThat(publisher.cancelled).isFalse();
+
+        // consumers registered in setup
+        dispatcher.close();
+        assertThat(publisher.cancelled).isTrue();
+        assertThat(CloudEventDispatcher.of(publisher)).isNotSameAs(dispatcher);
+    }
+
+    @Test
+    void testUnregisteredConsumerNotCalled() {
+        TestPublisher otherPublisher = new TestPublisher();
+        List<String> kept = new ArrayList<>();
+        CloudEventDispatcher.Registration removed = CloudEventDispatcher.subscribe(otherPublisher, Optional.empty(), data::add, "first");
+        CloudEventDispatcher.Registration remaining = CloudEventDispatcher.subscribe(otherPublisher, Optional.empty(), kept::add, "first");
+        removed.close();
+        String event = event("first", "");
+        otherPublisher.emit(event);
+
+        assertThat(data).isEmpty();
+        assertThat(kept).containsExactly(event);
+        assertThat(otherPublisher.cancelled).isFalse();
+        remaining.close();
+        assertThat(otherPublisher.cancelled).isTrue();
+    }
+
+    @Test
+    void testCloseDrainsReceivedMessages() {
+        int messages = 50;
+        List<String> consumed = new CopyOnWriteArrayList<>();
+        CloudEventDispatcher dispatcher = new CloudEventDispatcher(2, 0);
+        TestPublisher concurrentPublisher = new TestPublisher();
+        concurrentPublisher.subscribe(dispatcher);
+        // max in flight defaults to the concurrency
+        assertThat(concurrentPublisher.requested.get()).isEqualTo(2);
+        CloudEventDispatcher.Registration registration = dispatcher.register(payload -> {
+            try {
+                Thread.sleep(1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            consumed.add(payload);
+        }, "first");
+        for (int i = 0; i < messages; i++) {
+            concurrentPublisher.emit(event("first", ""));
+        }
+
+        registration.close();
+        assertThat(concurrentPublisher.cancelled).isTrue();
+        assertThat(consumed).hasSize(messages);
+        // ignored once closed
+        concurrentPublisher.emit(event("first", ""));
+        assertThat(consumed).hasSize(messages);
+    }
+
+    private static String event(String type, String source) {
+        return "{\"specversion\":\"1.0\",\"id\":\"1\",\"source\":\"" + source + "\",\"type\":\"" + type + "\",\"data\":{\"dummyField\":\"pepe\"}}";
+    }
+
+    private static class TestPublisher implements Publisher<String> {
+
+        private final List<Subscriber<? super String>> subscribers = new ArrayList<>();
+        private final AtomicLong requested = new AtomicLong();
+        private volatile boolean cancelled;
+
+        @Override
+        public void subscribe(Subscriber<? super String> subscriber) {
+            subscribers.add(subscriber);
+            subscriber.onSubscribe(new Subscription() {
+                @Override
+                public void request(long n) {
+                    requested.addAndGet(n);
+                }
+
+                @Override
+                public void cancel() {
+                    cancelled = true;
+                }
+            });
+        }
+
+        void emit(String payload) {
+            subscribers.forEach(s -> s.onNext(payload));
+        }
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.process.impl;
+
+import java.util.Collections;
+import java.util.Optional;
+
+import org.jbpm.process.core.event.EventTypeFilter;
+import org.jbpm.process.instance.ProcessRuntimeServiceProvider;
+import org.jbpm.ruleflow.core.RuleFlowProcess;
+import org.jbpm.workflow.core.node.BoundaryEventNode;
+import org.jbpm.workflow.core.node.EventNode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kie.api.runtime.process.WorkflowProcessInstance;
+import org.kie.kogito.Model;
+import org.kie.kogito.process.MutableProcessInstances;
+import org.kie.kogito.process.ProcessInstance;
+import org.kie.kogito.process.ProcessInstanceReadMode;
+import org.kie.kogito.process.Signal;
+import org.kie.kogito.process.impl.AbstractProcessInstanceTest.TestModel;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class AbstractProcessTest {
+
+    private RuleFlowProcess definition;
+    private MutableProcessInstances<TestModel> instances;
+    private TestProcess process;
+
+    @SuppressWarnings("unchecked")
+    @BeforeEach
+    public void setup() {
+        definition = new RuleFlowProcess();
+        definition.setId("test");
+        instances = mock(MutableProcessInstances.class);
+        process = new TestProcess(definition);
+        process.instances = instances;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testSendToWaitingInstancesOnly() {
+        ProcessInstance<TestModel> waiting = mock(ProcessInstance.class);
+        when(instances.waitingFor("approval")).thenReturn(Optional.of(Collections.singletonList("1")));
+        when(instances.findById("1", ProcessInstanceReadMode.MUTABLE)).thenReturn(Optional.of(waiting));
+
+        Signal<String> signal = Sig.of("approval", "ok");
+        process.send(signal);
+
+        verify(waiting).send(signal);
+        verify(instances, never()).values(any());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testSendToAllInstancesWithoutIndex() {
+        ProcessInstance<TestModel> instance = mock(ProcessInstance.class);
+        when(instances.waitingFor("approval")).thenReturn(Optional.empty());
+        when(instances.values(ProcessInstanceReadMode.MUTABLE)).thenReturn(Collections.singletonList(instance));
+
+        Signal<String> signal = Sig.of("approval", "ok");
+        process.send(signal);
+
+        verify(instance).send(signal);
+        verify(instances, never()).findById(anyString(), any());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testSendBroadcastsTypesTriggeredByDefinition() {
+        ProcessInstance<TestModel> instance = mock(ProcessInstance.class);
+        when(instances.values(ProcessInstanceReadMode.MUTABLE)).thenReturn(Collections.singletonList(instance));
+        definition.addNode(boundaryEvent(1, "cancel"));
+
+        Signal<String> signal = Sig.of("cancel", "now");
+        process.send(signal);
+
+        verify(instance).send(signal);
+        verify(instances, never()).waitingFor(anyString());
+    }
+
+    @Test
+    public void testIsBroadcast() {
+        definition.addNode(boundaryEvent(1, "cancel"));
+        definition.addNode(eventNode(2, "start"));
+
+        assertThat(process.isBroadcast("cancel")).isTrue();
+        assertThat(process.isBroadcast("start")).isTrue();
+        assertThat(process.isBroadcast("approval")).isFalse();
+    }
+
+    @Test
+    public void testIsBroadcastWithExpressionType() {
+        definition.addNode(eventNode(1, "#{signalName}"));
+
+        assertThat(process.isBroadcast("approval")).isTrue();
+    }
+
+    @Test
+    public void testIsBroadcastInDynamicProcess() {
+        definition.setDynamic(true);
+
+        assertThat(process.isBroadcast("approval")).isTrue();
+    }
+
+    private static EventNode boundaryEvent(long id, String type) {
+        return withFilter(new BoundaryEventNode(), id, type);
+    }
+
+    private static EventNode eventNode(long id, String type) {
+        return withFilter(new EventNode(), id, type);
+    }
+
+    private static EventNode withFilter(EventNode node, long id, String type) {
+        node.setId(id);
+        EventTypeFilter filter = new EventTypeFilter();
+        filter.setType(type);
+        node.addEventFilter(filter);
+        return node;
+    }
+
+    private static class TestProcess extends AbstractProcess<TestModel> {
+
+        private final RuleFlowProcess definition;
+
+        TestProcess(RuleFlowProcess definition) {
+            super(mock(ProcessRuntimeServiceProvider.class), Collections.emptyList(), null);
+            this.definition = definition;
+        }
+
+        @Override
+        public ProcessInstance<TestModel> createInstance(WorkflowProcessInstance wpi) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ProcessInstance<TestModel> createReadOnlyInstance(WorkflowProcessInstance wpi) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ProcessInstance<TestModel> createInstance(TestModel workingMemory) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ProcessInstance<TestModel> createInstance(String businessKey, TestModel workingMemory) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ProcessInstance<? extends Model> createInstance(Model m) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public org.kie.api.definition.process.Process process() {
+            return definition;
+        }
+    }
+}
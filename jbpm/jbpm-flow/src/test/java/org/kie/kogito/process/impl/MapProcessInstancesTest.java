@@ -0,0 +1,33 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.process.impl;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class MapProcessInstancesTest {
+
+    @Test
+    void testPageRejectsNegativeBounds() {
+        MapProcessInstances<Object> instances = new MapProcessInstances<>();
+
+        assertThat(instances.page(0, 0)).isEmpty();
+        assertThatIllegalArgumentException().isThrownBy(() -> instances.page(-1, 10));
+        assertThatIllegalArgumentException().isThrownBy(() -> instances.page(0, -1));
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.process.impl;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProcessInstanceEventIndexTest {
+
+    @Test
+    void testUpdateReplacesPreviousTypes() {
+        ProcessInstanceEventIndex index = new ProcessInstanceEventIndex();
+        index.update("pi-1", Arrays.asList("Message-order", "timerTriggered"));
+        index.update("pi-2", Collections.singletonList("Message-order"));
+
+        assertThat(index.find("Message-order")).containsExactlyInAnyOrder("pi-1", "pi-2");
+
+        index.update("pi-1", Collections.singletonList("workItemCompleted"));
+
+        assertThat(index.find("Message-order")).containsExactly("pi-2");
+        assertThat(index.find("timerTriggered")).isEmpty();
+        assertThat(index.typesOf("pi-1")).containsExactly("workItemCompleted");
+    }
+
+    @Test
+    void testRemove() {
+        ProcessInstanceEventIndex index = new ProcessInstanceEventIndex();
+        index.update("pi-1", Collections.singletonList("Message-order"));
+        index.remove("pi-1");
+
+        assertThat(index.find("Message-order")).isEmpty();
+        assertThat(index.typesOf("pi-1")).isEmpty();
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.process.impl;
+
+import java.nio.charset.StandardCharsets;
+
+import org.jbpm.workflow.instance.WorkflowProcessInstance;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class ProcessInstanceNearCacheTest {
+
+    @Test
+    void testTakeRemovesInstance() {
+        ProcessInstanceNearCache cache = new ProcessInstanceNearCache(10);
+        WorkflowProcessInstance instance = mock(WorkflowProcessInstance.class);
+        long version = ProcessInstanceNearCache.version("state".getBytes(StandardCharsets.UTF_8));
+        cache.put("pi-1", version, instance);
+
+        assertThat(cache.take("pi-1", version)).isSameAs(instance);
+        // a process instance is handed out once until it is stored again
+        assertThat(cache.take("pi-1", version)).isNull();
+    }
+
+    @Test
+    void testVersionMismatchIsMiss() {
+        ProcessInstanceNearCache cache = new ProcessInstanceNearCache(10);
+        cache.put("pi-1", ProcessInstanceNearCache.version("state".getBytes(StandardCharsets.UTF_8)), mock(WorkflowProcessInstance.class));
+
+        assertThat(cache.take("pi-1", ProcessInstanceNearCache.version("changed".getBytes(StandardCharsets.UTF_8)))).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void testExpiredInstanceIsMiss() throws InterruptedException {
+        ProcessInstanceNearCache cache = new ProcessInstanceNearCache(10, 1);
+        cache.put("pi-1", 1L, mock(WorkflowProcessInstance.class));
+        Thread.sleep(5);
+
+        assertThat(cache.take("pi-1", 1L)).isNull();
+    }
+
+    @Test
+    void testLeastRecentlyUsedEvicted() {
+        long evictions = ProcessInstanceNearCache.statistics().evictions();
+        ProcessInstanceNearCache cache = new ProcessInstanceNearCache(2);
+        cache.put("pi-1", 1L, mock(WorkflowProcessInstance.class));
+        cache.put("pi-2", 2L, mock(WorkflowProcessInstance.class));
+        cache.put("pi-3", 3L, mock(WorkflowProcessInstance.class));
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.take("pi-1", 1L)).isNull();
+        assertThat(cache.take("pi-3", 3L)).isNotNull();
+        assertThat(ProcessInstanceNearCache.statistics().evictions()).isGreaterThan(evictions);
+    }
+}
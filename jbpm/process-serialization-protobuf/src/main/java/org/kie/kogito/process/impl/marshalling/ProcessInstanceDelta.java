@@ -0,0 +1,188 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.process.impl.marshalling;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Binary delta between two marshalled process instances, as produced by {@link ProcessInstanceMarshaller}.
+ * A delta is always computed against a full snapshot and describes the new state as a sequence of
+ * copies of snapshot ranges and inserted bytes, so unchanged variables and node instances are not written again.
+ * <br/>
+ * Layout: <code>snapshotLength(4) snapshotChecksum(4) targetLength(4)</code> followed by operations,
+ * either <code>COPY(1) offset(4) length(4)</code> or <code>INSERT(1) length(4) bytes</code>.
+ */
+public final class ProcessInstanceDelta {
+
+    public static final double DEFAULT_MAX_DELTA_RATIO = 0.5;
+
+    private static final int BLOCK_SIZE = 32;
+    private static final byte COPY = 1;
+    private static final byte INSERT = 2;
+
+    private ProcessInstanceDelta() {
+    }
+
+    /**
+     * Computes the delta turning the snapshot into the target
+     * @param snapshot full marshalled process instance the delta is based on
+     * @param target full marshalled process instance to be described
+     * @param maxLength maximum length of the delta
+     * @return delta or null if it would be longer than max length, in which case a new snapshot should be taken
+     */
+    public static byte[] diff(byte[] snapshot, byte[] target, int maxLength) {
+        Map<Integer, Integer> blocks = new HashMap<>();
+        for (int offset = 0; offset + BLOCK_SIZE <= snapshot.length; offset += BLOCK_SIZE) {
+            blocks.putIfAbsent(checksum(snapshot, offset), offset);
+        }
+
+        try (ByteArrayOutputStream baos = new ByteArrayOutputStream();
+                DataOutputStream out = new DataOutputStream(baos)) {
+            out.writeInt(snapshot.length);
+            out.writeInt(crc(snapshot));
+            out.writeInt(target.length);
+
+            int literalStart = 0;
+            int position = 0;
+            int hash = target.length >= BLOCK_SIZE ? checksum(target, 0) : 0;
+            while (position + BLOCK_SIZE <= target.length) {
+                Integer match = blocks.get(hash);
+                if (match != null && equalBlocks(snapshot, match, target, position)) {
+                    int length = BLOCK_SIZE;
+                    while (match + length < snapshot.length && position + length < target.length && snapshot[match + length] == target[position + length]) {
+                        length++;
+                    }
+                    writeInsert(out, target, literalStart, position);
+                    out.writeByte(COPY);
+                    out.writeInt(match);
+                    out.writeInt(length);
+                    position += length;
+                    literalStart = position;
+                    if (position + BLOCK_SIZE <= target.length) {
+                        hash = checksum(target, position);
+                    }
+                } else {
+                    if (position + BLOCK_SIZE < target.length) {
+                        hash = roll(hash, target[position], target[position + BLOCK_SIZE]);
+                    }
+                    position++;
+                }
+                if (out.size() > maxLength) {
+                    return null;
+                }
+            }
+            writeInsert(out, target, literalStart, target.length);
+            out.flush();
+            return out.size() > maxLength ? null : baos.toByteArray();
+        } catch (IOException e) {
+            throw new RuntimeException("Error while computing process instance delta", e);
+        }
+    }
+
+    /**
+     * Returns true if the delta was computed against the given snapshot
+     */
+    public static boolean appliesTo(byte[] snapshot, byte[] delta) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(delta))) {
+            return in.readInt() == snapshot.length && in.readInt() == crc(snapshot);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Replays the delta on top of the snapshot it was computed against
+     * @return full marshalled process instance
+     */
+    public static byte[] apply(byte[] snapshot, byte[] delta) {
+        if (!appliesTo(snapshot, delta)) {
+            throw new IllegalArgumentException("Process instance delta was not computed against given snapshot");
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(delta))) {
+            in.skipBytes(8);
+            byte[] target = new byte[in.readInt()];
+            int position = 0;
+            while (position < target.length) {
+                byte operation = in.readByte();
+                int length;
+                if (operation == COPY) {
+                    int offset = in.readInt();
+                    length = in.readInt();
+                    System.arraycopy(snapshot, offset, target, position, length);
+                } else if (operation == INSERT) {
+                    length = in.readInt();
+                    in.readFully(target, position, length);
+                } else {
+                    throw new IllegalArgumentException("Unknown process instance delta operation " + operation);
+                }
+                position += length;
+            }
+            return target;
+        } catch (IOException e) {
+            throw new RuntimeException("Error while applying process instance delta", e);
+        }
+    }
+
+    private static void writeInsert(DataOutputStream out, byte[] target, int from, int to) throws IOException {
+        if (to > from) {
+            out.writeByte(INSERT);
+            out.writeInt(to - from);
+            out.write(target, from, to - from);
+        }
+    }
+
+    private static boolean equalBlocks(byte[] snapshot, int snapshotOffset, byte[] target, int targetOffset) {
+        for (int i = 0; i < BLOCK_SIZE; i++) {
+            if (snapshot[snapshotOffset + i] != target[targetOffset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // weak rolling checksum in the style of rsync, low half is the byte sum and high half the weighted sum
+    private static int checksum(byte[] data, int offset) {
+        int a = 0;
+        int b = 0;
+        for (int i = 0; i < BLOCK_SIZE; i++) {
+            int value = data[offset + i] & 0xff;
+            a += value;
+            b += (BLOCK_SIZE - i) * value;
+        }
+        return ((b & 0xffff) << 16) | (a & 0xffff);
+    }
+
+    private static int roll(int hash, byte removed, byte added) {
+        int out = removed & 0xff;
+        int in = added & 0xff;
+        int a = ((hash & 0xffff) - out + in) & 0xffff;
+        int b = ((hash >>> 16) - BLOCK_SIZE * out + a) & 0xffff;
+        return (b << 16) | a;
+    }
+
+    private static int crc(byte[] data) {
+        CRC32 crc = new CRC32();
+        crc.update(data, 0, data.length);
+        return (int) crc.getValue();
+    }
+}
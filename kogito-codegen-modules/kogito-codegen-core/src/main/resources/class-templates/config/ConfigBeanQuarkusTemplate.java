@@ -7,9 +7,37 @@ public class ConfigBean extends org.kie.kogito.conf.StaticConfigBean {
     @org.eclipse.microprofile.config.inject.ConfigProperty(name = "kogito.messaging.as-cloudevents")
     java.util.Optional<Boolean> useCloudEvents = java.util.Optional.of(true);
 
+    @org.eclipse.microprofile.config.inject.ConfigProperty(name = "kogito.messaging.concurrency")
+    java.util.Optional<Integer> messagingConcurrency;
+
+    @org.eclipse.microprofile.config.inject.ConfigProperty(name = "kogito.messaging.max-in-flight")
+    java.util.Optional<Integer> messagingMaxInFlight;
+
+    @org.eclipse.microprofile.config.inject.ConfigProperty(name = "kogito.rest.workitem.async")
+    java.util.Optional<Boolean> restWorkItemAsync;
+
+    @org.eclipse.microprofile.config.inject.ConfigProperty(name = "kogito.rest.workitem.timeout")
+    java.util.Optional<Long> restWorkItemTimeout;
+
+    @org.eclipse.microprofile.config.inject.ConfigProperty(name = "kogito.rest.workitem.max-retries")
+    java.util.Optional<Integer> restWorkItemMaxRetries;
+
+    @org.eclipse.microprofile.config.inject.ConfigProperty(name = "kogito.rest.workitem.retry-backoff")
+    java.util.Optional<Long> restWorkItemRetryBackoff;
+
+    @org.eclipse.microprofile.config.inject.ConfigProperty(name = "kogito.rest.workitem.max-pool-size")
+    java.util.Optional<Integer> restWorkItemMaxPoolSize;
+
     @javax.annotation.PostConstruct
     protected void init() {
         setServiceUrl(kogitoService.orElse(""));
         setCloudEvents(useCloudEvents);
+        messagingConcurrency.ifPresent(this::setMessagingConcurrency);
+        messagingMaxInFlight.ifPresent(this::setMessagingMaxInFlight);
+        restWorkItemAsync.ifPresent(this::setRestWorkItemAsync);
+        restWorkItemTimeout.ifPresent(this::setRestWorkItemTimeout);
+        restWorkItemMaxRetries.ifPresent(this::setRestWorkItemMaxRetries);
+        restWorkItemRetryBackoff.ifPresent(this::setRestWorkItemRetryBackoff);
+        restWorkItemMaxPoolSize.ifPresent(this::setRestWorkItemMaxPoolSize);
     }
 }
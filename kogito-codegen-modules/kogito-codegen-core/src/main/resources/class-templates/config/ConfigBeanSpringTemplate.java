@@ -7,9 +7,37 @@ public class ConfigBean extends org.kie.kogito.conf.StaticConfigBean {
     @org.springframework.beans.factory.annotation.Value("${kogito.messaging.as-cloudevents:#{null}}")
     java.util.Optional<Boolean> useCloudEvents = java.util.Optional.of(true);
 
+    @org.springframework.beans.factory.annotation.Value("${kogito.messaging.concurrency:#{null}}")
+    java.util.Optional<Integer> messagingConcurrency;
+
+    @org.springframework.beans.factory.annotation.Value("${kogito.messaging.max-in-flight:#{null}}")
+    java.util.Optional<Integer> messagingMaxInFlight;
+
+    @org.springframework.beans.factory.annotation.Value("${kogito.rest.workitem.async:#{null}}")
+    java.util.Optional<Boolean> restWorkItemAsync;
+
+    @org.springframework.beans.factory.annotation.Value("${kogito.rest.workitem.timeout:#{null}}")
+    java.util.Optional<Long> restWorkItemTimeout;
+
+    @org.springframework.beans.factory.annotation.Value("${kogito.rest.workitem.max-retries:#{null}}")
+    java.util.Optional<Integer> restWorkItemMaxRetries;
+
+    @org.springframework.beans.factory.annotation.Value("${kogito.rest.workitem.retry-backoff:#{null}}")
+    java.util.Optional<Long> restWorkItemRetryBackoff;
+
+    @org.springframework.beans.factory.annotation.Value("${kogito.rest.workitem.max-pool-size:#{null}}")
+    java.util.Optional<Integer> restWorkItemMaxPoolSize;
+
     @javax.annotation.PostConstruct
     protected void init() {
         setServiceUrl(kogitoService.orElse(""));
         setCloudEvents(useCloudEvents);
+        messagingConcurrency.ifPresent(this::setMessagingConcurrency);
+        messagingMaxInFlight.ifPresent(this::setMessagingMaxInFlight);
+        restWorkItemAsync.ifPresent(this::setRestWorkItemAsync);
+        restWorkItemTimeout.ifPresent(this::setRestWorkItemTimeout);
+        restWorkItemMaxRetries.ifPresent(this::setRestWorkItemMaxRetries);
+        restWorkItemRetryBackoff.ifPresent(this::setRestWorkItemRetryBackoff);
+        restWorkItemMaxPoolSize.ifPresent(this::setRestWorkItemMaxPoolSize);
     }
 }
@@ -23,6 +23,7 @@ import com.github.javaparser.ast.body.InitializerDeclaration;
 import com.github.javaparser.ast.expr.Expression;
 import com.github.javaparser.ast.expr.MethodCallExpr;
 import com.github.javaparser.ast.expr.NullLiteralExpr;
+import com.github.javaparser.ast.expr.StringLiteralExpr;
 import com.github.javaparser.ast.type.ClassOrInterfaceType;
 import org.kie.kogito.codegen.core.AbstractApplicationSection;
 import org.kie.kogito.codegen.api.template.InvalidTemplateException;
@@ -78,9 +79,18 @@ public class DecisionContainerGenerator extends AbstractApplicationSection {
             initMethod.addArgument(isr);
         }
 
+        setupWarmUp(staticDeclaration);
+
         return compilationUnit;
     }
 
+    private void setupWarmUp(InitializerDeclaration staticDeclaration) {
+        context.getApplicationProperty(DecisionCodegen.WARM_UP_CONFIGURATION_KEY)
+                .map(String::trim)
+                .filter(models -> !models.isEmpty() && !"false".equalsIgnoreCase(models))
+                .ifPresent(models -> staticDeclaration.getBody().addStatement(new MethodCallExpr("warmUp").addArgument(new StringLiteralExpr().setString(models))));
+    }
+
     private void setupExecIdSupplierVariable(MethodCallExpr initMethod) {
         Expression execIdSupplier = context.getAddonsConfig().useTracing() ?
                 newObject(DmnExecutionIdSupplier.class) :
@@ -89,6 +99,7 @@ public class DecisionContainerGenerator extends AbstractApplicationSection {
     }
 
     private void setupDecisionModelTransformerVariable(MethodCallExpr initMethod) {
+        // the monitored models read their sampling from the runtime configuration
         Expression decisionModelTransformerExpr = context.getAddonsConfig().useMonitoring() ?
                 newObject("org.kie.kogito.monitoring.core.common.decision.MonitoredDecisionModelTransformer") :
                 new NullLiteralExpr();
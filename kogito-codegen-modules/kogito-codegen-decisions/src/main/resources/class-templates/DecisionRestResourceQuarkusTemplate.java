@@ -8,6 +8,7 @@ import javax.ws.rs.Produces;
 import javax.ws.rs.core.MediaType;
 
 import org.kie.kogito.Application;
+import org.kie.kogito.dmn.rest.DMNBatchUtils;
 import org.kie.kogito.dmn.rest.DMNEvaluationErrorException;
 import org.kie.kogito.dmn.rest.DMNJSONUtils;
 import org.kie.kogito.dmn.rest.KogitoDMNResult;
@@ -50,6 +51,24 @@ public class DMNRestResourceTemplate {
                                                                         ".dmn_nologic")));
     }
 
+    @POST
+    @Path("/dmnresult/batch")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public java.util.List<Object> dmn_batch(java.util.List<java.util.Map<String, Object>> batch) {
+        org.kie.kogito.decision.DecisionModel decision = application.get(org.kie.kogito.decision.DecisionModels.class).getDecisionModel("$modelNamespace$", "$modelName$");
+        return DMNBatchUtils.evaluate(decision, "$modelNamespace$", "$modelName$", batch);
+    }
+
+    @POST
+    @Path("/dmnresult/batch")
+    @Consumes(DMNBatchUtils.APPLICATION_NDJSON)
+    @Produces(DMNBatchUtils.APPLICATION_NDJSON)
+    public javax.ws.rs.core.StreamingOutput dmn_batch_ndjson(java.io.InputStream batch) {
+        org.kie.kogito.decision.DecisionModel decision = application.get(org.kie.kogito.decision.DecisionModels.class).getDecisionModel("$modelNamespace$", "$modelName$");
+        return output -> DMNBatchUtils.evaluate(decision, "$modelNamespace$", "$modelName$", batch, output, objectMapper);
+    }
+
     @javax.ws.rs.ext.Provider
     public static class DMNEvaluationErrorExceptionMapper implements javax.ws.rs.ext.ExceptionMapper<org.kie.kogito.dmn.rest.DMNEvaluationErrorException> {
         public javax.ws.rs.core.Response toResponse(org.kie.kogito.dmn.rest.DMNEvaluationErrorException e) {
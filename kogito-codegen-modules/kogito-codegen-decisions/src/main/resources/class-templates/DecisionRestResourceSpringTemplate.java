@@ -3,6 +3,7 @@ package org.kie.dmn.kogito.quarkus.example;
 import javax.servlet.http.HttpServletResponse;
 
 import org.kie.kogito.Application;
+import org.kie.kogito.dmn.rest.DMNBatchUtils;
 import org.kie.kogito.dmn.rest.DMNEvaluationErrorException;
 import org.kie.kogito.dmn.rest.DMNJSONUtils;
 import org.kie.kogito.dmn.rest.KogitoDMNResult;
@@ -53,6 +54,19 @@ public class DMNRestResourceTemplate {
                                                                         ".dmn_nologic")));
     }
 
+    @PostMapping(value = "/dmnresult/batch", produces = MediaType.APPLICATION_JSON_VALUE, consumes = MediaType.APPLICATION_JSON_VALUE)
+    public java.util.List<Object> dmn_batch(@RequestBody java.util.List<java.util.Map<String, Object>> batch) {
+        org.kie.kogito.decision.DecisionModel decision = application.get(org.kie.kogito.decision.DecisionModels.class).getDecisionModel("$modelNamespace$", "$modelName$");
+        return DMNBatchUtils.evaluate(decision, "$modelNamespace$", "$modelName$", batch);
+    }
+
+    @PostMapping(value = "/dmnresult/batch", produces = DMNBatchUtils.APPLICATION_NDJSON, consumes = DMNBatchUtils.APPLICATION_NDJSON)
+    public org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody dmn_batch_ndjson(javax.servlet.http.HttpServletRequest request) throws java.io.IOException {
+        org.kie.kogito.decision.DecisionModel decision = application.get(org.kie.kogito.decision.DecisionModels.class).getDecisionModel("$modelNamespace$", "$modelName$");
+        java.io.InputStream batch = request.getInputStream();
+        return output -> DMNBatchUtils.evaluate(decision, "$modelNamespace$", "$modelName$", batch, output, objectMapper);
+    }
+
     @ExceptionHandler(DMNEvaluationErrorException.class)
     public ResponseEntity toResponse(DMNEvaluationErrorException e) {
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(e.getResult());
@@ -38,6 +38,7 @@ import org.kie.kogito.codegen.core.context.JavaKogitoBuildContext;
 import org.kie.kogito.codegen.core.context.SpringBootKogitoBuildContext;
 import org.kie.kogito.codegen.core.context.QuarkusKogitoBuildContext;
 import org.kie.kogito.codegen.core.io.CollectedResourceProducer;
+import org.kie.kogito.decision.DecisionSampler;
 import org.kie.kogito.grafana.JGrafana;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -86,6 +87,19 @@ public class DecisionCodegenTest {
         assertNotNull(compilationUnit );
     }
 
+    @ParameterizedTest
+    @MethodSource("contextBuilders")
+    public void batchEndpointsDoNotCollideWithDecisionServices(KogitoBuildContext.Builder contextBuilder) throws Exception {
+        DecisionCodegen codeGenerator = getDecisionCodegen("src/test/resources/decision/models/vacationDays", contextBuilder);
+
+        List<GeneratedFile> generatedFiles = codeGenerator.generate();
+        GeneratedFile resource = generatedFiles.stream().filter(x -> x.relativePath().equals("decision/VacationsResource.java")).findFirst().get();
+        // decision services are exposed as /<model>/<service> and /<model>/<service>/dmnresult
+        assertThat(new String(resource.contents()))
+                .contains("dmn_batch(", "dmn_batch_ndjson(", "\"/dmnresult/batch\"")
+                .doesNotContain("\"/batch\"");
+    }
+
     @ParameterizedTest
     @MethodSource("contextBuilders")
     public void givenADMNModelWhenMonitoringIsActiveThenGrafanaDashboardsAreGenerated(KogitoBuildContext.Builder contextBuilder) throws Exception {
@@ -165,6 +179,54 @@ public class DecisionCodegenTest {
         assertThat(new String(inputSetFile.contents())).doesNotContain("@org.eclipse.microprofile.openapi.annotations.media.Schema");
     }
 
+    @ParameterizedTest
+    @MethodSource("contextBuilders")
+    public void warmUpDecisionModels(KogitoBuildContext.Builder contextBuilder) throws Exception {
+        Properties properties = new Properties();
+        properties.put(DecisionCodegen.WARM_UP_CONFIGURATION_KEY, "vacationDays");
+        KogitoBuildContext context = contextBuilder.withApplicationProperties(properties).build();
+        DecisionCodegen codeGenerator = DecisionCodegen.ofCollectedResources(context,
+                CollectedResourceProducer.fromPaths(Paths.get("src/test/resources/decision/models/vacationDays").toAbsolutePath()));
+
+        Optional<ApplicationSection> optionalApplicationSection = codeGenerator.section();
+        assertThat(optionalApplicationSection).isNotEmpty();
+        assertThat(optionalApplicationSection.get().compilationUnit().toString()).contains("warmUp(\"vacationDays\");");
+    }
+
+    @ParameterizedTest
+    @MethodSource("contextBuilders")
+    public void warmUpModelNamesEscaped(KogitoBuildContext.Builder contextBuilder) throws Exception {
+        Properties properties = new Properties();
+        properties.put(DecisionCodegen.WARM_UP_CONFIGURATION_KEY, "vacation \"Days\"");
+        KogitoBuildContext context = contextBuilder.withApplicationProperties(properties).build();
+        DecisionCodegen codeGenerator = DecisionCodegen.ofCollectedResources(context,
+                CollectedResourceProducer.fromPaths(Paths.get("src/test/resources/decision/models/vacationDays").toAbsolutePath()));
+
+        Optional<ApplicationSection> optionalApplicationSection = codeGenerator.section();
+        assertThat(optionalApplicationSection).isNotEmpty();
+        assertThat(optionalApplicationSection.get().compilationUnit().toString()).contains("warmUp(\"vacation \\\"Days\\\"\");");
+    }
+
+    @ParameterizedTest
+    @MethodSource("contextBuilders")
+    public void decisionMonitoringSamplingNotEmbedded(KogitoBuildContext.Builder contextBuilder) throws Exception {
+        Properties properties = new Properties();
+        properties.put(DecisionSampler.SAMPLING_RATE_KEY, "0.1");
+        properties.put("kogito.monitoring.decision.types", "number");
+        KogitoBuildContext context = contextBuilder
+                .withApplicationProperties(properties)
+                .withAddonsConfig(AddonsConfig.builder().withMonitoring(true).build())
+                .build();
+        DecisionCodegen codeGenerator = DecisionCodegen.ofCollectedResources(context,
+                CollectedResourceProducer.fromPaths(Paths.get("src/test/resources/decision/models/vacationDays").toAbsolutePath()));
+
+        Optional<ApplicationSection> optionalApplicationSection = codeGenerator.section();
+        assertThat(optionalApplicationSection).isNotEmpty();
+        assertThat(optionalApplicationSection.get().compilationUnit().toString())
+                .contains("new org.kie.kogito.monitoring.core.common.decision.MonitoredDecisionModelTransformer()")
+                .doesNotContain("0.1");
+    }
+
     static Stream<Arguments> contextBuilders() {
         return Stream.of(
                 Arguments.of(JavaKogitoBuildContext.builder()),
@@ -75,6 +75,30 @@ public class RuleUnitCompilerTest extends AbstractCodegenTest {
         assertTrue( adults.getResults().getResults().containsAll( asList("Mario", "Marilena", "Sofia") ) );
     }
 
+    @Test
+    public void testRuleUnitSessionReusedAfterDispose() throws Exception {
+        Application application = generateCodeRulesOnly("org/kie/kogito/codegen/unit/RuleUnit.drl");
+        RuleUnit<AdultUnit> unit = application.get(RuleUnits.class).create(AdultUnit.class);
+
+        AdultUnit adults = new AdultUnit();
+        adults.getPersons().add(new Person( "Mario", 45 ));
+        RuleUnitInstance<AdultUnit> instance = unit.createInstance(adults);
+        assertEquals( 1, instance.fire() );
+        instance.dispose();
+
+        // the pooled session is reset, facts of the previous instance are gone
+        AdultUnit otherAdults = new AdultUnit();
+        otherAdults.getPersons().add(new Person( "Marilena", 47 ));
+        RuleUnitInstance<AdultUnit> otherInstance = unit.createInstance(otherAdults);
+        assertEquals( 1, otherInstance.fire() );
+        assertEquals( asList("Marilena"), otherAdults.getResults().getResults() );
+
+        // the data of the disposed instance no longer feeds the reused session
+        adults.getPersons().add(new Person( "Sofia", 46 ));
+        assertEquals( 0, otherInstance.fire() );
+        otherInstance.dispose();
+    }
+
     @Test
     public void testRuleUnitModify() throws Exception {
         Application application = generateCodeRulesOnly("org/kie/kogito/codegen/unit/RuleUnitModify.drl");
@@ -44,6 +44,7 @@ import com.github.javaparser.ast.stmt.BlockStmt;
 import com.github.javaparser.ast.stmt.ExplicitConstructorInvocationStmt;
 import com.github.javaparser.ast.stmt.ReturnStmt;
 import com.github.javaparser.ast.type.ClassOrInterfaceType;
+import com.github.javaparser.ast.type.PrimitiveType;
 import org.kie.kogito.codegen.core.AbstractGenerator;
 import org.kie.kogito.codegen.api.ApplicationSection;
 import org.kie.kogito.codegen.core.BodyDeclarationComparator;
@@ -65,8 +66,14 @@ public class PersistenceGenerator extends AbstractGenerator {
 
     protected static final String TEMPLATE_NAME = "templateName";
     protected static final String PATH_NAME = "path";
+    protected static final String MODE_NAME = "mode";
+    protected static final String NEAR_CACHE_SIZE_NAME = "nearCacheSize";
+    protected static final String NEAR_CACHE_TTL_NAME = "nearCacheTtl";
 
     private static final String KOGITO_PERSISTENCE_FS_PATH_PROP = "kogito.persistence.filesystem.path";
+    private static final String KOGITO_PERSISTENCE_FS_MODE_PROP = "kogito.persistence.filesystem.mode";
+    private static final String KOGITO_PERSISTENCE_NEAR_CACHE_SIZE_PROP = "kogito.persistence.near-cache.size";
+    private static final String KOGITO_PERSISTENCE_NEAR_CACHE_TTL_PROP = "kogito.persistence.near-cache.ttl";
     
     private static final String KOGITO_PROCESS_INSTANCE_FACTORY_PACKAGE= "org.kie.kogito.persistence.KogitoProcessInstancesFactory";
     private static final String KOGITO_PROCESS_INSTANCE_FACTORY_IMPL= "KogitoProcessInstancesFactoryImpl";
@@ -146,6 +153,8 @@ public class PersistenceGenerator extends AbstractGenerator {
 
             persistenceProviderClazz.addMember(templateNameField);
             persistenceProviderClazz.addMember(templateNameMethod);
+
+            addNearCacheConfig(persistenceProviderClazz);
         }
         List<String> variableMarshallers = new ArrayList<>();
 
@@ -244,6 +253,23 @@ public class PersistenceGenerator extends AbstractGenerator {
 
             persistenceProviderClazz.addMember(pathField);
             persistenceProviderClazz.addMember(pathMethod);
+
+            FieldDeclaration modeField = new FieldDeclaration().addVariable(new VariableDeclarator()
+                    .setType(new ClassOrInterfaceType(null, new SimpleName(Optional.class.getCanonicalName()), NodeList.nodeList(new ClassOrInterfaceType(null, String.class.getCanonicalName()))))
+                    .setName(MODE_NAME));
+            context().getDependencyInjectionAnnotator().withConfigInjection(modeField, KOGITO_PERSISTENCE_FS_MODE_PROP);
+            // allow to switch between file per instance and segmented log storage
+            BlockStmt modeMethodBody = new BlockStmt();
+            modeMethodBody.addStatement(new ReturnStmt(new MethodCallExpr(new NameExpr(MODE_NAME), OR_ELSE).addArgument(new StringLiteralExpr("file"))));
+
+            MethodDeclaration modeMethod = new MethodDeclaration()
+                    .addModifier(Keyword.PUBLIC)
+                    .setName(MODE_NAME)
+                    .setType(String.class)
+                    .setBody(modeMethodBody);
+
+            persistenceProviderClazz.addMember(modeField);
+            persistenceProviderClazz.addMember(modeMethod);
         }
 
         generatePersistenceProviderClazz(persistenceProviderClazz, compilationUnit)
@@ -292,6 +318,8 @@ public class PersistenceGenerator extends AbstractGenerator {
             persistenceProviderClazz.addMember(dbNameField);
             persistenceProviderClazz.addMember(dbNameMethod);
 
+            addNearCacheConfig(persistenceProviderClazz);
+
         }
         generatePersistenceProviderClazz(persistenceProviderClazz, compilationUnit)
                 .ifPresent(generatedFiles::add);
@@ -299,6 +327,30 @@ public class PersistenceGenerator extends AbstractGenerator {
         return generatedFiles;
     }
 
+    private void addNearCacheConfig(ClassOrInterfaceDeclaration persistenceProviderClazz) {
+        // allow to enable the near cache of hydrated process instances in front of remote stores
+        FieldDeclaration sizeField = new FieldDeclaration().addVariable(new VariableDeclarator(PrimitiveType.intType(), NEAR_CACHE_SIZE_NAME));
+        context().getDependencyInjectionAnnotator().withConfigInjection(sizeField, KOGITO_PERSISTENCE_NEAR_CACHE_SIZE_PROP, "0");
+        MethodDeclaration sizeMethod = new MethodDeclaration()
+                .addModifier(Keyword.PUBLIC)
+                .setName(NEAR_CACHE_SIZE_NAME)
+                .setType(PrimitiveType.intType())
+                .setBody(new BlockStmt().addStatement(new ReturnStmt(new NameExpr(NEAR_CACHE_SIZE_NAME))));
+
+        FieldDeclaration ttlField = new FieldDeclaration().addVariable(new VariableDeclarator(PrimitiveType.longType(), NEAR_CACHE_TTL_NAME));
+        context().getDependencyInjectionAnnotator().withConfigInjection(ttlField, KOGITO_PERSISTENCE_NEAR_CACHE_TTL_PROP, "60000");
+        MethodDeclaration ttlMethod = new MethodDeclaration()
+                .addModifier(Keyword.PUBLIC)
+                .setName(NEAR_CACHE_TTL_NAME)
+                .setType(PrimitiveType.longType())
+                .setBody(new BlockStmt().addStatement(new ReturnStmt(new NameExpr(NEAR_CACHE_TTL_NAME))));
+
+        persistenceProviderClazz.addMember(sizeField);
+        persistenceProviderClazz.addMember(sizeMethod);
+        persistenceProviderClazz.addMember(ttlField);
+        persistenceProviderClazz.addMember(ttlMethod);
+    }
+
     private ConstructorDeclaration createConstructorForClazz(ClassOrInterfaceDeclaration persistenceProviderClazz) {
         ConstructorDeclaration constructor = persistenceProviderClazz.addConstructor(Keyword.PUBLIC);
         List<Expression> paramNames = new ArrayList<>();
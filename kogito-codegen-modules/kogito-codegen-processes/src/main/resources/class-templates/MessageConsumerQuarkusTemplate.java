@@ -1,9 +1,9 @@
 package $Package$;
 
-import io.smallrye.mutiny.Multi;
 import org.kie.kogito.Application;
 import org.kie.kogito.conf.ConfigBean;
 import org.kie.kogito.event.KogitoEventStreams;
+import org.kie.kogito.event.impl.CloudEventDispatcher;
 import org.kie.kogito.event.impl.DefaultEventConsumerFactory;
 import org.kie.kogito.process.Process;
 import org.kie.kogito.services.event.impl.AbstractMessageConsumer;
@@ -24,6 +24,8 @@ public class $Type$MessageConsumer extends AbstractMessageConsumer<$Type$, $Data
     @javax.inject.Inject
     @javax.inject.Named(KogitoEventStreams.PUBLISHER) Publisher<String> eventPublisher;
 
+    private CloudEventDispatcher.Registration registration;
+
     @javax.annotation.PostConstruct
     void init() {
         setParams(application,
@@ -34,9 +36,16 @@ public class $Type$MessageConsumer extends AbstractMessageConsumer<$Type$, $Data
               new DefaultEventConsumerFactory(),
               configBean.useCloudEvents());
 
-        Multi.createFrom().publisher(eventPublisher)
-                .subscribe()
-                .with(this::consume);
+        registration = CloudEventDispatcher.subscribe(eventPublisher,
+                                                      configBean,
+                                                      this::consume,
+                                                      $DataEventType$.class.getSimpleName(),
+                                                      "$Trigger$");
+    }
+
+    @javax.annotation.PreDestroy
+    void destroy() {
+        registration.close();
     }
 
     protected $Type$ eventToModel($DataType$ event) {
@@ -3,15 +3,17 @@ package $Package$;
 import org.kie.kogito.Application;
 import org.kie.kogito.conf.ConfigBean;
 import org.kie.kogito.event.KogitoEventStreams;
+import org.kie.kogito.event.impl.CloudEventDispatcher;
 import org.kie.kogito.event.impl.DefaultEventConsumerFactory;
 import org.kie.kogito.process.Process;
 import org.kie.kogito.services.event.impl.AbstractMessageConsumer;
 import org.reactivestreams.Publisher;
-import reactor.core.publisher.Flux;
 
 @org.springframework.stereotype.Component()
 public class $Type$MessageConsumer extends AbstractMessageConsumer<$Type$, $DataType$, $DataEventType$> {
 
+    private final CloudEventDispatcher.Registration registration;
+
     @org.springframework.beans.factory.annotation.Autowired()
     $Type$MessageConsumer(
             Application application,
@@ -26,8 +28,16 @@ public class $Type$MessageConsumer extends AbstractMessageConsumer<$Type$, $Data
               new DefaultEventConsumerFactory(),
               configBean.useCloudEvents());
 
-        Flux.from(eventPublisher)
-                .subscribe(this::consume);
+        registration = CloudEventDispatcher.subscribe(eventPublisher,
+                                                      configBean,
+                                                      this::consume,
+                                                      $DataEventType$.class.getSimpleName(),
+                                                      "$Trigger$");
+    }
+
+    @javax.annotation.PreDestroy
+    void destroy() {
+        registration.close();
     }
 
     protected $Type$ eventToModel($DataType$ event) {
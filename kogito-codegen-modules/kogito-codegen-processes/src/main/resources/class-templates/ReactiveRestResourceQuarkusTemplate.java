@@ -6,6 +6,7 @@ import java.util.stream.Collectors;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 
+import javax.ws.rs.BadRequestException;
 import javax.ws.rs.Consumes;
 import javax.ws.rs.DELETE;
 import javax.ws.rs.GET;
@@ -64,12 +65,16 @@ public class $Type$ReactiveResource {
 
     @GET()
     @Produces(MediaType.APPLICATION_JSON)
-    public CompletionStage<List<$Type$Output>> getResources_$name$() {
+    public CompletionStage<List<$Type$Output>> getResources_$name$(@QueryParam("offset") @DefaultValue("0") int offset,
+                                                                  @QueryParam("limit") @DefaultValue("100") int limit) {
+        if (offset < 0 || limit < 0) {
+            throw new BadRequestException("Offset and limit must not be negative");
+        }
         return CompletableFuture
             .supplyAsync(
                 () -> process
                     .instances()
-                    .values()
+                    .page(offset, limit)
                     .stream()
                     .map(pi -> pi.variables().toOutput())
                     .collect(Collectors.toList()));
@@ -4,6 +4,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
+import javax.ws.rs.BadRequestException;
 import javax.ws.rs.Consumes;
 import javax.ws.rs.Consumes;
 import javax.ws.rs.DELETE;
@@ -70,8 +71,12 @@ public class $Type$Resource {
 
     @GET
     @Produces(MediaType.APPLICATION_JSON)
-    public List<$Type$Output> getResources_$name$() {
-        return process.instances().values().stream()
+    public List<$Type$Output> getResources_$name$(@QueryParam("offset") @DefaultValue("0") int offset,
+                                                 @QueryParam("limit") @DefaultValue("100") int limit) {
+        if (offset < 0 || limit < 0) {
+            throw new BadRequestException("Offset and limit must not be negative");
+        }
+        return process.instances().page(offset, limit).stream()
                       .map(pi -> pi.variables().toOutput())
                       .collect(Collectors.toList());
     }
@@ -48,6 +48,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.util.UriComponents;
@@ -84,9 +85,13 @@ public class $Type$Resource {
     }
 
     @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
-    public List<$Type$Output> getResources_$name$() {
+    public List<$Type$Output> getResources_$name$(@RequestParam(value = "offset", defaultValue = "0") int offset,
+                                                 @RequestParam(value = "limit", defaultValue = "100") int limit) {
+        if (offset < 0 || limit < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Offset and limit must not be negative");
+        }
         return process.instances()
-                .values()
+                .page(offset, limit)
                 .stream()
                 .map(pi -> pi.variables().toOutput())
                 .collect(Collectors.toList());
@@ -36,6 +36,7 @@ import java.util.Optional;
 import static com.github.javaparser.StaticJavaParser.parse;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.kie.kogito.codegen.process.persistence.PersistenceGenerator.FILESYSTEM_PERSISTENCE_TYPE;
+import static org.kie.kogito.codegen.process.persistence.PersistenceGenerator.MODE_NAME;
 import static org.kie.kogito.codegen.process.persistence.PersistenceGenerator.PATH_NAME;
 
 class FileSystemPersistenceGeneratorTest {
@@ -82,5 +83,7 @@ class FileSystemPersistenceGeneratorTest {
         assertThat(fieldDeclaration).isNotEmpty();
         assertThat(fieldDeclaration.get().getVariables()).hasSize(1);
         assertThat(fieldDeclaration.get().getVariables().get(0).getName().asString()).isEqualTo(PATH_NAME);
+
+        assertThat(classDeclaration.findFirst(MethodDeclaration.class, d -> d.getName().getIdentifier().equals(MODE_NAME))).isNotEmpty();
     }
 }
\ No newline at end of file
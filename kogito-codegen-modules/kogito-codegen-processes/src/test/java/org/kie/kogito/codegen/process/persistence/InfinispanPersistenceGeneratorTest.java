@@ -34,6 +34,8 @@ import java.util.stream.Collectors;
 import static com.github.javaparser.StaticJavaParser.parse;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.kie.kogito.codegen.process.persistence.PersistenceGenerator.INFINISPAN_PERSISTENCE_TYPE;
+import static org.kie.kogito.codegen.process.persistence.PersistenceGenerator.NEAR_CACHE_SIZE_NAME;
+import static org.kie.kogito.codegen.process.persistence.PersistenceGenerator.NEAR_CACHE_TTL_NAME;
 
 class InfinispanPersistenceGeneratorTest {
 
@@ -79,5 +81,7 @@ class InfinispanPersistenceGeneratorTest {
 
         assertThat(methodDeclaration.getBody()).isNotEmpty();
         assertThat(methodDeclaration.getBody().get().toString()).contains(expectedMarshaller);
+        assertThat(classDeclaration.findFirst(MethodDeclaration.class, d -> d.getName().getIdentifier().equals(NEAR_CACHE_SIZE_NAME))).isNotEmpty();
+        assertThat(classDeclaration.findFirst(MethodDeclaration.class, d -> d.getName().getIdentifier().equals(NEAR_CACHE_TTL_NAME))).isNotEmpty();
     }
 }
\ No newline at end of file
@@ -215,8 +215,10 @@ public class QueryEndpointGenerator implements RuleFileGenerator {
             BlockStmt body = md.getBody().orElseThrow(() -> new NoSuchElementException("A method declaration doesn't contain a body!"));
             NodeList<Statement> statements = body.getStatements();
             ReturnStmt returnStmt = body.findFirst(ReturnStmt.class).orElseThrow(() -> new NoSuchElementException("A method declaration doesn't contain a return statement!"));
+            // the return statement may be nested, e.g. in the try block disposing the rule unit instance
+            NodeList<Statement> returnBlock = returnStmt.getParentNode().filter(BlockStmt.class::isInstance).map(parent -> ((BlockStmt) parent).getStatements()).orElse(statements);
             statements.addFirst(parseStatement("long startTime = System.nanoTime();"));
-            statements.addBefore(parseStatement("long endTime = System.nanoTime();"), returnStmt);
+            returnBlock.addBefore(parseStatement("long endTime = System.nanoTime();"), returnStmt);
             String endpoint = nameURL;
             if (context.hasDI()) {
                 Optional<String> path = context.getDependencyInjectionAnnotator().getEndpointValue(md);
@@ -224,7 +226,7 @@ public class QueryEndpointGenerator implements RuleFileGenerator {
                     endpoint += path.get();
                 }
             }
-            statements.addBefore(parseStatement("SystemMetricsCollector.registerElapsedTimeSampleMetrics(\"" + endpoint + "\", endTime - startTime);"), returnStmt);
+            returnBlock.addBefore(parseStatement("SystemMetricsCollector.registerElapsedTimeSampleMetrics(\"" + endpoint + "\", endTime - startTime);"), returnStmt);
             md.setBody(wrapBodyAddingExceptionLogging(body, nameURL));
         }
     }
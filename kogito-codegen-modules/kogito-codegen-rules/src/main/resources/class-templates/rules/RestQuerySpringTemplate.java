@@ -31,9 +31,13 @@ public class $unit$Query$name$Endpoint {
     @PostMapping(produces = MediaType.APPLICATION_JSON_VALUE, consumes = MediaType.APPLICATION_JSON_VALUE)
     public List<$ReturnType$> executeQuery(@RequestBody(required = true) $UnitTypeDTO$ unitDTO) {
         RuleUnitInstance<$UnitType$> instance = ruleUnit.createInstance();
-        // Do not return the result directly to allow post execution codegen (like monitoring)
-        List<$ReturnType$> response = instance.executeQuery($unit$Query$name$.class);
-        return response;
+        try {
+            // Do not return the result directly to allow post execution codegen (like monitoring)
+            List<$ReturnType$> response = instance.executeQuery($unit$Query$name$.class);
+            return response;
+        } finally {
+            instance.dispose();
+        }
     }
 
     @PostMapping(value = "/first", produces = MediaType.APPLICATION_JSON_VALUE, consumes =
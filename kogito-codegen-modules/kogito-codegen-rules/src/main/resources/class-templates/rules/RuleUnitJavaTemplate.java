@@ -12,26 +12,35 @@ import org.kie.kogito.rules.units.impl.AbstractRuleUnit;
 
 public class $Name$ extends AbstractRuleUnit<$ModelName$> {
 
+    private static final int SESSION_POOL_SIZE = $SessionPoolSize$;
+
+    private final org.drools.core.impl.InternalKnowledgeBase kieBase;
+    private final KieSessionsPool sessionsPool;
+
     public $Name$(org.kie.kogito.Application app) {
         super($ModelName$.class.getCanonicalName(), app);
+        this.kieBase = createKieBase();
+        this.sessionsPool = SESSION_POOL_SIZE > 0 ? kieBase.newKieSessionsPool(SESSION_POOL_SIZE) : null;
     }
 
     public $InstanceName$ internalCreateInstance($ModelName$ value) {
         return new $InstanceName$( this, value, createLegacySession());
     }
 
-    private KieSession createLegacySession() {
+    private org.drools.core.impl.InternalKnowledgeBase createKieBase() {
         RuleBaseConfiguration ruleBaseConfig = new RuleBaseConfiguration();
         ruleBaseConfig.setEventProcessingMode($EventProcessingMode$);
-        ruleBaseConfig.setSessionPoolSize($SessionPoolSize$);
-        org.drools.core.impl.InternalKnowledgeBase kb =
-                org.drools.modelcompiler.builder.KieBaseBuilder.createKieBaseFromModel(
-                        new $RuleModelName$(), ruleBaseConfig);
+        ruleBaseConfig.setSessionPoolSize(SESSION_POOL_SIZE);
+        return org.drools.modelcompiler.builder.KieBaseBuilder.createKieBaseFromModel(
+                new $RuleModelName$(), ruleBaseConfig);
+    }
 
+    private KieSession createLegacySession() {
         SessionConfigurationImpl sessionConfig = new SessionConfigurationImpl();
         sessionConfig.setClockType($ClockType$);
 
-        KieSession ks = kb.newKieSession(sessionConfig, new EnvironmentImpl());
+        // pooled sessions are reset and returned to the pool when the rule unit instance is disposed
+        KieSession ks = sessionsPool != null ? sessionsPool.newKieSession(sessionConfig) : kieBase.newKieSession(sessionConfig, new EnvironmentImpl());
         ((org.drools.core.impl.KogitoStatefulKnowledgeSessionImpl)ks).setStateless( /*$IsStateful$*/ true );
         ((org.drools.core.impl.KogitoStatefulKnowledgeSessionImpl)ks).setApplication( app );
 
@@ -39,8 +48,13 @@ public class $Name$ extends AbstractRuleUnit<$ModelName$> {
         if (config != null) {
             RuleEventListenerConfig ruleEventListenerConfig = config.get(org.kie.kogito.rules.RuleConfig.class)
                     .ruleEventListeners();
-            ruleEventListenerConfig.agendaListeners().forEach(ks::addEventListener);
-            ruleEventListenerConfig.ruleRuntimeListeners().forEach(ks::addEventListener);
+            // a reused session keeps the listeners added when it was first taken from the pool
+            ruleEventListenerConfig.agendaListeners().stream()
+                    .filter(l -> !ks.getAgendaEventListeners().contains(l))
+                    .forEach(ks::addEventListener);
+            ruleEventListenerConfig.ruleRuntimeListeners().stream()
+                    .filter(l -> !ks.getRuleRuntimeEventListeners().contains(l))
+                    .forEach(ks::addEventListener);
         }
         return ks;
     }
@@ -268,6 +268,7 @@ public class IncrementalRuleCodegenTest {
         Assertions.assertTrue(statementsExecuteQuery.contains("startTime"));
         Assertions.assertTrue(statementsExecuteQuery.contains("endTime"));
         Assertions.assertTrue(statementsExecuteQuery.contains("registerElapsedTimeSampleMetrics"));
+        Assertions.assertTrue(statementsExecuteQuery.contains("instance.dispose()"));
 
         String statementsExecuteQueryFirst = clazz.getMethodsByName("executeQueryFirst").get(0).getBody().get().getStatements().toString();
         Assertions.assertTrue(statementsExecuteQueryFirst.contains("startTime"));
@@ -15,24 +15,51 @@
 package org.kogito.workitem.rest;
 
 import java.net.URI;
+import java.time.Duration;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 
+import io.smallrye.mutiny.Uni;
 import io.vertx.core.http.HttpMethod;
 import io.vertx.mutiny.core.buffer.Buffer;
 import io.vertx.mutiny.ext.web.client.HttpRequest;
 import io.vertx.mutiny.ext.web.client.HttpResponse;
 import io.vertx.mutiny.ext.web.client.WebClient;
+import org.jbpm.process.instance.InternalProcessRuntime;
+import org.jbpm.process.instance.impl.ProcessInstanceImpl;
 import org.kie.kogito.internal.process.runtime.KogitoWorkItem;
 import org.kie.kogito.internal.process.runtime.KogitoWorkItemHandler;
 import org.kie.kogito.internal.process.runtime.KogitoWorkItemManager;
+import org.kie.kogito.process.ProcessInstance;
+import org.kie.kogito.services.uow.BaseWorkUnit;
+import org.kie.kogito.services.uow.UnitOfWorkExecutor;
+import org.kie.kogito.uow.UnitOfWorkManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+/**
+ * Work item handler invoking REST services.
+ * <br/>
+ * By default the calling thread waits for the response before completing the work item. In asynchronous mode the
+ * request is sent without blocking the engine, so REST tasks reached in parallel (for instance by the iterations of
+ * a multi instance node) overlap, and the work item is completed through its process instance once the response
+ * arrives and the unit of work that executed the task has ended. If the request fails, once retries are exhausted,
+ * the work item is aborted the same way so the process does not wait for it forever.
+ * <br/>
+ * Request timeout, retries and retry backoff default to the values given to the handler and can be overridden per
+ * task through the {@link #REQUEST_TIMEOUT}, {@link #MAX_RETRIES} and {@link #RETRY_BACKOFF} parameters.
+ */
 public class RestWorkItemHandler implements KogitoWorkItemHandler {
 
     public static final String REST_TASK_TYPE = "Rest Task";
@@ -45,6 +72,14 @@ public class RestWorkItemHandler implements KogitoWorkItemHandler {
     public static final String PASSWORD = "password";
     public static final String HOST = "host";
     public static final String PORT = "port";
+    public static final String REQUEST_TIMEOUT = "requestTimeout";
+    public static final String MAX_RETRIES = "maxRetries";
+    public static final String RETRY_BACKOFF = "retryBackoff";
+
+    public static final long DEFAULT_RETRY_BACKOFF = 100L;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RestWorkItemHandler.class);
+    private static final String KOGITO_PROCESS_INSTANCE = "KogitoProcessInstance";
 
     // package scoped to allow unit test
     static class RestUnaryOperator implements UnaryOperator<Object> {
@@ -63,9 +98,45 @@ public class RestWorkItemHandler implements KogitoWorkItemHandler {
     }
 
     private WebClient client;
+    private boolean async;
+    private long requestTimeout;
+    private int maxRetries;
+    private long retryBackoff;
+    private Executor completionExecutor;
 
     public RestWorkItemHandler(WebClient client) {
+        this(client, false);
+    }
+
+    public RestWorkItemHandler(WebClient client, boolean async) {
+        this(client, async, 0L, 0, DEFAULT_RETRY_BACKOFF);
+    }
+
+    public RestWorkItemHandler(WebClient client, boolean async, long requestTimeout, int maxRetries, long retryBackoff) {
+        this(client, async, requestTimeout, maxRetries, retryBackoff, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param client web client used to send requests, its pool is shared by all the requests to the same host and port
+     * @param async whether work items are completed asynchronously once the response arrives
+     * @param requestTimeout default request timeout in milliseconds, 0 for no timeout
+     * @param maxRetries default number of times a failed request is retried
+     * @param retryBackoff default initial backoff in milliseconds between retries
+     * @param completionExecutor executor completing work items in asynchronous mode, as completing them may block on
+     *        the process instance store it must not be the event loop
+     */
+    public RestWorkItemHandler(WebClient client,
+            boolean async,
+            long requestTimeout,
+            int maxRetries,
+            long retryBackoff,
+            Executor completionExecutor) {
         this.client = client;
+        this.async = async;
+        this.requestTimeout = requestTimeout;
+        this.maxRetries = maxRetries;
+        this.retryBackoff = retryBackoff;
+        this.completionExecutor = completionExecutor;
     }
 
     @Override
@@ -79,6 +150,9 @@ public class RestWorkItemHandler implements KogitoWorkItemHandler {
         String password = (String) parameters.remove(PASSWORD);
         String hostProp = (String) parameters.remove(HOST);
         String portProp = (String) parameters.remove(PORT);
+        long timeout = getNumberParam(parameters, REQUEST_TIMEOUT, requestTimeout).longValue();
+        int retries = getNumberParam(parameters, MAX_RETRIES, maxRetries).intValue();
+        long backoff = getNumberParam(parameters, RETRY_BACKOFF, retryBackoff).longValue();
         RestWorkItemHandlerResult resultHandler = getParam(parameters, RESULT_HANDLER, RestWorkItemHandlerResult.class);
         // create request
         UnaryOperator<Object> resolver = new RestUnaryOperator(inputModel);
@@ -90,12 +164,24 @@ public class RestWorkItemHandler implements KogitoWorkItemHandler {
         if (user != null && !user.trim().isEmpty() && password != null && !password.trim().isEmpty()) {
             request.basicAuthentication(user, password);
         }
-        HttpResponse<Buffer> response;
+        if (timeout > 0) {
+            request.timeout(timeout);
+        }
+        Object body = null;
         if (method == HttpMethod.POST || method == HttpMethod.PUT) {
             // if parameters is empty at this stage, assume post content is the whole input model
             // if not, build a map from parameters remaining
-            Object body = parameters.isEmpty() ? inputModel : parameters.entrySet().stream().collect(Collectors.toMap(
+            body = parameters.isEmpty() ? inputModel : parameters.entrySet().stream().collect(Collectors.toMap(
                     Entry::getKey, e -> resolver.apply(e.getValue())));
+        }
+        if (async) {
+            sendAsync(workItem, manager, request, body, retries, backoff, response -> resultHandler.apply(inputModel, response.bodyAsJsonObject()));
+            return;
+        }
+        HttpResponse<Buffer> response;
+        if (retries > 0) {
+            response = withRetries(send(request, body), retries, backoff).await().indefinitely();
+        } else if (body != null) {
             response = request.sendJsonAndAwait(body);
         } else {
             response = request.sendAndAwait();
@@ -109,6 +195,94 @@ public class RestWorkItemHandler implements KogitoWorkItemHandler {
         // rest item handler does not support abort
     }
 
+    private void sendAsync(KogitoWorkItem workItem,
+            KogitoWorkItemManager manager,
+            HttpRequest<Buffer> request,
+            Object body,
+            int retries,
+            long backoff,
+            Function<HttpResponse<Buffer>, Object> result) {
+        ProcessInstance<?> processInstance = null;
+        UnitOfWorkManager unitOfWorkManager = null;
+        if (workItem.getProcessInstance() instanceof ProcessInstanceImpl) {
+            ProcessInstanceImpl engineProcessInstance = (ProcessInstanceImpl) workItem.getProcessInstance();
+            processInstance = (ProcessInstance<?>) engineProcessInstance.getMetaData().get(KOGITO_PROCESS_INSTANCE);
+            if (engineProcessInstance.getKnowledgeRuntime() != null) {
+                unitOfWorkManager = ((InternalProcessRuntime) engineProcessInstance.getKnowledgeRuntime().getProcessRuntime()).getUnitOfWorkManager();
+            }
+        }
+        // the work item must not be completed before the unit of work that executed it has stored the process instance
+        CompletableFuture<Void> released = new CompletableFuture<>();
+        if (unitOfWorkManager != null) {
+            unitOfWorkManager.currentUnitOfWork().intercept(new BaseWorkUnit(workItem, w -> released.complete(null), w -> released.cancel(false)));
+        } else {
+            released.complete(null);
+        }
+
+        ProcessInstance<?> owner = processInstance;
+        UnitOfWorkManager completionUnitOfWorkManager = unitOfWorkManager;
+        withRetries(send(request, body), retries, backoff).subscribe().with(
+                response -> released.thenRunAsync(() -> complete(owner, completionUnitOfWorkManager, workItem, manager,
+                        Collections.singletonMap(RESULT, result.apply(response))), completionExecutor)
+                        .exceptionally(e -> {
+                            LOGGER.error("Unable to complete work item {} with the response of REST task", workItem.getStringId(), e);
+                            return null;
+                        }),
+                failure -> {
+                    LOGGER.error("REST task of work item {} failed, the work item is aborted", workItem.getStringId(), failure);
+                    released.thenRunAsync(() -> abort(owner, completionUnitOfWorkManager, workItem, manager), completionExecutor)
+                            .exceptionally(e -> {
+                                LOGGER.error("Unable to abort work item {} of failed REST task", workItem.getStringId(), e);
+                                return null;
+                            });
+                });
+    }
+
+    private void complete(ProcessInstance<?> owner,
+            UnitOfWorkManager unitOfWorkManager,
+            KogitoWorkItem workItem,
+            KogitoWorkItemManager manager,
+            Map<String, Object> results) {
+        if (owner == null || unitOfWorkManager == null) {
+            manager.completeWorkItem(workItem.getStringId(), results);
+        } else if (!executeOnProcessInstance(owner, unitOfWorkManager, pi -> pi.completeWorkItem(workItem.getStringId(), results))) {
+            LOGGER.warn("Process instance {} of work item {} no longer exists, REST task response is discarded", owner.id(), workItem.getStringId());
+        }
+    }
+
+    private void abort(ProcessInstance<?> owner,
+            UnitOfWorkManager unitOfWorkManager,
+            KogitoWorkItem workItem,
+            KogitoWorkItemManager manager) {
+        if (owner == null || unitOfWorkManager == null) {
+            manager.abortWorkItem(workItem.getStringId());
+        } else if (!executeOnProcessInstance(owner, unitOfWorkManager, pi -> pi.abortWorkItem(workItem.getStringId()))) {
+            LOGGER.warn("Process instance {} of work item {} no longer exists, REST task failure is discarded", owner.id(), workItem.getStringId());
+        }
+    }
+
+    private static boolean executeOnProcessInstance(ProcessInstance<?> owner, UnitOfWorkManager unitOfWorkManager, Consumer<ProcessInstance<?>> action) {
+        // the process instance may have been stored and disconnected in the meantime, so it is looked up again
+        return UnitOfWorkExecutor.executeInUnitOfWork(unitOfWorkManager, () -> owner.process().instances()
+                .findById(owner.id())
+                .map(pi -> {
+                    action.accept(pi);
+                    return true;
+                })
+                .orElse(false));
+    }
+
+    private static Uni<HttpResponse<Buffer>> send(HttpRequest<Buffer> request, Object body) {
+        return body != null ? request.sendJson(body) : request.send();
+    }
+
+    private static Uni<HttpResponse<Buffer>> withRetries(Uni<HttpResponse<Buffer>> response, int retries, long backoff) {
+        if (retries <= 0) {
+            return response;
+        }
+        return response.onFailure().retry().withBackOff(Duration.ofMillis(backoff)).atMost(retries);
+    }
+
     //  package scoped to allow unit test
     static String resolvePathParams(String endPoint, Map<String, Object> parameters, UnaryOperator<Object> resolver) {
         Set<String> toRemove = new HashSet<>();
@@ -135,6 +309,14 @@ public class RestWorkItemHandler implements KogitoWorkItemHandler {
         return sb.toString();
     }
 
+    private Number getNumberParam(Map<String, Object> parameters, String paramName, Number defaultValue) {
+        Object value = parameters.remove(paramName);
+        if (value == null) {
+            return defaultValue;
+        }
+        return value instanceof Number ? (Number) value : Long.valueOf(value.toString());
+    }
+
     private <T> T getParam(Map<String, Object> parameters, String paramName, Class<T> type) {
         Object value = parameters.remove(paramName);
         if (value == null) {
@@ -17,18 +17,31 @@ package org.kogito.workitem.rest;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.smallrye.mutiny.Uni;
 import io.vertx.core.http.HttpMethod;
 import io.vertx.core.json.JsonObject;
 import io.vertx.mutiny.core.buffer.Buffer;
 import io.vertx.mutiny.ext.web.client.HttpRequest;
 import io.vertx.mutiny.ext.web.client.HttpResponse;
 import io.vertx.mutiny.ext.web.client.WebClient;
+import org.drools.core.common.InternalKnowledgeRuntime;
+import org.jbpm.process.instance.InternalProcessRuntime;
+import org.jbpm.process.instance.impl.ProcessInstanceImpl;
 import org.junit.jupiter.api.Test;
 import org.kie.kogito.internal.process.runtime.KogitoWorkItem;
 import org.kie.kogito.internal.process.runtime.KogitoWorkItemManager;
+import org.kie.kogito.process.MutableProcessInstances;
+import org.kie.kogito.process.Process;
+import org.kie.kogito.process.ProcessInstance;
+import org.kie.kogito.services.uow.CollectingUnitOfWorkFactory;
+import org.kie.kogito.services.uow.DefaultUnitOfWorkManager;
+import org.kie.kogito.uow.UnitOfWork;
+import org.kie.kogito.uow.UnitOfWorkManager;
 import org.kogito.workitem.rest.jsonpath.functions.JSonPathResultHandler;
 import org.kogito.workitem.rest.jsonpath.functions.JsonPathResolver;
 import org.mockito.ArgumentCaptor;
@@ -36,8 +49,12 @@ import org.mockito.ArgumentCaptor;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -142,4 +159,155 @@ public class RestTaskHandlerTest {
         assertTrue(result instanceof ObjectNode);
         assertEquals(1, ((ObjectNode) result).get("num").asInt());
     }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testAsyncRestTaskHandlerRetries() {
+        WebClient webClient = mock(WebClient.class);
+        HttpRequest<Buffer> request = mock(HttpRequest.class);
+        when(webClient.request(HttpMethod.GET, 8080, "localhost", "/results/26")).thenReturn(request);
+        HttpResponse<Buffer> response = mock(HttpResponse.class);
+        when(response.bodyAsJsonObject()).thenReturn(JsonObject.mapFrom(Collections.singletonMap("num", 1)));
+        // like the web client, the returned uni sends the request again on every subscription
+        AtomicInteger attempts = new AtomicInteger();
+        when(request.send()).thenReturn(Uni.createFrom().item(() -> {
+            if (attempts.getAndIncrement() == 0) {
+                throw new IllegalStateException("unavailable");
+            }
+            return response;
+        }));
+
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put(RestWorkItemHandler.ENDPOINT, "http://localhost:8080/results/26");
+        parameters.put(RestWorkItemHandler.METHOD, "GET");
+        parameters.put(RestWorkItemHandler.RESULT_HANDLER, new JSonPathResultHandler());
+        parameters.put(RestWorkItemHandler.PARAMETER, new ObjectMapper().createObjectNode());
+        parameters.put(RestWorkItemHandler.REQUEST_TIMEOUT, 1000);
+        parameters.put(RestWorkItemHandler.MAX_RETRIES, 1);
+        parameters.put(RestWorkItemHandler.RETRY_BACKOFF, 1);
+
+        KogitoWorkItem workItem = mock(KogitoWorkItem.class);
+        when(workItem.getStringId()).thenReturn("2");
+        when(workItem.getParameters()).thenReturn(parameters);
+        KogitoWorkItemManager manager = mock(KogitoWorkItemManager.class);
+
+        ArgumentCaptor<Map<String, Object>> argCaptor = ArgumentCaptor.forClass(Map.class);
+
+        RestWorkItemHandler handler = new RestWorkItemHandler(webClient, true, 0L, 0, RestWorkItemHandler.DEFAULT_RETRY_BACKOFF, Runnable::run);
+        handler.executeWorkItem(workItem, manager);
+
+        verify(request).timeout(1000L);
+        verify(request, never()).sendAndAwait();
+        verify(manager, timeout(5000)).completeWorkItem(anyString(), argCaptor.capture());
+        assertEquals(2, attempts.get());
+        Object result = argCaptor.getValue().get(RestWorkItemHandler.RESULT);
+        assertTrue(result instanceof ObjectNode);
+        assertEquals(1, ((ObjectNode) result).get("num").asInt());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testAsyncRestTaskHandlerCompletesAfterUnitOfWork() {
+        HttpRequest<Buffer> request = mock(HttpRequest.class);
+        HttpResponse<Buffer> response = mock(HttpResponse.class);
+        when(response.bodyAsJsonObject()).thenReturn(JsonObject.mapFrom(Collections.singletonMap("num", 1)));
+        when(request.send()).thenReturn(Uni.createFrom().item(response));
+
+        UnitOfWorkManager unitOfWorkManager = new DefaultUnitOfWorkManager(new CollectingUnitOfWorkFactory());
+        ProcessInstance<?> processInstance = mock(ProcessInstance.class);
+        KogitoWorkItem workItem = asyncWorkItem(unitOfWorkManager, processInstance);
+        KogitoWorkItemManager manager = mock(KogitoWorkItemManager.class);
+
+        UnitOfWork unitOfWork = unitOfWorkManager.newUnitOfWork();
+        unitOfWork.start();
+        asyncHandler(request).executeWorkItem(workItem, manager);
+        // the response arrived, but the work item is only completed once the unit of work has ended
+        verify(processInstance, never()).completeWorkItem(anyString(), any());
+        unitOfWork.end();
+
+        ArgumentCaptor<Map<String, Object>> argCaptor = ArgumentCaptor.forClass(Map.class);
+        verify(processInstance, timeout(5000)).completeWorkItem(eq("2"), argCaptor.capture());
+        verify(manager, never()).completeWorkItem(anyString(), any());
+        assertEquals(1, ((ObjectNode) argCaptor.getValue().get(RestWorkItemHandler.RESULT)).get("num").asInt());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testAsyncRestTaskHandlerAbortsWorkItemOnFailure() {
+        HttpRequest<Buffer> request = mock(HttpRequest.class);
+        when(request.send()).thenReturn(Uni.createFrom().failure(new IllegalStateException("unavailable")));
+
+        UnitOfWorkManager unitOfWorkManager = new DefaultUnitOfWorkManager(new CollectingUnitOfWorkFactory());
+        ProcessInstance<?> processInstance = mock(ProcessInstance.class);
+        KogitoWorkItem workItem = asyncWorkItem(unitOfWorkManager, processInstance);
+        KogitoWorkItemManager manager = mock(KogitoWorkItemManager.class);
+
+        UnitOfWork unitOfWork = unitOfWorkManager.newUnitOfWork();
+        unitOfWork.start();
+        asyncHandler(request).executeWorkItem(workItem, manager);
+        verify(processInstance, never()).abortWorkItem(anyString());
+        unitOfWork.end();
+
+        verify(processInstance, timeout(5000)).abortWorkItem("2");
+        verify(processInstance, never()).completeWorkItem(anyString(), any());
+    }
+
+    @Test
+    public void testAsyncRestTaskHandlerAbortsWorkItemWithoutProcessInstance() {
+        HttpRequest<Buffer> request = mockRequest();
+        when(request.send()).thenReturn(Uni.createFrom().failure(new IllegalStateException("unavailable")));
+        KogitoWorkItem workItem = mock(KogitoWorkItem.class);
+        when(workItem.getStringId()).thenReturn("2");
+        when(workItem.getParameters()).thenReturn(asyncParameters());
+        KogitoWorkItemManager manager = mock(KogitoWorkItemManager.class);
+
+        asyncHandler(request).executeWorkItem(workItem, manager);
+
+        verify(manager, timeout(5000)).abortWorkItem("2");
+        verify(manager, never()).completeWorkItem(anyString(), any());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static HttpRequest<Buffer> mockRequest() {
+        return mock(HttpRequest.class);
+    }
+
+    private static RestWorkItemHandler asyncHandler(HttpRequest<Buffer> request) {
+        WebClient webClient = mock(WebClient.class);
+        when(webClient.request(HttpMethod.GET, 8080, "localhost", "/results/26")).thenReturn(request);
+        return new RestWorkItemHandler(webClient, true, 0L, 0, RestWorkItemHandler.DEFAULT_RETRY_BACKOFF, Runnable::run);
+    }
+
+    private static Map<String, Object> asyncParameters() {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put(RestWorkItemHandler.ENDPOINT, "http://localhost:8080/results/26");
+        parameters.put(RestWorkItemHandler.METHOD, "GET");
+        parameters.put(RestWorkItemHandler.RESULT_HANDLER, new JSonPathResultHandler());
+        parameters.put(RestWorkItemHandler.PARAMETER, new ObjectMapper().createObjectNode());
+        return parameters;
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static KogitoWorkItem asyncWorkItem(UnitOfWorkManager unitOfWorkManager, ProcessInstance processInstance) {
+        InternalProcessRuntime processRuntime = mock(InternalProcessRuntime.class);
+        when(processRuntime.getUnitOfWorkManager()).thenReturn(unitOfWorkManager);
+        InternalKnowledgeRuntime knowledgeRuntime = mock(InternalKnowledgeRuntime.class);
+        when(knowledgeRuntime.getProcessRuntime()).thenReturn(processRuntime);
+        ProcessInstanceImpl engineProcessInstance = mock(ProcessInstanceImpl.class);
+        when(engineProcessInstance.getKnowledgeRuntime()).thenReturn(knowledgeRuntime);
+        when(engineProcessInstance.getMetaData()).thenReturn(Collections.singletonMap("KogitoProcessInstance", processInstance));
+
+        MutableProcessInstances instances = mock(MutableProcessInstances.class);
+        when(instances.findById("pi-1")).thenReturn(Optional.of(processInstance));
+        Process process = mock(Process.class);
+        when(process.instances()).thenReturn(instances);
+        when(processInstance.id()).thenReturn("pi-1");
+        when(processInstance.process()).thenReturn(process);
+
+        KogitoWorkItem workItem = mock(KogitoWorkItem.class);
+        when(workItem.getStringId()).thenReturn("2");
+        when(workItem.getParameters()).thenReturn(asyncParameters());
+        when(workItem.getProcessInstance()).thenReturn(engineProcessInstance);
+        return workItem;
+    }
 }